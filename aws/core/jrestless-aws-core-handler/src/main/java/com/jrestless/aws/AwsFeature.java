@@ -22,12 +22,19 @@ import javax.inject.Provider;
 import javax.ws.rs.core.Feature;
 import javax.ws.rs.core.FeatureContext;
 
+import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.collection.Ref;
 
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.jrestless.core.container.dpi.AbstractReferencingBinder;
+import com.jrestless.core.container.dpi.InvocationScope;
+import com.jrestless.core.container.dpi.StaticBinding;
+import com.jrestless.core.container.dpi.StaticBindings;
 
 /**
  * Binds AWS specific values.
@@ -45,6 +52,12 @@ import com.jrestless.core.container.dpi.AbstractReferencingBinder;
  * <td>request
  * </tr>
  * </table>
+ * <p>
+ * If the application enables
+ * {@link InvocationScope#PROXY_FREE_INJECTION_PROPERTY}, the
+ * {@link InvocationScope} is bound and {@link Context} is bound to a singleton
+ * that delegates to the current invocation's context instead of a
+ * request-scoped proxy. {@link #CONTEXT_TYPE} is not bound in that case.
  *
  * @author Bjoern Bilger
  *
@@ -55,22 +68,105 @@ public class AwsFeature implements Feature {
 
 	@Override
 	public boolean configure(FeatureContext context) {
-		context.register(new Binder());
+		context.register(new Binder(StaticBindings.getServiceLocator(context),
+				InvocationScope.isEnabled(context.getConfiguration())));
 		return true;
 	}
 
 	private static class Binder extends AbstractReferencingBinder {
+		private final boolean proxyFree;
+
+		Binder(ServiceLocator serviceLocator, boolean proxyFree) {
+			super(serviceLocator);
+			this.proxyFree = proxyFree;
+		}
+
 		@Override
 		protected void configure() {
-			bindReferencingFactory(Context.class, ReferencingContextFactory.class, new TypeLiteral<Ref<Context>>() { });
+			if (proxyFree) {
+				InvocationScope.bind(this);
+				bindInvocationScopedDelegate(Context.class, InvocationScopedContext.class);
+			} else {
+				bindReferencingFactory(Context.class, ReferencingContextFactory.class,
+						new TypeLiteral<Ref<Context>>() { });
+			}
 		}
 	}
 
-	private static class ReferencingContextFactory extends ReferencingFactory<Context> {
+	@StaticBinding
+	static class ReferencingContextFactory extends ReferencingFactory<Context> {
 		@Inject
 		ReferencingContextFactory(Provider<Ref<Context>> referenceFactory) {
 			super(referenceFactory);
 		}
 	}
 
+	@StaticBinding
+	static class InvocationScopedContext implements Context {
+		private final InvocationScope invocationScope;
+
+		@Inject
+		InvocationScopedContext(InvocationScope invocationScope) {
+			this.invocationScope = invocationScope;
+		}
+
+		private Context current() {
+			return invocationScope.get(Context.class);
+		}
+
+		@Override
+		public String getAwsRequestId() {
+			return current().getAwsRequestId();
+		}
+
+		@Override
+		public String getLogGroupName() {
+			return current().getLogGroupName();
+		}
+
+		@Override
+		public String getLogStreamName() {
+			return current().getLogStreamName();
+		}
+
+		@Override
+		public String getFunctionName() {
+			return current().getFunctionName();
+		}
+
+		@Override
+		public String getFunctionVersion() {
+			return current().getFunctionVersion();
+		}
+
+		@Override
+		public String getInvokedFunctionArn() {
+			return current().getInvokedFunctionArn();
+		}
+
+		@Override
+		public CognitoIdentity getIdentity() {
+			return current().getIdentity();
+		}
+
+		@Override
+		public ClientContext getClientContext() {
+			return current().getClientContext();
+		}
+
+		@Override
+		public int getRemainingTimeInMillis() {
+			return current().getRemainingTimeInMillis();
+		}
+
+		@Override
+		public int getMemoryLimitInMB() {
+			return current().getMemoryLimitInMB();
+		}
+
+		@Override
+		public LambdaLogger getLogger() {
+			return current().getLogger();
+		}
+	}
 }
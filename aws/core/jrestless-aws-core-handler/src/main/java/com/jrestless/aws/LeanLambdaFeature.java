@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+
+import org.glassfish.jersey.CommonProperties;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Disables Jersey's auto-discovery and optional subsystems that are meant for
+ * long-running servers and registers an explicit list of providers instead.
+ * <p>
+ * The following subsystems are disabled unless the application sets the
+ * respective property explicitly:
+ * <ul>
+ * <li>auto-discovery of features ({@link CommonProperties#FEATURE_AUTO_DISCOVERY_DISABLE})
+ * <li>META-INF/services lookup of providers ({@link CommonProperties#METAINF_SERVICES_LOOKUP_DISABLE})
+ * <li>WADL ({@link ServerProperties#WADL_FEATURE_DISABLE})
+ * <li>bean validation ({@link ServerProperties#BV_FEATURE_DISABLE})
+ * <li>JSON-P ({@link CommonProperties#JSON_PROCESSING_FEATURE_DISABLE})
+ * <li>MOXy ({@link CommonProperties#MOXY_JSON_FEATURE_DISABLE})
+ * </ul>
+ * Jersey performs auto-discovery before it configures any feature, so the
+ * properties must be set on the application up front, which
+ * {@link #apply(ResourceConfig, Class...)} does:
+ *
+ * <pre>
+ * {@code
+ * ResourceConfig config = LeanLambdaFeature.apply(new ResourceConfig(), JacksonFeature.class, GatewayFeature.class);
+ * }
+ * </pre>
+ *
+ * Anything that used to be discovered - e.g. {@code JacksonFeature} - must be
+ * passed to the feature. Once configured, the feature logs the skipped
+ * subsystems and warns about those that were set too late to take effect.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class LeanLambdaFeature implements Feature {
+
+	/**
+	 * The properties the feature sets along with the subsystem they disable.
+	 */
+	public static final Map<String, String> DISABLED_SUBSYSTEMS;
+
+	private static final Logger LOG = LoggerFactory.getLogger(LeanLambdaFeature.class);
+
+	/*
+	 * the properties Jersey (or an auto-discoverable) reads before any feature
+	 * gets configured
+	 */
+	private static final List<String> EARLY_PROPERTIES = Arrays.asList(CommonProperties.FEATURE_AUTO_DISCOVERY_DISABLE,
+			CommonProperties.METAINF_SERVICES_LOOKUP_DISABLE, CommonProperties.JSON_PROCESSING_FEATURE_DISABLE,
+			CommonProperties.MOXY_JSON_FEATURE_DISABLE);
+
+	static {
+		Map<String, String> disabledSubsystems = new LinkedHashMap<>();
+		disabledSubsystems.put(CommonProperties.FEATURE_AUTO_DISCOVERY_DISABLE, "auto-discovery");
+		disabledSubsystems.put(CommonProperties.METAINF_SERVICES_LOOKUP_DISABLE, "META-INF/services lookup");
+		disabledSubsystems.put(ServerProperties.WADL_FEATURE_DISABLE, "WADL");
+		disabledSubsystems.put(ServerProperties.BV_FEATURE_DISABLE, "bean validation");
+		disabledSubsystems.put(CommonProperties.JSON_PROCESSING_FEATURE_DISABLE, "JSON-P");
+		disabledSubsystems.put(CommonProperties.MOXY_JSON_FEATURE_DISABLE, "MOXy");
+		DISABLED_SUBSYSTEMS = Collections.unmodifiableMap(disabledSubsystems);
+	}
+
+	private final List<Class<?>> providers;
+	private volatile List<String> skipped = Collections.emptyList();
+
+	/**
+	 * @param providers
+	 *            the providers and features to register instead of discovering
+	 *            them
+	 */
+	public LeanLambdaFeature(@Nonnull Class<?>... providers) {
+		requireNonNull(providers, "providers may not be null");
+		this.providers = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(providers)));
+	}
+
+	/**
+	 * Disables the subsystems on the given configuration and registers the
+	 * feature with the given providers.
+	 * <p>
+	 * Properties the configuration sets already are not overridden.
+	 *
+	 * @param config
+	 * @param providers
+	 *            the providers and features to register instead of discovering
+	 *            them
+	 * @return the passed configuration
+	 */
+	@Nonnull
+	public static ResourceConfig apply(@Nonnull ResourceConfig config, @Nonnull Class<?>... providers) {
+		requireNonNull(config, "config may not be null");
+		for (String property : DISABLED_SUBSYSTEMS.keySet()) {
+			if (config.getProperty(property) == null) {
+				config.property(property, true);
+			}
+		}
+		return config.register(new LeanLambdaFeature(providers));
+	}
+
+	@Override
+	public boolean configure(FeatureContext context) {
+		Configuration configuration = context.getConfiguration();
+		List<String> skippedSubsystems = new ArrayList<>();
+		List<String> tooLate = new ArrayList<>();
+		for (Map.Entry<String, String> subsystem : DISABLED_SUBSYSTEMS.entrySet()) {
+			String property = subsystem.getKey();
+			Object value = configuration.getProperty(property);
+			if (value == null) {
+				context.property(property, true);
+				if (EARLY_PROPERTIES.contains(property)) {
+					tooLate.add(subsystem.getValue());
+					continue;
+				}
+			} else if (!Boolean.parseBoolean(value.toString())) {
+				continue;
+			}
+			skippedSubsystems.add(subsystem.getValue());
+		}
+		for (Class<?> provider : providers) {
+			context.register(provider);
+		}
+		skipped = Collections.unmodifiableList(skippedSubsystems);
+		LOG.info("lean startup: skipped {}; registered {} providers explicitly", skippedSubsystems, providers.size());
+		if (!tooLate.isEmpty()) {
+			LOG.warn("lean startup: {} already ran; use LeanLambdaFeature#apply to disable it", tooLate);
+		}
+		return true;
+	}
+
+	/**
+	 * @return the providers and features the feature registers
+	 */
+	@Nonnull
+	public List<Class<?>> getProviders() {
+		return providers;
+	}
+
+	/**
+	 * @return the subsystems that have been skipped when the feature was
+	 *         configured the last time
+	 */
+	@Nonnull
+	public List<String> getSkipped() {
+		return skipped;
+	}
+}
@@ -0,0 +1,84 @@
+package com.jrestless.aws;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.CommonProperties;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class LeanLambdaFeatureIntTest extends JerseyTest {
+
+	private LeanLambdaFeature feature;
+
+	@Override
+	protected Application configure() {
+		ResourceConfig config = LeanLambdaFeature.apply(new ResourceConfig(), JacksonFeature.class);
+		config.property(CommonProperties.MOXY_JSON_FEATURE_DISABLE, false);
+		config.register(TestResource.class);
+		feature = (LeanLambdaFeature) config.getInstances().stream()
+				.filter(LeanLambdaFeature.class::isInstance)
+				.findFirst()
+				.get();
+		return config;
+	}
+
+	@Test
+	public void configure_ShouldReportSkippedSubsystems() {
+		assertEquals(ImmutableList.of("auto-discovery", "META-INF/services lookup", "WADL", "bean validation",
+				"JSON-P"), feature.getSkipped());
+	}
+
+	@Test
+	public void configure_ShouldRegisterProviders() {
+		assertEquals(ImmutableList.of(JacksonFeature.class), feature.getProviders());
+		Response response = target("json").request().get();
+		assertEquals(200, response.getStatus());
+		assertEquals("{\"value\":\"a\"}", response.readEntity(String.class));
+	}
+
+	@Test
+	public void configure_ShouldDisableWadl() {
+		assertEquals(404, target("application.wadl").request().get().getStatus());
+	}
+
+	@Test
+	public void apply_ShouldNotOverrideExplicitProperties() {
+		ResourceConfig config = new ResourceConfig();
+		config.property(ServerProperties.WADL_FEATURE_DISABLE, false);
+		LeanLambdaFeature.apply(config);
+		assertEquals(false, config.getProperty(ServerProperties.WADL_FEATURE_DISABLE));
+		assertEquals(true, config.getProperty(CommonProperties.FEATURE_AUTO_DISCOVERY_DISABLE));
+	}
+
+	@Test
+	public void disabledSubsystems_ShouldContainAllProperties() {
+		assertTrue(LeanLambdaFeature.DISABLED_SUBSYSTEMS.containsKey(CommonProperties.METAINF_SERVICES_LOOKUP_DISABLE));
+		assertEquals(6, LeanLambdaFeature.DISABLED_SUBSYSTEMS.size());
+	}
+
+	@Path("/")
+	public static class TestResource {
+
+		@GET
+		@Path("json")
+		@Produces(MediaType.APPLICATION_JSON)
+		public Object json() {
+			return Collections.singletonMap("value", "a");
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.jrestless.aws;
+
+import static org.junit.Assert.assertEquals;
+
+import javax.ws.rs.core.Application;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class LeanLambdaFeatureLateIntTest extends JerseyTest {
+
+	private LeanLambdaFeature feature;
+
+	@Override
+	protected Application configure() {
+		feature = new LeanLambdaFeature();
+		return new ResourceConfig().register(feature).register(LeanLambdaFeatureIntTest.TestResource.class);
+	}
+
+	@Test
+	public void configure_FeatureRegisteredOnlyGiven_ShouldNotReportEarlySubsystems() {
+		assertEquals(ImmutableList.of("WADL", "bean validation"), feature.getSkipped());
+		assertEquals(404, target("application.wadl").request().get().getStatus());
+	}
+}
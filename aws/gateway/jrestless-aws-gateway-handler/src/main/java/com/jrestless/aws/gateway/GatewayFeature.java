@@ -16,12 +16,14 @@
 package com.jrestless.aws.gateway;
 
 import java.lang.reflect.Type;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.ws.rs.core.Feature;
 import javax.ws.rs.core.FeatureContext;
 
+import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.collection.Ref;
@@ -31,9 +33,13 @@ import com.jrestless.aws.gateway.io.GatewayBinaryReadInterceptor;
 import com.jrestless.aws.gateway.io.GatewayBinaryResponseCheckFilter;
 import com.jrestless.aws.gateway.io.GatewayBinaryWriteInterceptor;
 import com.jrestless.aws.gateway.io.GatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayRequestContext;
 import com.jrestless.aws.gateway.security.CognitoUserPoolAuthorizerFilter;
 import com.jrestless.aws.gateway.security.CustomAuthorizerFilter;
 import com.jrestless.core.container.dpi.AbstractReferencingBinder;
+import com.jrestless.core.container.dpi.InvocationScope;
+import com.jrestless.core.container.dpi.StaticBinding;
+import com.jrestless.core.container.dpi.StaticBindings;
 
 /**
  * Binds Gateway specific values and registers Gateway specific features.
@@ -55,6 +61,11 @@ import com.jrestless.core.container.dpi.AbstractReferencingBinder;
  *
  * </table>
  * <p>
+ * If the application enables
+ * {@link InvocationScope#PROXY_FREE_INJECTION_PROPERTY}, {@link GatewayRequest} is
+ * bound to a singleton that delegates to the current invocation's request instead
+ * of a request-scoped proxy. {@link #GATEWAY_REQUEST_TYPE} is not bound in that case.
+ * <p>
  * Registers features:
  * <ul>
  * <li>{@link AwsFeature}
@@ -74,7 +85,8 @@ public class GatewayFeature implements Feature {
 
 	@Override
 	public boolean configure(FeatureContext context) {
-		context.register(new Binder());
+		context.register(new Binder(StaticBindings.getServiceLocator(context),
+				InvocationScope.isEnabled(context.getConfiguration())));
 		context.register(GatewayBinaryReadInterceptor.class);
 		context.register(GatewayBinaryResponseCheckFilter.class);
 		context.register(GatewayBinaryWriteInterceptor.class);
@@ -85,17 +97,93 @@ public class GatewayFeature implements Feature {
 	}
 
 	private static class Binder extends AbstractReferencingBinder {
+		private final boolean proxyFree;
+
+		Binder(ServiceLocator serviceLocator, boolean proxyFree) {
+			super(serviceLocator);
+			this.proxyFree = proxyFree;
+		}
+
 		@Override
 		protected void configure() {
-			bindReferencingFactory(GatewayRequest.class, ReferencingGatewayRequestFactory.class,
-					new TypeLiteral<Ref<GatewayRequest>>() { });
+			if (proxyFree) {
+				bindInvocationScopedDelegate(GatewayRequest.class, InvocationScopedGatewayRequest.class);
+			} else {
+				bindReferencingFactory(GatewayRequest.class, ReferencingGatewayRequestFactory.class,
+						new TypeLiteral<Ref<GatewayRequest>>() { });
+			}
 		}
 	}
 
-	private static class ReferencingGatewayRequestFactory extends ReferencingFactory<GatewayRequest> {
+	@StaticBinding
+	static class ReferencingGatewayRequestFactory extends ReferencingFactory<GatewayRequest> {
 		@Inject
 		ReferencingGatewayRequestFactory(final Provider<Ref<GatewayRequest>> referenceFactory) {
 			super(referenceFactory);
 		}
 	}
+
+	@StaticBinding
+	static class InvocationScopedGatewayRequest implements GatewayRequest {
+		private final InvocationScope invocationScope;
+
+		@Inject
+		InvocationScopedGatewayRequest(InvocationScope invocationScope) {
+			this.invocationScope = invocationScope;
+		}
+
+		private GatewayRequest current() {
+			return invocationScope.get(GatewayRequest.class);
+		}
+
+		@Override
+		public String getResource() {
+			return current().getResource();
+		}
+
+		@Override
+		public String getPath() {
+			return current().getPath();
+		}
+
+		@Override
+		public String getHttpMethod() {
+			return current().getHttpMethod();
+		}
+
+		@Override
+		public Map<String, String> getHeaders() {
+			return current().getHeaders();
+		}
+
+		@Override
+		public Map<String, String> getQueryStringParameters() {
+			return current().getQueryStringParameters();
+		}
+
+		@Override
+		public Map<String, String> getPathParameters() {
+			return current().getPathParameters();
+		}
+
+		@Override
+		public Map<String, String> getStageVariables() {
+			return current().getStageVariables();
+		}
+
+		@Override
+		public GatewayRequestContext getRequestContext() {
+			return current().getRequestContext();
+		}
+
+		@Override
+		public String getBody() {
+			return current().getBody();
+		}
+
+		@Override
+		public boolean isBase64Encoded() {
+			return current().isBase64Encoded();
+		}
+	}
 }
@@ -26,11 +26,17 @@ import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
 
+import javax.annotation.Nonnull;
+
+import javax.ws.rs.core.Configuration;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.Response.StatusType;
 
@@ -45,9 +51,15 @@ import com.jrestless.aws.gateway.GatewayFeature;
 import com.jrestless.aws.gateway.io.GatewayBinaryReadInterceptor;
 import com.jrestless.aws.gateway.io.GatewayRequest;
 import com.jrestless.aws.gateway.io.GatewayResponse;
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.dpi.InvocationScope;
 import com.jrestless.core.container.handler.SimpleRequestHandler;
+import com.jrestless.core.container.io.Base64StringInputStream;
 import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.ReusableByteArrayOutputStream;
+import com.jrestless.core.container.io.Utf8StringInputStream;
+import com.jrestless.core.util.ExpandedHeaderMap;
 import com.jrestless.core.util.HeaderUtils;
 
 /**
@@ -55,9 +67,11 @@ import com.jrestless.core.util.HeaderUtils;
  * <p>
  * Note: we don't implement
  * {@link com.amazonaws.services.lambda.runtime.RequestHandler RequestHandler}
- * in case we need
+ * since there's a
+ * {@link com.amazonaws.services.lambda.runtime.RequestHandler RequestHandler}
+ * ({@link GatewayRequestObjectHandler}) and a
  * {@link com.amazonaws.services.lambda.runtime.RequestStreamHandler
- * RequestStreamHandler} at some point.
+ * RequestStreamHandler} ({@link GatewayRequestStreamHandler}) variant.
  *
  * @author Bjoern Bilger
  *
@@ -67,7 +81,12 @@ public abstract class GatewayRequestHandler
 
 	private static final Logger LOG = LoggerFactory.getLogger(GatewayRequestHandler.class);
 
+	private static final int MAX_RESPONSE_SIZE_HINTS = 1024;
+
 	private final URI baseUri;
+	private final InvocationScope.Resolver invocationScopeResolver = new InvocationScope.Resolver();
+	private final Map<String, Integer> responseSizeHints = new ConcurrentHashMap<>();
+	private volatile BinaryReadInterceptorRegistration binaryReadInterceptorRegistration;
 
 	protected GatewayRequestHandler() {
 		this(URI.create("/"));
@@ -83,16 +102,46 @@ public abstract class GatewayRequestHandler
 		GatewayRequest request = requestAndLambdaContext.getGatewayRequest();
 		requireNonNull(request);
 		requireNonNull(request.getPath());
+		InputStream entityStream = createEntityStream(request);
+		URI requestUri = URI.create(appendQueryParams(request.getPath(), request.getQueryStringParameters()));
+		return new DefaultJRestlessContainerRequest(baseUri, requestUri, request.getHttpMethod(), entityStream,
+				new ExpandedHeaderMap(request.getHeaders()));
+	}
+
+	/**
+	 * Creates the entity stream from the request's body.
+	 * <p>
+	 * The body is neither copied nor encoded up front: the stream encodes the
+	 * body as UTF-8 while it's read. Base64 encoded bodies
+	 * ({@link GatewayRequest#isBase64Encoded()}) are decoded in place instead
+	 * of by {@link GatewayBinaryReadInterceptor} - if the interceptor has been
+	 * registered (cf. {@link GatewayFeature}). Without the interceptor
+	 * resources receive the encoded body.
+	 */
+	private InputStream createEntityStream(GatewayRequest request) {
 		String body = request.getBody();
-		InputStream entityStream;
-		if (body != null) {
-			entityStream = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+		if (body == null) {
+			return new ByteArrayInputStream(new byte[0]);
+		} else if (request.isBase64Encoded() && isBinaryReadInterceptorRegistered()) {
+			return new Base64StringInputStream(body);
 		} else {
-			entityStream = new ByteArrayInputStream(new byte[0]);
+			return new Utf8StringInputStream(body);
 		}
-		URI requestUri = URI.create(appendQueryParams(request.getPath(), request.getQueryStringParameters()));
-		return new DefaultJRestlessContainerRequest(baseUri, requestUri, request.getHttpMethod(), entityStream,
-				HeaderUtils.expandHeaders(request.getHeaders()));
+	}
+
+	private boolean isBinaryReadInterceptorRegistered() {
+		JRestlessHandlerContainer<JRestlessContainerRequest> container = getContainer();
+		Configuration configuration = container == null ? null : container.getConfiguration();
+		if (configuration == null) {
+			return false;
+		}
+		// the configuration changes on reload, only
+		BinaryReadInterceptorRegistration registration = binaryReadInterceptorRegistration;
+		if (registration == null || registration.configuration != configuration) {
+			registration = new BinaryReadInterceptorRegistration(configuration);
+			binaryReadInterceptorRegistration = registration;
+		}
+		return registration.registered;
 	}
 
 	private String appendQueryParams(String requestUri, Map<String, String> queryParameters) {
@@ -129,6 +178,12 @@ public abstract class GatewayRequestHandler
 		GatewayRequest request = requestAndLambdaContext.getGatewayRequest();
 		Context lambdaContext = requestAndLambdaContext.getLambdaContext();
 		actualContainerRequest.setRequestScopedInitializer(locator -> {
+			if (invocationScopeResolver.enter(locator, actualContainerRequest)) {
+				// proxy-free injection: the values are read from the container request
+				InvocationScope.setValue(actualContainerRequest, GatewayRequest.class, request);
+				InvocationScope.setValue(actualContainerRequest, Context.class, lambdaContext);
+				return;
+			}
 			Ref<GatewayRequest> gatewayRequestRef = locator
 					.<Ref<GatewayRequest>>getService(GatewayFeature.GATEWAY_REQUEST_TYPE);
 			if (gatewayRequestRef != null) {
@@ -143,14 +198,43 @@ public abstract class GatewayRequestHandler
 				LOG.error("AwsFeature has not been registered. Context injection won't work.");
 			}
 		});
+		/*
+		 * base64 encoded bodies may have been decoded in place by the entity
+		 * stream already; the read interceptor must not decode them again.
+		 */
+		boolean decoded = containerRequest.getEntityStream() instanceof Base64StringInputStream;
 		actualContainerRequest.setProperty(GatewayBinaryReadInterceptor.PROPERTY_BASE_64_ENCODED_REQUEST,
-				request.isBase64Encoded());
+				request.isBase64Encoded() && !decoded);
 	}
 
 	@Override
 	protected SimpleResponseWriter<GatewayResponse> createResponseWriter(
 			GatewayRequestAndLambdaContext requestAndContext) {
-		return new ResponseWriter();
+		String resourceMethod = getResourceMethod(requestAndContext);
+		if (resourceMethod == null) {
+			return new ResponseWriter();
+		}
+		Integer sizeHint = responseSizeHints.get(resourceMethod);
+		return new ResponseWriter(sizeHint == null ? 0 : sizeHint,
+				size -> recordResponseSize(resourceMethod, size));
+	}
+
+	/*
+	 * The resource template matched by API Gateway together with the HTTP
+	 * method identifies the resource method.
+	 */
+	private static String getResourceMethod(GatewayRequestAndLambdaContext requestAndContext) {
+		GatewayRequest request = requestAndContext == null ? null : requestAndContext.getGatewayRequest();
+		if (request == null || request.getResource() == null) {
+			return null;
+		}
+		return request.getHttpMethod() + " " + request.getResource();
+	}
+
+	private void recordResponseSize(String resourceMethod, int size) {
+		if (responseSizeHints.size() < MAX_RESPONSE_SIZE_HINTS || responseSizeHints.containsKey(resourceMethod)) {
+			responseSizeHints.put(resourceMethod, size);
+		}
 	}
 
 	@Override
@@ -160,6 +244,19 @@ public abstract class GatewayRequestHandler
 		return new GatewayResponse(null, Collections.emptyMap(), Status.INTERNAL_SERVER_ERROR, false);
 	}
 
+	private static final class BinaryReadInterceptorRegistration {
+		private final Configuration configuration;
+		private final boolean registered;
+
+		BinaryReadInterceptorRegistration(Configuration configuration) {
+			this.configuration = configuration;
+			this.registered = configuration.getClasses().stream()
+					.anyMatch(GatewayBinaryReadInterceptor.class::isAssignableFrom)
+					|| configuration.getInstances().stream()
+					.anyMatch(GatewayBinaryReadInterceptor.class::isInstance);
+		}
+	}
+
 	public static class QueryParameterEncodingException extends RuntimeException {
 
 		private static final long serialVersionUID = -7545175514996382745L;
@@ -169,16 +266,45 @@ public abstract class GatewayRequestHandler
 		}
 	}
 
+	/**
+	 * Response writer creating a {@link GatewayResponse}.
+	 * <p>
+	 * The entity is buffered in a {@link ReusableByteArrayOutputStream}, so the
+	 * buffer gets reused by subsequent requests on the same thread.
+	 * <p>
+	 * The entity of a binary response has been base64 encoded by
+	 * {@link com.jrestless.aws.gateway.io.GatewayBinaryWriteInterceptor} and
+	 * thus is pure ASCII. Its body is created as ISO-8859-1 which is a plain
+	 * copy of the buffer's bytes.
+	 *
+	 * @author Bjoern Bilger
+	 *
+	 */
 	protected static class ResponseWriter implements SimpleResponseWriter<GatewayResponse> {
+		private final int sizeHint;
+		private final IntConsumer responseSizeListener;
 		private GatewayResponse response;
 
 		public ResponseWriter() {
 			// allow usage by GatewayRequestHandler subclasses
+			this(0, size -> { });
+		}
+
+		/**
+		 * @param sizeHint
+		 *            the expected size of the response body in bytes
+		 * @param responseSizeListener
+		 *            gets informed about the actual size of the response body
+		 *            in bytes
+		 */
+		public ResponseWriter(int sizeHint, @Nonnull IntConsumer responseSizeListener) {
+			this.sizeHint = sizeHint;
+			this.responseSizeListener = requireNonNull(responseSizeListener);
 		}
 
 		@Override
 		public OutputStream getEntityOutputStream() {
-			return new ByteArrayOutputStream();
+			return ReusableByteArrayOutputStream.acquire(sizeHint);
 		}
 
 		@Override
@@ -190,10 +316,24 @@ public abstract class GatewayRequestHandler
 					&& "true".equals(binaryResponseHeader.get(0));
 			Map<String, String> flattenedHeaders = HeaderUtils.flattenHeaders(headers,
 					headerName -> !HEADER_BINARY_RESPONSE.equals(headerName));
-			String body = ((ByteArrayOutputStream) entityOutputStream).toString(StandardCharsets.UTF_8.name());
+			Charset charset = binaryResponse ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+			String body = toBody(entityOutputStream, charset);
 			response = new GatewayResponse(body, flattenedHeaders, statusType, binaryResponse);
 		}
 
+		private String toBody(OutputStream entityOutputStream, Charset charset) throws IOException {
+			if (entityOutputStream instanceof ReusableByteArrayOutputStream) {
+				ReusableByteArrayOutputStream buffer = (ReusableByteArrayOutputStream) entityOutputStream;
+				try {
+					responseSizeListener.accept(buffer.size());
+					return buffer.toString(charset);
+				} finally {
+					buffer.release();
+				}
+			}
+			return ((ByteArrayOutputStream) entityOutputStream).toString(charset.name());
+		}
+
 		@Override
 		public GatewayResponse getResponse() {
 			return response;
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.handler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayRequestJsonReader;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+import com.jrestless.aws.gateway.io.GatewayResponseJsonWriter;
+
+/**
+ * AWS lambda request (stream) handler that uses
+ * {@link com.jrestless.core.container.JRestlessHandlerContainer} and so Jersey
+ * to process incoming requests from AWS API Gateay.
+ * <p>
+ * In contrast to {@link GatewayRequestObjectHandler} the request is read
+ * directly from the Lambda input stream and the response is written directly
+ * to the Lambda output stream, so the Lambda runtime's reflective
+ * (de-)serialization is bypassed.
+ * <p>
+ * Implementations must provide a no-args constructor.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public abstract class GatewayRequestStreamHandler extends GatewayRequestHandler implements RequestStreamHandler {
+
+	protected GatewayRequestStreamHandler() {
+		super();
+	}
+
+	protected GatewayRequestStreamHandler(URI baseUri) {
+		super(baseUri);
+	}
+
+	@Override
+	public void handleRequest(InputStream inputStream, OutputStream outputStream, Context lambdaContext)
+			throws IOException {
+		DefaultGatewayRequest request = GatewayRequestJsonReader.read(inputStream);
+		GatewayResponse response = delegateRequest(new GatewayRequestAndLambdaContext(request, lambdaContext));
+		GatewayResponseJsonWriter.write(response, outputStream);
+	}
+}
@@ -34,7 +34,10 @@ import javax.ws.rs.ext.ReaderInterceptorContext;
  * Note: the property
  * {@value GatewayBinaryReadInterceptor#PROPERTY_BASE_64_ENCODED_REQUEST} should
  * be set to true if the request is flagged as being base64-encoded; see
- * {@link com.jrestless.aws.gateway.io.GatewayRequest#isBase64Encoded()}
+ * {@link com.jrestless.aws.gateway.io.GatewayRequest#isBase64Encoded()}.
+ * {@link com.jrestless.aws.gateway.handler.GatewayRequestHandler} decodes
+ * base64-encoded bodies in place, already, and so doesn't set the property to
+ * true unless a custom entity stream is used.
  * <p>
  * Note: AWS API Gateway will set
  * {@link com.jrestless.aws.gateway.io.GatewayRequest#isBase64Encoded()} to true
@@ -16,13 +16,13 @@
 package com.jrestless.aws.gateway.io;
 
 import java.io.IOException;
-import java.util.Base64;
 
 import javax.annotation.Priority;
 import javax.ws.rs.Priorities;
 import javax.ws.rs.ext.WriterInterceptor;
 import javax.ws.rs.ext.WriterInterceptorContext;
 
+import com.jrestless.core.container.io.Base64EncodingOutputStream;
 
 /**
  * Write interceptor that encodes the response in base64 if the first
@@ -32,6 +32,10 @@ import javax.ws.rs.ext.WriterInterceptorContext;
  * The set priority makes sure that the interceptor is called after any other
  * entity coder.
  * <p>
+ * The encoded response consists of ASCII characters only which allows
+ * {@link com.jrestless.aws.gateway.handler.GatewayRequestHandler} to create the
+ * response body without decoding UTF-8.
+ * <p>
  * Note: AWS API Gateway will convert the base64 encoded response into binary
  * data only if
  * <ol>
@@ -53,7 +57,7 @@ public class GatewayBinaryWriteInterceptor implements WriterInterceptor {
 	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
 		Object headerValue = context.getHeaders().getFirst(GatewayBinaryResponseCheckFilter.HEADER_BINARY_RESPONSE);
 		if (Boolean.TRUE.equals(headerValue)) {
-			context.setOutputStream(Base64.getEncoder().wrap(context.getOutputStream()));
+			context.setOutputStream(new Base64EncodingOutputStream(context.getOutputStream()));
 		}
 		context.proceed();
 	}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads the request passed from AWS API Gateway (Lambda proxy integration)
+ * into a {@link DefaultGatewayRequest} using a streaming JSON parser.
+ * <p>
+ * Unknown properties are skipped. The input stream is not closed.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class GatewayRequestJsonReader {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory()
+			.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+	private GatewayRequestJsonReader() {
+	}
+
+	/**
+	 * Reads a {@link DefaultGatewayRequest} from the given JSON input stream.
+	 *
+	 * @param inputStream
+	 * @return the request or {@code null} if the JSON value is {@code null}
+	 * @throws IOException
+	 *             if the input cannot be read or is not a valid request
+	 */
+	@Nullable
+	public static DefaultGatewayRequest read(@Nonnull InputStream inputStream) throws IOException {
+		requireNonNull(inputStream, "inputStream may not be null");
+		try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+			JsonToken token = parser.nextToken();
+			if (token == null || token == JsonToken.VALUE_NULL) {
+				return null;
+			}
+			return readRequest(parser);
+		}
+	}
+
+	private static DefaultGatewayRequest readRequest(JsonParser parser) throws IOException {
+		expectStartObject(parser);
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			switch (fieldName) {
+			case "resource":
+				request.setResource(parser.getValueAsString());
+				break;
+			case "path":
+				request.setPath(parser.getValueAsString());
+				break;
+			case "httpMethod":
+				request.setHttpMethod(parser.getValueAsString());
+				break;
+			case "headers":
+				request.setHeaders(readStringMap(parser));
+				break;
+			case "queryStringParameters":
+				request.setQueryStringParameters(readStringMap(parser));
+				break;
+			case "pathParameters":
+				request.setPathParameters(readStringMap(parser));
+				break;
+			case "stageVariables":
+				request.setStageVariables(readStringMap(parser));
+				break;
+			case "requestContext":
+				request.setRequestContext(readRequestContext(parser));
+				break;
+			case "body":
+				request.setBody(parser.getValueAsString());
+				break;
+			case "isBase64Encoded":
+				request.setIsBase64Encoded(parser.getValueAsBoolean());
+				break;
+			default:
+				parser.skipChildren();
+				break;
+			}
+		}
+		return request;
+	}
+
+	private static DefaultGatewayRequestContext readRequestContext(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expectStartObject(parser);
+		DefaultGatewayRequestContext requestContext = new DefaultGatewayRequestContext();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			switch (fieldName) {
+			case "accountId":
+				requestContext.setAccountId(parser.getValueAsString());
+				break;
+			case "resourceId":
+				requestContext.setResourceId(parser.getValueAsString());
+				break;
+			case "stage":
+				requestContext.setStage(parser.getValueAsString());
+				break;
+			case "requestId":
+				requestContext.setRequestId(parser.getValueAsString());
+				break;
+			case "identity":
+				requestContext.setIdentity(readIdentity(parser));
+				break;
+			case "resourcePath":
+				requestContext.setResourcePath(parser.getValueAsString());
+				break;
+			case "httpMethod":
+				requestContext.setHttpMethod(parser.getValueAsString());
+				break;
+			case "apiId":
+				requestContext.setApiId(parser.getValueAsString());
+				break;
+			case "authorizer":
+				requestContext.setAuthorizer(readObjectMap(parser));
+				break;
+			default:
+				parser.skipChildren();
+				break;
+			}
+		}
+		return requestContext;
+	}
+
+	private static DefaultGatewayIdentity readIdentity(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expectStartObject(parser);
+		DefaultGatewayIdentity identity = new DefaultGatewayIdentity();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			switch (fieldName) {
+			case "cognitoIdentityPoolId":
+				identity.setCognitoIdentityPoolId(parser.getValueAsString());
+				break;
+			case "accountId":
+				identity.setAccountId(parser.getValueAsString());
+				break;
+			case "cognitoIdentityId":
+				identity.setCognitoIdentityId(parser.getValueAsString());
+				break;
+			case "caller":
+				identity.setCaller(parser.getValueAsString());
+				break;
+			case "apiKey":
+				identity.setApiKey(parser.getValueAsString());
+				break;
+			case "sourceIp":
+				identity.setSourceIp(parser.getValueAsString());
+				break;
+			case "cognitoAuthenticationType":
+				identity.setCognitoAuthenticationType(parser.getValueAsString());
+				break;
+			case "cognitoAuthenticationProvider":
+				identity.setCognitoAuthenticationProvider(parser.getValueAsString());
+				break;
+			case "userArn":
+				identity.setUserArn(parser.getValueAsString());
+				break;
+			case "userAgent":
+				identity.setUserAgent(parser.getValueAsString());
+				break;
+			case "user":
+				identity.setUser(parser.getValueAsString());
+				break;
+			default:
+				parser.skipChildren();
+				break;
+			}
+		}
+		return identity;
+	}
+
+	private static Map<String, String> readStringMap(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expectStartObject(parser);
+		Map<String, String> map = new LinkedHashMap<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String key = parser.getCurrentName();
+			parser.nextToken();
+			map.put(key, parser.getValueAsString());
+		}
+		return map;
+	}
+
+	private static Map<String, Object> readObjectMap(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expectStartObject(parser);
+		Map<String, Object> map = new LinkedHashMap<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String key = parser.getCurrentName();
+			parser.nextToken();
+			map.put(key, readValue(parser));
+		}
+		return map;
+	}
+
+	private static List<Object> readList(JsonParser parser) throws IOException {
+		List<Object> list = new ArrayList<>();
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			list.add(readValue(parser));
+		}
+		return list;
+	}
+
+	private static Object readValue(JsonParser parser) throws IOException {
+		switch (parser.getCurrentToken()) {
+		case START_OBJECT:
+			return readObjectMap(parser);
+		case START_ARRAY:
+			return readList(parser);
+		case VALUE_STRING:
+			return parser.getText();
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return parser.getNumberValue();
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+		case VALUE_NULL:
+			return null;
+		default:
+			throw new JsonParseException(parser, "unexpected token " + parser.getCurrentToken());
+		}
+	}
+
+	private static void expectStartObject(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "expected an object but got " + parser.getCurrentToken());
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a {@link GatewayResponse} in the format expected by AWS API Gateway
+ * (Lambda proxy integration) using a streaming JSON generator.
+ * <p>
+ * The output stream is flushed but not closed.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class GatewayResponseJsonWriter {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory()
+			.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	private GatewayResponseJsonWriter() {
+	}
+
+	/**
+	 * Writes the given response as JSON to the output stream.
+	 *
+	 * @param response
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	public static void write(@Nonnull GatewayResponse response, @Nonnull OutputStream outputStream)
+			throws IOException {
+		requireNonNull(response, "response may not be null");
+		requireNonNull(outputStream, "outputStream may not be null");
+		try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeNumberField("statusCode", response.getStatusCode());
+			generator.writeObjectFieldStart("headers");
+			for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+				generator.writeStringField(header.getKey(), header.getValue());
+			}
+			generator.writeEndObject();
+			generator.writeStringField("body", response.getBody());
+			// APIGW expects the property to be called "isBase64Encoded"
+			generator.writeBooleanField("isBase64Encoded", response.isIsBase64Encoded());
+			generator.writeEndObject();
+		}
+	}
+}
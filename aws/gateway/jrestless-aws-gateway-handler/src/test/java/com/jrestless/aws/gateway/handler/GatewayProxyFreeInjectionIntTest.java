@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+
+import org.glassfish.hk2.api.ProxyCtl;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+import com.jrestless.core.container.dpi.InvocationScope;
+
+public class GatewayProxyFreeInjectionIntTest {
+
+	private static ExecutorService executor;
+
+	private GatewayRequestObjectHandlerIntTest.GatewayRequestObjectHandlerImpl handler;
+
+	@Before
+	public void setup() {
+		executor = Executors.newSingleThreadExecutor();
+		ResourceConfig config = new ResourceConfig();
+		config.property(InvocationScope.PROXY_FREE_INJECTION_PROPERTY, true);
+		config.register(GatewayFeature.class);
+		config.register(TestResource.class);
+		config.register(PathHeaderFilter.class);
+		handler = new GatewayRequestObjectHandlerIntTest.GatewayRequestObjectHandlerImpl();
+		handler.init(config);
+		handler.start();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testRequestScopedResourceInjection() {
+		assertEquals("/values:0", handle("/values", "0").getBody());
+		assertEquals("/values:1", handle("/values", "1").getBody());
+	}
+
+	@Test
+	public void testSingletonProviderInjection() {
+		assertEquals("/values", handle("/values", "0").getHeaders().get("X-Path"));
+		assertEquals("/other", handle("/other", "1").getHeaders().get("X-Path"));
+	}
+
+	@Test
+	public void testInjectedValuesAreNoProxies() {
+		assertEquals("false:false", handle("/proxies", "0").getBody());
+	}
+
+	@Test
+	public void testInjectionOnResumingThread() {
+		GatewayResponse response = handle("/async", "0");
+		assertEquals("/async:0", response.getBody());
+		assertEquals("/async", response.getHeaders().get("X-Path"));
+	}
+
+	private GatewayResponse handle(String path, String awsRequestId) {
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("GET");
+		request.setPath(path);
+		com.amazonaws.services.lambda.runtime.Context lambdaContext =
+				mock(com.amazonaws.services.lambda.runtime.Context.class);
+		when(lambdaContext.getAwsRequestId()).thenReturn(awsRequestId);
+		return handler.handleRequest(request, lambdaContext);
+	}
+
+	@Path("/")
+	public static class TestResource {
+		@Context
+		private GatewayRequest gatewayRequest;
+		@Context
+		private com.amazonaws.services.lambda.runtime.Context lambdaContext;
+
+		@GET
+		@Path("{path: values|other}")
+		public String values() {
+			return gatewayRequest.getPath() + ":" + lambdaContext.getAwsRequestId();
+		}
+
+		@GET
+		@Path("proxies")
+		public String proxies() {
+			return (gatewayRequest instanceof ProxyCtl) + ":" + (lambdaContext instanceof ProxyCtl);
+		}
+
+		@GET
+		@Path("async")
+		public void async(@Suspended AsyncResponse asyncResponse) {
+			// resumed - and thus filtered - on another thread within the request scope
+			String values = values();
+			executor.execute(() -> asyncResponse.resume(values));
+		}
+	}
+
+	@Singleton
+	public static class PathHeaderFilter implements ContainerResponseFilter {
+		@Context
+		private GatewayRequest gatewayRequest;
+
+		@Override
+		public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+			assertFalse(gatewayRequest instanceof ProxyCtl);
+			responseContext.getHeaders().putSingle("X-Path", gatewayRequest.getPath());
+		}
+	}
+}
@@ -18,8 +18,10 @@ package com.jrestless.aws.gateway.handler;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -29,7 +31,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -41,6 +45,7 @@ import javax.ws.rs.core.Response.Status;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.spi.RequestScopedInitializer;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,15 +54,21 @@ import org.mockito.ArgumentCaptor;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 import com.jrestless.aws.AwsFeature;
 import com.jrestless.aws.gateway.GatewayFeature;
 import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayBinaryReadInterceptor;
 import com.jrestless.aws.gateway.io.GatewayBinaryResponseCheckFilter;
 import com.jrestless.aws.gateway.io.GatewayRequest;
 import com.jrestless.aws.gateway.io.GatewayResponse;
 import com.jrestless.core.container.JRestlessHandlerContainer;
 import com.jrestless.core.container.handler.SimpleRequestHandler.SimpleResponseWriter;
+import com.jrestless.core.container.io.Base64StringInputStream;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.ReusableByteArrayOutputStream;
+import com.jrestless.core.container.io.Utf8StringInputStream;
 
 public class GatewayRequestHandlerTest {
 
@@ -153,13 +164,106 @@ public class GatewayRequestHandlerTest {
 	}
 
 	@Test
-	public void createContainerRequest_BodyGiven_ShouldUseBody() {
+	public void createContainerRequest_BodyGiven_ShouldUseBody() throws IOException {
 		GatewayRequestAndLambdaContext request = createMinimalRequest();
-		((DefaultGatewayRequest) request.getGatewayRequest()).setBody("abc");
+		((DefaultGatewayRequest) request.getGatewayRequest()).setBody("abc\u00e4");
 		JRestlessContainerRequest containerRequest = gatewayHandler.createContainerRequest(request);
 		InputStream is = containerRequest.getEntityStream();
-		assertEquals(ByteArrayInputStream.class, is.getClass());
-		assertEquals("abc", toString((ByteArrayInputStream) is));
+		assertEquals(Utf8StringInputStream.class, is.getClass());
+		assertEquals("abc\u00e4", new String(ByteStreams.toByteArray(is), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void createContainerRequest_Base64BodyAndReadInterceptorGiven_ShouldDecodeBody() throws IOException {
+		registerBinaryReadInterceptor();
+		GatewayRequestAndLambdaContext request = createMinimalRequest();
+		((DefaultGatewayRequest) request.getGatewayRequest()).setBody("YWJj");
+		((DefaultGatewayRequest) request.getGatewayRequest()).setIsBase64Encoded(true);
+		JRestlessContainerRequest containerRequest = gatewayHandler.createContainerRequest(request);
+		InputStream is = containerRequest.getEntityStream();
+		assertEquals(Base64StringInputStream.class, is.getClass());
+		assertEquals("abc", new String(ByteStreams.toByteArray(is), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void createContainerRequest_Base64BodyAndNoReadInterceptorGiven_ShouldNotDecodeBody() throws IOException {
+		when(container.getConfiguration()).thenReturn(new ResourceConfig());
+		GatewayRequestAndLambdaContext request = createMinimalRequest();
+		((DefaultGatewayRequest) request.getGatewayRequest()).setBody("YWJj");
+		((DefaultGatewayRequest) request.getGatewayRequest()).setIsBase64Encoded(true);
+		JRestlessContainerRequest containerRequest = gatewayHandler.createContainerRequest(request);
+		InputStream is = containerRequest.getEntityStream();
+		assertEquals(Utf8StringInputStream.class, is.getClass());
+		assertEquals("YWJj", new String(ByteStreams.toByteArray(is), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void createContainerRequest_Base64BodyAndReadInterceptorInstanceGiven_ShouldDecodeBody() {
+		when(container.getConfiguration()).thenReturn(new ResourceConfig().register(new GatewayBinaryReadInterceptor()));
+		GatewayRequestAndLambdaContext request = createMinimalRequest();
+		((DefaultGatewayRequest) request.getGatewayRequest()).setBody("YWJj");
+		((DefaultGatewayRequest) request.getGatewayRequest()).setIsBase64Encoded(true);
+		JRestlessContainerRequest containerRequest = gatewayHandler.createContainerRequest(request);
+		assertEquals(Base64StringInputStream.class, containerRequest.getEntityStream().getClass());
+	}
+
+	@Test
+	public void createContainerRequest_ConfigurationReloaded_ShouldReevaluateReadInterceptor() {
+		registerBinaryReadInterceptor();
+		GatewayRequestAndLambdaContext request = createMinimalRequest();
+		((DefaultGatewayRequest) request.getGatewayRequest()).setBody("YWJj");
+		((DefaultGatewayRequest) request.getGatewayRequest()).setIsBase64Encoded(true);
+		gatewayHandler.createContainerRequest(request);
+		when(container.getConfiguration()).thenReturn(new ResourceConfig());
+		JRestlessContainerRequest containerRequest = gatewayHandler.createContainerRequest(request);
+		assertEquals(Utf8StringInputStream.class, containerRequest.getEntityStream().getClass());
+	}
+
+	@Test
+	public void delegateRequest_Base64BodyAndReadInterceptorGiven_ShouldNotLetReadInterceptorDecodeAgain() {
+		registerBinaryReadInterceptor();
+		ContainerRequest containerRequest = extendContainerRequest("YWJj", true);
+		verify(containerRequest).setProperty(GatewayBinaryReadInterceptor.PROPERTY_BASE_64_ENCODED_REQUEST, false);
+	}
+
+	@Test
+	public void delegateRequest_Base64BodyAndNoReadInterceptorGiven_ShouldSetBase64Property() {
+		ContainerRequest containerRequest = extendContainerRequest("YWJj", true);
+		verify(containerRequest).setProperty(GatewayBinaryReadInterceptor.PROPERTY_BASE_64_ENCODED_REQUEST, true);
+	}
+
+	@Test
+	public void delegateRequest_NonBase64BodyGiven_ShouldNotLetReadInterceptorDecode() {
+		ContainerRequest containerRequest = extendContainerRequest("abc", false);
+		verify(containerRequest).setProperty(GatewayBinaryReadInterceptor.PROPERTY_BASE_64_ENCODED_REQUEST, false);
+	}
+
+	@Test
+	public void delegateRequest_Base64BodyAndCustomEntityStreamGiven_ShouldLetReadInterceptorDecode() {
+		doAnswer(invocation -> {
+			JRestlessContainerRequest original = (JRestlessContainerRequest) invocation.callRealMethod();
+			return new DefaultJRestlessContainerRequest(original.getBaseUri(), original.getRequestUri(),
+					original.getHttpMethod(), new ByteArrayInputStream("YWJj".getBytes()), original.getHeaders());
+		}).when(gatewayHandler).createContainerRequest(any());
+		ContainerRequest containerRequest = extendContainerRequest("YWJj", true);
+		verify(containerRequest).setProperty(GatewayBinaryReadInterceptor.PROPERTY_BASE_64_ENCODED_REQUEST, true);
+	}
+
+	private void registerBinaryReadInterceptor() {
+		when(container.getConfiguration()).thenReturn(new ResourceConfig(GatewayBinaryReadInterceptor.class));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ContainerRequest extendContainerRequest(String body, boolean base64Encoded) {
+		GatewayRequestAndLambdaContext request = createMinimalRequest();
+		((DefaultGatewayRequest) request.getGatewayRequest()).setBody(body);
+		((DefaultGatewayRequest) request.getGatewayRequest()).setIsBase64Encoded(base64Encoded);
+		ArgumentCaptor<Consumer> containerEnhancerCaptor = ArgumentCaptor.forClass(Consumer.class);
+		gatewayHandler.delegateRequest(request);
+		verify(container).handleRequest(any(), any(), any(), containerEnhancerCaptor.capture());
+		ContainerRequest containerRequest = mock(ContainerRequest.class);
+		containerEnhancerCaptor.getValue().accept(containerRequest);
+		return containerRequest;
 	}
 
 	@Test
@@ -282,6 +386,74 @@ public class GatewayRequestHandlerTest {
 		assertFalse(responseWriter.getResponse().isIsBase64Encoded());
 	}
 
+	@Test
+	public void testResponseWriterReleasesBufferForReuse() throws IOException {
+		SimpleResponseWriter<GatewayResponse> responseWriter = gatewayHandler.createResponseWriter(null);
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		entityOutputStream.write("\u00e4".getBytes(StandardCharsets.UTF_8));
+		responseWriter.writeResponse(Status.OK, new HashMap<>(), entityOutputStream);
+		assertEquals("\u00e4", responseWriter.getResponse().getBody());
+		assertSame(entityOutputStream, gatewayHandler.createResponseWriter(null).getEntityOutputStream());
+	}
+
+	@Test
+	public void testResponseWriterUsesPreviousResponseSizeOfResourceMethodAsSizeHint() throws IOException {
+		int size = 2 * 1024 * 1024;
+		GatewayRequestAndLambdaContext request = createRequest("GET", "/a/{id}");
+		SimpleResponseWriter<GatewayResponse> responseWriter = gatewayHandler.createResponseWriter(request);
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		entityOutputStream.write(new byte[size]);
+		responseWriter.writeResponse(Status.OK, new HashMap<>(), entityOutputStream);
+
+		ReusableByteArrayOutputStream sameResourceMethodBuffer = (ReusableByteArrayOutputStream) gatewayHandler
+				.createResponseWriter(request).getEntityOutputStream();
+		assertTrue(sameResourceMethodBuffer.capacity() >= size);
+		ReusableByteArrayOutputStream otherMethodBuffer = (ReusableByteArrayOutputStream) gatewayHandler
+				.createResponseWriter(createRequest("POST", "/a/{id}")).getEntityOutputStream();
+		assertTrue(otherMethodBuffer.capacity() < size);
+		ReusableByteArrayOutputStream otherResourceBuffer = (ReusableByteArrayOutputStream) gatewayHandler
+				.createResponseWriter(createRequest("GET", "/b")).getEntityOutputStream();
+		assertTrue(otherResourceBuffer.capacity() < size);
+	}
+
+	@Test
+	public void testResponseWriterAcceptsForeignEntityOutputStream() throws IOException {
+		SimpleResponseWriter<GatewayResponse> responseWriter = gatewayHandler
+				.createResponseWriter(createRequest("GET", "/a"));
+		ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+		entityOutputStream.write("body".getBytes(StandardCharsets.UTF_8));
+		responseWriter.writeResponse(Status.OK, new HashMap<>(), entityOutputStream);
+		assertEquals("body", responseWriter.getResponse().getBody());
+	}
+
+	@Test
+	public void testResponseWriterDecodesBinaryResponseAsLatin1() throws IOException {
+		Map<String, List<String>> headers = new HashMap<>();
+		headers.put(GatewayBinaryResponseCheckFilter.HEADER_BINARY_RESPONSE, Collections.singletonList("true"));
+		SimpleResponseWriter<GatewayResponse> responseWriter = gatewayHandler.createResponseWriter(null);
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		entityOutputStream.write(new byte[] {'a', (byte) 0xE4 });
+		responseWriter.writeResponse(Status.OK, headers, entityOutputStream);
+		assertEquals("a\u00e4", responseWriter.getResponse().getBody());
+	}
+
+	@Test
+	public void testResponseWriterDecodesNonBinaryResponseAsUtf8() throws IOException {
+		SimpleResponseWriter<GatewayResponse> responseWriter = gatewayHandler.createResponseWriter(null);
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		entityOutputStream.write(new byte[] {'a', (byte) 0xC3, (byte) 0xA4 });
+		responseWriter.writeResponse(Status.OK, new HashMap<>(), entityOutputStream);
+		assertEquals("a\u00e4", responseWriter.getResponse().getBody());
+	}
+
+	private GatewayRequestAndLambdaContext createRequest(String httpMethod, String resource) {
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setPath("/");
+		request.setHttpMethod(httpMethod);
+		request.setResource(resource);
+		return new GatewayRequestAndLambdaContext(request, null);
+	}
+
 	private GatewayRequestAndLambdaContext createMinimalRequest() {
 		DefaultGatewayRequest request = new DefaultGatewayRequest();
 		request.setPath("/");
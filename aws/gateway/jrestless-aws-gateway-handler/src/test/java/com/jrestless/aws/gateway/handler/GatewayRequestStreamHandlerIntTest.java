@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.handler;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.io.GatewayRequest;
+import com.jrestless.core.container.dpi.InstanceBinder;
+
+public class GatewayRequestStreamHandlerIntTest {
+
+	private GatewayRequestStreamHandlerImpl handler;
+	private TestService testService;
+	private Context context = mock(Context.class);
+
+	@Before
+	public void setup() {
+		ResourceConfig config = new ResourceConfig();
+		config.register(GatewayFeature.class);
+		testService = mock(TestService.class);
+		config.register(new InstanceBinder.Builder().addInstance(testService, TestService.class).build());
+		config.register(TestResource.class);
+		handler = new GatewayRequestStreamHandlerImpl();
+		handler.init(config);
+		handler.start();
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException, JSONException {
+		String request = "{\"resource\": \"/echo/{id}\", \"path\": \"/echo/1\", \"httpMethod\": \"POST\","
+				+ "\"headers\": {\"Content-Type\": \"text/plain\", \"Accept\": \"application/json\"},"
+				+ "\"pathParameters\": {\"id\": \"1\"}, \"body\": \"\u00e4\", \"isBase64Encoded\": false}";
+		String expectedResponse = "{\"statusCode\": 200, \"headers\": {\"Content-Type\": \"application/json\"},"
+				+ "\"body\": \"{\\\"id\\\": \\\"1\\\", \\\"value\\\": \\\"\u00e4\\\"}\", \"isBase64Encoded\": false}";
+		JSONAssert.assertEquals(expectedResponse, handle(request), true);
+	}
+
+	@Test
+	public void testGatewayRequestInjection() throws IOException {
+		handle("{\"path\": \"/inject-gateway-request\", \"httpMethod\": \"GET\","
+				+ "\"requestContext\": {\"stage\": \"dev\"}}");
+		verify(testService).injectedStage("dev");
+	}
+
+	@Test
+	public void testBase64Decoding() throws IOException {
+		handle("{\"path\": \"/binary-data\", \"httpMethod\": \"PUT\", \"body\": \"dGVzdA==\","
+				+ "\"isBase64Encoded\": true}");
+		verify(testService).binaryData("test".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testBase64BodyWithoutGatewayFeature() throws IOException {
+		ResourceConfig config = new ResourceConfig();
+		config.register(new InstanceBinder.Builder().addInstance(testService, TestService.class).build());
+		config.register(TestResource.class);
+		handler = new GatewayRequestStreamHandlerImpl();
+		handler.init(config);
+		handler.start();
+		handle("{\"path\": \"/binary-data\", \"httpMethod\": \"PUT\", \"body\": \"dGVzdA==\","
+				+ "\"isBase64Encoded\": true}");
+		verify(testService).binaryData("dGVzdA==".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testNotFound() throws IOException, JSONException {
+		String response = handle("{\"path\": \"/not-found\", \"httpMethod\": \"GET\"}");
+		JSONAssert.assertEquals("{\"statusCode\": 404, \"body\": \"\", \"isBase64Encoded\": false}", response,
+				false);
+	}
+
+	@Test
+	public void testNullRequestCreates500() throws IOException, JSONException {
+		String response = handle("null");
+		JSONAssert.assertEquals("{\"statusCode\": 500, \"headers\": {}, \"body\": null, \"isBase64Encoded\": false}",
+				response, true);
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void testInvalidRequestFails() throws IOException {
+		handle("[]");
+	}
+
+	private String handle(String request) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		handler.handleRequest(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)), out, context);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Path("/")
+	public static class TestResource {
+
+		private final TestService service;
+
+		@javax.inject.Inject
+		public TestResource(TestService service) {
+			this.service = service;
+		}
+
+		@POST
+		@Path("/echo/{id}")
+		@Consumes(MediaType.TEXT_PLAIN)
+		@Produces(MediaType.APPLICATION_JSON)
+		public String echo(@PathParam("id") String id, String body) {
+			return "{\"id\": \"" + id + "\", \"value\": \"" + body + "\"}";
+		}
+
+		@GET
+		@Path("/inject-gateway-request")
+		public void injectGatewayRequest(@javax.ws.rs.core.Context GatewayRequest request) {
+			service.injectedStage(request.getRequestContext().getStage());
+		}
+
+		@PUT
+		@Path("/binary-data")
+		public void putBinary(byte[] in) {
+			service.binaryData(in);
+		}
+	}
+
+	public interface TestService {
+		void injectedStage(String stage);
+		void binaryData(byte[] data);
+	}
+
+	public static class GatewayRequestStreamHandlerImpl extends GatewayRequestStreamHandler {
+	}
+}
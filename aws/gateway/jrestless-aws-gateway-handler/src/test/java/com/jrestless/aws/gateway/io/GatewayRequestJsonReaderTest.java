@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.google.common.collect.ImmutableMap;
+
+public class GatewayRequestJsonReaderTest {
+
+	@Test
+	public void read_FullRequestGiven_ShouldReadAllValues() throws IOException {
+		String json = "{"
+				+ "\"resource\": \"/{proxy+}\","
+				+ "\"path\": \"/users/1\","
+				+ "\"httpMethod\": \"POST\","
+				+ "\"headers\": {\"Accept\": \"application/json\", \"X-Number\": 1},"
+				+ "\"queryStringParameters\": {\"q\": \"a b\"},"
+				+ "\"pathParameters\": {\"proxy\": \"users/1\"},"
+				+ "\"stageVariables\": {\"stage\": \"dev\"},"
+				+ "\"requestContext\": {"
+				+ "  \"accountId\": \"accountId\","
+				+ "  \"resourceId\": \"resourceId\","
+				+ "  \"stage\": \"stage\","
+				+ "  \"requestId\": \"requestId\","
+				+ "  \"identity\": {"
+				+ "    \"cognitoIdentityPoolId\": \"cognitoIdentityPoolId\","
+				+ "    \"accountId\": \"identityAccountId\","
+				+ "    \"cognitoIdentityId\": \"cognitoIdentityId\","
+				+ "    \"caller\": \"caller\","
+				+ "    \"apiKey\": \"apiKey\","
+				+ "    \"sourceIp\": \"sourceIp\","
+				+ "    \"cognitoAuthenticationType\": \"cognitoAuthenticationType\","
+				+ "    \"cognitoAuthenticationProvider\": \"cognitoAuthenticationProvider\","
+				+ "    \"userArn\": \"userArn\","
+				+ "    \"userAgent\": \"userAgent\","
+				+ "    \"user\": \"user\""
+				+ "  },"
+				+ "  \"resourcePath\": \"/{proxy+}\","
+				+ "  \"httpMethod\": \"POST\","
+				+ "  \"apiId\": \"apiId\","
+				+ "  \"authorizer\": {\"principalId\": \"123\", \"claims\": {\"sub\": \"sub\", \"groups\": [\"a\", 1]}}"
+				+ "},"
+				+ "\"body\": \"{\\\"value\\\": \\\"\\u00e4\\\"}\","
+				+ "\"isBase64Encoded\": true"
+				+ "}";
+
+		DefaultGatewayIdentity identity = new DefaultGatewayIdentity("cognitoIdentityPoolId", "identityAccountId",
+				"cognitoIdentityId", "caller", "apiKey", "sourceIp", "cognitoAuthenticationType",
+				"cognitoAuthenticationProvider", "userArn", "userAgent", "user");
+		Map<String, Object> claims = new HashMap<>();
+		claims.put("sub", "sub");
+		claims.put("groups", Arrays.asList("a", 1));
+		Map<String, Object> authorizer = new HashMap<>();
+		authorizer.put("principalId", "123");
+		authorizer.put("claims", claims);
+		DefaultGatewayRequestContext requestContext = new DefaultGatewayRequestContext("accountId", "resourceId",
+				"stage", "requestId", identity, "/{proxy+}", "POST", "apiId", authorizer);
+		DefaultGatewayRequest expected = new DefaultGatewayRequest("/{proxy+}", "/users/1", "POST",
+				ImmutableMap.of("Accept", "application/json", "X-Number", "1"), ImmutableMap.of("q", "a b"),
+				ImmutableMap.of("proxy", "users/1"), ImmutableMap.of("stage", "dev"), requestContext,
+				"{\"value\": \"\u00e4\"}", true);
+
+		assertEquals(expected, read(json));
+	}
+
+	@Test
+	public void read_NullValuesGiven_ShouldUseDefaults() throws IOException {
+		String json = "{\"resource\": null, \"path\": null, \"httpMethod\": null, \"headers\": null,"
+				+ "\"queryStringParameters\": null, \"pathParameters\": null, \"stageVariables\": null,"
+				+ "\"requestContext\": null, \"body\": null, \"isBase64Encoded\": null}";
+		assertEquals(new DefaultGatewayRequest(), read(json));
+	}
+
+	@Test
+	public void read_NullHeaderValueGiven_ShouldKeepNullValue() throws IOException {
+		Map<String, String> headers = new HashMap<>();
+		headers.put("a", null);
+		assertEquals(headers, read("{\"headers\": {\"a\": null}}").getHeaders());
+	}
+
+	@Test
+	public void read_UnknownPropertiesGiven_ShouldSkipThem() throws IOException {
+		String json = "{\"unknown\": {\"a\": [1, {\"b\": 2}]}, \"path\": \"/\", \"requestContext\": {\"unknown\": [],"
+				+ "\"identity\": {\"unknown\": {}, \"user\": \"user\"}, \"stage\": \"dev\"}, \"unknown2\": 1}";
+		DefaultGatewayRequest request = read(json);
+		assertEquals("/", request.getPath());
+		assertEquals("dev", request.getRequestContext().getStage());
+		assertEquals("user", request.getRequestContext().getIdentity().getUser());
+	}
+
+	@Test
+	public void read_EmptyObjectGiven_ShouldReturnEmptyRequest() throws IOException {
+		assertEquals(new DefaultGatewayRequest(), read("{}"));
+	}
+
+	@Test
+	public void read_NullGiven_ShouldReturnNull() throws IOException {
+		assertNull(read("null"));
+	}
+
+	@Test
+	public void read_EmptyInputGiven_ShouldReturnNull() throws IOException {
+		assertNull(read(""));
+	}
+
+	@Test
+	public void read_EmptyAuthorizerGiven_ShouldReturnEmptyAuthorizer() throws IOException {
+		DefaultGatewayRequest request = read("{\"requestContext\": {\"authorizer\": {}}}");
+		assertEquals(Collections.emptyMap(), request.getRequestContext().getAuthorizer());
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void read_ArrayGiven_ShouldFail() throws IOException {
+		read("[]");
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void read_InvalidHeadersGiven_ShouldFail() throws IOException {
+		read("{\"headers\": []}");
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void read_InvalidJsonGiven_ShouldFail() throws IOException {
+		read("{\"path\": ");
+	}
+
+	@Test
+	public void read_StreamGiven_ShouldNotCloseStream() throws IOException {
+		CloseTrackingInputStream in = new CloseTrackingInputStream("{}");
+		GatewayRequestJsonReader.read(in);
+		assertFalse(in.closed);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void read_NullStreamGiven_ShouldThrowNpe() throws IOException {
+		GatewayRequestJsonReader.read(null);
+	}
+
+	private static DefaultGatewayRequest read(String json) throws IOException {
+		return GatewayRequestJsonReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static class CloseTrackingInputStream extends ByteArrayInputStream {
+		private boolean closed;
+
+		CloseTrackingInputStream(String value) {
+			super(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import com.google.common.collect.ImmutableMap;
+
+public class GatewayResponseJsonWriterTest {
+
+	@Test
+	public void write_ResponseGiven_ShouldWriteAllValues() throws IOException, JSONException {
+		GatewayResponse response = new GatewayResponse("{\"value\": \"\u00e4\"}",
+				ImmutableMap.of("Content-Type", "application/json", "X-Empty", ""), Status.CREATED, false);
+		String expected = "{\"statusCode\": 201,"
+				+ "\"headers\": {\"Content-Type\": \"application/json\", \"X-Empty\": \"\"},"
+				+ "\"body\": \"{\\\"value\\\": \\\"\u00e4\\\"}\","
+				+ "\"isBase64Encoded\": false}";
+		JSONAssert.assertEquals(expected, write(response), true);
+	}
+
+	@Test
+	public void write_NullBodyGiven_ShouldWriteNullBody() throws IOException, JSONException {
+		GatewayResponse response = new GatewayResponse(null, Collections.emptyMap(), Status.NO_CONTENT, true);
+		String expected = "{\"statusCode\": 204, \"headers\": {}, \"body\": null, \"isBase64Encoded\": true}";
+		JSONAssert.assertEquals(expected, write(response), true);
+	}
+
+	@Test
+	public void write_StreamGiven_ShouldNotCloseStream() throws IOException {
+		CloseTrackingOutputStream out = new CloseTrackingOutputStream();
+		GatewayResponseJsonWriter.write(new GatewayResponse(null, Collections.emptyMap(), Status.OK, false), out);
+		assertFalse(out.closed);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void write_NullResponseGiven_ShouldThrowNpe() throws IOException {
+		GatewayResponseJsonWriter.write(null, new ByteArrayOutputStream());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void write_NullStreamGiven_ShouldThrowNpe() throws IOException {
+		GatewayResponseJsonWriter.write(new GatewayResponse(null, Collections.emptyMap(), Status.OK, false), null);
+	}
+
+	private static String write(GatewayResponse response) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GatewayResponseJsonWriter.write(response, out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static class CloseTrackingOutputStream extends ByteArrayOutputStream {
+		private boolean closed;
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.local;
+
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.ws.rs.core.Response.Status;
+
+import com.jrestless.aws.gateway.io.DefaultGatewayIdentity;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequestContext;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+
+/**
+ * Converts raw HTTP requests into API Gateway proxy requests and API Gateway
+ * responses into raw HTTP responses.
+ * <p>
+ * Requests are passed on as if API Gateway had matched them with a greedy
+ * proxy resource (<i>/{proxy+}</i>). Bodies with a textual content type are
+ * passed as is, all others base64 encoded
+ * ({@link DefaultGatewayRequest#isBase64Encoded()}). Base64 encoded response
+ * bodies ({@link GatewayResponse#isIsBase64Encoded()}) are decoded.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class GatewayHttpConverter {
+
+	static final String PROXY_RESOURCE = "/{proxy+}";
+	static final String STAGE = "local";
+
+	private static final String PROXY_PATH_PARAMETER = "proxy";
+	private static final String CRLF = "\r\n";
+	// Content-Length and Connection are set by the server
+	private static final String CONTENT_LENGTH = "content-length";
+	private static final String CONNECTION = "connection";
+	private static final String TRANSFER_ENCODING = "transfer-encoding";
+	private static final int RESPONSE_HEAD_SIZE = 256;
+
+	private GatewayHttpConverter() {
+		// no instance
+	}
+
+	static DefaultGatewayRequest toGatewayRequest(HttpRequest httpRequest, String requestId,
+			InetSocketAddress remoteAddress) throws HttpParseException {
+		String target = httpRequest.getTarget();
+		int queryStart = target.indexOf('?');
+		String path = queryStart < 0 ? target : target.substring(0, queryStart);
+		if (path.isEmpty() || path.charAt(0) != '/') {
+			throw new HttpParseException(HttpRequestParser.BAD_REQUEST, "unsupported request target: " + target);
+		}
+
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setResource(PROXY_RESOURCE);
+		request.setPath(path);
+		request.setHttpMethod(httpRequest.getMethod());
+		request.setHeaders(new LinkedHashMap<>(httpRequest.getHeaders()));
+		request.setQueryStringParameters(queryStart < 0
+				? Collections.emptyMap() : parseQuery(target.substring(queryStart + 1)));
+		request.setPathParameters(path.length() > 1
+				? Collections.singletonMap(PROXY_PATH_PARAMETER, path.substring(1)) : Collections.emptyMap());
+		request.setRequestContext(createRequestContext(httpRequest, requestId, remoteAddress));
+		byte[] body = httpRequest.getBody();
+		if (body.length > 0) {
+			if (isTextual(httpRequest.getHeader("Content-Type"))) {
+				request.setBody(new String(body, StandardCharsets.UTF_8));
+			} else {
+				request.setBody(Base64.getEncoder().encodeToString(body));
+				request.setIsBase64Encoded(true);
+			}
+		}
+		return request;
+	}
+
+	private static DefaultGatewayRequestContext createRequestContext(HttpRequest httpRequest, String requestId,
+			InetSocketAddress remoteAddress) {
+		DefaultGatewayIdentity identity = new DefaultGatewayIdentity();
+		if (remoteAddress != null && remoteAddress.getAddress() != null) {
+			identity.setSourceIp(remoteAddress.getAddress().getHostAddress());
+		}
+		identity.setUserAgent(httpRequest.getHeader("User-Agent"));
+		DefaultGatewayRequestContext requestContext = new DefaultGatewayRequestContext();
+		requestContext.setRequestId(requestId);
+		requestContext.setStage(STAGE);
+		requestContext.setHttpMethod(httpRequest.getMethod());
+		requestContext.setResourcePath(PROXY_RESOURCE);
+		requestContext.setIdentity(identity);
+		return requestContext;
+	}
+
+	/*
+	 * API Gateway decodes the query parameters and keeps the last value of a
+	 * parameter that occurs more than once.
+	 */
+	private static Map<String, String> parseQuery(String query) throws HttpParseException {
+		Map<String, String> queryParameters = new HashMap<>();
+		for (String parameter : query.split("&")) {
+			if (parameter.isEmpty()) {
+				continue;
+			}
+			int separator = parameter.indexOf('=');
+			String name = separator < 0 ? parameter : parameter.substring(0, separator);
+			String value = separator < 0 ? "" : parameter.substring(separator + 1);
+			queryParameters.put(decode(name), decode(value));
+		}
+		return queryParameters;
+	}
+
+	private static String decode(String value) throws HttpParseException {
+		try {
+			return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException | IllegalArgumentException e) {
+			throw new HttpParseException(HttpRequestParser.BAD_REQUEST, "invalid query parameter: " + value);
+		}
+	}
+
+	static boolean isTextual(String contentType) {
+		if (contentType == null) {
+			return true;
+		}
+		String mediaType = contentType.toLowerCase(Locale.ENGLISH);
+		int parametersStart = mediaType.indexOf(';');
+		if (parametersStart >= 0) {
+			mediaType = mediaType.substring(0, parametersStart);
+		}
+		mediaType = mediaType.trim();
+		return mediaType.startsWith("text/")
+				|| mediaType.endsWith("/json") || mediaType.endsWith("+json")
+				|| mediaType.endsWith("/xml") || mediaType.endsWith("+xml")
+				|| mediaType.equals("application/x-www-form-urlencoded")
+				|| mediaType.equals("application/javascript");
+	}
+
+	static ByteBuffer toHttpResponse(GatewayResponse response, boolean headRequest, boolean keepAlive) {
+		byte[] body = getBody(response);
+		return toHttpResponse(response.getStatusCode(), response.getHeaders(), headRequest ? new byte[0] : body,
+				body.length, keepAlive);
+	}
+
+	static ByteBuffer toHttpErrorResponse(int statusCode) {
+		return toHttpResponse(statusCode, Collections.emptyMap(), new byte[0], 0, false);
+	}
+
+	private static ByteBuffer toHttpResponse(int statusCode, Map<String, String> headers, byte[] body,
+			int contentLength, boolean keepAlive) {
+		StringBuilder head = new StringBuilder(RESPONSE_HEAD_SIZE);
+		head.append("HTTP/1.1 ").append(statusCode);
+		Status status = Status.fromStatusCode(statusCode);
+		head.append(' ').append(status == null ? "" : status.getReasonPhrase()).append(CRLF);
+		for (Map.Entry<String, String> header : headers.entrySet()) {
+			String name = header.getKey();
+			String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+			if (header.getValue() == null || CONTENT_LENGTH.equals(lowerCaseName)
+					|| CONNECTION.equals(lowerCaseName) || TRANSFER_ENCODING.equals(lowerCaseName)) {
+				continue;
+			}
+			head.append(name).append(": ").append(header.getValue()).append(CRLF);
+		}
+		head.append("Content-Length: ").append(contentLength).append(CRLF);
+		head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append(CRLF);
+		head.append(CRLF);
+		byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+		ByteBuffer httpResponse = ByteBuffer.allocate(headBytes.length + body.length);
+		httpResponse.put(headBytes).put(body);
+		httpResponse.flip();
+		return httpResponse;
+	}
+
+	private static byte[] getBody(GatewayResponse response) {
+		String body = response.getBody();
+		if (body == null) {
+			return new byte[0];
+		} else if (response.isIsBase64Encoded()) {
+			return Base64.getDecoder().decode(body);
+		} else {
+			return body.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.local;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jrestless.aws.gateway.handler.GatewayRequestAndLambdaContext;
+import com.jrestless.aws.gateway.handler.GatewayRequestHandler;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+
+/**
+ * Small non-blocking HTTP/1.1 server that passes all requests to a
+ * {@link GatewayRequestHandler} - as API Gateway would do with a greedy proxy
+ * resource (<i>/{proxy+}</i>) - and writes the {@link GatewayResponse} back.
+ * <p>
+ * The server allows to run, load test and profile the handler locally or in a
+ * container without deploying it as a Lambda function. A single selector
+ * thread accepts connections, reads requests and writes responses; the
+ * handler is invoked by a pool of worker threads. Connections are kept alive
+ * as requested by the client.
+ * <p>
+ * Request bodies must be delimited by a Content-Length header (chunked
+ * requests are rejected) and may not exceed API Gateway's 10MB limit.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * {@code
+ * try (GatewayLocalServer server = new GatewayLocalServer(new RequestHandler(), 8080)) {
+ *   server.start();
+ *   ...
+ * }
+ * }
+ * </pre>
+ *
+ * or run {@link #main(String[])}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class GatewayLocalServer implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GatewayLocalServer.class);
+
+	static final int DEFAULT_PORT = 8080;
+	static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+	private static final int INITIAL_READ_BUFFER_SIZE = 8 * 1024;
+	private static final int INTERNAL_SERVER_ERROR = 500;
+	private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+	private final GatewayRequestHandler handler;
+	private final InetSocketAddress address;
+	private final int workerThreads;
+	private final long timeoutMillis;
+	private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean running;
+	private ServerSocketChannel serverChannel;
+	private Selector selector;
+	private ExecutorService workers;
+	private Thread selectorThread;
+
+	/**
+	 * Creates a server listening on all interfaces on the given port with one
+	 * worker thread per available processor.
+	 *
+	 * @param handler
+	 *            the started handler
+	 * @param port
+	 *            the port; 0 selects a free port
+	 */
+	public GatewayLocalServer(@Nonnull GatewayRequestHandler handler, int port) {
+		this(handler, new InetSocketAddress(port), Runtime.getRuntime().availableProcessors(),
+				DEFAULT_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * @param handler
+	 *            the started handler
+	 * @param address
+	 *            the address to listen on
+	 * @param workerThreads
+	 *            the number of threads invoking the handler
+	 * @param timeoutMillis
+	 *            the time reported as remaining by the Lambda context when a
+	 *            request starts; the request is not aborted if it expires
+	 */
+	public GatewayLocalServer(@Nonnull GatewayRequestHandler handler, @Nonnull InetSocketAddress address,
+			int workerThreads, long timeoutMillis) {
+		this.handler = requireNonNull(handler, "handler may not be null");
+		this.address = requireNonNull(address, "address may not be null");
+		if (workerThreads <= 0) {
+			throw new IllegalArgumentException("workerThreads must be positive");
+		}
+		if (timeoutMillis <= 0) {
+			throw new IllegalArgumentException("timeoutMillis must be positive");
+		}
+		this.workerThreads = workerThreads;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Binds the server and starts accepting connections.
+	 *
+	 * @throws IOException
+	 *             if the server cannot be bound
+	 * @throws IllegalStateException
+	 *             if the server has been started already
+	 */
+	public synchronized void start() throws IOException {
+		if (serverChannel != null) {
+			throw new IllegalStateException("server has already been started");
+		}
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.configureBlocking(false);
+		serverChannel.bind(address);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		workers = Executors.newFixedThreadPool(workerThreads, new WorkerThreadFactory());
+		running = true;
+		selectorThread = new Thread(this::runSelector, "jrestless-local-selector");
+		selectorThread.start();
+		LOG.info("listening on {}", serverChannel.getLocalAddress());
+	}
+
+	/**
+	 * @return the port the server listens on
+	 * @throws IllegalStateException
+	 *             if the server has not been started
+	 */
+	public synchronized int getPort() {
+		if (serverChannel == null) {
+			throw new IllegalStateException("server has not been started");
+		}
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/**
+	 * Stops accepting connections, closes all connections and waits for the
+	 * requests in progress to complete.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		selector.wakeup();
+		try {
+			selectorThread.join();
+			workers.shutdown();
+			workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		LOG.info("stopped listening");
+	}
+
+	private void runSelector() {
+		try {
+			while (running) {
+				selector.select();
+				registerPendingWrites();
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					if (!key.isValid()) {
+						continue;
+					}
+					if (key.isAcceptable()) {
+						accept();
+					} else {
+						Connection connection = (Connection) key.attachment();
+						if (key.isReadable()) {
+							connection.read();
+						}
+						if (key.isValid() && key.isWritable()) {
+							connection.write();
+						}
+					}
+				}
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			LOG.error("selector failed", e);
+		} finally {
+			closeQuietly();
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel = serverChannel.accept();
+		if (channel != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			key.attach(new Connection(channel, key));
+		}
+	}
+
+	private void registerPendingWrites() {
+		Connection connection;
+		while ((connection = pendingWrites.poll()) != null) {
+			if (connection.key.isValid()) {
+				connection.write();
+			}
+		}
+	}
+
+	private void closeQuietly() {
+		for (SelectionKey key : selector.keys()) {
+			try {
+				key.channel().close();
+			} catch (IOException e) {
+				LOG.debug("failed to close channel", e);
+			}
+		}
+		try {
+			selector.close();
+		} catch (IOException e) {
+			LOG.debug("failed to close selector", e);
+		}
+	}
+
+	/*
+	 * invoked by a worker thread
+	 */
+	private void handle(Connection connection, HttpRequest httpRequest) {
+		boolean keepAlive = httpRequest.isKeepAlive();
+		ByteBuffer httpResponse;
+		try {
+			String requestId = createRequestId();
+			DefaultGatewayRequest request = GatewayHttpConverter.toGatewayRequest(httpRequest, requestId,
+					connection.remoteAddress);
+			GatewayResponse response = handler.delegateRequest(
+					new GatewayRequestAndLambdaContext(request, new LocalLambdaContext(requestId, timeoutMillis)));
+			httpResponse = GatewayHttpConverter.toHttpResponse(response, "HEAD".equals(httpRequest.getMethod()),
+					keepAlive);
+		} catch (HttpParseException e) {
+			LOG.debug("invalid request", e);
+			httpResponse = GatewayHttpConverter.toHttpErrorResponse(e.getStatusCode());
+			keepAlive = false;
+		} catch (RuntimeException e) {
+			LOG.error("failed to handle request", e);
+			httpResponse = GatewayHttpConverter.toHttpErrorResponse(INTERNAL_SERVER_ERROR);
+			keepAlive = false;
+		}
+		connection.respond(httpResponse, !keepAlive);
+	}
+
+	// UUID#randomUUID contends on a shared SecureRandom under load
+	private static String createRequestId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return new UUID(random.nextLong(), random.nextLong()).toString();
+	}
+
+	/**
+	 * State of a client connection. All methods but
+	 * {@link #respond(ByteBuffer, boolean)} are invoked by the selector thread.
+	 * <p>
+	 * A connection handles one request at a time: it stops reading once a
+	 * request has been received and resumes once its response has been
+	 * written.
+	 */
+	private final class Connection {
+		private final SocketChannel channel;
+		private final SelectionKey key;
+		private final InetSocketAddress remoteAddress;
+		private byte[] data = new byte[INITIAL_READ_BUFFER_SIZE];
+		private int length;
+		private volatile ByteBuffer response;
+		private volatile boolean closeAfterResponse;
+
+		Connection(SocketChannel channel, SelectionKey key) throws IOException {
+			this.channel = channel;
+			this.key = key;
+			this.remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+		}
+
+		void read() {
+			try {
+				if (length == data.length) {
+					data = Arrays.copyOf(data, data.length * 2);
+				}
+				int read = channel.read(ByteBuffer.wrap(data, length, data.length - length));
+				if (read < 0) {
+					close();
+					return;
+				}
+				length += read;
+				dispatch();
+			} catch (IOException e) {
+				LOG.debug("failed to read from connection", e);
+				close();
+			}
+		}
+
+		private void dispatch() {
+			HttpRequestParser.ParseResult result;
+			try {
+				result = HttpRequestParser.parse(data, length);
+			} catch (HttpParseException e) {
+				LOG.debug("invalid request", e);
+				key.interestOps(0);
+				respond(GatewayHttpConverter.toHttpErrorResponse(e.getStatusCode()), true);
+				return;
+			}
+			if (result != null) {
+				length -= result.getLength();
+				System.arraycopy(data, result.getLength(), data, 0, length);
+				if (data.length > INITIAL_READ_BUFFER_SIZE && length <= INITIAL_READ_BUFFER_SIZE) {
+					data = Arrays.copyOf(data, INITIAL_READ_BUFFER_SIZE);
+				}
+				key.interestOps(0);
+				workers.execute(() -> handle(this, result.getRequest()));
+			}
+		}
+
+		/*
+		 * invoked by a worker thread or the selector thread
+		 */
+		void respond(ByteBuffer httpResponse, boolean close) {
+			closeAfterResponse = close;
+			response = httpResponse;
+			pendingWrites.add(this);
+			selector.wakeup();
+		}
+
+		void write() {
+			ByteBuffer pending = response;
+			if (pending == null) {
+				return;
+			}
+			try {
+				channel.write(pending);
+			} catch (IOException e) {
+				LOG.debug("failed to write to connection", e);
+				close();
+				return;
+			}
+			if (pending.hasRemaining()) {
+				key.interestOps(SelectionKey.OP_WRITE);
+			} else if (closeAfterResponse) {
+				close();
+			} else {
+				response = null;
+				key.interestOps(SelectionKey.OP_READ);
+				// a pipelined request may have been received already
+				dispatch();
+			}
+		}
+
+		private void close() {
+			key.cancel();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				LOG.debug("failed to close connection", e);
+			}
+		}
+	}
+
+	private static final class WorkerThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "jrestless-local-worker-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Starts a server for a handler.
+	 * <p>
+	 * Arguments:
+	 * <ol>
+	 * <li>the fully qualified name of the handler class; the class must have a
+	 * public no-arg constructor that initializes and starts the handler - as
+	 * required by AWS Lambda
+	 * <li>optional: the port; defaults to {@value #DEFAULT_PORT}
+	 * </ol>
+	 *
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1 || args.length > 2) {
+			throw new IllegalArgumentException("usage: GatewayLocalServer <handler class> [<port>]");
+		}
+		GatewayRequestHandler handler = (GatewayRequestHandler) Class.forName(args[0]).newInstance();
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+		GatewayLocalServer server = new GatewayLocalServer(handler, port);
+		server.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				server.close();
+			} catch (IOException e) {
+				LOG.error("failed to stop server", e);
+			}
+		}));
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.local;
+
+import java.io.IOException;
+
+/**
+ * Thrown if a HTTP request cannot be parsed or is not supported.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+class HttpParseException extends IOException {
+
+	private static final long serialVersionUID = 2866379542263471870L;
+
+	private final int statusCode;
+
+	HttpParseException(int statusCode, String message) {
+		super(message);
+		this.statusCode = statusCode;
+	}
+
+	/**
+	 * @return the status code of the response to send to the client
+	 */
+	int getStatusCode() {
+		return statusCode;
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.local;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A raw HTTP request as received by {@link GatewayLocalServer}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class HttpRequest {
+
+	private final String method;
+	private final String target;
+	private final String version;
+	private final Map<String, String> headers;
+	private final byte[] body;
+
+	/**
+	 * @param method
+	 * @param target
+	 *            the request target, i.e. the path and the query
+	 * @param version
+	 *            the HTTP version, e.g. "HTTP/1.1"
+	 * @param headers
+	 *            case-insensitive header map; values of headers that occurred
+	 *            more than once are joined by a comma
+	 * @param body
+	 */
+	HttpRequest(@Nonnull String method, @Nonnull String target, @Nonnull String version,
+			@Nonnull Map<String, String> headers, @Nonnull byte[] body) {
+		this.method = requireNonNull(method, "method may not be null");
+		this.target = requireNonNull(target, "target may not be null");
+		this.version = requireNonNull(version, "version may not be null");
+		this.headers = Collections.unmodifiableMap(requireNonNull(headers, "headers may not be null"));
+		this.body = requireNonNull(body, "body may not be null");
+	}
+
+	String getMethod() {
+		return method;
+	}
+
+	String getTarget() {
+		return target;
+	}
+
+	String getVersion() {
+		return version;
+	}
+
+	Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	@Nullable
+	String getHeader(String name) {
+		return headers.get(name);
+	}
+
+	byte[] getBody() {
+		return body;
+	}
+
+	/**
+	 * HTTP/1.1 connections are persistent unless the client asks to close
+	 * them; HTTP/1.0 connections are persistent only if the client asks to
+	 * keep them alive.
+	 *
+	 * @return true if the connection should be kept open after the response
+	 */
+	boolean isKeepAlive() {
+		String connection = getHeader("Connection");
+		if ("HTTP/1.0".equals(version)) {
+			return connection != null && "keep-alive".equalsIgnoreCase(connection.trim());
+		}
+		return connection == null || !"close".equalsIgnoreCase(connection.trim());
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.local;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parses HTTP/1.x requests incrementally from the bytes received so far.
+ * <p>
+ * Bodies must be delimited by a Content-Length header; chunked transfer
+ * encoding is not supported.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class HttpRequestParser {
+
+	static final int MAX_HEADER_SIZE = 64 * 1024;
+	// API Gateway's payload limit
+	static final int MAX_BODY_SIZE = 10 * 1024 * 1024;
+
+	static final int BAD_REQUEST = 400;
+	static final int LENGTH_REQUIRED = 411;
+	static final int PAYLOAD_TOO_LARGE = 413;
+	static final int HEADER_FIELDS_TOO_LARGE = 431;
+	static final int NOT_IMPLEMENTED = 501;
+
+	// method, target and version
+	private static final int REQUEST_LINE_PARTS = 3;
+	private static final byte[] HEADER_TERMINATOR = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+	private HttpRequestParser() {
+		// no instance
+	}
+
+	/**
+	 * Parses the first request from the given bytes.
+	 *
+	 * @param data
+	 * @param length
+	 *            the number of valid bytes in data
+	 * @return the parsed request and the number of bytes it occupies or
+	 *         {@code null} if more bytes are required
+	 * @throws HttpParseException
+	 *             if the request is invalid or not supported
+	 */
+	static ParseResult parse(byte[] data, int length) throws HttpParseException {
+		int headerEnd = indexOfHeaderTerminator(data, length);
+		if (headerEnd < 0) {
+			if (length > MAX_HEADER_SIZE) {
+				throw new HttpParseException(HEADER_FIELDS_TOO_LARGE, "request header too large");
+			}
+			return null;
+		}
+		String[] lines = new String(data, 0, headerEnd, StandardCharsets.ISO_8859_1).split("\r\n");
+		String[] requestLine = lines[0].split(" ");
+		if (requestLine.length != REQUEST_LINE_PARTS || !requestLine[2].startsWith("HTTP/1.")) {
+			throw new HttpParseException(BAD_REQUEST, "invalid request line: " + lines[0]);
+		}
+		Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (int i = 1; i < lines.length; i++) {
+			int separator = lines[i].indexOf(':');
+			if (separator <= 0) {
+				throw new HttpParseException(BAD_REQUEST, "invalid header: " + lines[i]);
+			}
+			String name = lines[i].substring(0, separator).trim();
+			String value = lines[i].substring(separator + 1).trim();
+			headers.merge(name, value, (oldValue, newValue) -> oldValue + "," + newValue);
+		}
+		if (headers.containsKey("Transfer-Encoding")) {
+			throw new HttpParseException(NOT_IMPLEMENTED, "transfer encodings are not supported");
+		}
+		int contentLength = getContentLength(headers);
+		int bodyStart = headerEnd + HEADER_TERMINATOR.length;
+		if (length - bodyStart < contentLength) {
+			return null;
+		}
+		byte[] body = Arrays.copyOfRange(data, bodyStart, bodyStart + contentLength);
+		HttpRequest request = new HttpRequest(requestLine[0], requestLine[1], requestLine[2], headers, body);
+		return new ParseResult(request, bodyStart + contentLength);
+	}
+
+	private static int getContentLength(Map<String, String> headers) throws HttpParseException {
+		String contentLength = headers.get("Content-Length");
+		if (contentLength == null) {
+			return 0;
+		}
+		long value;
+		try {
+			value = Long.parseLong(contentLength);
+		} catch (NumberFormatException e) {
+			throw new HttpParseException(LENGTH_REQUIRED, "invalid content length: " + contentLength);
+		}
+		if (value < 0) {
+			throw new HttpParseException(LENGTH_REQUIRED, "invalid content length: " + contentLength);
+		} else if (value > MAX_BODY_SIZE) {
+			throw new HttpParseException(PAYLOAD_TOO_LARGE, "request body too large: " + contentLength);
+		}
+		return (int) value;
+	}
+
+	private static int indexOfHeaderTerminator(byte[] data, int length) {
+		outer:
+		for (int i = 0; i <= length - HEADER_TERMINATOR.length; i++) {
+			for (int j = 0; j < HEADER_TERMINATOR.length; j++) {
+				if (data[i + j] != HEADER_TERMINATOR[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * A parsed request and the number of bytes it occupied.
+	 */
+	static final class ParseResult {
+		private final HttpRequest request;
+		private final int length;
+
+		ParseResult(HttpRequest request, int length) {
+			this.request = request;
+			this.length = length;
+		}
+
+		HttpRequest getRequest() {
+			return request;
+		}
+
+		int getLength() {
+			return length;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.local;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+/**
+ * Lambda context of a request handled by {@link GatewayLocalServer}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class LocalLambdaContext implements Context {
+
+	static final String FUNCTION_NAME = "jrestless-local";
+	private static final String FUNCTION_VERSION = "$LATEST";
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+	private static final Logger LOG = LoggerFactory.getLogger(LocalLambdaContext.class);
+	private static final LambdaLogger LAMBDA_LOGGER = LOG::info;
+
+	private final String awsRequestId;
+	private final long deadlineNanos;
+
+	LocalLambdaContext(String awsRequestId, long timeoutMillis) {
+		this.awsRequestId = awsRequestId;
+		this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+	}
+
+	@Override
+	public String getAwsRequestId() {
+		return awsRequestId;
+	}
+
+	@Override
+	public String getLogGroupName() {
+		return null;
+	}
+
+	@Override
+	public String getLogStreamName() {
+		return null;
+	}
+
+	@Override
+	public String getFunctionName() {
+		return FUNCTION_NAME;
+	}
+
+	@Override
+	public String getFunctionVersion() {
+		return FUNCTION_VERSION;
+	}
+
+	@Override
+	public String getInvokedFunctionArn() {
+		return null;
+	}
+
+	@Override
+	public CognitoIdentity getIdentity() {
+		return null;
+	}
+
+	@Override
+	public ClientContext getClientContext() {
+		return null;
+	}
+
+	@Override
+	public int getRemainingTimeInMillis() {
+		return (int) Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+	}
+
+	@Override
+	public int getMemoryLimitInMB() {
+		return (int) (Runtime.getRuntime().maxMemory() / BYTES_PER_MEGABYTE);
+	}
+
+	@Override
+	public LambdaLogger getLogger() {
+		return LAMBDA_LOGGER;
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.local;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.handler.GatewayRequestObjectHandler;
+import com.jrestless.aws.gateway.io.GatewayRequest;
+
+public class GatewayLocalServerIntTest {
+
+	private GatewayLocalServer server;
+
+	@Before
+	public void setup() throws IOException {
+		GatewayRequestObjectHandler handler = new GatewayRequestObjectHandler() { };
+		handler.init(new ResourceConfig().register(GatewayFeature.class).register(TestResource.class));
+		handler.start();
+		server = new GatewayLocalServer(handler, 0);
+		server.start();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		server.close();
+	}
+
+	@Test(timeout = 10000)
+	public void get_PathAndQueryGiven_ShouldPassThemToHandler() throws IOException {
+		HttpURLConnection connection = open("/echo/a%20b?q=x%26y&r=1");
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("a b x&y", read(connection.getInputStream()));
+	}
+
+	@Test(timeout = 10000)
+	public void get_GatewayRequestGiven_ShouldPassProxyResourceAndContext() throws IOException {
+		HttpURLConnection connection = open("/gateway");
+		assertEquals("/{proxy+} local false", read(connection.getInputStream()));
+	}
+
+	@Test(timeout = 10000)
+	public void post_TextBodyGiven_ShouldPassBody() throws IOException {
+		HttpURLConnection connection = open("/text");
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", "text/plain; charset=UTF-8");
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write("hällo".getBytes(StandardCharsets.UTF_8));
+		}
+		assertEquals(200, connection.getResponseCode());
+		assertEquals("hällo false", read(connection.getInputStream()));
+	}
+
+	@Test(timeout = 10000)
+	public void post_BinaryBodyGiven_ShouldPassBinaryBodyAndReturnBinaryResponse() throws IOException {
+		byte[] body = new byte[256];
+		for (int i = 0; i < body.length; i++) {
+			body[i] = (byte) i;
+		}
+		HttpURLConnection connection = open("/binary");
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", MediaType.APPLICATION_OCTET_STREAM);
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(body);
+		}
+		assertEquals(200, connection.getResponseCode());
+		assertEquals(MediaType.APPLICATION_OCTET_STREAM, connection.getContentType());
+		assertArrayEquals(body, readBytes(connection.getInputStream()));
+	}
+
+	@Test(timeout = 10000)
+	public void get_UnknownResourceGiven_ShouldReturnNotFound() throws IOException {
+		assertEquals(404, open("/unknown").getResponseCode());
+	}
+
+	@Test(timeout = 10000)
+	public void get_PipelinedRequestsGiven_ShouldRespondInOrderOnSameConnection() throws IOException {
+		try (Socket socket = new Socket("localhost", server.getPort())) {
+			socket.getOutputStream().write(("GET /echo/1 HTTP/1.1\r\nHost: localhost\r\n\r\n"
+					+ "GET /echo/2 HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+					.getBytes(StandardCharsets.US_ASCII));
+			String responses = read(socket.getInputStream());
+			assertTrue(responses, responses.matches("(?s)HTTP/1.1 200 OK\r\n.*keep-alive.*\r\n\r\n1 null"
+					+ "HTTP/1.1 200 OK\r\n.*Connection: close\r\n\r\n2 null"));
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void post_ChunkedBodyGiven_ShouldRespondWithNotImplemented() throws IOException {
+		try (Socket socket = new Socket("localhost", server.getPort())) {
+			socket.getOutputStream().write("POST /text HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+					.getBytes(StandardCharsets.US_ASCII));
+			assertTrue(read(socket.getInputStream()).startsWith("HTTP/1.1 501 Not Implemented\r\n"));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void start_StartedServerGiven_ShouldThrowIse() throws IOException {
+		server.start();
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+	}
+
+	private static String read(InputStream in) throws IOException {
+		return new String(readBytes(in), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] readBytes(InputStream in) throws IOException {
+		try (InputStream is = in) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int read;
+			while ((read = is.read(buffer)) >= 0) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	@Path("/")
+	public static class TestResource {
+		@GET
+		@Path("echo/{value}")
+		public String echo(@PathParam("value") String value, @QueryParam("q") String query) {
+			return value + " " + query;
+		}
+
+		@GET
+		@Path("gateway")
+		public String gateway(@Context GatewayRequest request) {
+			return request.getResource() + " " + request.getRequestContext().getStage() + " "
+					+ request.getRequestContext().getRequestId().isEmpty();
+		}
+
+		@POST
+		@Path("text")
+		@Consumes(MediaType.TEXT_PLAIN)
+		public String text(String body, @Context GatewayRequest request) {
+			return body + " " + request.isBase64Encoded();
+		}
+
+		@POST
+		@Path("binary")
+		@Consumes(MediaType.APPLICATION_OCTET_STREAM)
+		@Produces(MediaType.APPLICATION_OCTET_STREAM)
+		public Response binary(byte[] body) {
+			return Response.ok(body).build();
+		}
+	}
+}
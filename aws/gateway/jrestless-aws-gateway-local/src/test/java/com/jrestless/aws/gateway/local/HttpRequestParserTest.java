@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.local;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.jrestless.aws.gateway.local.HttpRequestParser.ParseResult;
+
+public class HttpRequestParserTest {
+
+	@Test
+	public void parse_RequestWithoutBodyGiven_ShouldParseRequest() throws HttpParseException {
+		ParseResult result = parse("GET /a/b?c=d HTTP/1.1\r\nHost: localhost\r\nX-A: 1\r\n\r\n");
+		HttpRequest request = result.getRequest();
+		assertEquals("GET", request.getMethod());
+		assertEquals("/a/b?c=d", request.getTarget());
+		assertEquals("HTTP/1.1", request.getVersion());
+		assertEquals("localhost", request.getHeader("host"));
+		assertEquals("1", request.getHeader("X-A"));
+		assertEquals(0, request.getBody().length);
+		assertEquals(50, result.getLength());
+	}
+
+	@Test
+	public void parse_RequestWithBodyGiven_ShouldParseBody() throws HttpParseException {
+		ParseResult result = parse("POST / HTTP/1.1\r\nContent-Length: 3\r\n\r\nabcGET");
+		assertArrayEquals("abc".getBytes(StandardCharsets.US_ASCII), result.getRequest().getBody());
+		assertEquals(41, result.getLength());
+	}
+
+	@Test
+	public void parse_IncompleteHeaderGiven_ShouldReturnNull() throws HttpParseException {
+		assertNull(parse("GET / HTTP/1.1\r\nHost: localhost\r\n"));
+	}
+
+	@Test
+	public void parse_IncompleteBodyGiven_ShouldReturnNull() throws HttpParseException {
+		assertNull(parse("POST / HTTP/1.1\r\nContent-Length: 4\r\n\r\nabc"));
+	}
+
+	@Test
+	public void parse_DuplicateHeadersGiven_ShouldJoinValues() throws HttpParseException {
+		HttpRequest request = parse("GET / HTTP/1.1\r\nAccept: a\r\naccept: b\r\n\r\n").getRequest();
+		assertEquals("a,b", request.getHeader("Accept"));
+	}
+
+	@Test
+	public void parse_InvalidRequestLineGiven_ShouldFailWithBadRequest() {
+		assertStatus(400, "GET /\r\n\r\n");
+		assertStatus(400, "GET / HTTP/2.0\r\n\r\n");
+	}
+
+	@Test
+	public void parse_InvalidHeaderGiven_ShouldFailWithBadRequest() {
+		assertStatus(400, "GET / HTTP/1.1\r\nno-separator\r\n\r\n");
+	}
+
+	@Test
+	public void parse_InvalidContentLengthGiven_ShouldFailWithLengthRequired() {
+		assertStatus(411, "POST / HTTP/1.1\r\nContent-Length: x\r\n\r\n");
+		assertStatus(411, "POST / HTTP/1.1\r\nContent-Length: -1\r\n\r\n");
+	}
+
+	@Test
+	public void parse_TooLargeBodyGiven_ShouldFailWithPayloadTooLarge() {
+		assertStatus(413, "POST / HTTP/1.1\r\nContent-Length: " + (HttpRequestParser.MAX_BODY_SIZE + 1) + "\r\n\r\n");
+	}
+
+	@Test
+	public void parse_ChunkedBodyGiven_ShouldFailWithNotImplemented() {
+		assertStatus(501, "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n");
+	}
+
+	@Test
+	public void parse_TooLargeHeaderGiven_ShouldFailWithHeaderFieldsTooLarge() {
+		byte[] data = new byte[HttpRequestParser.MAX_HEADER_SIZE + 1];
+		try {
+			HttpRequestParser.parse(data, data.length);
+			fail("expected HttpParseException");
+		} catch (HttpParseException e) {
+			assertEquals(431, e.getStatusCode());
+		}
+	}
+
+	@Test
+	public void isKeepAlive_ShouldHonorVersionAndConnectionHeader() throws HttpParseException {
+		assertTrue(parse("GET / HTTP/1.1\r\n\r\n").getRequest().isKeepAlive());
+		assertFalse(parse("GET / HTTP/1.1\r\nConnection: close\r\n\r\n").getRequest().isKeepAlive());
+		assertFalse(parse("GET / HTTP/1.0\r\n\r\n").getRequest().isKeepAlive());
+		assertTrue(parse("GET / HTTP/1.0\r\nConnection: Keep-Alive\r\n\r\n").getRequest().isKeepAlive());
+	}
+
+	private static ParseResult parse(String request) throws HttpParseException {
+		byte[] data = request.getBytes(StandardCharsets.ISO_8859_1);
+		return HttpRequestParser.parse(data, data.length);
+	}
+
+	private static void assertStatus(int statusCode, String request) {
+		try {
+			parse(request);
+			fail("expected HttpParseException");
+		} catch (HttpParseException e) {
+			assertEquals(statusCode, e.getStatusCode());
+		}
+	}
+}
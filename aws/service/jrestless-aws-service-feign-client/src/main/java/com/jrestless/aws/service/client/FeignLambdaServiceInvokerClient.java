@@ -36,7 +36,8 @@ import com.jrestless.aws.service.io.ServiceResponse;
  */
 public class FeignLambdaServiceInvokerClient extends AbstractFeignLambdaServiceClient {
 
-	private final LambdaInvokerService service;
+	private final LambdaInvokerFactory.Builder invokerFactoryBuilder;
+	private volatile LambdaInvokerService service;
 
 	public FeignLambdaServiceInvokerClient(@Nonnull AWSLambdaClient awsLambdaClient, @Nonnull String functionName,
 			@Nullable String functionAlias, @Nullable String functionVersion) {
@@ -47,14 +48,36 @@ public class FeignLambdaServiceInvokerClient extends AbstractFeignLambdaServiceC
 			String functionName, String functionAlias, String functionVersion) {
 		requireNonNull(awsLambdaClient);
 		requireNonNull(functionName);
-		service = builder
+		invokerFactoryBuilder = builder
 				.lambdaFunctionNameResolver((method, annotation, config) -> functionName)
 				.functionAlias(functionAlias)
-				.functionVersion(functionVersion)
+				.functionVersion(functionVersion);
+		service = invokerFactoryBuilder
 				.lambdaClient(awsLambdaClient)
 				.build(LambdaInvokerService.class);
 	}
 
+	/**
+	 * Replaces the lambda client all subsequent invocations are sent with.
+	 * <p>
+	 * A lambda client caches credentials and connections. The client should
+	 * be replaced by a new one when the process has been restored from a
+	 * checkpoint, e.g. from
+	 * {@code com.jrestless.core.container.bootstrap.CheckpointListener#afterRestore()}.
+	 * Invocations in flight complete with the old client.
+	 *
+	 * @param awsLambdaClient
+	 *            the new lambda client
+	 */
+	public void refresh(@Nonnull AWSLambdaClient awsLambdaClient) {
+		requireNonNull(awsLambdaClient, "awsLambdaClient may not be null");
+		synchronized (invokerFactoryBuilder) {
+			service = invokerFactoryBuilder
+					.lambdaClient(awsLambdaClient)
+					.build(LambdaInvokerService.class);
+		}
+	}
+
 	LambdaInvokerService getInvokerService() {
 		return service;
 	}
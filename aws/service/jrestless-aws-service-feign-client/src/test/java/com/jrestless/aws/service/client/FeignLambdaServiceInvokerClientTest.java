@@ -109,6 +109,34 @@ public class FeignLambdaServiceInvokerClientTest {
 		assertEquals(expectedResponse, actualResponse);
 	}
 
+	@Test
+	public void refresh_LambdaClientGiven_ShouldRebuildServiceWithNewClient() {
+		FeignLambdaServiceInvokerClient invokerClient = init(lambdaClient, FUNCTION_NAME, null, null);
+		AWSLambdaClient newLambdaClient = mock(AWSLambdaClient.class);
+		LambdaInvokerService newService = mock(LambdaInvokerService.class);
+		when(lambdaInvokerFactoryBuilder.build(LambdaInvokerService.class)).thenReturn(newService);
+		invokerClient.refresh(newLambdaClient);
+		verify(lambdaInvokerFactoryBuilder).lambdaClient(newLambdaClient);
+		assertEquals(newService, invokerClient.getInvokerService());
+	}
+
+	@Test
+	public void refresh_LambdaClientGiven_ShouldExecuteOnNewService() {
+		FeignLambdaServiceInvokerClient invokerClient = init(lambdaClient, FUNCTION_NAME, null, null);
+		LambdaInvokerService newService = mock(LambdaInvokerService.class);
+		when(lambdaInvokerFactoryBuilder.build(LambdaInvokerService.class)).thenReturn(newService);
+		invokerClient.refresh(mock(AWSLambdaClient.class));
+		ServiceRequest request = mock(ServiceRequest.class);
+		invokerClient.execute(request, mock(feign.Request.Options.class));
+		verify(newService).execute(request);
+		verifyZeroInteractions(service);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void refresh_NullLambdaClientGiven_ShouldFail() {
+		init(lambdaClient, FUNCTION_NAME, null, null).refresh(null);
+	}
+
 	@Test
 	public void testInitCreatesService() {
 		assertNotNull(new FeignLambdaServiceInvokerClient(lambdaClient, FUNCTION_NAME, null, null).getInvokerService());
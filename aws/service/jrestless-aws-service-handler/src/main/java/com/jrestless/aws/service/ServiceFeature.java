@@ -16,12 +16,16 @@
 package com.jrestless.aws.service;
 
 import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.ws.rs.core.Feature;
 import javax.ws.rs.core.FeatureContext;
 
+import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.collection.Ref;
@@ -29,6 +33,9 @@ import org.glassfish.jersey.internal.util.collection.Ref;
 import com.jrestless.aws.AwsFeature;
 import com.jrestless.aws.service.io.ServiceRequest;
 import com.jrestless.core.container.dpi.AbstractReferencingBinder;
+import com.jrestless.core.container.dpi.InvocationScope;
+import com.jrestless.core.container.dpi.StaticBinding;
+import com.jrestless.core.container.dpi.StaticBindings;
 
 /**
  * Binds Service specific values.
@@ -46,7 +53,12 @@ import com.jrestless.core.container.dpi.AbstractReferencingBinder;
  * <td>request
  * </tr>
  * </table>
- *
+ * <p>
+ * If the application enables
+ * {@link InvocationScope#PROXY_FREE_INJECTION_PROPERTY}, {@link ServiceRequest} is
+ * bound to a singleton that delegates to the current invocation's request instead
+ * of a request-scoped proxy. {@link #SERVICE_REQUEST_TYPE} is not bound in that case.
+ * <p>
  * Registers {@link AwsFeature}.
  *
  * @author Bjoern Bilger
@@ -58,23 +70,70 @@ public class ServiceFeature implements Feature {
 
 	@Override
 	public boolean configure(FeatureContext context) {
-		context.register(new Binder());
+		context.register(new Binder(StaticBindings.getServiceLocator(context),
+				InvocationScope.isEnabled(context.getConfiguration())));
 		context.register(AwsFeature.class);
 		return true;
 	}
 
 	private static class Binder extends AbstractReferencingBinder {
+		private final boolean proxyFree;
+
+		Binder(ServiceLocator serviceLocator, boolean proxyFree) {
+			super(serviceLocator);
+			this.proxyFree = proxyFree;
+		}
+
 		@Override
 		protected void configure() {
-			bindReferencingFactory(ServiceRequest.class, ReferencingServiceRequestFactory.class,
-					new TypeLiteral<Ref<ServiceRequest>>() { });
+			if (proxyFree) {
+				bindInvocationScopedDelegate(ServiceRequest.class, InvocationScopedServiceRequest.class);
+			} else {
+				bindReferencingFactory(ServiceRequest.class, ReferencingServiceRequestFactory.class,
+						new TypeLiteral<Ref<ServiceRequest>>() { });
+			}
 		}
 	}
 
-	private static class ReferencingServiceRequestFactory extends ReferencingFactory<ServiceRequest> {
+	@StaticBinding
+	static class ReferencingServiceRequestFactory extends ReferencingFactory<ServiceRequest> {
 		@Inject
 		ReferencingServiceRequestFactory(final Provider<Ref<ServiceRequest>> referenceFactory) {
 			super(referenceFactory);
 		}
 	}
+
+	@StaticBinding
+	static class InvocationScopedServiceRequest implements ServiceRequest {
+		private final InvocationScope invocationScope;
+
+		@Inject
+		InvocationScopedServiceRequest(InvocationScope invocationScope) {
+			this.invocationScope = invocationScope;
+		}
+
+		private ServiceRequest current() {
+			return invocationScope.get(ServiceRequest.class);
+		}
+
+		@Override
+		public String getBody() {
+			return current().getBody();
+		}
+
+		@Override
+		public Map<String, List<String>> getHeaders() {
+			return current().getHeaders();
+		}
+
+		@Override
+		public URI getRequestUri() {
+			return current().getRequestUri();
+		}
+
+		@Override
+		public String getHttpMethod() {
+			return current().getHttpMethod();
+		}
+	}
 }
@@ -42,6 +42,7 @@ import com.jrestless.aws.service.ServiceFeature;
 import com.jrestless.aws.service.io.DefaultServiceResponse;
 import com.jrestless.aws.service.io.ServiceRequest;
 import com.jrestless.aws.service.io.ServiceResponse;
+import com.jrestless.core.container.dpi.InvocationScope;
 import com.jrestless.core.container.handler.SimpleRequestHandler;
 import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
@@ -64,6 +65,7 @@ public abstract class ServiceRequestHandler
 	private static final Logger LOG = LoggerFactory.getLogger(ServiceRequestHandler.class);
 
 	private final URI baseUri;
+	private final InvocationScope.Resolver invocationScopeResolver = new InvocationScope.Resolver();
 
 	protected ServiceRequestHandler() {
 		this(URI.create("/"));
@@ -95,6 +97,12 @@ public abstract class ServiceRequestHandler
 		ServiceRequest request = requestAndLambdaContext.getServiceRequest();
 		Context lambdaContext = requestAndLambdaContext.getLambdaContext();
 		actualContainerRequest.setRequestScopedInitializer(locator -> {
+			if (invocationScopeResolver.enter(locator, actualContainerRequest)) {
+				// proxy-free injection: the values are read from the container request
+				InvocationScope.setValue(actualContainerRequest, ServiceRequest.class, request);
+				InvocationScope.setValue(actualContainerRequest, Context.class, lambdaContext);
+				return;
+			}
 			Ref<ServiceRequest> serviceRequestRef = locator
 					.<Ref<ServiceRequest>>getService(ServiceFeature.SERVICE_REQUEST_TYPE);
 			if (serviceRequestRef != null) {
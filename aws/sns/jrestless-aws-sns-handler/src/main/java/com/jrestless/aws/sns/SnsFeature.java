@@ -22,13 +22,18 @@ import javax.inject.Provider;
 import javax.ws.rs.core.Feature;
 import javax.ws.rs.core.FeatureContext;
 
+import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.collection.Ref;
 
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNS;
 import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
 import com.jrestless.aws.AwsFeature;
 import com.jrestless.core.container.dpi.AbstractReferencingBinder;
+import com.jrestless.core.container.dpi.InvocationScope;
+import com.jrestless.core.container.dpi.StaticBinding;
+import com.jrestless.core.container.dpi.StaticBindings;
 
 /**
  * Binds SNS specific values.
@@ -46,7 +51,12 @@ import com.jrestless.core.container.dpi.AbstractReferencingBinder;
  * <td>request
  * </tr>
  * </table>
- *
+ * <p>
+ * If the application enables
+ * {@link InvocationScope#PROXY_FREE_INJECTION_PROPERTY}, {@link SNSRecord} is
+ * bound to a singleton that delegates to the current invocation's record instead
+ * of a request-scoped proxy. {@link #SNS_RECORD_TYPE} is not bound in that case.
+ * <p>
  * Registers {@link AwsFeature}.
  *
  * @author Bjoern Bilger
@@ -58,23 +68,94 @@ public class SnsFeature implements Feature {
 
 	@Override
 	public boolean configure(FeatureContext context) {
-		context.register(new Binder());
+		context.register(new Binder(StaticBindings.getServiceLocator(context),
+				InvocationScope.isEnabled(context.getConfiguration())));
 		context.register(AwsFeature.class);
 		return true;
 	}
 
 	private static class Binder extends AbstractReferencingBinder {
+		private final boolean proxyFree;
+
+		Binder(ServiceLocator serviceLocator, boolean proxyFree) {
+			super(serviceLocator);
+			this.proxyFree = proxyFree;
+		}
+
 		@Override
 		protected void configure() {
-			bindReferencingFactory(SNSRecord.class, ReferencingSnsRecordFactory.class,
-					new TypeLiteral<Ref<SNSRecord>>() { });
+			if (proxyFree) {
+				bindInvocationScopedDelegate(SNSRecord.class, InvocationScopedSnsRecord.class);
+			} else {
+				bindReferencingFactory(SNSRecord.class, ReferencingSnsRecordFactory.class,
+						new TypeLiteral<Ref<SNSRecord>>() { });
+			}
 		}
 	}
 
-	private static class ReferencingSnsRecordFactory extends ReferencingFactory<SNSRecord> {
+	@StaticBinding
+	static class ReferencingSnsRecordFactory extends ReferencingFactory<SNSRecord> {
 		@Inject
 		ReferencingSnsRecordFactory(final Provider<Ref<SNSRecord>> referenceFactory) {
 			super(referenceFactory);
 		}
 	}
+
+	/*
+	 * SNSRecord is a class, so the delegate has to extend it; the setters
+	 * are delegated, as well, to keep the record's state in one place.
+	 */
+	@StaticBinding
+	static class InvocationScopedSnsRecord extends SNSRecord {
+		private final InvocationScope invocationScope;
+
+		@Inject
+		InvocationScopedSnsRecord(InvocationScope invocationScope) {
+			this.invocationScope = invocationScope;
+		}
+
+		private SNSRecord current() {
+			return invocationScope.get(SNSRecord.class);
+		}
+
+		@Override
+		public SNS getSNS() {
+			return current().getSNS();
+		}
+
+		@Override
+		public String getEventVersion() {
+			return current().getEventVersion();
+		}
+
+		@Override
+		public String getEventSource() {
+			return current().getEventSource();
+		}
+
+		@Override
+		public String getEventSubscriptionArn() {
+			return current().getEventSubscriptionArn();
+		}
+
+		@Override
+		public void setSns(SNS value) {
+			current().setSns(value);
+		}
+
+		@Override
+		public void setEventVersion(String value) {
+			current().setEventVersion(value);
+		}
+
+		@Override
+		public void setEventSource(String value) {
+			current().setEventSource(value);
+		}
+
+		@Override
+		public void setEventSubscriptionArn(String value) {
+			current().setEventSubscriptionArn(value);
+		}
+	}
 }
@@ -46,6 +46,7 @@ import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNS;
 import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
 import com.jrestless.aws.AwsFeature;
 import com.jrestless.aws.sns.SnsFeature;
+import com.jrestless.core.container.dpi.InvocationScope;
 import com.jrestless.core.container.handler.SimpleRequestHandler;
 import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
@@ -69,6 +70,7 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 	private static final Logger LOG = LoggerFactory.getLogger(SnsRequestHandler.class);
 
 	private final URI baseUri;
+	private final InvocationScope.Resolver invocationScopeResolver = new InvocationScope.Resolver();
 
 	protected SnsRequestHandler() {
 		this(URI.create("/"));
@@ -174,6 +176,12 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 		SNSRecord snsRecord = snsRecordAndContext.getSnsRecord();
 		Context lambdaContext = snsRecordAndContext.getLambdaContext();
 		actualContainerRequest.setRequestScopedInitializer(locator -> {
+			if (invocationScopeResolver.enter(locator, actualContainerRequest)) {
+				// proxy-free injection: the values are read from the container request
+				InvocationScope.setValue(actualContainerRequest, SNSRecord.class, snsRecord);
+				InvocationScope.setValue(actualContainerRequest, Context.class, lambdaContext);
+				return;
+			}
 			Ref<SNSRecord> snsRecordRef = locator.<Ref<SNSRecord>>getService(SnsFeature.SNS_RECORD_TYPE);
 			if (snsRecordRef != null) {
 				snsRecordRef.set(snsRecord);
@@ -15,7 +15,25 @@
  */
 package com.jrestless.aws.sns.handler;
 
+import static java.util.Objects.requireNonNull;
+
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
@@ -28,12 +46,26 @@ import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
  * to process incoming requests from other Lambda functions.
  * <p>
  * Implementations must provide a no-args constructor.
+ * <p>
+ * The records of an event are dispatched one after another by default. If
+ * {@link #getRecordParallelism()} is overridden to return a value greater than
+ * 1, the records are dispatched concurrently on a bounded executor instead (cf.
+ * {@link #handleRequest(SNSEvent, Context)}).
  *
  * @author Bjoern Bilger
  *
  */
 public abstract class SnsRequestObjectHandler extends SnsRequestHandler implements RequestHandler<SNSEvent, Void> {
 
+	private static final Logger LOG = LoggerFactory.getLogger(SnsRequestObjectHandler.class);
+
+	private volatile ExecutorService recordExecutor;
+	/*
+	 * held (shared) by concurrent dispatches and (exclusively) by the shutdown
+	 * of the executor before a checkpoint
+	 */
+	private final ReadWriteLock dispatchLock = new ReentrantReadWriteLock();
+
 	protected SnsRequestObjectHandler() {
 		super();
 	}
@@ -42,11 +74,182 @@ public abstract class SnsRequestObjectHandler extends SnsRequestHandler implemen
 		super(baseUri);
 	}
 
+	/**
+	 * Dispatches all records of the event to the container.
+	 * <p>
+	 * In sequential mode (the default) the records are dispatched one after
+	 * another and the first exception aborts the dispatch of the remaining
+	 * records.
+	 * <p>
+	 * In concurrent mode (cf. {@link #getRecordParallelism()}) all records
+	 * are dispatched and awaited, even if some of them fail. The outcome of
+	 * each record is collected; if any record failed, the first failure is
+	 * re-thrown with the other failures added as suppressed exceptions.
+	 * <p>
+	 * Note: in both modes a record fails, only, if {@link #onRequestFailure}
+	 * throws an exception. The default implementation logs the exception and
+	 * returns, so by default no exception is thrown and Lambda doesn't retry
+	 * the event.
+	 */
 	@Override
 	public Void handleRequest(SNSEvent snsEvent, Context context) {
-		for (SNSRecord snsRecord : snsEvent.getRecords()) {
-			delegateRequest(new SnsRecordAndLambdaContext(snsRecord, context));
+		List<SNSRecord> snsRecords = snsEvent.getRecords();
+		if (snsRecords.size() > 1 && getRecordParallelism() > 1) {
+			dispatchConcurrently(snsRecords, context);
+		} else {
+			for (SNSRecord snsRecord : snsRecords) {
+				delegateRequest(new SnsRecordAndLambdaContext(snsRecord, context));
+			}
 		}
 		return null;
 	}
+
+	/**
+	 * Hook to enable the concurrent dispatch of the records of an event.
+	 * <p>
+	 * The value is the maximum number of records dispatched at the same time.
+	 * The records are dispatched sequentially if the value is less than or
+	 * equal to 1, which is the default.
+	 * <p>
+	 * The resources and providers must be thread-safe in concurrent mode.
+	 *
+	 * @return the maximum number of records to dispatch concurrently
+	 */
+	protected int getRecordParallelism() {
+		return 1;
+	}
+
+	/**
+	 * Creates the executor records are dispatched on in concurrent mode.
+	 * <p>
+	 * The executor is created once, on the first concurrent dispatch, and
+	 * reused for all subsequent events - until it is shut down before a
+	 * checkpoint (cf. {@link #beforeCheckpoint()}). The default implementation
+	 * creates a fixed pool of daemon threads.
+	 *
+	 * @param parallelism
+	 *            the value of {@link #getRecordParallelism()}
+	 * @return the executor
+	 */
+	@Nonnull
+	protected ExecutorService createRecordExecutor(int parallelism) {
+		return Executors.newFixedThreadPool(parallelism, new RecordThreadFactory());
+	}
+
+	/**
+	 * Shuts down the record executor since its threads must not be part of a
+	 * checkpoint. Concurrent dispatches that are in flight are awaited first.
+	 * A new executor is created on the next concurrent dispatch after the
+	 * restore.
+	 */
+	@Override
+	protected void onBeforeCheckpoint() {
+		ExecutorService executor;
+		Lock lock = dispatchLock.writeLock();
+		lock.lock();
+		try {
+			synchronized (this) {
+				executor = recordExecutor;
+				recordExecutor = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	private void dispatchConcurrently(List<SNSRecord> snsRecords, Context context) {
+		List<RecordOutcome> outcomes = new ArrayList<>(snsRecords.size());
+		Lock lock = dispatchLock.readLock();
+		lock.lock();
+		try {
+			ExecutorService executor = getRecordExecutor();
+			List<Future<?>> futures = new ArrayList<>(snsRecords.size());
+			for (SNSRecord snsRecord : snsRecords) {
+				SnsRecordAndLambdaContext snsRecordAndContext = new SnsRecordAndLambdaContext(snsRecord, context);
+				futures.add(executor.submit(() -> delegateRequest(snsRecordAndContext)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				outcomes.add(awaitOutcome(snsRecords.get(i), futures.get(i)));
+			}
+		} finally {
+			lock.unlock();
+		}
+		throwFailures(outcomes);
+	}
+
+	private ExecutorService getRecordExecutor() {
+		ExecutorService executor = recordExecutor;
+		if (executor == null) {
+			synchronized (this) {
+				executor = recordExecutor;
+				if (executor == null) {
+					executor = requireNonNull(createRecordExecutor(getRecordParallelism()));
+					recordExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	private static RecordOutcome awaitOutcome(SNSRecord snsRecord, Future<?> future) {
+		try {
+			future.get();
+			return new RecordOutcome(snsRecord, null);
+		} catch (ExecutionException e) {
+			return new RecordOutcome(snsRecord, e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			return new RecordOutcome(snsRecord, e);
+		}
+	}
+
+	private static void throwFailures(List<RecordOutcome> outcomes) {
+		Throwable failure = null;
+		for (RecordOutcome outcome : outcomes) {
+			if (outcome.failure != null) {
+				LOG.error("failed to dispatch SNS message '" + outcome.snsRecord.getSNS().getMessageId() + "'",
+						outcome.failure);
+				if (failure == null) {
+					failure = outcome.failure;
+				} else {
+					failure.addSuppressed(outcome.failure);
+				}
+			}
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw new IllegalStateException("failed to dispatch the SNS records", failure);
+		}
+	}
+
+	/**
+	 * The outcome of the dispatch of a single record.
+	 */
+	private static final class RecordOutcome {
+		private final SNSRecord snsRecord;
+		private final Throwable failure;
+
+		RecordOutcome(SNSRecord snsRecord, Throwable failure) {
+			this.snsRecord = snsRecord;
+			this.failure = failure;
+		}
+	}
+
+	private static final class RecordThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "jrestless-sns-record-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
 }
@@ -0,0 +1,237 @@
+package com.jrestless.aws.sns.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNS;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
+import com.jrestless.aws.sns.SnsFeature;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class SnsRequestObjectHandlerConcurrencyTest {
+
+	private static final int PARALLELISM = 3;
+
+	private static CyclicBarrier barrier;
+	private static Set<String> threads;
+	private static Set<String> handled;
+	private static List<ExecutorService> executors;
+	private static volatile CountDownLatch block;
+
+	private final Context context = mock(Context.class);
+
+	@Before
+	public void setup() {
+		barrier = new CyclicBarrier(PARALLELISM);
+		threads = ConcurrentHashMap.newKeySet();
+		handled = ConcurrentHashMap.newKeySet();
+		executors = Collections.synchronizedList(new ArrayList<>());
+		block = new CountDownLatch(0);
+	}
+
+	@Test
+	public void handleRequest_ParallelismGiven_ShouldDispatchRecordsConcurrently() {
+		SnsRequestObjectHandler handler = createHandler(PARALLELISM);
+		handler.handleRequest(createSnsEvent("await", "await", "await"), context);
+		assertEquals(PARALLELISM, threads.size());
+		assertEquals(PARALLELISM, handled.size());
+	}
+
+	@Test
+	public void handleRequest_ParallelismGiven_ShouldReuseExecutor() {
+		SnsRequestObjectHandler handler = createHandler(PARALLELISM);
+		handler.handleRequest(createSnsEvent("await", "await", "await"), context);
+		barrier.reset();
+		handler.handleRequest(createSnsEvent("await", "await", "await"), context);
+		assertEquals(PARALLELISM, threads.size());
+		assertEquals(2 * PARALLELISM, handled.size());
+	}
+
+	@Test
+	public void beforeCheckpoint_ExecutorGiven_ShouldShutDownExecutorAndCreateNewOneAfterRestore() {
+		SnsRequestObjectHandler handler = createHandler(PARALLELISM);
+		handler.handleRequest(createSnsEvent("await", "await", "await"), context);
+		handler.beforeCheckpoint();
+		assertEquals(1, executors.size());
+		assertTrue(executors.get(0).isShutdown());
+		handler.afterRestore();
+		barrier.reset();
+		handler.handleRequest(createSnsEvent("await", "await", "await"), context);
+		assertEquals(2, executors.size());
+		assertFalse(executors.get(1).isShutdown());
+		assertEquals(2 * PARALLELISM, handled.size());
+	}
+
+	@Test(timeout = 30000)
+	public void beforeCheckpoint_DispatchInFlightGiven_ShouldAwaitDispatch() throws Exception {
+		SnsRequestObjectHandler handler = createHandler(PARALLELISM);
+		block = new CountDownLatch(1);
+		ExecutorService caller = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> dispatch = caller.submit(() -> handler.handleRequest(createSnsEvent("block", "block"), context));
+			while (handled.size() < 2) {
+				Thread.sleep(10);
+			}
+			Future<?> checkpoint = caller.submit(handler::beforeCheckpoint);
+			try {
+				checkpoint.get(200, TimeUnit.MILLISECONDS);
+				fail("the checkpoint must await the dispatch");
+			} catch (TimeoutException e) {
+				// expected
+			}
+			assertFalse(executors.get(0).isShutdown());
+			block.countDown();
+			dispatch.get(10, TimeUnit.SECONDS);
+			checkpoint.get(10, TimeUnit.SECONDS);
+			assertTrue(executors.get(0).isShutdown());
+		} finally {
+			block.countDown();
+			caller.shutdownNow();
+		}
+	}
+
+	@Test
+	public void beforeCheckpoint_NoExecutorGiven_ShouldNotFail() {
+		SnsRequestObjectHandler handler = createHandler(PARALLELISM);
+		handler.beforeCheckpoint();
+		handler.afterRestore();
+		assertTrue(executors.isEmpty());
+	}
+
+	@Test
+	public void handleRequest_NoParallelismGiven_ShouldDispatchRecordsSequentially() {
+		SnsRequestObjectHandler handler = createHandler(1);
+		handler.handleRequest(createSnsEvent("record", "record", "record"), context);
+		assertEquals(Collections.singleton(Thread.currentThread().getName()), threads);
+		assertEquals(PARALLELISM, handled.size());
+	}
+
+	@Test
+	public void handleRequest_FailingRecordsGiven_ShouldDispatchAllRecordsAndThrowFirstFailure() {
+		SnsRequestObjectHandler handler = createHandler(PARALLELISM);
+		try {
+			handler.handleRequest(createSnsEvent("fail", "record", "fail"), context);
+			fail("expected a failure");
+		} catch (RecordFailure e) {
+			assertEquals("fail", e.getMessage());
+			assertEquals(1, e.getSuppressed().length);
+		}
+		assertEquals(PARALLELISM, handled.size());
+	}
+
+	@Test
+	public void handleRequest_FailingRecordsAndDefaultFailureHandlingGiven_ShouldDispatchAllRecordsAndNotThrow() {
+		SnsRequestObjectHandler handler = createHandler(PARALLELISM, false);
+		handler.handleRequest(createSnsEvent("fail", "record", "fail"), context);
+		assertEquals(PARALLELISM, handled.size());
+	}
+
+	private static SnsRequestObjectHandler createHandler(int parallelism) {
+		return createHandler(parallelism, true);
+	}
+
+	private static SnsRequestObjectHandler createHandler(int parallelism, boolean rethrowFailures) {
+		SnsRequestObjectHandler handler = new SnsRequestObjectHandler() {
+			@Override
+			protected int getRecordParallelism() {
+				return parallelism;
+			}
+
+			@Override
+			protected ExecutorService createRecordExecutor(int parallelism) {
+				ExecutorService executor = super.createRecordExecutor(parallelism);
+				executors.add(executor);
+				return executor;
+			}
+
+			@Override
+			protected Void onRequestSuccess(Void response, SnsRecordAndLambdaContext request,
+					JRestlessContainerRequest containerRequest) {
+				if ("fail".equals(request.getSnsRecord().getSNS().getSubject())) {
+					throw new IllegalStateException("fail");
+				}
+				return response;
+			}
+
+			@Override
+			protected Void onRequestFailure(Exception e, SnsRecordAndLambdaContext request,
+					JRestlessContainerRequest containerRequest) {
+				if (rethrowFailures) {
+					throw new RecordFailure(request.getSnsRecord().getSNS().getSubject());
+				}
+				return super.onRequestFailure(e, request, containerRequest);
+			}
+		};
+		handler.init(new ResourceConfig(SnsFeature.class, TestResource.class));
+		handler.start();
+		return handler;
+	}
+
+	private static SNSEvent createSnsEvent(String... subjects) {
+		List<SNSRecord> snsRecords = new ArrayList<>();
+		for (String subject : subjects) {
+			SNS sns = new SNS();
+			sns.setTopicArn("a:b:mytopic");
+			sns.setSubject(subject);
+			sns.setMessageId(subject + snsRecords.size());
+			SNSRecord snsRecord = new SNSRecord();
+			snsRecord.setSns(sns);
+			snsRecords.add(snsRecord);
+		}
+		SNSEvent snsEvent = new SNSEvent();
+		snsEvent.setRecords(snsRecords);
+		return snsEvent;
+	}
+
+	@Path("/mytopic")
+	public static class TestResource {
+		@POST
+		@Path("{action}")
+		public void handle(@PathParam("action") String action, @javax.ws.rs.core.Context SNSRecord snsRecord)
+				throws InterruptedException, BrokenBarrierException, TimeoutException {
+			threads.add(Thread.currentThread().getName());
+			handled.add(snsRecord.getSNS().getMessageId() + "@" + System.identityHashCode(snsRecord));
+			if ("await".equals(action)) {
+				// blocks unless all records are dispatched concurrently
+				barrier.await(10, TimeUnit.SECONDS);
+			} else if ("block".equals(action)) {
+				block.await(10, TimeUnit.SECONDS);
+			}
+		}
+	}
+
+	private static class RecordFailure extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		RecordFailure(String message) {
+			super(message);
+		}
+	}
+}
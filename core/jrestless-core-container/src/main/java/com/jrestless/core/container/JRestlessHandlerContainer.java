@@ -25,9 +25,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.Response.Status;
@@ -36,19 +38,33 @@ import javax.ws.rs.core.SecurityContext;
 
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.utilities.Binder;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.glassfish.jersey.internal.MapPropertiesDelegate;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
 import org.glassfish.jersey.server.spi.Container;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+import org.glassfish.jersey.uri.UriTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jrestless.core.container.bootstrap.CheckpointRegistry;
+import com.jrestless.core.container.bootstrap.StartupEvent;
+import com.jrestless.core.container.bootstrap.StartupListener;
+import com.jrestless.core.container.bootstrap.StartupPhase;
+import com.jrestless.core.container.dpi.InvocationScope;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.container.metrics.RequestMetrics;
+import com.jrestless.core.container.metrics.RequestMetricsListener;
+import com.jrestless.core.container.metrics.RequestPhase;
 
 
 /**
@@ -64,7 +80,11 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 
 	private static final Logger LOG = LoggerFactory.getLogger(JRestlessHandlerContainer.class);
 
-	private volatile ApplicationHandler appHandler;
+	private volatile ApplicationHandlerReference appHandlerReference;
+	// serializes reloads; requests are not blocked by it
+	private final Object reloadLock = new Object();
+	private final StartupListener startupListener;
+	private volatile RequestMetricsListener requestMetricsListener;
 
 	/**
 	 * Creates a new JRestless container.
@@ -74,7 +94,7 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 	 *            container.
 	 */
 	public JRestlessHandlerContainer(Application application) {
-		this(new ApplicationHandler(application));
+		this(new ApplicationHandler(application, createCheckpointBinder(null), null));
 	}
 
 	/**
@@ -90,12 +110,86 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 	 *            parent HK2 service locator.
 	 */
 	public JRestlessHandlerContainer(Application application, Binder customBinder, ServiceLocator parentLocator) {
-		this(new ApplicationHandler(application, customBinder, parentLocator));
+		this(new ApplicationHandler(application, createCheckpointBinder(customBinder), parentLocator));
+	}
+
+	/**
+	 * Creates a new JRestless container that reports the duration of its
+	 * startup phases to the given listener.
+	 * <p>
+	 * Note: the creation of the {@link ApplicationHandler} is split into
+	 * {@link StartupPhase#INJECTION_BINDING} and
+	 * {@link StartupPhase#PROVIDER_INITIALIZATION} by an
+	 * {@link ApplicationEventListener}. Jersey creates request events for each
+	 * request when an application event listener is registered.
+	 *
+	 * @param application
+	 *            JAX-RS / Jersey application to be deployed on the JRestless
+	 *            container.
+	 * @param customBinder
+	 *            additional custom bindings used during {@link ServiceLocator}
+	 *            creation; may be null.
+	 * @param parentLocator
+	 *            parent HK2 service locator; may be null.
+	 * @param startupListener
+	 *            the listener to report the startup phases to.
+	 */
+	public JRestlessHandlerContainer(@Nonnull Application application, @Nullable Binder customBinder,
+			@Nullable ServiceLocator parentLocator, @Nonnull StartupListener startupListener) {
+		this(createApplicationHandler(application, customBinder, parentLocator, startupListener), startupListener);
 	}
 
 	protected JRestlessHandlerContainer(@Nonnull ApplicationHandler applicationHandler) {
+		this(applicationHandler, null);
+	}
+
+	private JRestlessHandlerContainer(@Nonnull ApplicationHandler applicationHandler,
+			@Nullable StartupListener startupListener) {
 		requireNonNull(applicationHandler, "applicationHandler may not be null");
-		this.appHandler = applicationHandler;
+		this.appHandlerReference = new ApplicationHandlerReference(applicationHandler);
+		this.startupListener = startupListener;
+	}
+
+	private static ApplicationHandler createApplicationHandler(@Nonnull Application application,
+			@Nullable Binder customBinder, @Nullable ServiceLocator parentLocator,
+			@Nonnull StartupListener startupListener) {
+		requireNonNull(application, "application may not be null");
+		requireNonNull(startupListener, "startupListener may not be null");
+		long start = System.nanoTime();
+		InitializationListener initializationListener = new InitializationListener(startupListener, start);
+		Binder binder = new AbstractBinder() {
+			@Override
+			protected void configure() {
+				bind(initializationListener).to(ApplicationEventListener.class);
+				install(createCheckpointBinder(customBinder));
+			}
+		};
+		ApplicationHandler applicationHandler = new ApplicationHandler(application, binder, parentLocator);
+		fireStartupEvent(startupListener, StartupPhase.APPLICATION_HANDLER_CREATION, start);
+		return applicationHandler;
+	}
+
+	/*
+	 * Each application handler gets its own registry since its resources and
+	 * providers are discarded on reload.
+	 */
+	private static Binder createCheckpointBinder(@Nullable Binder customBinder) {
+		return new AbstractBinder() {
+			@Override
+			protected void configure() {
+				bind(new CheckpointRegistry()).to(CheckpointRegistry.class);
+				if (customBinder != null) {
+					install(customBinder);
+				}
+			}
+		};
+	}
+
+	private static void fireStartupEvent(@Nullable StartupListener startupListener, StartupPhase phase,
+			long start) {
+		if (startupListener != null) {
+			startupListener.onPhaseCompleted(new StartupEvent(phase, System.nanoTime() - start));
+		}
 	}
 
 	/**
@@ -115,6 +209,10 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 	/**
 	 * Creates a container request from the given input and delegates it to the
 	 * application.
+	 * <p>
+	 * The request's metrics are reported to the
+	 * {@link #setRequestMetricsListener(RequestMetricsListener) request metrics
+	 * listener} if one is set.
 	 *
 	 * @param request
 	 * @param responseWriter
@@ -128,12 +226,100 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 			@Nonnull SecurityContext securityContext, @Nonnull Consumer<ContainerRequest> containerRequestEnhancer) {
 		requireNonNull(responseWriter, "responseWriter may not be null");
 		requireNonNull(containerRequestEnhancer, "containerRequestExtender may not be null");
+		RequestMetricsListener metricsListener = requestMetricsListener;
+		if (metricsListener != null) {
+			handleRequest(request, responseWriter, securityContext, containerRequestEnhancer, metricsListener);
+			return;
+		}
 		ContainerRequest containerRequest = createContainerRequest(request,
 				new JRestlessContainerResponseWriter(responseWriter), securityContext);
 		containerRequestEnhancer.accept(containerRequest);
 		handleRequest(containerRequest);
 	}
 
+	private void handleRequest(RequestT request, JRestlessResponseWriter responseWriter,
+			SecurityContext securityContext, Consumer<ContainerRequest> containerRequestEnhancer,
+			RequestMetricsListener metricsListener) {
+		RequestMetrics metrics = new RequestMetrics();
+		metricsListener.onRequestStart(metrics);
+		ContainerRequest containerRequest = null;
+		try {
+			long phaseStart = System.nanoTime();
+			containerRequest = createContainerRequest(request,
+					new MeteredContainerResponseWriter(responseWriter, metrics, metricsListener), securityContext);
+			containerRequestEnhancer.accept(containerRequest);
+			metrics.setHttpMethod(containerRequest.getMethod());
+			completePhase(metrics, RequestPhase.CONTAINER_REQUEST_CREATION, phaseStart, metricsListener);
+			phaseStart = System.nanoTime();
+			try {
+				handleRequest(containerRequest);
+			} finally {
+				completePhase(metrics, RequestPhase.DISPATCH, phaseStart, metricsListener);
+			}
+		} catch (RuntimeException | Error e) {
+			metrics.setFailed(true);
+			throw e;
+		} finally {
+			if (containerRequest != null) {
+				metrics.setResourceTemplate(getResourceTemplate(containerRequest));
+			}
+			metrics.complete();
+			metricsListener.onRequestCompleted(metrics);
+		}
+	}
+
+	private static void completePhase(RequestMetrics metrics, RequestPhase phase, long phaseStart,
+			RequestMetricsListener metricsListener) {
+		metrics.completePhase(phase, phaseStart);
+		metricsListener.onPhaseCompleted(metrics, phase);
+	}
+
+	/**
+	 * Joins the templates of the matched resource method and its parent
+	 * resources.
+	 */
+	private static String getResourceTemplate(ContainerRequest containerRequest) {
+		List<UriTemplate> matchedTemplates = containerRequest.getUriInfo().getMatchedTemplates();
+		if (matchedTemplates.isEmpty()) {
+			return null;
+		}
+		StringBuilder resourceTemplate = new StringBuilder();
+		// the templates are ordered from the resource method to the root resource
+		for (int i = matchedTemplates.size() - 1; i >= 0; i--) {
+			String template = matchedTemplates.get(i).getTemplate();
+			if (template.isEmpty() || "/".equals(template)) {
+				continue;
+			}
+			if (template.charAt(0) != '/') {
+				resourceTemplate.append('/');
+			}
+			resourceTemplate.append(template);
+			if (resourceTemplate.charAt(resourceTemplate.length() - 1) == '/') {
+				resourceTemplate.setLength(resourceTemplate.length() - 1);
+			}
+		}
+		return resourceTemplate.length() == 0 ? "/" : resourceTemplate.toString();
+	}
+
+	/**
+	 * Sets the listener the metrics of all subsequent requests handled via
+	 * {@link #handleRequest(JRestlessContainerRequest, JRestlessResponseWriter, SecurityContext, Consumer)}
+	 * are reported to.
+	 * <p>
+	 * No metrics are recorded if no listener is set.
+	 *
+	 * @param requestMetricsListener
+	 *            the listener or {@code null} to stop reporting
+	 */
+	public void setRequestMetricsListener(@Nullable RequestMetricsListener requestMetricsListener) {
+		this.requestMetricsListener = requestMetricsListener;
+	}
+
+	@Nullable
+	public RequestMetricsListener getRequestMetricsListener() {
+		return requestMetricsListener;
+	}
+
 	/**
 	 * Creates a new {@link ContainerRequest} for the given input.
 	 *
@@ -167,28 +353,57 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 
 	/**
 	 * Delegates the container request to the application.
+	 * <p>
+	 * If the request gets suspended (e.g. by a resource method using
+	 * {@link javax.ws.rs.container.AsyncResponse}) and the request's writer is
+	 * a {@link JRestlessContainerResponseWriter}, the method blocks until the
+	 * response has been committed or the suspend timeout has been handled.
 	 *
 	 * @param request
 	 *            container request.
 	 */
 	protected void handleRequest(@Nonnull ContainerRequest request) {
 		requireNonNull(request, "request may not be null");
+		ApplicationHandlerReference reference = acquireApplicationHandler();
 		try {
-			appHandler.handle(request);
+			try {
+				reference.getApplicationHandler().handle(request);
+			} finally {
+				InvocationScope.exit();
+			}
+			ContainerResponseWriter responseWriter = request.getResponseWriter();
+			if (responseWriter instanceof JRestlessContainerResponseWriter) {
+				((JRestlessContainerResponseWriter) responseWriter).awaitCommit();
+			}
 		} catch (Exception e) {
 			LOG.error("failed to handle request", e);
 			throw e;
+		} finally {
+			reference.release(this);
 		}
 	}
 
+	/*
+	 * A reference can only be acquired while it is the current one or while
+	 * requests are still in flight on it. Once it has been retired and drained
+	 * a reload has swapped in a new reference already, so retrying is safe.
+	 */
+	private ApplicationHandlerReference acquireApplicationHandler() {
+		ApplicationHandlerReference reference = appHandlerReference;
+		while (!reference.acquire()) {
+			reference = appHandlerReference;
+		}
+		return reference;
+	}
+
 	@Override
 	public ResourceConfig getConfiguration() {
-		return appHandler.getConfiguration();
+		return appHandlerReference.getApplicationHandler().getConfiguration();
 	}
 
 	@Override
 	public ApplicationHandler getApplicationHandler() {
-		return appHandler;
+		return appHandlerReference.getApplicationHandler();
 	}
 
 	@Override
@@ -196,20 +411,98 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 		reload(getConfiguration());
 	}
 
+	/**
+	 * Reloads the container with the given configuration.
+	 * <p>
+	 * The new {@link ApplicationHandler} is created and started while the
+	 * current one keeps handling requests. Afterwards it replaces the current
+	 * one atomically, i.e. all requests that start after the swap are handled
+	 * by the new application handler. The old application handler is shut
+	 * down once all requests it is handling have completed - by the thread
+	 * completing the last of them.
+	 * <p>
+	 * Concurrent reloads are serialized.
+	 *
+	 * @param configuration
+	 */
 	@Override
 	public void reload(ResourceConfig configuration) {
-		LOG.info("reloading container...");
-		appHandler.onShutdown(this);
-
-		appHandler = createNewApplicationHandler(configuration);
-		appHandler.onReload(this);
-		appHandler.onStartup(this);
-		LOG.info("reloaded container");
+		synchronized (reloadLock) {
+			LOG.info("reloading container...");
+			long start = System.nanoTime();
+			ApplicationHandler newAppHandler = createNewApplicationHandler(configuration);
+			newAppHandler.onReload(this);
+			newAppHandler.onStartup(this);
+			ApplicationHandlerReference oldAppHandlerReference = appHandlerReference;
+			appHandlerReference = new ApplicationHandlerReference(newAppHandler);
+			oldAppHandlerReference.retire(this);
+			fireStartupEvent(startupListener, StartupPhase.CONTAINER_RELOAD, start);
+			LOG.info("reloaded container");
+		}
 	}
 
 	// JUnit
 	ApplicationHandler createNewApplicationHandler(ResourceConfig configuration) {
-		return new ApplicationHandler(configuration);
+		return new ApplicationHandler(configuration, createCheckpointBinder(null), null);
+	}
+
+	/**
+	 * Invokes {@link CheckpointRegistry#beforeCheckpoint()} on the registry of
+	 * the current {@link ApplicationHandler}, i.e. prepares all resources and
+	 * providers that have joined it for the process to be checkpointed.
+	 * <p>
+	 * Checkpoint and restore are serialized with reloads. Nothing happens if
+	 * the application handler has not been created by the container and thus
+	 * has no registry.
+	 *
+	 * @throws com.jrestless.core.container.bootstrap.CheckpointException
+	 *             if at least one listener failed
+	 */
+	public void beforeCheckpoint() {
+		synchronized (reloadLock) {
+			CheckpointRegistry registry = getCheckpointRegistry();
+			if (registry != null) {
+				LOG.info("preparing container for checkpoint...");
+				registry.beforeCheckpoint();
+				LOG.info("prepared container for checkpoint");
+			}
+		}
+	}
+
+	/**
+	 * Invokes {@link CheckpointRegistry#afterRestore()} on the registry of the
+	 * current {@link ApplicationHandler}, i.e. lets all resources and providers
+	 * that have joined it refresh their state after the process has been
+	 * restored.
+	 * <p>
+	 * Checkpoint and restore are serialized with reloads. Nothing happens if
+	 * the application handler has not been created by the container and thus
+	 * has no registry.
+	 *
+	 * @throws com.jrestless.core.container.bootstrap.CheckpointException
+	 *             if at least one listener failed
+	 */
+	public void afterRestore() {
+		synchronized (reloadLock) {
+			long start = System.nanoTime();
+			CheckpointRegistry registry = getCheckpointRegistry();
+			if (registry != null) {
+				LOG.info("restoring container...");
+				registry.afterRestore();
+				fireStartupEvent(startupListener, StartupPhase.CONTAINER_RESTORE, start);
+				LOG.info("restored container");
+			}
+		}
+	}
+
+	/**
+	 * @return the checkpoint registry of the current {@link ApplicationHandler}
+	 *         or {@code null} if the application handler has not been created
+	 *         by the container
+	 */
+	@Nullable
+	public CheckpointRegistry getCheckpointRegistry() {
+		return getApplicationHandler().getServiceLocator().getService(CheckpointRegistry.class);
 	}
 
 	/**
@@ -219,7 +512,9 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 	 */
 	public void onStartup() {
 		LOG.info("starting container...");
-		appHandler.onStartup(this);
+		long start = System.nanoTime();
+		appHandlerReference.getApplicationHandler().onStartup(this);
+		fireStartupEvent(startupListener, StartupPhase.CONTAINER_STARTUP, start);
 		LOG.info("started container");
 	}
 
@@ -230,10 +525,94 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 	 */
 	public void onShutdown() {
 		LOG.info("stopping container...");
-		appHandler.onShutdown(this);
+		appHandlerReference.getApplicationHandler().onShutdown(this);
 		LOG.info("stopped container");
 	}
 
+	/**
+	 * Reference-counted handle of an {@link ApplicationHandler}.
+	 * <p>
+	 * The container holds one reference while the handle is current and each
+	 * request holds one while it is being handled. Once the handle has been
+	 * retired and the last reference has been released, the application
+	 * handler is shut down. A drained handle cannot be acquired anymore.
+	 */
+	private static final class ApplicationHandlerReference {
+		private final ApplicationHandler applicationHandler;
+		// starts with the container's reference
+		private final AtomicInteger references = new AtomicInteger(1);
+
+		ApplicationHandlerReference(ApplicationHandler applicationHandler) {
+			this.applicationHandler = applicationHandler;
+		}
+
+		ApplicationHandler getApplicationHandler() {
+			return applicationHandler;
+		}
+
+		boolean acquire() {
+			int current;
+			do {
+				current = references.get();
+				if (current == 0) {
+					return false;
+				}
+			} while (!references.compareAndSet(current, current + 1));
+			return true;
+		}
+
+		void release(Container container) {
+			if (references.decrementAndGet() == 0) {
+				LOG.info("shutting down drained application handler");
+				applicationHandler.onShutdown(container);
+			}
+		}
+
+		void retire(Container container) {
+			release(container);
+		}
+	}
+
+	/**
+	 * Splits the creation of the {@link ApplicationHandler} into the injection
+	 * binding and the provider initialization phase.
+	 * <p>
+	 * Jersey fires {@link ApplicationEvent.Type#INITIALIZATION_START} once all
+	 * services are bound and the features are configured, and
+	 * {@link ApplicationEvent.Type#INITIALIZATION_APP_FINISHED} once the
+	 * providers and the resource model are initialized.
+	 */
+	private static class InitializationListener implements ApplicationEventListener {
+
+		private final StartupListener startupListener;
+		private long phaseStart;
+
+		InitializationListener(StartupListener startupListener, long start) {
+			this.startupListener = startupListener;
+			this.phaseStart = start;
+		}
+
+		@Override
+		public void onEvent(ApplicationEvent event) {
+			switch (event.getType()) {
+			case INITIALIZATION_START:
+				fireStartupEvent(startupListener, StartupPhase.INJECTION_BINDING, phaseStart);
+				phaseStart = System.nanoTime();
+				break;
+			case INITIALIZATION_APP_FINISHED:
+				fireStartupEvent(startupListener, StartupPhase.PROVIDER_INITIALIZATION, phaseStart);
+				break;
+			default:
+				break;
+			}
+		}
+
+		@Override
+		public RequestEventListener onRequest(RequestEvent requestEvent) {
+			return null;
+		}
+	}
+
 	/**
 	 * Mutable container response used by {@link JRestlessContainerResponseWriter}.
 	 *
@@ -304,6 +683,14 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 	 * {@link JRestlessContainerResponse}. The actual response writing gets
 	 * delegated to {@link JRestlessContainerResponse}'s
 	 * {@link JRestlessResponseWriter}.
+	 * <p>
+	 * The writer supports suspending (asynchronous responses): the response
+	 * may be written and committed by any thread and
+	 * {@link #awaitCommit()} blocks the thread handling the request until it
+	 * has been committed. If the suspend timeout expires first, the timeout
+	 * handler is invoked on the waiting thread; if the handler neither
+	 * commits the response nor extends the timeout, the response gets
+	 * committed with {@link Status#SERVICE_UNAVAILABLE}.
 	 *
 	 * @author Bjoern Bilger
 	 *
@@ -314,6 +701,14 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 
 		private final JRestlessContainerResponse response;
 
+		// guarded by this
+		private boolean suspended;
+		private boolean committed;
+		private TimeoutHandler timeoutHandler;
+		private boolean timeoutEnabled;
+		private long timeoutDeadline;
+		private long timeoutGeneration;
+
 		protected JRestlessContainerResponseWriter(@Nonnull JRestlessContainerResponse response) {
 			this.response = requireNonNull(response, "response may not be null");
 		}
@@ -331,7 +726,14 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 
 		@Override
 		public void commit() {
-			response.close();
+			try {
+				response.close();
+			} finally {
+				synchronized (this) {
+					committed = true;
+					notifyAll();
+				}
+			}
 		}
 
 		@Override
@@ -347,13 +749,84 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 		}
 
 		@Override
-		public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
-			throw new UnsupportedOperationException("#suspend is not supported by the container.");
+		public synchronized boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
+			requireNonNull(timeoutHandler, "timeoutHandler may not be null");
+			if (suspended) {
+				return false;
+			}
+			suspended = true;
+			this.timeoutHandler = timeoutHandler;
+			setTimeout(timeOut, timeUnit);
+			return true;
 		}
 
 		@Override
-		public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) {
-			throw new UnsupportedOperationException("#setSuspendTimeout is not supported by the container.");
+		public synchronized void setSuspendTimeout(long timeOut, TimeUnit timeUnit) {
+			if (!suspended) {
+				throw new IllegalStateException("the response has not been suspended");
+			}
+			setTimeout(timeOut, timeUnit);
+		}
+
+		private void setTimeout(long timeOut, TimeUnit timeUnit) {
+			timeoutGeneration++;
+			if (timeOut <= 0) {
+				timeoutEnabled = false;
+			} else {
+				requireNonNull(timeUnit, "timeUnit may not be null");
+				timeoutEnabled = true;
+				timeoutDeadline = System.nanoTime() + timeUnit.toNanos(timeOut);
+			}
+			notifyAll();
+		}
+
+		/**
+		 * Blocks until the response has been committed if the response has
+		 * been suspended; returns immediately, otherwise.
+		 *
+		 * @throws ContainerException
+		 *             if the thread gets interrupted while waiting
+		 */
+		public void awaitCommit() {
+			while (true) {
+				TimeoutHandler expiredTimeoutHandler;
+				long expiredTimeoutGeneration;
+				synchronized (this) {
+					if (!suspended || committed) {
+						return;
+					}
+					long remaining = timeoutDeadline - System.nanoTime();
+					if (!timeoutEnabled || remaining > 0) {
+						await(timeoutEnabled ? remaining : 0);
+						continue;
+					}
+					timeoutEnabled = false;
+					expiredTimeoutHandler = timeoutHandler;
+					expiredTimeoutGeneration = timeoutGeneration;
+				}
+				expiredTimeoutHandler.onTimeout(this);
+				synchronized (this) {
+					if (committed || timeoutGeneration != expiredTimeoutGeneration) {
+						continue;
+					}
+				}
+				LOG.warn("suspended response has neither been resumed nor has its timeout been extended");
+				response.setStatusType(Status.SERVICE_UNAVAILABLE);
+				commit();
+			}
+		}
+
+		private void await(long timeoutNanos) {
+			try {
+				if (timeoutNanos > 0) {
+					TimeUnit.NANOSECONDS.timedWait(this, timeoutNanos);
+				} else {
+					wait();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ContainerException("interrupted while waiting for the suspended response", e);
+			}
 		}
 
 		@Override
@@ -361,4 +834,56 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 			return false;
 		}
 	}
+
+	/**
+	 * {@link JRestlessContainerResponseWriter} recording the
+	 * {@link RequestPhase#RESPONSE_WRITE} and {@link RequestPhase#COMMIT}
+	 * phases and the response status.
+	 */
+	private static class MeteredContainerResponseWriter extends JRestlessContainerResponseWriter {
+
+		private final RequestMetrics metrics;
+		private final RequestMetricsListener metricsListener;
+		private long responseWriteStart = RequestMetrics.NOT_AVAILABLE;
+
+		MeteredContainerResponseWriter(JRestlessResponseWriter response, RequestMetrics metrics,
+				RequestMetricsListener metricsListener) {
+			super(response);
+			this.metrics = metrics;
+			this.metricsListener = metricsListener;
+		}
+
+		@Override
+		public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse context) {
+			metrics.setStatus(context.getStatus());
+			OutputStream entityOutputStream = super.writeResponseStatusAndHeaders(contentLength, context);
+			responseWriteStart = System.nanoTime();
+			return entityOutputStream;
+		}
+
+		@Override
+		public void commit() {
+			if (responseWriteStart != RequestMetrics.NOT_AVAILABLE) {
+				completePhase(metrics, RequestPhase.RESPONSE_WRITE, responseWriteStart, metricsListener);
+				responseWriteStart = RequestMetrics.NOT_AVAILABLE;
+			}
+			long commitStart = System.nanoTime();
+			try {
+				super.commit();
+			} catch (RuntimeException e) {
+				// Jersey logs but doesn't propagate commit failures
+				metrics.setFailed(true);
+				throw e;
+			} finally {
+				completePhase(metrics, RequestPhase.COMMIT, commitStart, metricsListener);
+			}
+		}
+
+		@Override
+		public void failure(Throwable error) {
+			metrics.setStatus(Status.INTERNAL_SERVER_ERROR.getStatusCode());
+			metrics.setFailed(true);
+			super.failure(error);
+		}
+	}
 }
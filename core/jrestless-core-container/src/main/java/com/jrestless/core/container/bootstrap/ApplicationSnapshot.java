@@ -0,0 +1,365 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Application;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+/**
+ * Snapshot of the component classes (resources and providers) of an
+ * {@link Application}.
+ * <p>
+ * Resolving the component classes of an application that uses package or
+ * classpath scanning ({@link ResourceConfig#packages(String...)},
+ * {@link ServerProperties#PROVIDER_PACKAGES},
+ * {@link ServerProperties#PROVIDER_CLASSPATH}) is one of the most expensive
+ * steps of a cold start. A snapshot is captured once - preferably at build
+ * time via {@link #main(String[])} - and restored on each cold start via
+ * {@link #restore(Application)} which returns a {@link ResourceConfig} that
+ * registers the captured classes directly instead of scanning for them.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * {@code
+ * ResourceConfig config = new ResourceConfig().packages("com.example");
+ * ApplicationSnapshot snapshot = ApplicationSnapshot.load(getClass().getClassLoader());
+ * init(snapshot == null ? config : snapshot.restore(config));
+ * }
+ * </pre>
+ *
+ * A snapshot is bound to the application (and the classpath) it has been
+ * captured for. Instances registered with the application (e.g. binders) and
+ * programmatic resources ({@link ResourceConfig#registerResources}) are not
+ * part of the snapshot but are taken from the application on restore.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ApplicationSnapshot {
+
+	/**
+	 * The classpath resource {@link #load(ClassLoader)} reads the snapshot
+	 * from.
+	 */
+	public static final String DEFAULT_RESOURCE = "META-INF/jrestless/application.snapshot";
+
+	private static final String HEADER = "# jrestless application snapshot v1";
+	private static final char COMMENT = '#';
+	private static final String SEPARATOR = " ";
+	private static final String PRIORITY_SEPARATOR = "=";
+
+	private final List<Registration> registrations;
+
+	ApplicationSnapshot(@Nonnull List<Registration> registrations) {
+		this.registrations = Collections.unmodifiableList(new ArrayList<>(registrations));
+	}
+
+	/**
+	 * Captures the component classes of the given application.
+	 * <p>
+	 * Packages and the classpath are scanned if the application is configured
+	 * to do so.
+	 *
+	 * @param application
+	 * @return the snapshot
+	 */
+	@Nonnull
+	public static ApplicationSnapshot capture(@Nonnull Application application) {
+		requireNonNull(application, "application may not be null");
+		ResourceConfig config = ResourceConfig.forApplication(application);
+		List<Registration> registrations = new ArrayList<>();
+		for (Class<?> componentClass : config.getClasses()) {
+			Map<String, Integer> contracts = new LinkedHashMap<>();
+			config.getContracts(componentClass).entrySet().stream()
+				.sorted(Comparator.comparing(e -> e.getKey().getName()))
+				.forEach(e -> contracts.put(e.getKey().getName(), e.getValue()));
+			registrations.add(new Registration(componentClass.getName(), contracts));
+		}
+		registrations.sort(Comparator.comparing(Registration::getClassName));
+		return new ApplicationSnapshot(registrations);
+	}
+
+	/**
+	 * Reads a snapshot that has been written by {@link #write(OutputStream)}.
+	 * <p>
+	 * The stream is not closed.
+	 *
+	 * @param in
+	 * @return the snapshot
+	 * @throws IOException
+	 *             if the snapshot cannot be read or is invalid
+	 */
+	@Nonnull
+	public static ApplicationSnapshot read(@Nonnull InputStream in) throws IOException {
+		requireNonNull(in, "in may not be null");
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String header = reader.readLine();
+		if (!HEADER.equals(header)) {
+			throw new IOException("invalid snapshot header: " + header);
+		}
+		List<Registration> registrations = new ArrayList<>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (!line.isEmpty() && line.charAt(0) != COMMENT) {
+				registrations.add(parseRegistration(line));
+			}
+		}
+		return new ApplicationSnapshot(registrations);
+	}
+
+	/**
+	 * Loads the snapshot from the classpath resource {@link #DEFAULT_RESOURCE}.
+	 *
+	 * @param classLoader
+	 * @return the snapshot or {@code null} if there's no such resource
+	 * @throws IOException
+	 *             if the snapshot cannot be read or is invalid
+	 */
+	@Nullable
+	public static ApplicationSnapshot load(@Nonnull ClassLoader classLoader) throws IOException {
+		requireNonNull(classLoader, "classLoader may not be null");
+		try (InputStream in = classLoader.getResourceAsStream(DEFAULT_RESOURCE)) {
+			return in == null ? null : read(in);
+		}
+	}
+
+	/**
+	 * Writes the snapshot to the given stream.
+	 * <p>
+	 * The stream is not closed.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write(@Nonnull OutputStream out) throws IOException {
+		requireNonNull(out, "out may not be null");
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write(HEADER);
+		writer.write('\n');
+		for (Registration registration : registrations) {
+			writer.write(registration.getClassName());
+			for (Map.Entry<String, Integer> contract : registration.getContracts().entrySet()) {
+				writer.write(SEPARATOR);
+				writer.write(contract.getKey());
+				writer.write(PRIORITY_SEPARATOR);
+				writer.write(Integer.toString(contract.getValue()));
+			}
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Creates a configuration for the given application that registers the
+	 * captured classes instead of scanning for them.
+	 * <p>
+	 * The name, the class loader, the properties - except for the scanning
+	 * ones -, the instances along with their contracts and the programmatic
+	 * resources of the application are taken over.
+	 *
+	 * @param application
+	 *            the application the snapshot has been captured for
+	 * @return the configuration to initialize the container with
+	 * @throws IllegalStateException
+	 *             if a captured class cannot be loaded
+	 */
+	@Nonnull
+	public ResourceConfig restore(@Nonnull Application application) {
+		requireNonNull(application, "application may not be null");
+		ResourceConfig original = ResourceConfig.forApplication(application);
+		ResourceConfig restored = new ResourceConfig();
+		restored.setApplicationName(original.getApplicationName());
+		ClassLoader classLoader = original.getClassLoader();
+		restored.setClassLoader(classLoader);
+		Map<String, Object> properties = new HashMap<>(original.getProperties());
+		properties.remove(ServerProperties.PROVIDER_PACKAGES);
+		properties.remove(ServerProperties.PROVIDER_SCANNING_RECURSIVE);
+		properties.remove(ServerProperties.PROVIDER_CLASSPATH);
+		restored.addProperties(properties);
+		for (Object instance : original.getInstances()) {
+			Map<Class<?>, Integer> contracts = original.getContracts(instance.getClass());
+			if (contracts.isEmpty()) {
+				restored.register(instance);
+			} else {
+				restored.register(instance, contracts);
+			}
+		}
+		restored.registerResources(original.getResources());
+		for (Registration registration : registrations) {
+			Class<?> componentClass = loadClass(registration.getClassName(), classLoader);
+			if (registration.getContracts().isEmpty()) {
+				restored.register(componentClass);
+			} else {
+				Map<Class<?>, Integer> contracts = new LinkedHashMap<>();
+				registration.getContracts().forEach((contract, priority) ->
+					contracts.put(loadClass(contract, classLoader), priority));
+				restored.register(componentClass, contracts);
+			}
+		}
+		return restored;
+	}
+
+	/**
+	 * @return the names of the captured classes
+	 */
+	@Nonnull
+	public List<String> getClassNames() {
+		List<String> classNames = new ArrayList<>(registrations.size());
+		for (Registration registration : registrations) {
+			classNames.add(registration.getClassName());
+		}
+		return classNames;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null || !getClass().equals(other.getClass())) {
+			return false;
+		}
+		return registrations.equals(((ApplicationSnapshot) other).registrations);
+	}
+
+	@Override
+	public int hashCode() {
+		return registrations.hashCode();
+	}
+
+	/**
+	 * Captures the snapshot of an application at build time.
+	 * <p>
+	 * Arguments:
+	 * <ol>
+	 * <li>the fully qualified name of the application class; the class must
+	 * have a public no-arg constructor
+	 * <li>the file to write the snapshot to; usually
+	 * <i>src/main/resources/</i>{@value #DEFAULT_RESOURCE}
+	 * </ol>
+	 *
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length != 2) {
+			throw new IllegalArgumentException("usage: ApplicationSnapshot <application class> <output file>");
+		}
+		Application application = (Application) Class.forName(args[0]).newInstance();
+		Path output = Paths.get(args[1]);
+		Path parent = output.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		try (OutputStream out = Files.newOutputStream(output)) {
+			capture(application).write(out);
+		}
+	}
+
+	private static Registration parseRegistration(String line) throws IOException {
+		String[] parts = line.split(SEPARATOR);
+		Map<String, Integer> contracts = new LinkedHashMap<>();
+		for (int i = 1; i < parts.length; i++) {
+			int separatorIndex = parts[i].indexOf(PRIORITY_SEPARATOR);
+			if (separatorIndex <= 0) {
+				throw new IOException("invalid contract '" + parts[i] + "' for " + parts[0]);
+			}
+			try {
+				contracts.put(parts[i].substring(0, separatorIndex),
+						Integer.valueOf(parts[i].substring(separatorIndex + 1)));
+			} catch (NumberFormatException e) {
+				throw new IOException("invalid priority in contract '" + parts[i] + "' for " + parts[0], e);
+			}
+		}
+		return new Registration(parts[0], contracts);
+	}
+
+	private static Class<?> loadClass(String className, ClassLoader classLoader) {
+		try {
+			return Class.forName(className, false, classLoader);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("failed to load class '" + className + "' from the snapshot", e);
+		}
+	}
+
+	/**
+	 * A captured class together with the contracts and their priorities it is
+	 * registered for.
+	 */
+	static final class Registration {
+		private final String className;
+		private final Map<String, Integer> contracts;
+
+		Registration(@Nonnull String className, @Nonnull Map<String, Integer> contracts) {
+			this.className = requireNonNull(className, "className may not be null");
+			this.contracts = Collections.unmodifiableMap(new LinkedHashMap<>(contracts));
+		}
+
+		String getClassName() {
+			return className;
+		}
+
+		Map<String, Integer> getContracts() {
+			return contracts;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (other == null || !getClass().equals(other.getClass())) {
+				return false;
+			}
+			Registration otherRegistration = (Registration) other;
+			return className.equals(otherRegistration.className) && contracts.equals(otherRegistration.contracts);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(className, contracts);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+/**
+ * Thrown if at least one {@link CheckpointListener} failed. The failures of
+ * the listeners are added as suppressed exceptions.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class CheckpointException extends RuntimeException {
+
+	private static final long serialVersionUID = 6093370393524866417L;
+
+	public CheckpointException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+/**
+ * Listener that gets informed before the process is checkpointed - i.e. a
+ * snapshot of the fully started container is taken - and after it has been
+ * restored from that snapshot.
+ * <p>
+ * A restored process may run on another host, at another time, with other
+ * credentials and maybe more than once. Components therefore use the hooks to
+ * release or refresh state that must not be part of or shared across
+ * snapshots: random seeds, cached time stamps, cached credentials (e.g. of an
+ * {@code AWSLambdaClient}), thread pools or network connections.
+ * <p>
+ * Listeners join a {@link CheckpointRegistry}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public interface CheckpointListener {
+
+	/**
+	 * Invoked before the process is checkpointed.
+	 *
+	 * @throws Exception
+	 */
+	default void beforeCheckpoint() throws Exception {
+	}
+
+	/**
+	 * Invoked after the process has been restored.
+	 *
+	 * @throws Exception
+	 */
+	default void afterRestore() throws Exception {
+	}
+}
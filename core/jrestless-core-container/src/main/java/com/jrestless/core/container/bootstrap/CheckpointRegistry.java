@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Registry of {@link CheckpointListener checkpoint listeners}.
+ * <p>
+ * {@link com.jrestless.core.container.JRestlessHandlerContainer} binds a
+ * registry into each application it creates so that resources and providers
+ * can join it:
+ *
+ * <pre>
+ * {@code
+ * @Inject
+ * public MyProvider(CheckpointRegistry checkpointRegistry) {
+ *     checkpointRegistry.register(this);
+ * }
+ * }
+ * </pre>
+ *
+ * Listeners are invoked in the order they have been registered after the
+ * restore and in reverse order before the checkpoint. The registry holds
+ * strong references to the listeners, so only singletons should join it - or
+ * unregister once they are not used anymore.
+ * <p>
+ * The registry is thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class CheckpointRegistry {
+
+	private final List<CheckpointListener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Registers the listener.
+	 *
+	 * @param listener
+	 */
+	public void register(@Nonnull CheckpointListener listener) {
+		listeners.add(requireNonNull(listener, "listener may not be null"));
+	}
+
+	/**
+	 * Unregisters the listener.
+	 *
+	 * @param listener
+	 * @return {@code true} if the listener had been registered
+	 */
+	public boolean unregister(@Nonnull CheckpointListener listener) {
+		return listeners.remove(requireNonNull(listener, "listener may not be null"));
+	}
+
+	/**
+	 * Invokes {@link CheckpointListener#beforeCheckpoint()} on all listeners
+	 * in reverse registration order.
+	 *
+	 * @throws CheckpointException
+	 *             if at least one listener failed; all listeners are invoked,
+	 *             nevertheless
+	 */
+	public void beforeCheckpoint() {
+		List<CheckpointListener> reversed = new ArrayList<>(listeners);
+		Collections.reverse(reversed);
+		List<Exception> failures = new ArrayList<>();
+		for (CheckpointListener listener : reversed) {
+			try {
+				listener.beforeCheckpoint();
+			} catch (Exception e) {
+				failures.add(e);
+			}
+		}
+		throwFailures("before checkpoint", failures);
+	}
+
+	/**
+	 * Invokes {@link CheckpointListener#afterRestore()} on all listeners in
+	 * registration order.
+	 *
+	 * @throws CheckpointException
+	 *             if at least one listener failed; all listeners are invoked,
+	 *             nevertheless
+	 */
+	public void afterRestore() {
+		List<Exception> failures = new ArrayList<>();
+		for (CheckpointListener listener : listeners) {
+			try {
+				listener.afterRestore();
+			} catch (Exception e) {
+				failures.add(e);
+			}
+		}
+		throwFailures("after restore", failures);
+	}
+
+	/**
+	 * @return the number of registered listeners
+	 */
+	public int size() {
+		return listeners.size();
+	}
+
+	private static void throwFailures(String phase, List<Exception> failures) {
+		if (!failures.isEmpty()) {
+			CheckpointException exception = new CheckpointException(
+					failures.size() + " checkpoint listener(s) failed " + phase);
+			for (Exception failure : failures) {
+				exception.addSuppressed(failure);
+			}
+			throw exception;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.annotation.Nonnull;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.handler.SimpleRequestHandler;
+
+/**
+ * Simulates a checkpoint and a subsequent restore of the process locally by
+ * invoking the checkpoint hooks in the order a snapshot-based runtime would
+ * invoke them.
+ * <p>
+ * Intended for tests: the handler or the container must be able to handle
+ * requests after the simulation the same way it did before. The simulation
+ * does not snapshot the process, though; the state of the process remains
+ * untouched apart from the effects of the hooks.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class CheckpointSimulator {
+
+	private CheckpointSimulator() {
+	}
+
+	/**
+	 * Invokes {@link SimpleRequestHandler#beforeCheckpoint()} and then
+	 * {@link SimpleRequestHandler#afterRestore()} on the started handler.
+	 *
+	 * @param handler
+	 */
+	public static void checkpointAndRestore(@Nonnull SimpleRequestHandler<?, ?> handler) {
+		requireNonNull(handler, "handler may not be null");
+		handler.beforeCheckpoint();
+		handler.afterRestore();
+	}
+
+	/**
+	 * Invokes {@link JRestlessHandlerContainer#beforeCheckpoint()} and then
+	 * {@link JRestlessHandlerContainer#afterRestore()} on the started
+	 * container.
+	 *
+	 * @param container
+	 */
+	public static void checkpointAndRestore(@Nonnull JRestlessHandlerContainer<?> container) {
+		requireNonNull(container, "container may not be null");
+		container.beforeCheckpoint();
+		container.afterRestore();
+	}
+}
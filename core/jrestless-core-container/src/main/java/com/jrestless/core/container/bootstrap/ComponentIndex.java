@@ -0,0 +1,274 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the resource and provider classes of a jar generated at compile
+ * time by the {@link ComponentIndexProcessor}.
+ * <p>
+ * Registering the indexed classes is a drop-in replacement for
+ * {@link ResourceConfig#packages(String...)} that doesn't scan the classpath
+ * on cold start:
+ *
+ * <pre>
+ * {@code
+ * ResourceConfig config = ComponentIndex.packages(new ResourceConfig(), "com.example");
+ * }
+ * </pre>
+ *
+ * In contrast to the {@link ApplicationSnapshot} the index requires no build
+ * step other than compiling, but it only covers the classes package scanning
+ * would find.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ComponentIndex {
+
+	/**
+	 * The classpath resource the index is written to and loaded from.
+	 */
+	public static final String DEFAULT_RESOURCE = "META-INF/jrestless/components.index";
+
+	private static final Logger LOG = LoggerFactory.getLogger(ComponentIndex.class);
+
+	private static final String HEADER = "# jrestless component index v1";
+	private static final char COMMENT = '#';
+
+	private final Set<String> classNames;
+
+	ComponentIndex(@Nonnull Collection<String> classNames) {
+		this.classNames = Collections.unmodifiableSet(new TreeSet<>(classNames));
+	}
+
+	/**
+	 * Reads an index that has been written by {@link #write(OutputStream)}.
+	 * <p>
+	 * The stream is not closed.
+	 *
+	 * @param in
+	 * @return the index
+	 * @throws IOException
+	 *             if the index cannot be read or is invalid
+	 */
+	@Nonnull
+	public static ComponentIndex read(@Nonnull InputStream in) throws IOException {
+		requireNonNull(in, "in may not be null");
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String header = reader.readLine();
+		if (!HEADER.equals(header)) {
+			throw new IOException("invalid component index header: " + header);
+		}
+		List<String> classNames = new ArrayList<>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (!line.isEmpty() && line.charAt(0) != COMMENT) {
+				classNames.add(line);
+			}
+		}
+		return new ComponentIndex(classNames);
+	}
+
+	/**
+	 * Loads and merges all indexes found on the classpath
+	 * ({@value #DEFAULT_RESOURCE}).
+	 *
+	 * @param classLoader
+	 * @return the merged index or {@code null} if there's no index on the
+	 *         classpath
+	 * @throws IOException
+	 *             if an index cannot be read or is invalid
+	 */
+	@Nullable
+	public static ComponentIndex load(@Nonnull ClassLoader classLoader) throws IOException {
+		requireNonNull(classLoader, "classLoader may not be null");
+		Enumeration<URL> resources = classLoader.getResources(DEFAULT_RESOURCE);
+		if (!resources.hasMoreElements()) {
+			return null;
+		}
+		Set<String> classNames = new TreeSet<>();
+		while (resources.hasMoreElements()) {
+			URL resource = resources.nextElement();
+			try (InputStream in = resource.openStream()) {
+				classNames.addAll(read(in).classNames);
+			} catch (IOException e) {
+				throw new IOException("failed to read component index " + resource, e);
+			}
+		}
+		return new ComponentIndex(classNames);
+	}
+
+	/**
+	 * Registers the indexed classes in the given packages or their sub-packages
+	 * with the configuration.
+	 * <p>
+	 * Falls back to {@link ResourceConfig#packages(String...) scanning} - with
+	 * a warning - for each package that has no indexed classes, e.g. because
+	 * its classes haven't been compiled with the {@link ComponentIndexProcessor}
+	 * while a dependency on the classpath comes with an index.
+	 *
+	 * @param config
+	 * @param packages
+	 * @return the passed configuration
+	 * @throws IllegalStateException
+	 *             if an indexed class cannot be loaded
+	 * @throws UncheckedIOException
+	 *             if an index cannot be read
+	 */
+	@Nonnull
+	public static ResourceConfig packages(@Nonnull ResourceConfig config, @Nonnull String... packages) {
+		requireNonNull(config, "config may not be null");
+		requireNonNull(packages, "packages may not be null");
+		ComponentIndex index;
+		try {
+			index = load(config.getClassLoader());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		List<String> indexedPackages = new ArrayList<>(packages.length);
+		for (String packageName : packages) {
+			if (index != null && !index.getClassNames(packageName).isEmpty()) {
+				indexedPackages.add(packageName);
+			} else {
+				LOG.warn("no indexed classes in package '{}' found; scanning it instead", packageName);
+				config.packages(packageName);
+			}
+		}
+		if (index != null && !indexedPackages.isEmpty()) {
+			index.register(config, indexedPackages.toArray(new String[indexedPackages.size()]));
+		}
+		return config;
+	}
+
+	/**
+	 * Registers the indexed classes in the given packages or their sub-packages
+	 * with the configuration.
+	 *
+	 * @param config
+	 * @param packages
+	 * @return the passed configuration
+	 * @throws IllegalStateException
+	 *             if an indexed class cannot be loaded
+	 */
+	@Nonnull
+	public ResourceConfig register(@Nonnull ResourceConfig config, @Nonnull String... packages) {
+		requireNonNull(config, "config may not be null");
+		requireNonNull(packages, "packages may not be null");
+		ClassLoader classLoader = config.getClassLoader();
+		for (String className : getClassNames(packages)) {
+			try {
+				config.register(Class.forName(className, false, classLoader));
+			} catch (ClassNotFoundException e) {
+				throw new IllegalStateException("failed to load class '" + className + "' from the component index",
+						e);
+			}
+		}
+		return config;
+	}
+
+	/**
+	 * @return the names of all indexed classes
+	 */
+	@Nonnull
+	public Set<String> getClassNames() {
+		return classNames;
+	}
+
+	/**
+	 * @param packages
+	 * @return the names of the indexed classes in the given packages or their
+	 *         sub-packages
+	 */
+	@Nonnull
+	public List<String> getClassNames(@Nonnull String... packages) {
+		requireNonNull(packages, "packages may not be null");
+		List<String> packageClassNames = new ArrayList<>();
+		for (String className : classNames) {
+			for (String packageName : packages) {
+				if (className.startsWith(packageName + ".")) {
+					packageClassNames.add(className);
+					break;
+				}
+			}
+		}
+		return packageClassNames;
+	}
+
+	/**
+	 * Writes the index to the given stream.
+	 * <p>
+	 * The stream is not closed.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write(@Nonnull OutputStream out) throws IOException {
+		requireNonNull(out, "out may not be null");
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write(HEADER);
+		writer.write('\n');
+		for (String className : classNames) {
+			writer.write(className);
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null || !getClass().equals(other.getClass())) {
+			return false;
+		}
+		return classNames.equals(((ComponentIndex) other).classNames);
+	}
+
+	@Override
+	public int hashCode() {
+		return classNames.hashCode();
+	}
+}
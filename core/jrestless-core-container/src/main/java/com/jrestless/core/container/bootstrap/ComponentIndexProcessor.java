@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes the {@link ComponentIndex} of the compiled
+ * classes to {@value ComponentIndex#DEFAULT_RESOURCE}.
+ * <p>
+ * The index contains the same classes package scanning would register: public,
+ * concrete, top level or static member classes annotated with
+ * {@link javax.ws.rs.Path} or {@link javax.ws.rs.ext.Provider}.
+ * <p>
+ * The processor is registered as service, so it runs whenever this module is
+ * on the compile classpath. No index is written if there's nothing to index.
+ * The processor doesn't claim the annotations, so processors that run after
+ * it process them as well.
+ * <p>
+ * Under incremental compilation only the changed classes are processed, so
+ * the entries of an existing index in the output directory are kept as long
+ * as their classes are still components. An entry of a component that has
+ * been deleted or is no longer annotated is kept, though, if no other
+ * component has been compiled along with it; a full rebuild fixes that.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@SupportedAnnotationTypes({ ComponentIndexProcessor.PATH, ComponentIndexProcessor.PROVIDER })
+public final class ComponentIndexProcessor extends AbstractProcessor {
+
+	static final String PATH = "javax.ws.rs.Path";
+	static final String PROVIDER = "javax.ws.rs.ext.Provider";
+
+	private final Set<String> classNames = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (isComponent(element)) {
+					classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+				}
+			}
+		}
+		if (roundEnv.processingOver() && !classNames.isEmpty()) {
+			mergeExistingIndex();
+			writeIndex();
+		}
+		// only observes the annotations
+		return false;
+	}
+
+	private static boolean isComponent(Element element) {
+		if (element.getKind() != ElementKind.CLASS) {
+			return false;
+		}
+		Set<Modifier> modifiers = element.getModifiers();
+		if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)) {
+			return false;
+		}
+		NestingKind nestingKind = ((TypeElement) element).getNestingKind();
+		return nestingKind == NestingKind.TOP_LEVEL
+				|| nestingKind == NestingKind.MEMBER && modifiers.contains(Modifier.STATIC)
+					&& isComponentEnclosure(element.getEnclosingElement());
+	}
+
+	private static boolean isComponentEnclosure(Element element) {
+		if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+			return false;
+		}
+		return ((TypeElement) element).getNestingKind() == NestingKind.TOP_LEVEL
+				|| isComponentEnclosure(element.getEnclosingElement());
+	}
+
+	/*
+	 * Adds the entries of the index of a previous compilation whose classes
+	 * are still components.
+	 */
+	private void mergeExistingIndex() {
+		ComponentIndex existingIndex;
+		try {
+			FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+					ComponentIndex.DEFAULT_RESOURCE);
+			try (InputStream in = resource.openInputStream()) {
+				existingIndex = ComponentIndex.read(in);
+			}
+		} catch (IOException e) {
+			// no index or an invalid one; nothing to merge
+			return;
+		}
+		Elements elements = processingEnv.getElementUtils();
+		for (String className : existingIndex.getClassNames()) {
+			TypeElement element = elements.getTypeElement(className.replace('$', '.'));
+			if (element != null && isComponent(element) && isAnnotated(element)) {
+				classNames.add(className);
+			}
+		}
+	}
+
+	private static boolean isAnnotated(Element element) {
+		return element.getAnnotationMirrors().stream().anyMatch(annotation -> {
+			String name = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+			return PATH.equals(name) || PROVIDER.equals(name);
+		});
+	}
+
+	private void writeIndex() {
+		try (OutputStream out = processingEnv.getFiler()
+				.createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.DEFAULT_RESOURCE)
+				.openOutputStream()) {
+			new ComponentIndex(classNames).write(out);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"failed to write " + ComponentIndex.DEFAULT_RESOURCE + ": " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.StatusType;
+
+import org.glassfish.jersey.server.ExtendedResourceContext;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.glassfish.jersey.uri.UriTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.security.AnonSecurityContext;
+
+/**
+ * Warms up a started container by pushing synthesized requests for each
+ * resource method through it; the responses are discarded.
+ * <p>
+ * This moves JIT compilation, lazy initialization of providers (e.g. Jackson
+ * or bean validation) and class loading from the first real request into the
+ * initialization phase which matters for provisioned concurrency, especially:
+ * initialization time is free, first-request latency is not.
+ * <p>
+ * One request is synthesized per resource method (sub-resource locators and
+ * methods added by Jersey - e.g. OPTIONS and WADL - are skipped): template
+ * variables are filled with sample values that match the variables' regular
+ * expressions, methods that accept an entity get an empty JSON object
+ * ({@code {}}) if they consume JSON or an empty entity of the first media type
+ * they consume, otherwise. The requests are sent in rounds until the number of
+ * rounds or the time budget - whatever comes first - has been exhausted.
+ * Failing requests are ignored.
+ * <p>
+ * Since warm-up requests are real invocations, only safe methods
+ * ({@link #SAFE_METHODS}: GET, HEAD and OPTIONS) are invoked by default.
+ * Methods with side effects (e.g. POST or DELETE) must be opted in explicitly
+ * by passing a filter that accepts them.
+ * <p>
+ * Warm-up requests carry the header {@value #WARMUP_HEADER} so that filters
+ * and request metrics listeners can tell them apart from real requests.
+ * Injectable function specific values (e.g. the Lambda context) are not
+ * available for warm-up requests.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ContainerWarmup {
+
+	/**
+	 * Name of the header that is added to all warm-up requests.
+	 */
+	public static final String WARMUP_HEADER = "X-JRestless-Warmup";
+
+	/**
+	 * Accepts resource methods with a safe HTTP method, only: GET, HEAD and
+	 * OPTIONS.
+	 */
+	public static final Predicate<ResourceMethod> SAFE_METHODS = resourceMethod -> {
+		String httpMethod = resourceMethod.getHttpMethod();
+		return HttpMethod.GET.equals(httpMethod) || HttpMethod.HEAD.equals(httpMethod)
+				|| HttpMethod.OPTIONS.equals(httpMethod);
+	};
+
+	private static final Logger LOG = LoggerFactory.getLogger(ContainerWarmup.class);
+
+	private static final URI BASE_URI = URI.create("/");
+	private static final String[] SAMPLE_VALUES = {"1", "a", "a1", "warmup"};
+	private static final byte[] EMPTY_JSON_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+
+	private final long timeBudgetNanos;
+	private final int rounds;
+	private final Predicate<ResourceMethod> methodFilter;
+
+	/**
+	 * Creates a warm-up that invokes {@link #SAFE_METHODS safe methods}, only.
+	 *
+	 * @param timeBudget
+	 *            the maximum time to spend on the warm-up; a request that is in
+	 *            flight when the budget is exhausted is completed, though
+	 * @param unit
+	 *            the unit of the time budget
+	 * @param rounds
+	 *            the maximum number of times each resource method is invoked
+	 */
+	public ContainerWarmup(long timeBudget, @Nonnull TimeUnit unit, int rounds) {
+		this(timeBudget, unit, rounds, SAFE_METHODS);
+	}
+
+	/**
+	 * @param timeBudget
+	 *            the maximum time to spend on the warm-up; a request that is in
+	 *            flight when the budget is exhausted is completed, though
+	 * @param unit
+	 *            the unit of the time budget
+	 * @param rounds
+	 *            the maximum number of times each resource method is invoked
+	 * @param methodFilter
+	 *            decides which resource methods are invoked; methods with side
+	 *            effects are invoked, too, if accepted
+	 */
+	public ContainerWarmup(long timeBudget, @Nonnull TimeUnit unit, int rounds,
+			@Nonnull Predicate<ResourceMethod> methodFilter) {
+		requireNonNull(unit, "unit may not be null");
+		requireNonNull(methodFilter, "methodFilter may not be null");
+		if (timeBudget <= 0) {
+			throw new IllegalArgumentException("timeBudget must be positive");
+		}
+		if (rounds <= 0) {
+			throw new IllegalArgumentException("rounds must be positive");
+		}
+		this.timeBudgetNanos = unit.toNanos(timeBudget);
+		this.rounds = rounds;
+		this.methodFilter = methodFilter;
+	}
+
+	/**
+	 * Warms up the given - started - container.
+	 *
+	 * @param container
+	 * @return the number of warm-up requests that have been sent
+	 */
+	public int warmup(@Nonnull JRestlessHandlerContainer<JRestlessContainerRequest> container) {
+		requireNonNull(container, "container may not be null");
+		long start = System.nanoTime();
+		ExtendedResourceContext resourceContext = container.getApplicationHandler().getServiceLocator()
+				.getService(ExtendedResourceContext.class);
+		List<WarmupRequest> requests = createRequests(resourceContext.getResourceModel(), methodFilter);
+		int sent = 0;
+		for (int round = 0; round < rounds && !requests.isEmpty(); round++) {
+			for (WarmupRequest request : requests) {
+				if (System.nanoTime() - start >= timeBudgetNanos) {
+					LOG.debug("warm-up time budget exhausted after {} requests", sent);
+					return sent;
+				}
+				send(container, request);
+				sent++;
+			}
+		}
+		return sent;
+	}
+
+	private static void send(JRestlessHandlerContainer<JRestlessContainerRequest> container, WarmupRequest request) {
+		try {
+			container.handleRequest(request.toContainerRequest(), new DiscardingResponseWriter(),
+					new AnonSecurityContext());
+		} catch (RuntimeException e) {
+			LOG.debug("warm-up request {} failed", request, e);
+		}
+	}
+
+	static List<WarmupRequest> createRequests(ResourceModel resourceModel, Predicate<ResourceMethod> methodFilter) {
+		List<WarmupRequest> requests = new ArrayList<>();
+		for (Resource resource : resourceModel.getRootResources()) {
+			collectRequests(resource, "", methodFilter, requests);
+		}
+		return requests;
+	}
+
+	private static void collectRequests(Resource resource, String parentTemplate,
+			Predicate<ResourceMethod> methodFilter, List<WarmupRequest> requests) {
+		if (resource.isExtended()) {
+			return;
+		}
+		String template = join(parentTemplate, resource.getPath());
+		for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+			if (resourceMethod.isExtended() || !methodFilter.test(resourceMethod)) {
+				continue;
+			}
+			WarmupRequest request = createRequest(resourceMethod, template);
+			if (request != null) {
+				requests.add(request);
+			}
+		}
+		for (Resource childResource : resource.getChildResources()) {
+			collectRequests(childResource, template, methodFilter, requests);
+		}
+	}
+
+	@Nullable
+	private static WarmupRequest createRequest(ResourceMethod resourceMethod, String template) {
+		String path = createPath(template);
+		if (path == null) {
+			LOG.debug("no sample values for template '{}' - skipping {}", template, resourceMethod);
+			return null;
+		}
+		String httpMethod = resourceMethod.getHttpMethod();
+		Map<String, List<String>> headers = new HashMap<>();
+		headers.put(WARMUP_HEADER, Collections.singletonList("true"));
+		MediaType produced = firstConcrete(resourceMethod.getProducedTypes());
+		headers.put(HttpHeaders.ACCEPT,
+				Collections.singletonList(produced == null ? MediaType.WILDCARD : produced.toString()));
+		byte[] entity = new byte[0];
+		if (hasEntity(httpMethod)) {
+			MediaType consumed = firstConcrete(resourceMethod.getConsumedTypes());
+			if (consumed == null || isJson(consumed)) {
+				consumed = consumed == null ? MediaType.APPLICATION_JSON_TYPE : consumed;
+				entity = EMPTY_JSON_OBJECT;
+			}
+			headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(consumed.toString()));
+		}
+		return new WarmupRequest(httpMethod, path, headers, entity);
+	}
+
+	/*
+	 * Fills all template variables with the same sample value; the first one
+	 * matching the template's regular expressions is used.
+	 */
+	@Nullable
+	private static String createPath(String template) {
+		UriTemplate uriTemplate = new UriTemplate(template);
+		if (uriTemplate.getNumberOfTemplateVariables() == 0) {
+			return template;
+		}
+		for (String sampleValue : SAMPLE_VALUES) {
+			Map<String, String> values = new HashMap<>();
+			for (String variable : uriTemplate.getTemplateVariables()) {
+				values.put(variable, sampleValue);
+			}
+			String path = uriTemplate.createURI(values);
+			if (uriTemplate.match(path, new HashMap<>())) {
+				return path;
+			}
+		}
+		return null;
+	}
+
+	private static String join(String parentTemplate, String path) {
+		String trimmedParent = parentTemplate.endsWith("/")
+				? parentTemplate.substring(0, parentTemplate.length() - 1) : parentTemplate;
+		if (path == null || path.isEmpty() || "/".equals(path)) {
+			return trimmedParent.isEmpty() ? "/" : trimmedParent;
+		}
+		return trimmedParent + (path.startsWith("/") ? path : "/" + path);
+	}
+
+	private static boolean hasEntity(String httpMethod) {
+		return !HttpMethod.GET.equals(httpMethod) && !HttpMethod.HEAD.equals(httpMethod)
+				&& !HttpMethod.DELETE.equals(httpMethod) && !HttpMethod.OPTIONS.equals(httpMethod);
+	}
+
+	private static boolean isJson(MediaType mediaType) {
+		String subtype = mediaType.getSubtype();
+		return "json".equalsIgnoreCase(subtype) || subtype.toLowerCase(Locale.ENGLISH).endsWith("+json");
+	}
+
+	@Nullable
+	private static MediaType firstConcrete(List<MediaType> mediaTypes) {
+		for (MediaType mediaType : mediaTypes) {
+			if (!mediaType.isWildcardType() && !mediaType.isWildcardSubtype()) {
+				return mediaType;
+			}
+		}
+		return null;
+	}
+
+	static final class WarmupRequest {
+		private final String httpMethod;
+		private final String path;
+		private final Map<String, List<String>> headers;
+		private final byte[] entity;
+
+		WarmupRequest(String httpMethod, String path, Map<String, List<String>> headers, byte[] entity) {
+			this.httpMethod = httpMethod;
+			this.path = path;
+			this.headers = Collections.unmodifiableMap(headers);
+			this.entity = entity;
+		}
+
+		String getHttpMethod() {
+			return httpMethod;
+		}
+
+		String getPath() {
+			return path;
+		}
+
+		Map<String, List<String>> getHeaders() {
+			return headers;
+		}
+
+		byte[] getEntity() {
+			return entity.clone();
+		}
+
+		JRestlessContainerRequest toContainerRequest() {
+			return new DefaultJRestlessContainerRequest(BASE_URI, URI.create(path), httpMethod,
+					new ByteArrayInputStream(entity), headers);
+		}
+
+		@Override
+		public String toString() {
+			return httpMethod + " " + path;
+		}
+	}
+
+	private static final class DiscardingResponseWriter implements JRestlessResponseWriter {
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return new OutputStream() {
+				@Override
+				public void write(int b) {
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+				}
+			};
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) {
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link StartupListener} that logs each event as a single line JSON object
+ * (cf. {@link StartupEvent#toJson()}) on info level.
+ * <p>
+ * The lines can be extracted from the logs, e.g. via CloudWatch Logs metric
+ * filters or Logs Insights.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class JsonLogStartupListener implements StartupListener {
+
+	private final Logger log;
+
+	public JsonLogStartupListener() {
+		this(LoggerFactory.getLogger(JsonLogStartupListener.class));
+	}
+
+	JsonLogStartupListener(@Nonnull Logger log) {
+		this.log = requireNonNull(log, "log may not be null");
+	}
+
+	@Override
+	public void onPhaseCompleted(StartupEvent event) {
+		log.info(event.toJson());
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import org.glassfish.hk2.api.ActiveDescriptor;
+import org.glassfish.hk2.api.Injectee;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.BuilderHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+
+/**
+ * Instantiates the singletons of a started container - services bound by
+ * binders, singleton resources and providers that haven't been created during
+ * the initialization of the application - concurrently instead of one by one
+ * on the first requests that need them.
+ * <p>
+ * Only singletons the dependency graph of which is independent of each other
+ * are created concurrently: singletons another singleton depends on are
+ * created as part of their dependent's creation. HK2 guarantees that a shared
+ * dependency is created once, only. Singletons that fail to be created are
+ * logged and skipped; their creation is attempted again on first use.
+ * <p>
+ * Jersey's and HK2's own singletons are left as they are.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ParallelSingletonInitializer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ParallelSingletonInitializer.class);
+
+	private static final String[] EXCLUDED_PACKAGES = {"org.glassfish.", "org.jvnet."};
+
+	private final int parallelism;
+
+	/**
+	 * Creates an initializer that uses as many threads as there are
+	 * processors available.
+	 */
+	public ParallelSingletonInitializer() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism
+	 *            the number of threads to create the singletons with
+	 */
+	public ParallelSingletonInitializer(int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Instantiates the singletons of the given - started - container.
+	 *
+	 * @param container
+	 * @return the number of singletons that have been created
+	 */
+	public int initialize(@Nonnull JRestlessHandlerContainer<?> container) {
+		requireNonNull(container, "container may not be null");
+		return initialize(container.getApplicationHandler().getServiceLocator());
+	}
+
+	/**
+	 * Instantiates the singletons bound in the given service locator.
+	 * <p>
+	 * The method returns once all singletons have been created.
+	 *
+	 * @param serviceLocator
+	 * @return the number of singletons that have been created
+	 */
+	public int initialize(@Nonnull ServiceLocator serviceLocator) {
+		requireNonNull(serviceLocator, "serviceLocator may not be null");
+		Set<ActiveDescriptor<?>> singletons = findPendingSingletons(serviceLocator);
+		if (singletons.isEmpty()) {
+			return 0;
+		}
+		List<ActiveDescriptor<?>> roots = findRoots(serviceLocator, singletons);
+		LOG.debug("creating {} singletons starting from {} independent ones", singletons.size(), roots.size());
+		Set<ActiveDescriptor<?>> failed = new HashSet<>();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(roots.size());
+			for (ActiveDescriptor<?> root : roots) {
+				tasks.add(pool.submit(() -> create(serviceLocator, root)));
+			}
+			for (int i = 0; i < tasks.size(); i++) {
+				if (!tasks.get(i).join()) {
+					failed.add(roots.get(i));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+		int created = 0;
+		for (ActiveDescriptor<?> singleton : singletons) {
+			// dependencies of failed singletons and cycles without a root
+			if (singleton.isCacheSet() || !failed.contains(singleton) && create(serviceLocator, singleton)) {
+				created++;
+			}
+		}
+		return created;
+	}
+
+	private static Set<ActiveDescriptor<?>> findPendingSingletons(ServiceLocator serviceLocator) {
+		Set<ActiveDescriptor<?>> singletons = new LinkedHashSet<>();
+		for (ActiveDescriptor<?> descriptor : serviceLocator.getDescriptors(BuilderHelper.allFilter())) {
+			if (descriptor.isCacheSet() || isExcluded(descriptor.getImplementation())) {
+				continue;
+			}
+			ActiveDescriptor<?> reified = reify(serviceLocator, descriptor);
+			if (reified != null && Singleton.class.equals(reified.getScopeAnnotation()) && !reified.isCacheSet()) {
+				singletons.add(reified);
+			}
+		}
+		return singletons;
+	}
+
+	private static boolean isExcluded(String implementation) {
+		if (implementation == null) {
+			return true;
+		}
+		for (String excludedPackage : EXCLUDED_PACKAGES) {
+			if (implementation.startsWith(excludedPackage)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Nullable
+	private static ActiveDescriptor<?> reify(ServiceLocator serviceLocator, ActiveDescriptor<?> descriptor) {
+		try {
+			return serviceLocator.reifyDescriptor(descriptor);
+		} catch (RuntimeException e) {
+			LOG.debug("failed to reify {}", descriptor, e);
+			return null;
+		}
+	}
+
+	/*
+	 * Singletons no other singleton depends on directly.
+	 */
+	private static List<ActiveDescriptor<?>> findRoots(ServiceLocator serviceLocator,
+			Set<ActiveDescriptor<?>> singletons) {
+		Set<ActiveDescriptor<?>> dependencies = new HashSet<>();
+		for (ActiveDescriptor<?> singleton : singletons) {
+			for (Injectee injectee : singleton.getInjectees()) {
+				ActiveDescriptor<?> dependency = resolve(serviceLocator, injectee);
+				if (dependency != null && dependency != singleton && singletons.contains(dependency)) {
+					dependencies.add(dependency);
+				}
+			}
+		}
+		List<ActiveDescriptor<?>> roots = new ArrayList<>();
+		for (ActiveDescriptor<?> singleton : singletons) {
+			if (!dependencies.contains(singleton)) {
+				roots.add(singleton);
+			}
+		}
+		return roots;
+	}
+
+	@Nullable
+	private static ActiveDescriptor<?> resolve(ServiceLocator serviceLocator, Injectee injectee) {
+		try {
+			return serviceLocator.getInjecteeDescriptor(injectee);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static boolean create(ServiceLocator serviceLocator, ActiveDescriptor<?> singleton) {
+		try {
+			serviceLocator.getServiceHandle(singleton).getService();
+			return true;
+		} catch (RuntimeException e) {
+			LOG.warn("failed to create singleton {}", singleton.getImplementation(), e);
+			return false;
+		}
+	}
+}
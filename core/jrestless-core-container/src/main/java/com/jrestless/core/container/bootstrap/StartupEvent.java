@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Event reporting the duration of a completed {@link StartupPhase}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class StartupEvent {
+
+	private final StartupPhase phase;
+	private final long durationNanos;
+
+	public StartupEvent(@Nonnull StartupPhase phase, long durationNanos) {
+		this.phase = requireNonNull(phase, "phase may not be null");
+		this.durationNanos = durationNanos;
+	}
+
+	@Nonnull
+	public StartupPhase getPhase() {
+		return phase;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public long getDuration(@Nonnull TimeUnit unit) {
+		return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return the event as single line JSON object
+	 */
+	@Nonnull
+	public String toJson() {
+		return "{\"event\":\"jrestless.startup\",\"phase\":\"" + phase.name()
+			+ "\",\"durationNanos\":" + durationNanos
+			+ ",\"durationMillis\":" + getDuration(TimeUnit.MILLISECONDS) + "}";
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null || !getClass().equals(other.getClass())) {
+			return false;
+		}
+		StartupEvent otherEvent = (StartupEvent) other;
+		return phase == otherEvent.phase && durationNanos == otherEvent.durationNanos;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(phase, durationNanos);
+	}
+
+	@Override
+	public String toString() {
+		return "StartupEvent [phase=" + phase + ", durationNanos=" + durationNanos + "]";
+	}
+}
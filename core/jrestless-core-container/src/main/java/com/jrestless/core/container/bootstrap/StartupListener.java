@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Listener that gets informed about the duration of each {@link StartupPhase}.
+ * <p>
+ * The listener is invoked synchronously on the thread that executes the phase
+ * and must not throw.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@FunctionalInterface
+public interface StartupListener {
+	/**
+	 * Invoked when a startup phase has completed.
+	 *
+	 * @param event
+	 */
+	void onPhaseCompleted(@Nonnull StartupEvent event);
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+/**
+ * The phases of a cold start that are reported to a {@link StartupListener}.
+ * <p>
+ * Phases may be nested: {@link #HANDLER_INIT} contains
+ * {@link #APPLICATION_HANDLER_CREATION} which in turn consists of
+ * {@link #INJECTION_BINDING} and {@link #PROVIDER_INITIALIZATION}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public enum StartupPhase {
+	/**
+	 * Initialization of the request handler, i.e. creation of the container.
+	 */
+	HANDLER_INIT,
+	/**
+	 * Construction of Jersey's {@link org.glassfish.jersey.server.ApplicationHandler}.
+	 */
+	APPLICATION_HANDLER_CREATION,
+	/**
+	 * Creation of the HK2 service locator, binding of all services and
+	 * configuration of the features; the first part of
+	 * {@link #APPLICATION_HANDLER_CREATION}.
+	 */
+	INJECTION_BINDING,
+	/**
+	 * Instantiation of the providers, creation and validation of the resource
+	 * model and creation of the routing; the second part of
+	 * {@link #APPLICATION_HANDLER_CREATION}.
+	 */
+	PROVIDER_INITIALIZATION,
+	/**
+	 * Start of the request handler.
+	 */
+	HANDLER_START,
+	/**
+	 * Start of the container, i.e. invocation of the container lifecycle
+	 * listeners.
+	 */
+	CONTAINER_STARTUP,
+	/**
+	 * Concurrent instantiation of the singletons (cf.
+	 * {@link ParallelSingletonInitializer}); part of {@link #HANDLER_START}.
+	 */
+	SINGLETON_INITIALIZATION,
+	/**
+	 * Warm-up of the container (cf. {@link ContainerWarmup}); part of
+	 * {@link #HANDLER_START}.
+	 */
+	WARMUP,
+	/**
+	 * Reload of the container.
+	 */
+	CONTAINER_RELOAD,
+	/**
+	 * Restore of the container from a checkpoint, i.e. invocation of the
+	 * {@link CheckpointListener#afterRestore()} hooks.
+	 */
+	CONTAINER_RESTORE,
+	/**
+	 * The first request handled by the request handler.
+	 */
+	FIRST_REQUEST
+}
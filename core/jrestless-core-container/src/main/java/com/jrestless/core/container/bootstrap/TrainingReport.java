@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Result of a {@link TrainingRun}: the classes loaded per startup phase and
+ * the list of all loaded classes.
+ * <p>
+ * The class names are only available if the training run had access to an
+ * {@link java.lang.instrument.Instrumentation} instance; the number of
+ * loaded classes is always available.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class TrainingReport {
+
+	private final List<PhaseClassLoading> phases;
+	private final List<String> classList;
+
+	TrainingReport(@Nonnull List<PhaseClassLoading> phases, @Nullable List<String> classList) {
+		this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+		this.classList = classList == null ? null : Collections.unmodifiableList(new ArrayList<>(classList));
+	}
+
+	/**
+	 * @return the phases in the order they have been completed
+	 */
+	@Nonnull
+	public List<PhaseClassLoading> getPhases() {
+		return phases;
+	}
+
+	/**
+	 * @return {@code true} if the names of the loaded classes are available
+	 */
+	public boolean isClassListAvailable() {
+		return classList != null;
+	}
+
+	/**
+	 * Returns the names - in internal form, e.g. {@code java/lang/Object} - of
+	 * all classes loaded at the end of the training run. The classes loaded
+	 * before the container has been created come first, followed by the
+	 * classes loaded in each phase.
+	 * <p>
+	 * Array, primitive and generated classes (lambdas, proxies) are excluded
+	 * since they cannot be archived.
+	 *
+	 * @return the class list
+	 * @throws IllegalStateException
+	 *             if the class list is not available
+	 */
+	@Nonnull
+	public List<String> getClassList() {
+		if (classList == null) {
+			throw new IllegalStateException("the class list is not available");
+		}
+		return classList;
+	}
+
+	/**
+	 * Writes the class list - one class per line - in the format expected by
+	 * {@code -XX:SharedClassListFile} when dumping a class-data-sharing
+	 * archive.
+	 * <p>
+	 * The stream is not closed.
+	 *
+	 * @param out
+	 * @throws IOException
+	 * @throws IllegalStateException
+	 *             if the class list is not available
+	 */
+	public void writeClassList(@Nonnull OutputStream out) throws IOException {
+		requireNonNull(out, "out may not be null");
+		List<String> classNames = getClassList();
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		for (String className : classNames) {
+			writer.write(className);
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Writes one single line JSON object per phase (cf.
+	 * {@link PhaseClassLoading#toJson()}).
+	 * <p>
+	 * The stream is not closed.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeReport(@Nonnull OutputStream out) throws IOException {
+		requireNonNull(out, "out may not be null");
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		for (PhaseClassLoading phase : phases) {
+			writer.write(phase.toJson());
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * The classes loaded during a phase.
+	 * <p>
+	 * Since phases may be nested (cf. {@link StartupPhase}), the classes are
+	 * the ones loaded since the previous phase has been completed; e.g.
+	 * {@link StartupPhase#APPLICATION_HANDLER_CREATION} only counts the
+	 * classes loaded after {@link StartupPhase#PROVIDER_INITIALIZATION}.
+	 */
+	public static final class PhaseClassLoading {
+		private final StartupPhase phase;
+		private final long durationNanos;
+		private final long loadedClassCount;
+		private final List<String> classNames;
+
+		PhaseClassLoading(@Nonnull StartupPhase phase, long durationNanos, long loadedClassCount,
+				@Nullable List<String> classNames) {
+			this.phase = requireNonNull(phase, "phase may not be null");
+			this.durationNanos = durationNanos;
+			this.loadedClassCount = loadedClassCount;
+			this.classNames = classNames == null ? null : Collections.unmodifiableList(new ArrayList<>(classNames));
+		}
+
+		@Nonnull
+		public StartupPhase getPhase() {
+			return phase;
+		}
+
+		public long getDurationNanos() {
+			return durationNanos;
+		}
+
+		/**
+		 * @return the number of classes the JVM loaded during the phase,
+		 *         including the excluded ones
+		 */
+		public long getLoadedClassCount() {
+			return loadedClassCount;
+		}
+
+		/**
+		 * @return the names of the classes loaded during the phase in
+		 *         internal form or {@code null} if not available
+		 */
+		@Nullable
+		public List<String> getClassNames() {
+			return classNames;
+		}
+
+		/**
+		 * @return the phase as single line JSON object
+		 */
+		@Nonnull
+		public String toJson() {
+			StringBuilder json = new StringBuilder();
+			json.append("{\"event\":\"jrestless.training\",\"phase\":\"").append(phase.name())
+				.append("\",\"durationMillis\":").append(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+				.append(",\"loadedClasses\":").append(loadedClassCount);
+			if (classNames != null) {
+				json.append(",\"classes\":[");
+				for (int i = 0; i < classNames.size(); i++) {
+					if (i > 0) {
+						json.append(',');
+					}
+					json.append('"');
+					appendEscaped(json, classNames.get(i));
+					json.append('"');
+				}
+				json.append(']');
+			}
+			return json.append('}').toString();
+		}
+
+		private static void appendEscaped(StringBuilder json, String value) {
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c == '"' || c == '\\') {
+					json.append('\\');
+				}
+				json.append(c);
+			}
+		}
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.OutputStream;
+import java.lang.instrument.Instrumentation;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+/**
+ * Training run that creates and starts a container for an application, sends
+ * warm-up traffic (cf. {@link ContainerWarmup}) through it and shuts it down
+ * again - recording which classes have been loaded in which
+ * {@link StartupPhase}.
+ * <p>
+ * Jersey and HK2 load thousands of classes on a cold start. The resulting
+ * {@link TrainingReport} shows how class loading is distributed over the
+ * phases and provides the class list to build a class-data-sharing (AppCDS)
+ * archive from.
+ * <p>
+ * The number of loaded classes is always recorded. The class names are only
+ * recorded if the training run has access to an {@link Instrumentation}
+ * instance, i.e. if the JVM has been started with
+ * {@code -javaagent:jrestless-core-container.jar} which makes this class the
+ * agent. Alternatively, the JVM can dump the class list itself via
+ * {@code -XX:DumpLoadedClassList=<file>}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class TrainingRun {
+
+	/**
+	 * The file {@link #main(String[])} writes the class list to.
+	 */
+	public static final String CLASS_LIST_FILE = "classes.lst";
+	/**
+	 * The file {@link #main(String[])} writes the per-phase report to.
+	 */
+	public static final String REPORT_FILE = "class-loading.json";
+
+	private static final Logger LOG = LoggerFactory.getLogger(TrainingRun.class);
+
+	private static final long DEFAULT_WARMUP_SECONDS = 10;
+	private static final int DEFAULT_WARMUP_ROUNDS = 10;
+	private static final int MIN_ARGS = 2;
+	private static final int WARMUP_SECONDS_ARG = 2;
+	private static final int WARMUP_ROUNDS_ARG = 3;
+	private static final int MAX_ARGS = 4;
+
+	private static volatile Instrumentation agentInstrumentation;
+
+	private final Application application;
+	private final ContainerWarmup warmup;
+	private final Instrumentation instrumentation;
+
+	/**
+	 * @param application
+	 *            the application to train
+	 * @param warmup
+	 *            the warm-up to run after the container has been started; may
+	 *            be null
+	 */
+	public TrainingRun(@Nonnull Application application, @Nullable ContainerWarmup warmup) {
+		this(application, warmup, agentInstrumentation);
+	}
+
+	TrainingRun(@Nonnull Application application, @Nullable ContainerWarmup warmup,
+			@Nullable Instrumentation instrumentation) {
+		this.application = requireNonNull(application, "application may not be null");
+		this.warmup = warmup;
+		this.instrumentation = instrumentation;
+	}
+
+	/**
+	 * Agent entry point when the JVM is started with
+	 * {@code -javaagent}.
+	 *
+	 * @param agentArgs
+	 * @param instrumentation
+	 */
+	public static void premain(String agentArgs, Instrumentation instrumentation) {
+		agentInstrumentation = instrumentation;
+	}
+
+	/**
+	 * Agent entry point when the agent is attached to a running JVM.
+	 *
+	 * @param agentArgs
+	 * @param instrumentation
+	 */
+	public static void agentmain(String agentArgs, Instrumentation instrumentation) {
+		agentInstrumentation = instrumentation;
+	}
+
+	/**
+	 * Creates, starts, warms up and shuts down a container for the
+	 * application.
+	 *
+	 * @return the report
+	 */
+	@Nonnull
+	public TrainingReport run() {
+		ClassLoadTracker tracker = new ClassLoadTracker(instrumentation);
+		List<TrainingReport.PhaseClassLoading> phases = new ArrayList<>();
+		StartupListener listener = event -> phases.add(tracker.completePhase(event));
+		JRestlessHandlerContainer<JRestlessContainerRequest> container = new JRestlessHandlerContainer<>(
+				application, null, null, listener);
+		container.onStartup();
+		try {
+			if (warmup != null) {
+				long start = System.nanoTime();
+				warmup.warmup(container);
+				listener.onPhaseCompleted(new StartupEvent(StartupPhase.WARMUP, System.nanoTime() - start));
+			}
+		} finally {
+			container.onShutdown();
+		}
+		return new TrainingReport(phases, tracker.getClassList());
+	}
+
+	/**
+	 * Runs the training at build time and writes the report to
+	 * {@value #REPORT_FILE} and - if available - the class list to
+	 * {@value #CLASS_LIST_FILE}.
+	 * <p>
+	 * Arguments:
+	 * <ol>
+	 * <li>the fully qualified name of the application class; the class must
+	 * have a public no-arg constructor
+	 * <li>the directory to write the files to
+	 * <li>optional: the time budget of the warm-up in seconds; defaults to
+	 * {@value #DEFAULT_WARMUP_SECONDS}; 0 disables the warm-up
+	 * <li>optional: the number of warm-up rounds; defaults to
+	 * {@value #DEFAULT_WARMUP_ROUNDS}
+	 * </ol>
+	 *
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < MIN_ARGS || args.length > MAX_ARGS) {
+			throw new IllegalArgumentException(
+					"usage: TrainingRun <application class> <output directory> [warm-up seconds [warm-up rounds]]");
+		}
+		Application application = (Application) Class.forName(args[0]).newInstance();
+		Path outputDirectory = Paths.get(args[1]);
+		long warmupSeconds = args.length > WARMUP_SECONDS_ARG
+				? Long.parseLong(args[WARMUP_SECONDS_ARG]) : DEFAULT_WARMUP_SECONDS;
+		int warmupRounds = args.length > WARMUP_ROUNDS_ARG
+				? Integer.parseInt(args[WARMUP_ROUNDS_ARG]) : DEFAULT_WARMUP_ROUNDS;
+		ContainerWarmup warmup = warmupSeconds > 0
+				? new ContainerWarmup(warmupSeconds, TimeUnit.SECONDS, warmupRounds) : null;
+		TrainingReport report = new TrainingRun(application, warmup).run();
+		Files.createDirectories(outputDirectory);
+		try (OutputStream out = Files.newOutputStream(outputDirectory.resolve(REPORT_FILE))) {
+			report.writeReport(out);
+		}
+		if (report.isClassListAvailable()) {
+			try (OutputStream out = Files.newOutputStream(outputDirectory.resolve(CLASS_LIST_FILE))) {
+				report.writeClassList(out);
+			}
+		} else {
+			LOG.warn("no class list written; start the JVM with -javaagent:<jrestless-core-container jar>"
+					+ " or -XX:DumpLoadedClassList=<file>");
+		}
+	}
+
+	/**
+	 * Tracks the classes loaded between the completion of two phases.
+	 */
+	private static final class ClassLoadTracker {
+		private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+		private final Instrumentation instrumentation;
+		private final Set<String> classList;
+		private long loadedClassCount;
+
+		ClassLoadTracker(@Nullable Instrumentation instrumentation) {
+			this.instrumentation = instrumentation;
+			this.loadedClassCount = classLoading.getTotalLoadedClassCount();
+			if (instrumentation != null) {
+				classList = new LinkedHashSet<>();
+				collectNewClasses();
+			} else {
+				classList = null;
+			}
+		}
+
+		TrainingReport.PhaseClassLoading completePhase(StartupEvent event) {
+			long currentCount = classLoading.getTotalLoadedClassCount();
+			long phaseCount = currentCount - loadedClassCount;
+			loadedClassCount = currentCount;
+			List<String> classNames = classList == null ? null : collectNewClasses();
+			return new TrainingReport.PhaseClassLoading(event.getPhase(), event.getDurationNanos(), phaseCount,
+					classNames);
+		}
+
+		List<String> getClassList() {
+			return classList == null ? null : new ArrayList<>(classList);
+		}
+
+		private List<String> collectNewClasses() {
+			Set<String> loaded = new HashSet<>();
+			for (Class<?> loadedClass : instrumentation.getAllLoadedClasses()) {
+				if (isArchivable(loadedClass)) {
+					loaded.add(loadedClass.getName().replace('.', '/'));
+				}
+			}
+			loaded.removeAll(classList);
+			List<String> newClasses = new ArrayList<>(loaded);
+			Collections.sort(newClasses);
+			classList.addAll(newClasses);
+			return newClasses;
+		}
+
+		private static boolean isArchivable(Class<?> loadedClass) {
+			return !loadedClass.isArray() && !loadedClass.isPrimitive() && !loadedClass.isSynthetic()
+					&& !loadedClass.getName().contains("$$");
+		}
+	}
+}
@@ -15,6 +15,15 @@
  */
 package com.jrestless.core.container.dpi;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
@@ -22,13 +31,36 @@ import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.process.internal.RequestScoped;
 
 /**
- * Adds functionality to bind referencing factories.
+ * Adds functionality to bind referencing factories and invocation-scoped
+ * delegates.
+ * <p>
+ * If the binder knows the {@link ServiceLocator} it is installed in, classes
+ * annotated with {@link StaticBinding} are bound via their generated
+ * {@link ServiceCreator} and a {@link StaticActiveDescriptor}, i.e. without
+ * HK2 analyzing them reflectively. Otherwise - or if no creator has been
+ * generated - the classes are bound the regular way.
  *
  * @author Bjoern Bilger
  *
  */
 public abstract class AbstractReferencingBinder extends AbstractBinder {
 
+	private final ServiceLocator serviceLocator;
+
+	protected AbstractReferencingBinder() {
+		this(null);
+	}
+
+	/**
+	 * @param serviceLocator
+	 *            the locator the binder gets installed in (cf.
+	 *            {@link StaticBindings#getServiceLocator(javax.ws.rs.core.FeatureContext)});
+	 *            enables static bindings; may be null
+	 */
+	protected AbstractReferencingBinder(@Nullable ServiceLocator serviceLocator) {
+		this.serviceLocator = serviceLocator;
+	}
+
 	/**
 	 * Binds the referencingFactory to the referenceType in the request scope
 	 * and allows proxying the reference type but not for the same scope.
@@ -42,6 +74,23 @@ public abstract class AbstractReferencingBinder extends AbstractBinder {
 	 */
 	public final <T> void bindReferencingFactory(Class<T> referenceType,
 			Class<? extends ReferencingFactory<T>> referencingFacatory, TypeLiteral<Ref<T>> referenceTypeLiteral) {
+		ServiceCreator<? extends ReferencingFactory<T>> factoryCreator = findCreator(referencingFacatory);
+		if (factoryCreator != null) {
+			// like HK2, the produced type is the implementation class of a factory's service
+			addActiveDescriptor(StaticActiveDescriptor.builder(referenceType,
+					() -> factoryCreator.create(serviceLocator).provide())
+				.to(referenceType)
+				.proxy(true)
+				.proxyForSameScope(false)
+				.in(RequestScoped.class)
+				.build());
+			Factory<Ref<T>> refFactory = ReferencingFactory.<T>referenceFactory();
+			addActiveDescriptor(StaticActiveDescriptor.builder(Ref.class, refFactory::provide)
+				.to(referenceTypeLiteral.getType())
+				.in(RequestScoped.class)
+				.build());
+			return;
+		}
 		bindFactory(referencingFacatory)
 			.to(referenceType)
 			.proxy(true)
@@ -51,4 +100,46 @@ public abstract class AbstractReferencingBinder extends AbstractBinder {
 			.to(referenceTypeLiteral)
 			.in(RequestScoped.class);
 	}
+
+	/**
+	 * Binds the delegate to the referenceType as singleton - without any
+	 * proxy.
+	 * <p>
+	 * The delegate must read the actual value from the {@link InvocationScope}
+	 * on each method invocation; the scope must be bound, as well.
+	 *
+	 * @param referenceType
+	 * @param delegateType
+	 */
+	public final <T> void bindInvocationScopedDelegate(Class<T> referenceType, Class<? extends T> delegateType) {
+		bindStatic(delegateType, referenceType, Singleton.class);
+	}
+
+	/**
+	 * Binds the implementation type to the contract in the given scope -
+	 * statically if possible.
+	 *
+	 * @param implementationType
+	 * @param contract
+	 * @param scope
+	 */
+	public final <T> void bindStatic(@Nonnull Class<T> implementationType, @Nonnull Type contract,
+			@Nonnull Class<? extends Annotation> scope) {
+		ServiceCreator<T> creator = findCreator(implementationType);
+		if (creator != null) {
+			addActiveDescriptor(StaticActiveDescriptor.builder(implementationType,
+					() -> creator.create(serviceLocator))
+				.to(contract)
+				.in(scope)
+				.build());
+		} else {
+			bind(implementationType)
+				.to(contract)
+				.in(scope);
+		}
+	}
+
+	private <T> ServiceCreator<T> findCreator(Class<T> type) {
+		return serviceLocator == null ? null : StaticBindings.findCreator(type);
+	}
 }
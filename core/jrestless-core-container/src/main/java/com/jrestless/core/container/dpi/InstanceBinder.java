@@ -46,9 +46,21 @@ public final class InstanceBinder extends AbstractBinder {
 	@Override
 	protected void configure() {
 		for (InstanceFactory<?> factory : factories) {
-			bindFactory(factory).to(factory.getType()).in(factory.getScope());
+			bindInstanceFactory(factory);
 		}
 	}
+
+	/*
+	 * Equivalent to bindFactory(factory).to(type).in(scope) but without HK2
+	 * analyzing the factory reflectively.
+	 */
+	private <T> void bindInstanceFactory(InstanceFactory<T> factory) {
+		addActiveDescriptor(StaticActiveDescriptor.builder(factory.getType(), factory::provide)
+			.to(factory.getType())
+			.in(factory.getScope())
+			.disposer(factory::dispose)
+			.build());
+	}
 	/**
 	 * Builder to create an {@link InstanceBinder}.
 	 *
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.dpi;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.ws.rs.core.Configuration;
+
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.process.internal.RequestScope;
+import org.glassfish.jersey.server.ContainerRequest;
+
+/**
+ * Per-invocation holder for the values a function has been invoked with (e.g.
+ * the Lambda context or the API Gateway request) that resources and providers
+ * can read without an HK2 proxy or a service locator lookup.
+ * <p>
+ * The values are stored as properties of the {@link ContainerRequest}
+ * ({@link #setValue(ContainerRequest, Class, Object)}). The handler
+ * {@link Resolver#enter(ServiceLocator, ContainerRequest) enters} the scope
+ * from the request-scoped initializer which binds the container request to the
+ * current thread and the current request scope. Singleton delegates of the value types
+ * read the values via {@link #get(Class)} on each method invocation: on the
+ * thread handling the invocation this is a thread-local lookup; on other
+ * threads that run within the request scope (e.g. when a suspended response
+ * is resumed) the container request is looked up via HK2.
+ * <p>
+ * The scope is used only if the application enables it via
+ * {@link #PROXY_FREE_INJECTION_PROPERTY}; the default injection via
+ * request-scoped proxies (cf. {@link AbstractReferencingBinder}) is used,
+ * otherwise.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@Singleton
+public final class InvocationScope {
+
+	/**
+	 * Application property that enables proxy-free injection of the
+	 * invocation's values. Defaults to {@code false}.
+	 */
+	public static final String PROXY_FREE_INJECTION_PROPERTY = "jrestless.injection.proxyFree";
+
+	private static final String VALUE_PROPERTY_PREFIX = InvocationScope.class.getName() + ".";
+
+	private static final ThreadLocal<Entry> CURRENT = new ThreadLocal<>();
+
+	private final RequestScope requestScope;
+	private final Provider<ContainerRequest> containerRequestProvider;
+
+	@Inject
+	InvocationScope(RequestScope requestScope, Provider<ContainerRequest> containerRequestProvider) {
+		this.requestScope = requestScope;
+		this.containerRequestProvider = containerRequestProvider;
+	}
+
+	/**
+	 * @param configuration
+	 * @return {@code true} if {@link #PROXY_FREE_INJECTION_PROPERTY} is enabled
+	 */
+	public static boolean isEnabled(@Nonnull Configuration configuration) {
+		requireNonNull(configuration, "configuration may not be null");
+		return PropertiesHelper.isProperty(configuration.getProperty(PROXY_FREE_INJECTION_PROPERTY));
+	}
+
+	/**
+	 * Binds the scope as singleton.
+	 *
+	 * @param binder
+	 */
+	public static void bind(@Nonnull AbstractBinder binder) {
+		binder.bindAsContract(InvocationScope.class).in(Singleton.class);
+	}
+
+	/**
+	 * Stores the value for the given type in the container request.
+	 *
+	 * @param containerRequest
+	 * @param type
+	 * @param value
+	 */
+	public static <T> void setValue(@Nonnull ContainerRequest containerRequest, @Nonnull Class<T> type,
+			@Nullable T value) {
+		requireNonNull(containerRequest, "containerRequest may not be null");
+		containerRequest.setProperty(getValueProperty(type), value);
+	}
+
+	/**
+	 * Unbinds the container request from the current thread.
+	 * <p>
+	 * Called once the thread has finished handling the request.
+	 */
+	public static void exit() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * Returns the value for the given type of the current request.
+	 *
+	 * @param type
+	 * @return the value
+	 * @throws IllegalStateException
+	 *             if not called within a request scope or if there's no value
+	 *             for the given type
+	 */
+	@Nonnull
+	public <T> T get(@Nonnull Class<T> type) {
+		Object value = getContainerRequest().getProperty(getValueProperty(type));
+		if (value == null) {
+			throw new IllegalStateException("no " + type.getName() + " available for the current request");
+		}
+		return type.cast(value);
+	}
+
+	private ContainerRequest getContainerRequest() {
+		Entry entry = CURRENT.get();
+		if (entry != null) {
+			RequestScope.Instance scopeInstance = requestScope.referenceCurrent();
+			try {
+				if (scopeInstance == entry.scopeInstance) {
+					return entry.containerRequest;
+				}
+			} finally {
+				scopeInstance.release();
+			}
+		}
+		return containerRequestProvider.get();
+	}
+
+	private static String getValueProperty(Class<?> type) {
+		requireNonNull(type, "type may not be null");
+		return VALUE_PROPERTY_PREFIX + type.getName();
+	}
+
+	/**
+	 * Resolves the scope of an application once and enters it per request.
+	 * <p>
+	 * Each handler holds a resolver of its own. The scope is looked up once
+	 * per application (i.e. per locator); if the application hasn't enabled
+	 * the scope, entering it costs a field read per request, only.
+	 */
+	public static final class Resolver {
+
+		private volatile LocatorEntry lastLocatorEntry;
+
+		/**
+		 * Enters the scope for the given container request if the scope has
+		 * been bound in the given locator.
+		 * <p>
+		 * Must be called from within the request scope on the thread handling
+		 * the request, i.e. from the request-scoped initializer.
+		 *
+		 * @param locator
+		 *            the locator passed to the request-scoped initializer
+		 * @param containerRequest
+		 * @return {@code true} if the scope has been entered; {@code false} if
+		 *         the scope hasn't been bound
+		 */
+		public boolean enter(@Nonnull ServiceLocator locator, @Nonnull ContainerRequest containerRequest) {
+			requireNonNull(locator, "locator may not be null");
+			requireNonNull(containerRequest, "containerRequest may not be null");
+			LocatorEntry locatorEntry = lastLocatorEntry;
+			if (locatorEntry == null || locatorEntry.locator != locator) {
+				// the scope is a singleton so a lookup is required once per application, only
+				locatorEntry = new LocatorEntry(locator, locator.getService(InvocationScope.class));
+				lastLocatorEntry = locatorEntry;
+			}
+			InvocationScope scope = locatorEntry.scope;
+			if (scope == null) {
+				return false;
+			}
+			RequestScope.Instance scopeInstance = scope.requestScope.referenceCurrent();
+			// the instance's identity is all we need
+			scopeInstance.release();
+			CURRENT.set(new Entry(scopeInstance, containerRequest));
+			return true;
+		}
+	}
+
+	private static final class Entry {
+		private final RequestScope.Instance scopeInstance;
+		private final ContainerRequest containerRequest;
+
+		Entry(RequestScope.Instance scopeInstance, ContainerRequest containerRequest) {
+			this.scopeInstance = scopeInstance;
+			this.containerRequest = containerRequest;
+		}
+	}
+
+	private static final class LocatorEntry {
+		private final ServiceLocator locator;
+		private final InvocationScope scope;
+
+		LocatorEntry(ServiceLocator locator, InvocationScope scope) {
+			this.locator = locator;
+			this.scope = scope;
+		}
+	}
+}
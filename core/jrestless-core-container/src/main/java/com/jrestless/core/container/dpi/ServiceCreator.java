@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.dpi;
+
+import javax.annotation.Nonnull;
+
+import org.glassfish.hk2.api.ServiceLocator;
+
+/**
+ * Creates a service by invoking its constructor directly - with the
+ * dependencies looked up from the {@link ServiceLocator} - instead of letting
+ * HK2 analyze the service class reflectively.
+ * <p>
+ * Implementations are generated by {@link StaticBindingProcessor} for classes
+ * annotated with {@link StaticBinding}.
+ *
+ * @author Bjoern Bilger
+ *
+ * @param <T>
+ *            the service type
+ */
+public interface ServiceCreator<T> {
+
+	/**
+	 * Creates a new instance of the service.
+	 *
+	 * @param serviceLocator
+	 *            the locator to look the dependencies up from
+	 * @return the new instance
+	 */
+	@Nonnull
+	T create(@Nonnull ServiceLocator serviceLocator);
+}
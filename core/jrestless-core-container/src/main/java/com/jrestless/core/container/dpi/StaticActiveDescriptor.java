@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.dpi;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.glassfish.hk2.api.DescriptorType;
+import org.glassfish.hk2.api.DescriptorVisibility;
+import org.glassfish.hk2.api.PerLookup;
+import org.glassfish.hk2.api.ServiceHandle;
+import org.glassfish.hk2.utilities.AbstractActiveDescriptor;
+
+/**
+ * Reified {@link org.glassfish.hk2.api.ActiveDescriptor} that creates its
+ * service via a {@link Supplier}.
+ * <p>
+ * HK2 analyzes classes and factories that are bound via
+ * {@code bind(Class)} or {@code bindFactory(...)} reflectively (constructors,
+ * injection points, lifecycle methods, scopes, the factory's provide method).
+ * Everything HK2 needs is passed to this descriptor explicitly, instead, so
+ * that it can be added via
+ * {@code AbstractBinder#addActiveDescriptor(ActiveDescriptor)} without any
+ * analysis.
+ *
+ * @author Bjoern Bilger
+ *
+ * @param <T>
+ *            the service type
+ */
+public final class StaticActiveDescriptor<T> extends AbstractActiveDescriptor<T> {
+
+	private static final long serialVersionUID = -1192634379068823552L;
+
+	private final Class<?> implementationClass;
+	private final Supplier<T> creator;
+	private final Consumer<T> disposer;
+
+	private StaticActiveDescriptor(Builder<T> builder) {
+		super(builder.contracts, builder.scope, null, Collections.emptySet(), DescriptorType.CLASS,
+				DescriptorVisibility.NORMAL, 0, builder.proxiable, builder.proxyForSameScope, null,
+				Collections.emptyMap());
+		this.implementationClass = builder.implementationClass;
+		this.creator = builder.creator;
+		this.disposer = builder.disposer;
+		setImplementation(implementationClass.getName());
+	}
+
+	/**
+	 * Creates a builder for a descriptor whose services are of the given
+	 * implementation class and are created by the given creator.
+	 *
+	 * @param implementationClass
+	 * @param creator
+	 * @return the builder
+	 */
+	@Nonnull
+	public static <T> Builder<T> builder(@Nonnull Class<?> implementationClass, @Nonnull Supplier<T> creator) {
+		return new Builder<>(implementationClass, creator);
+	}
+
+	@Override
+	public Class<?> getImplementationClass() {
+		return implementationClass;
+	}
+
+	@Override
+	public Type getImplementationType() {
+		return implementationClass;
+	}
+
+	@Override
+	public T create(ServiceHandle<?> root) {
+		return creator.get();
+	}
+
+	@Override
+	public void dispose(T instance) {
+		if (disposer != null) {
+			disposer.accept(instance);
+		}
+	}
+
+	/**
+	 * Builder for {@link StaticActiveDescriptor}; mirrors HK2's binding DSL.
+	 *
+	 * @param <T>
+	 *            the service type
+	 */
+	public static final class Builder<T> {
+		private final Class<?> implementationClass;
+		private final Supplier<T> creator;
+		private final Set<Type> contracts = new HashSet<>();
+		private Class<? extends Annotation> scope = PerLookup.class;
+		private Boolean proxiable;
+		private Boolean proxyForSameScope;
+		private Consumer<T> disposer;
+
+		private Builder(Class<?> implementationClass, Supplier<T> creator) {
+			this.implementationClass = requireNonNull(implementationClass, "implementationClass may not be null");
+			this.creator = requireNonNull(creator, "creator may not be null");
+		}
+
+		/**
+		 * Adds a contract the service is advertised under.
+		 *
+		 * @param contract
+		 * @return the builder
+		 */
+		@Nonnull
+		public Builder<T> to(@Nonnull Type contract) {
+			contracts.add(requireNonNull(contract, "contract may not be null"));
+			return this;
+		}
+
+		/**
+		 * Sets the scope of the service; {@link PerLookup} by default.
+		 *
+		 * @param scopeAnnotation
+		 * @return the builder
+		 */
+		@Nonnull
+		public Builder<T> in(@Nonnull Class<? extends Annotation> scopeAnnotation) {
+			this.scope = requireNonNull(scopeAnnotation, "scopeAnnotation may not be null");
+			return this;
+		}
+
+		/**
+		 * @param proxy
+		 *            whether the service is proxied; null to let the scope
+		 *            decide
+		 * @return the builder
+		 */
+		@Nonnull
+		public Builder<T> proxy(@Nullable Boolean proxy) {
+			this.proxiable = proxy;
+			return this;
+		}
+
+		/**
+		 * @param proxy
+		 *            whether the service is proxied when injected into a
+		 *            service of the same scope
+		 * @return the builder
+		 */
+		@Nonnull
+		public Builder<T> proxyForSameScope(@Nullable Boolean proxy) {
+			this.proxyForSameScope = proxy;
+			return this;
+		}
+
+		/**
+		 * @param instanceDisposer
+		 *            invoked when a service is destroyed
+		 * @return the builder
+		 */
+		@Nonnull
+		public Builder<T> disposer(@Nullable Consumer<T> instanceDisposer) {
+			this.disposer = instanceDisposer;
+			return this;
+		}
+
+		/**
+		 * @return the descriptor
+		 * @throws IllegalStateException
+		 *             if no contract has been added
+		 */
+		@Nonnull
+		public StaticActiveDescriptor<T> build() {
+			if (contracts.isEmpty()) {
+				throw new IllegalStateException("at least one contract is required");
+			}
+			return new StaticActiveDescriptor<>(this);
+		}
+	}
+}
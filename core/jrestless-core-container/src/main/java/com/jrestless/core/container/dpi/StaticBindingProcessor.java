@@ -0,0 +1,275 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.dpi;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that generates a {@link ServiceCreator} for each class
+ * annotated with {@link StaticBinding}.
+ * <p>
+ * The generated creator invokes the class' constructor directly and looks its
+ * arguments up from the {@link org.glassfish.hk2.api.ServiceLocator};
+ * {@code javax.inject.Provider} arguments are resolved lazily. Classes that
+ * need anything else HK2 would do reflectively - field or method injection,
+ * qualifiers, lifecycle callbacks - are rejected with a compile error.
+ * <p>
+ * The processor is registered as service, so it runs whenever this module is
+ * on the compile classpath.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@SupportedAnnotationTypes(StaticBindingProcessor.STATIC_BINDING)
+public final class StaticBindingProcessor extends AbstractProcessor {
+
+	static final String STATIC_BINDING = "com.jrestless.core.container.dpi.StaticBinding";
+
+	private static final String INJECT = "javax.inject.Inject";
+	private static final String QUALIFIER = "javax.inject.Qualifier";
+	private static final String PROVIDER = "javax.inject.Provider";
+	private static final String[] LIFECYCLE_ANNOTATIONS = {"javax.annotation.PostConstruct",
+		"javax.annotation.PreDestroy"};
+	private static final String[] LIFECYCLE_INTERFACES = {"org.glassfish.hk2.api.PostConstruct",
+		"org.glassfish.hk2.api.PreDestroy"};
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement staticBinding = processingEnv.getElementUtils().getTypeElement(STATIC_BINDING);
+		if (staticBinding == null) {
+			return false;
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(staticBinding)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				error(element, "only classes can be bound statically");
+			} else {
+				process((TypeElement) element);
+			}
+		}
+		return true;
+	}
+
+	private void process(TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.ABSTRACT)) {
+			error(type, "statically bound classes must not be private or abstract");
+			return;
+		}
+		if (type.getNestingKind() != NestingKind.TOP_LEVEL
+				&& (type.getNestingKind() != NestingKind.MEMBER || !modifiers.contains(Modifier.STATIC))) {
+			error(type, "statically bound classes must be top level or static member classes");
+			return;
+		}
+		if (!type.getTypeParameters().isEmpty()) {
+			error(type, "statically bound classes must not be generic");
+			return;
+		}
+		if (!checkNoReflectiveInjection(type)) {
+			return;
+		}
+		ExecutableElement constructor = findConstructor(type);
+		if (constructor == null) {
+			return;
+		}
+		List<String> arguments = new ArrayList<>();
+		for (VariableElement parameter : constructor.getParameters()) {
+			String argument = createArgument(parameter);
+			if (argument == null) {
+				return;
+			}
+			arguments.add(argument);
+		}
+		writeCreator(type, arguments);
+	}
+
+	private boolean checkNoReflectiveInjection(TypeElement type) {
+		for (Element member : type.getEnclosedElements()) {
+			if ((member.getKind() == ElementKind.FIELD || member.getKind() == ElementKind.METHOD)
+					&& hasAnnotation(member, INJECT)) {
+				error(member, "field and method injection is not supported for statically bound classes");
+				return false;
+			}
+			for (String lifecycleAnnotation : LIFECYCLE_ANNOTATIONS) {
+				if (member.getKind() == ElementKind.METHOD && hasAnnotation(member, lifecycleAnnotation)) {
+					error(member, "lifecycle callbacks are not supported for statically bound classes");
+					return false;
+				}
+			}
+		}
+		for (String lifecycleInterface : LIFECYCLE_INTERFACES) {
+			TypeElement lifecycleType = processingEnv.getElementUtils().getTypeElement(lifecycleInterface);
+			if (lifecycleType != null
+					&& processingEnv.getTypeUtils().isAssignable(type.asType(), lifecycleType.asType())) {
+				error(type, "lifecycle callbacks are not supported for statically bound classes");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private ExecutableElement findConstructor(TypeElement type) {
+		ExecutableElement injectConstructor = null;
+		ExecutableElement noArgConstructor = null;
+		for (Element member : type.getEnclosedElements()) {
+			if (member.getKind() != ElementKind.CONSTRUCTOR) {
+				continue;
+			}
+			ExecutableElement constructor = (ExecutableElement) member;
+			if (hasAnnotation(constructor, INJECT)) {
+				if (injectConstructor != null) {
+					error(constructor, "statically bound classes must have at most one @Inject constructor");
+					return null;
+				}
+				injectConstructor = constructor;
+			} else if (constructor.getParameters().isEmpty()) {
+				noArgConstructor = constructor;
+			}
+		}
+		ExecutableElement constructor = injectConstructor != null ? injectConstructor : noArgConstructor;
+		if (constructor == null) {
+			error(type, "statically bound classes must have an @Inject or a no-arg constructor");
+		} else if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+			error(constructor, "the constructor of statically bound classes must not be private");
+			return null;
+		}
+		return constructor;
+	}
+
+	/*
+	 * Returns the expression that resolves the argument or null if the
+	 * parameter cannot be resolved statically.
+	 */
+	private String createArgument(VariableElement parameter) {
+		for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+			if (hasAnnotation(annotation.getAnnotationType().asElement(), QUALIFIER)) {
+				error(parameter, "qualifiers are not supported for statically bound classes");
+				return null;
+			}
+		}
+		TypeMirror type = parameter.asType();
+		if (!isResolvable(type)) {
+			error(parameter, "only class and interface types can be resolved statically");
+			return null;
+		}
+		DeclaredType declaredType = (DeclaredType) type;
+		if (isType(declaredType, PROVIDER)) {
+			if (declaredType.getTypeArguments().size() != 1 || !isResolvable(declaredType.getTypeArguments().get(0))) {
+				error(parameter, "providers must provide a class or an interface type");
+				return null;
+			}
+			return "() -> " + createLookup(declaredType.getTypeArguments().get(0));
+		}
+		return createLookup(declaredType);
+	}
+
+	private String createLookup(TypeMirror type) {
+		String typeName = type.toString();
+		String typeExpression;
+		if (((DeclaredType) type).getTypeArguments().isEmpty()) {
+			typeExpression = typeName + ".class";
+		} else {
+			typeExpression = "new org.glassfish.hk2.api.TypeLiteral<" + typeName + ">() { }.getType()";
+		}
+		return "serviceLocator.<" + typeName + ">getService(" + typeExpression + ")";
+	}
+
+	private static boolean isResolvable(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+			if (!isResolvable(typeArgument)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isType(DeclaredType type, String qualifiedName) {
+		return ((TypeElement) type.asElement()).getQualifiedName().contentEquals(qualifiedName);
+	}
+
+	private static boolean hasAnnotation(Element element, String annotationType) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (isType(annotation.getAnnotationType(), annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void writeCreator(TypeElement type, List<String> arguments) {
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = packageElement.getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String creatorName = StaticBindings.getCreatorName(binaryName);
+		String creatorSimpleName = creatorName.substring(creatorName.lastIndexOf('.') + 1);
+		String typeName = type.getQualifiedName().toString();
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("/**\n * Generated by ").append(StaticBindingProcessor.class.getName())
+			.append(" for {@link ").append(typeName).append("}.\n */\n")
+			.append("public final class ").append(creatorSimpleName)
+			.append(" implements ").append(ServiceCreator.class.getName())
+			.append('<').append(typeName).append("> {\n\n")
+			.append("\t@Override\n")
+			.append("\tpublic ").append(typeName)
+			.append(" create(org.glassfish.hk2.api.ServiceLocator serviceLocator) {\n")
+			.append("\t\treturn new ").append(typeName).append('(');
+		for (int i = 0; i < arguments.size(); i++) {
+			source.append(i == 0 ? "\n\t\t\t\t" : ",\n\t\t\t\t").append(arguments.get(i));
+		}
+		source.append(");\n\t}\n}\n");
+		try (Writer writer = processingEnv.getFiler().createSourceFile(creatorName, type).openWriter()) {
+			writer.write(source.toString());
+		} catch (IOException e) {
+			error(type, "failed to write the creator: " + e.getMessage());
+		}
+	}
+
+	private void error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.dpi;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.FeatureContext;
+
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.jersey.ServiceLocatorProvider;
+
+/**
+ * Locates the {@link ServiceCreator creators} {@link StaticBindingProcessor}
+ * has generated for {@link StaticBinding} annotated classes.
+ * <p>
+ * The creator of {@code com.example.Outer$Inner} is
+ * {@code com.example.Outer_Inner}{@value #CREATOR_SUFFIX}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class StaticBindings {
+
+	/**
+	 * The suffix of the simple name of generated creators.
+	 */
+	public static final String CREATOR_SUFFIX = "_ServiceCreator";
+
+	private StaticBindings() {
+	}
+
+	/**
+	 * Returns the generated creator for the given type.
+	 *
+	 * @param type
+	 * @return the creator or {@code null} if no creator has been generated
+	 * @throws IllegalStateException
+	 *             if the creator cannot be instantiated
+	 */
+	@Nullable
+	public static <T> ServiceCreator<T> findCreator(@Nonnull Class<T> type) {
+		requireNonNull(type, "type may not be null");
+		Class<?> creatorClass;
+		try {
+			creatorClass = Class.forName(getCreatorName(type.getName()), true, type.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+		try {
+			@SuppressWarnings("unchecked")
+			ServiceCreator<T> creator = (ServiceCreator<T>) creatorClass.getConstructor().newInstance();
+			return creator;
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			throw new IllegalStateException("failed to instantiate the creator " + creatorClass.getName(), e);
+		}
+	}
+
+	/**
+	 * Returns the service locator of the application a feature is configured
+	 * for. Binders registered by the feature pass it to
+	 * {@link AbstractReferencingBinder#AbstractReferencingBinder(ServiceLocator)}.
+	 *
+	 * @param context
+	 * @return the locator or {@code null} if the context does not provide one
+	 */
+	@Nullable
+	public static ServiceLocator getServiceLocator(@Nonnull FeatureContext context) {
+		requireNonNull(context, "context may not be null");
+		try {
+			return ServiceLocatorProvider.getServiceLocator(context);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param binaryName
+	 *            the binary name of the service class
+	 * @return the binary name of the generated creator
+	 */
+	@Nonnull
+	static String getCreatorName(@Nonnull String binaryName) {
+		int packageEnd = binaryName.lastIndexOf('.');
+		return binaryName.substring(0, packageEnd + 1)
+				+ binaryName.substring(packageEnd + 1).replace('$', '_') + CREATOR_SUFFIX;
+	}
+}
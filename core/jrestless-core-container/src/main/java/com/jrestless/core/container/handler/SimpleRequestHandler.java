@@ -18,6 +18,11 @@ package com.jrestless.core.container.handler;
 import static java.util.Objects.requireNonNull;
 import static jersey.repackaged.com.google.common.base.Preconditions.checkState;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.ws.rs.core.Application;
@@ -28,8 +33,14 @@ import org.glassfish.hk2.utilities.Binder;
 import org.glassfish.jersey.server.ContainerRequest;
 
 import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.bootstrap.ContainerWarmup;
+import com.jrestless.core.container.bootstrap.ParallelSingletonInitializer;
+import com.jrestless.core.container.bootstrap.StartupEvent;
+import com.jrestless.core.container.bootstrap.StartupListener;
+import com.jrestless.core.container.bootstrap.StartupPhase;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.container.metrics.RequestMetricsListener;
 import com.jrestless.core.security.AnonSecurityContext;
 
 /**
@@ -37,16 +48,43 @@ import com.jrestless.core.security.AnonSecurityContext;
  * invocation of the JRestless container.
  * <p>
  * The main assumption here is that we return an object.
+ * <p>
+ * Once started, the handler can be invoked by multiple threads concurrently:
+ * the lifecycle state is published safely and each request gets its own
+ * response writer ({@link #createResponseWriter(Object)} must not return
+ * shared instances). The hooks must be thread-safe if the handler is invoked
+ * concurrently.
+ * <p>
+ * The handler can be initialized and started in the background
+ * ({@link #startAsync(Application)}) so that the creation of the container
+ * overlaps with other initialization work; requests wait until the start
+ * has completed.
  *
  * @author Bjoern Bilger
  *
  */
 public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 
-	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+	private static final Executor BOOTSTRAP_EXECUTOR = task -> {
+		Thread thread = new Thread(task, "jrestless-bootstrap");
+		thread.setDaemon(true);
+		thread.start();
+	};
+
+	// guards the lifecycle transitions; requests read the volatile state, only
+	private final Object lifecycleLock = new Object();
+	private volatile JRestlessHandlerContainer<JRestlessContainerRequest> container;
 
-	private boolean initialized = false;
-	private boolean started = false;
+	private volatile boolean initialized = false;
+	private volatile boolean started = false;
+	// guarded by the lifecycle lock
+	private boolean containerStarted = false;
+
+	private volatile StartupListener startupListener;
+	private final AtomicBoolean firstRequest = new AtomicBoolean(true);
+
+	private volatile CompletableFuture<Void> asyncStart;
+	private volatile Throwable asyncStartFailure;
 
 	/**
 	 * Initializes the container using the given application.
@@ -57,7 +95,8 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 	 */
 	public final void init(@Nonnull Application application) {
 		requireNonNull(application);
-		init(new JRestlessHandlerContainer<>(application));
+		checkNotStartedAsync();
+		initContainer(application, null, null, getStartupListener(), getRequestMetricsListener());
 	}
 
 	/**
@@ -71,7 +110,8 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 			@Nonnull ServiceLocator parent) {
 		requireNonNull(application);
 		requireNonNull(parent);
-		init(new JRestlessHandlerContainer<>(application, customBinder, parent));
+		checkNotStartedAsync();
+		initContainer(application, customBinder, parent, getStartupListener(), getRequestMetricsListener());
 	}
 
 
@@ -82,36 +122,230 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 	 */
 	public final void init(@Nonnull JRestlessHandlerContainer<JRestlessContainerRequest> handlerContainer) {
 		requireNonNull(handlerContainer);
-		checkState(!initialized, "handler has already been initlialized");
-		this.container = handlerContainer;
-		initialized = true;
+		checkNotStartedAsync();
+		init(handlerContainer, getStartupListener(), getRequestMetricsListener());
+	}
+
+	private void initContainer(Application application, @Nullable Binder customBinder,
+			@Nullable ServiceLocator parent, @Nullable StartupListener listener,
+			@Nullable RequestMetricsListener requestMetricsListener) {
+		if (listener == null) {
+			init(new JRestlessHandlerContainer<>(application, customBinder, parent), null, requestMetricsListener);
+		} else {
+			long start = System.nanoTime();
+			init(new JRestlessHandlerContainer<>(application, customBinder, parent, listener), listener,
+					requestMetricsListener);
+			fireStartupEvent(StartupPhase.HANDLER_INIT, start);
+		}
+	}
+
+	private void init(JRestlessHandlerContainer<JRestlessContainerRequest> handlerContainer,
+			@Nullable StartupListener listener, @Nullable RequestMetricsListener requestMetricsListener) {
+		synchronized (lifecycleLock) {
+			checkState(!initialized, "handler has already been initialized");
+			this.container = handlerContainer;
+			this.startupListener = listener;
+			if (requestMetricsListener != null) {
+				handlerContainer.setRequestMetricsListener(requestMetricsListener);
+			}
+			initialized = true;
+		}
 	}
 
 	/**
-	 * Starts the container.
+	 * Starts the container, creates its singletons if
+	 * {@link #getSingletonInitializer()} provides an initializer and warms it up
+	 * if {@link #getContainerWarmup()} provides a warm-up.
 	 * <p>
-	 * May be called once, only.
+	 * The handler is considered started once all of this has completed.
+	 * May be called once, only - unless it failed; then it may be called
+	 * again. The container itself is started once, only, though.
 	 * <p>
 	 * One of the init methods must be called, first.
 	 */
 	public final void start() {
-		checkState(initialized, "handler has not been initialized");
-		checkState(!started, "container has already been started");
-		container.onStartup();
-		started = true;
+		checkNotStartedAsync();
+		startContainer(getSingletonInitializer(), getContainerWarmup());
+	}
+
+	private void startContainer(@Nullable ParallelSingletonInitializer singletonInitializer,
+			@Nullable ContainerWarmup containerWarmup) {
+		synchronized (lifecycleLock) {
+			checkState(initialized, "handler has not been initialized");
+			checkState(!started, "container has already been started");
+			long start = System.nanoTime();
+			if (!containerStarted) {
+				container.onStartup();
+				containerStarted = true;
+			}
+			// the warm-up goes to the container directly, so requests are rejected until it has completed
+			initializeSingletons(singletonInitializer);
+			warmup(containerWarmup);
+			started = true;
+			fireStartupEvent(StartupPhase.HANDLER_START, start);
+		}
+	}
+
+	/**
+	 * Initializes and starts the handler on a background thread using the
+	 * given application.
+	 * <p>
+	 * Returns immediately, so that the caller can do other initialization work
+	 * while the container is being created. Requests wait until the start has
+	 * completed; if it failed, they fail, too.
+	 * <p>
+	 * The hooks queried during initialization and start
+	 * ({@link #getStartupListener()}, {@link #getRequestMetricsListener()},
+	 * {@link #getSingletonInitializer()} and {@link #getContainerWarmup()})
+	 * are invoked on the calling thread before this method returns - not on
+	 * the background thread. So they must not depend on state that is
+	 * assigned after the call, e.g. fields a subclass constructor assigns
+	 * after calling this method.
+	 * <p>
+	 * May be called once, only, and not along with the init or start methods.
+	 *
+	 * @param application
+	 * @return a future that completes once the handler has been started
+	 */
+	@Nonnull
+	public final CompletableFuture<Void> startAsync(@Nonnull Application application) {
+		requireNonNull(application);
+		return startAsyncInternal(application, null, null);
+	}
+
+	/**
+	 * Initializes and starts the handler on a background thread using the
+	 * given application, binder and locator (cf.
+	 * {@link #startAsync(Application)}).
+	 *
+	 * @param application
+	 * @param customBinder
+	 * @param parent
+	 * @return a future that completes once the handler has been started
+	 */
+	@Nonnull
+	public final CompletableFuture<Void> startAsync(@Nonnull Application application, @Nullable Binder customBinder,
+			@Nonnull ServiceLocator parent) {
+		requireNonNull(application);
+		requireNonNull(parent);
+		return startAsyncInternal(application, customBinder, parent);
+	}
+
+	private CompletableFuture<Void> startAsyncInternal(Application application, @Nullable Binder customBinder,
+			@Nullable ServiceLocator parent) {
+		// queried on the calling thread: the background thread may see the subclass only partially constructed
+		StartupListener listener = getStartupListener();
+		RequestMetricsListener requestMetricsListener = getRequestMetricsListener();
+		ParallelSingletonInitializer singletonInitializer = getSingletonInitializer();
+		ContainerWarmup containerWarmup = getContainerWarmup();
+		synchronized (lifecycleLock) {
+			checkState(!initialized, "handler has already been initialized");
+			checkNotStartedAsync();
+			asyncStart = CompletableFuture.runAsync(() -> {
+				try {
+					initContainer(application, customBinder, parent, listener, requestMetricsListener);
+					startContainer(singletonInitializer, containerWarmup);
+				} catch (RuntimeException | Error e) {
+					asyncStartFailure = e;
+					throw e;
+				}
+			}, BOOTSTRAP_EXECUTOR);
+			return asyncStart;
+		}
+	}
+
+	private void checkNotStartedAsync() {
+		checkState(asyncStart == null, "handler is started asynchronously");
+	}
+
+	/*
+	 * Must not be invoked while holding the lifecycle lock since the
+	 * asynchronous start acquires it.
+	 */
+	private void awaitAsyncStart() {
+		CompletableFuture<Void> pendingStart = asyncStart;
+		if (pendingStart != null) {
+			try {
+				pendingStart.join();
+			} catch (CompletionException e) {
+				// reported by checkStarted
+			}
+		}
+	}
+
+	private void checkStarted() {
+		Throwable failure = asyncStartFailure;
+		if (failure != null) {
+			throw new IllegalStateException("handler failed to start", failure);
+		}
+		checkState(started, "handler has not been started");
+	}
+
+	/**
+	 * Prepares the started handler for the process to be checkpointed, i.e.
+	 * for a snapshot of the fully started container to be taken.
+	 * <p>
+	 * Invokes {@link #onBeforeCheckpoint()} and then
+	 * {@link JRestlessHandlerContainer#beforeCheckpoint()}. No request must be
+	 * in flight.
+	 *
+	 * @throws com.jrestless.core.container.bootstrap.CheckpointException
+	 *             if a checkpoint listener of the container failed
+	 */
+	public final void beforeCheckpoint() {
+		awaitAsyncStart();
+		synchronized (lifecycleLock) {
+			checkStarted();
+			onBeforeCheckpoint();
+			container.beforeCheckpoint();
+		}
+	}
+
+	/**
+	 * Refreshes the handler after the process has been restored from a
+	 * checkpoint.
+	 * <p>
+	 * Invokes {@link JRestlessHandlerContainer#afterRestore()} and then
+	 * {@link #onAfterRestore()}. The next request is reported as
+	 * {@link StartupPhase#FIRST_REQUEST} again.
+	 *
+	 * @throws com.jrestless.core.container.bootstrap.CheckpointException
+	 *             if a checkpoint listener of the container failed
+	 */
+	public final void afterRestore() {
+		awaitAsyncStart();
+		synchronized (lifecycleLock) {
+			checkStarted();
+			container.afterRestore();
+			onAfterRestore();
+			firstRequest.set(true);
+		}
 	}
 
 	/**
 	 * Handles the request by passing it to the container and so Jersey.
+	 * <p>
+	 * May be invoked by multiple threads concurrently.
 	 *
 	 * @param request
 	 * @return
 	 */
 	public final ResponseT delegateRequest(@Nonnull RequestT request) {
+		awaitAsyncStart();
+		if (startupListener != null && firstRequest.compareAndSet(true, false)) {
+			long start = System.nanoTime();
+			ResponseT containerResponse = delegateRequestInternal(request);
+			fireStartupEvent(StartupPhase.FIRST_REQUEST, start);
+			return containerResponse;
+		}
+		return delegateRequestInternal(request);
+	}
+
+	private ResponseT delegateRequestInternal(RequestT request) {
 		ResponseT containerResponse;
 		JRestlessContainerRequest containerRequest = null;
 		try {
-			checkState(started, "handler has not been started");
+			checkStarted();
 			requireNonNull(request);
 			containerRequest = createContainerRequest(request);
 			JRestlessContainerRequest containerRequestFinal = containerRequest;
@@ -127,6 +361,122 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 		return containerResponse;
 	}
 
+	/**
+	 * Hook that allows to provide a listener that gets informed about the
+	 * duration of the startup phases: {@link StartupPhase#HANDLER_INIT},
+	 * {@link StartupPhase#HANDLER_START}, {@link StartupPhase#FIRST_REQUEST}
+	 * and the phases of the container - if the container is created by this
+	 * handler.
+	 * <p>
+	 * The hook is invoked once during initialization. By default no listener is
+	 * used.
+	 *
+	 * @return the startup listener or null
+	 */
+	@Nullable
+	protected StartupListener getStartupListener() {
+		return null;
+	}
+
+	/**
+	 * Hook to provide a listener the metrics of each request are reported to
+	 * (cf.
+	 * {@link JRestlessHandlerContainer#setRequestMetricsListener(RequestMetricsListener)}).
+	 * <p>
+	 * The hook is invoked once during initialization. By default no listener is
+	 * used.
+	 *
+	 * @return the request metrics listener or null
+	 */
+	@Nullable
+	protected RequestMetricsListener getRequestMetricsListener() {
+		return null;
+	}
+
+	/**
+	 * Hook to provide an initializer that creates the container's singletons
+	 * concurrently during {@link #start()}, i.e. before the first request is
+	 * handled and before the warm-up.
+	 * <p>
+	 * The hook is invoked once during startup. By default singletons are
+	 * created on first use.
+	 *
+	 * @return the initializer or null
+	 */
+	@Nullable
+	protected ParallelSingletonInitializer getSingletonInitializer() {
+		return null;
+	}
+
+	/**
+	 * Hook to provide a warm-up that is run at the end of {@link #start()},
+	 * i.e. before the first request is handled.
+	 * <p>
+	 * The hook is invoked once during startup. By default the container is
+	 * not warmed up.
+	 *
+	 * @return the warm-up or null
+	 */
+	@Nullable
+	protected ContainerWarmup getContainerWarmup() {
+		return null;
+	}
+
+	/**
+	 * Hook to release state of the handler that must not be part of a
+	 * checkpoint - e.g. thread pools. Invoked before the container's checkpoint
+	 * listeners. Does nothing by default.
+	 */
+	protected void onBeforeCheckpoint() {
+	}
+
+	/**
+	 * Hook to refresh state of the handler after a restore. Invoked after the
+	 * container's checkpoint listeners. Does nothing by default.
+	 */
+	protected void onAfterRestore() {
+	}
+
+	/**
+	 * @return the container the handler has been initialized with or null if
+	 *         it hasn't been initialized, yet
+	 */
+	@Nullable
+	protected final JRestlessHandlerContainer<JRestlessContainerRequest> getContainer() {
+		return container;
+	}
+
+	private void initializeSingletons(@Nullable ParallelSingletonInitializer initializer) {
+		if (initializer != null) {
+			long start = System.nanoTime();
+			initializer.initialize(container);
+			fireStartupEvent(StartupPhase.SINGLETON_INITIALIZATION, start);
+		}
+	}
+
+	private void warmup(@Nullable ContainerWarmup warmup) {
+		if (warmup != null) {
+			long start = System.nanoTime();
+			warmup.warmup(container);
+			fireStartupEvent(StartupPhase.WARMUP, start);
+		}
+	}
+
+	private void fireStartupEvent(StartupPhase phase, long start) {
+		if (startupListener != null) {
+			startupListener.onPhaseCompleted(new StartupEvent(phase, System.nanoTime() - start));
+		}
+	}
+
+	/**
+	 * Creates the writer for the given request.
+	 * <p>
+	 * Must return a new writer for each request since the handler may handle
+	 * multiple requests concurrently.
+	 *
+	 * @param request
+	 * @return the response writer
+	 */
 	protected abstract SimpleResponseWriter<ResponseT> createResponseWriter(@Nonnull RequestT request);
 
 	protected abstract JRestlessContainerRequest createContainerRequest(RequestT request);
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Output stream that encodes all bytes written to it in base64 (RFC 4648,
+ * basic alphabet, with padding) and writes the encoded - ASCII only - bytes to
+ * the underlying stream.
+ * <p>
+ * The output equals the one of {@code Base64.getEncoder().wrap(out)} but the
+ * encoded bytes are passed to the underlying stream in chunks instead of one by
+ * one.
+ * <p>
+ * The padding is written when the stream gets closed. Closing the stream
+ * closes the underlying stream, as well.
+ * <p>
+ * The stream is not thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class Base64EncodingOutputStream extends FilterOutputStream {
+
+	private static final byte PADDING = '=';
+	private static final int CHARS_PER_GROUP = 4;
+	private static final int BYTES_PER_GROUP = 3;
+	private static final int BITS_PER_CHAR = 6;
+	private static final int BITS_PER_BYTE = 8;
+	private static final int CHAR_MASK = 0x3F;
+	private static final int BYTE_MASK = 0xFF;
+	private static final int GROUPS_PER_CHUNK = 2048;
+	private static final byte[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private final byte[] pending = new byte[BYTES_PER_GROUP];
+	private int pendingLength;
+
+	private byte[] chunk;
+	private int chunkLength;
+
+	private boolean closed;
+
+	public Base64EncodingOutputStream(@Nonnull OutputStream out) {
+		super(requireNonNull(out, "out may not be null"));
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		pending[pendingLength++] = (byte) b;
+		if (pendingLength == BYTES_PER_GROUP) {
+			encodePending();
+			writeChunk();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		int pos = off;
+		int end = off + len;
+		if (pendingLength > 0) {
+			while (pendingLength < BYTES_PER_GROUP && pos < end) {
+				pending[pendingLength++] = b[pos++];
+			}
+			if (pendingLength == BYTES_PER_GROUP) {
+				encodePending();
+			}
+		}
+		while (end - pos >= BYTES_PER_GROUP) {
+			encodeGroup(b, pos, BYTES_PER_GROUP);
+			pos += BYTES_PER_GROUP;
+		}
+		while (pos < end) {
+			pending[pendingLength++] = b[pos++];
+		}
+		writeChunk();
+	}
+
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (pendingLength > 0) {
+				encodePending();
+				writeChunk();
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("stream closed");
+		}
+	}
+
+	private void encodePending() throws IOException {
+		encodeGroup(pending, 0, pendingLength);
+		pendingLength = 0;
+	}
+
+	/*
+	 * Encodes the group of 1-3 bytes into the chunk; the chunk is written if
+	 * it is full.
+	 */
+	private void encodeGroup(byte[] b, int off, int bytes) throws IOException {
+		if (chunk == null) {
+			chunk = new byte[GROUPS_PER_CHUNK * CHARS_PER_GROUP];
+		} else if (chunkLength == chunk.length) {
+			writeChunk();
+		}
+		int bits = 0;
+		for (int i = 0; i < BYTES_PER_GROUP; i++) {
+			bits <<= BITS_PER_BYTE;
+			if (i < bytes) {
+				bits |= b[off + i] & BYTE_MASK;
+			}
+		}
+		int chars = bytes + 1;
+		for (int i = 0; i < CHARS_PER_GROUP; i++) {
+			if (i < chars) {
+				chunk[chunkLength++] = ALPHABET[(bits >> (BITS_PER_CHAR * (CHARS_PER_GROUP - 1 - i))) & CHAR_MASK];
+			} else {
+				chunk[chunkLength++] = PADDING;
+			}
+		}
+	}
+
+	private void writeChunk() throws IOException {
+		if (chunkLength > 0) {
+			out.write(chunk, 0, chunkLength);
+			chunkLength = 0;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Input stream that decodes a base64 (RFC 4648, basic alphabet) encoded string
+ * lazily, i.e. while it is read.
+ * <p>
+ * In contrast to {@code Base64.getDecoder().decode(value)} or
+ * {@code Base64.getDecoder().wrap(new ByteArrayInputStream(value.getBytes()))}
+ * neither the encoded nor the decoded bytes are materialized as a whole.
+ * <p>
+ * The behavior matches {@link java.util.Base64#getDecoder()}: padding is
+ * optional and marks the end of the data; any character outside of the base64
+ * alphabet and any character other than padding after the first padding
+ * character result in an {@link IOException} when read.
+ * <p>
+ * The stream is not thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class Base64StringInputStream extends InputStream {
+
+	private static final char PADDING = '=';
+	private static final int CHARS_PER_GROUP = 4;
+	private static final int BYTES_PER_GROUP = 3;
+	private static final int BITS_PER_CHAR = 6;
+	private static final int BITS_PER_BYTE = 8;
+	private static final int BYTE_MASK = 0xFF;
+	private static final int[] DECODE_TABLE = createDecodeTable();
+
+	private final String value;
+	private final int end;
+	private final boolean dataAfterPadding;
+	private int charIndex;
+
+	private final byte[] pending = new byte[BYTES_PER_GROUP];
+	private int pendingIndex;
+	private int pendingLength;
+
+	public Base64StringInputStream(@Nonnull String value) {
+		this.value = requireNonNull(value, "value may not be null");
+		int paddingIndex = value.indexOf(PADDING);
+		this.end = paddingIndex < 0 ? value.length() : paddingIndex;
+		this.dataAfterPadding = paddingIndex >= 0 && hasDataAfterPadding(value, paddingIndex);
+	}
+
+	private static boolean hasDataAfterPadding(String value, int paddingIndex) {
+		for (int i = paddingIndex + 1; i < value.length(); i++) {
+			if (value.charAt(i) != PADDING) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (pendingIndex >= pendingLength && !decodeNextGroup(pending, 0)) {
+			return -1;
+		}
+		return pending[pendingIndex++] & BYTE_MASK;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int pos = off;
+		int limit = off + len;
+		while (pos < limit) {
+			if (pendingIndex < pendingLength) {
+				b[pos++] = pending[pendingIndex++];
+			} else if (limit - pos >= BYTES_PER_GROUP && end - charIndex >= CHARS_PER_GROUP) {
+				pos += decodeGroup(b, pos, CHARS_PER_GROUP);
+			} else if (!decodeNextGroup(pending, 0)) {
+				break;
+			}
+		}
+		int read = pos - off;
+		return read == 0 ? -1 : read;
+	}
+
+	@Override
+	public int available() {
+		// exact since padding is excluded from the remaining chars
+		return pendingLength - pendingIndex + (end - charIndex) * BYTES_PER_GROUP / CHARS_PER_GROUP;
+	}
+
+	private boolean decodeNextGroup(byte[] buffer, int offset) throws IOException {
+		int chars = Math.min(CHARS_PER_GROUP, end - charIndex);
+		if (chars <= 0) {
+			if (dataAfterPadding) {
+				throw new IOException("base64 data contains characters after the padding");
+			}
+			return false;
+		}
+		pendingLength = decodeGroup(buffer, offset, chars);
+		pendingIndex = 0;
+		return true;
+	}
+
+	/*
+	 * Decodes the next group of 2-4 chars into the given buffer and returns
+	 * the number of bytes written.
+	 */
+	private int decodeGroup(byte[] buffer, int offset, int chars) throws IOException {
+		if (chars == 1) {
+			throw new IOException("base64 data has an invalid length");
+		}
+		int bits = 0;
+		for (int i = 0; i < chars; i++) {
+			bits = bits << BITS_PER_CHAR | decode(value.charAt(charIndex++));
+		}
+		int bytes = chars - 1;
+		bits <<= BITS_PER_CHAR * (CHARS_PER_GROUP - chars);
+		for (int i = 0; i < bytes; i++) {
+			buffer[offset + i] = (byte) (bits >> (BITS_PER_BYTE * (BYTES_PER_GROUP - 1 - i)));
+		}
+		return bytes;
+	}
+
+	private static int decode(char c) throws IOException {
+		int decoded = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+		if (decoded < 0) {
+			throw new IOException("illegal base64 character '" + c + "'");
+		}
+		return decoded;
+	}
+
+	private static int[] createDecodeTable() {
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		int[] table = new int[BYTE_MASK + 1];
+		Arrays.fill(table, -1);
+		for (int i = 0; i < alphabet.length(); i++) {
+			table[alphabet.charAt(i)] = i;
+		}
+		return table;
+	}
+}
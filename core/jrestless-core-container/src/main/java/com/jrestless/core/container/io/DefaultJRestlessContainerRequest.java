@@ -28,8 +28,13 @@ import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
+import com.jrestless.core.util.ExpandedHeaderMap;
+
 /**
  * Default implementation of {@link DefaultJRestlessContainerRequest}.
+ * <p>
+ * The headers are copied into an unmodifiable map unless they are passed as
+ * {@link ExpandedHeaderMap} which is a read-only view, already.
  *
  * @author Bjoern Bilger
  *
@@ -49,6 +54,11 @@ public class DefaultJRestlessContainerRequest implements JRestlessContainerReque
 		this.httpMethod = requireNonNull(httpMethod);
 		this.entityStream = requireNonNull(entityStream);
 		requireNonNull(headers);
+		if (headers instanceof ExpandedHeaderMap) {
+			// read-only view already; no need to copy
+			this.headers = headers;
+			return;
+		}
 		this.headers = headers.entrySet().stream()
 				.filter(e -> e.getKey() != null)
 				.filter(e -> e.getValue() != null)
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+/**
+ * {@link ByteArrayOutputStream} that is pooled per thread so that its buffer
+ * can be reused across requests.
+ * <p>
+ * A stream is taken from the current thread's pool via {@link #acquire(int)}
+ * and handed back via {@link #release()}. If the pooled stream is in use
+ * already (or has never been released), a new one is created. Buffers that
+ * have grown beyond {@value #MAX_RETAINED_CAPACITY} bytes are not retained.
+ * <p>
+ * The stream itself is not thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+	static final int DEFAULT_CAPACITY = 1024;
+	static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+	// cf. java.util.ArrayList#MAX_ARRAY_SIZE
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	private static final ThreadLocal<ReusableByteArrayOutputStream> POOL = new ThreadLocal<>();
+
+	ReusableByteArrayOutputStream(int capacity) {
+		super(capacity);
+	}
+
+	/**
+	 * Takes the stream from the current thread's pool or creates a new one if
+	 * the pool is empty.
+	 *
+	 * @param sizeHint
+	 *            the expected number of bytes that will be written; the buffer
+	 *            will have at least this capacity
+	 * @return an empty stream
+	 */
+	@Nonnull
+	public static ReusableByteArrayOutputStream acquire(int sizeHint) {
+		ReusableByteArrayOutputStream stream = POOL.get();
+		if (stream == null) {
+			stream = new ReusableByteArrayOutputStream(Math.max(DEFAULT_CAPACITY, sizeHint));
+		} else {
+			POOL.remove();
+			stream.ensureCapacity(sizeHint);
+		}
+		return stream;
+	}
+
+	/**
+	 * Resets the stream and hands it back to the current thread's pool.
+	 * <p>
+	 * The stream must not be used after it has been released.
+	 */
+	public void release() {
+		reset();
+		if (capacity() <= MAX_RETAINED_CAPACITY) {
+			POOL.set(this);
+		}
+	}
+
+	/**
+	 * Grows the buffer - if necessary - so that it can hold at least
+	 * minCapacity bytes without further growing.
+	 *
+	 * @param minCapacity
+	 */
+	public synchronized void ensureCapacity(int minCapacity) {
+		if (minCapacity > buf.length) {
+			int newCapacity = Math.max(minCapacity, buf.length << 1);
+			if (newCapacity < 0 || newCapacity > MAX_ARRAY_SIZE) {
+				newCapacity = Math.max(minCapacity, MAX_ARRAY_SIZE);
+			}
+			buf = Arrays.copyOf(buf, newCapacity);
+		}
+	}
+
+	/**
+	 * @return the current capacity of the buffer
+	 */
+	public synchronized int capacity() {
+		return buf.length;
+	}
+
+	/**
+	 * Decodes the buffer's content into a string in a single pass, without
+	 * copying the buffer first.
+	 *
+	 * @param charset
+	 * @return the decoded content
+	 */
+	@Nonnull
+	public synchronized String toString(@Nonnull Charset charset) {
+		requireNonNull(charset, "charset may not be null");
+		return new String(buf, 0, count, charset);
+	}
+}
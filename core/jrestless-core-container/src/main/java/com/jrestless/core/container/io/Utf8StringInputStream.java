@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.InputStream;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Input stream that encodes a string as UTF-8 lazily, i.e. while it is read.
+ * <p>
+ * In contrast to {@code new ByteArrayInputStream(value.getBytes(UTF_8))} the
+ * string's bytes are never materialized as a whole. Malformed surrogates are
+ * replaced by {@code '?'} - the same way {@link String#getBytes(java.nio.charset.Charset)}
+ * does.
+ * <p>
+ * The stream is not thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class Utf8StringInputStream extends InputStream {
+
+	private static final int MAX_BYTES_PER_CODE_POINT = 4;
+	private static final byte REPLACEMENT = '?';
+
+	private static final int MAX_1_BYTE = 0x7F;
+	private static final int MAX_2_BYTES = 0x7FF;
+	private static final int LEAD_2_BYTES = 0xC0;
+	private static final int LEAD_3_BYTES = 0xE0;
+	private static final int LEAD_4_BYTES = 0xF0;
+	private static final int CONTINUATION = 0x80;
+	private static final int CONTINUATION_MASK = 0x3F;
+	private static final int SHIFT_1 = 6;
+	private static final int SHIFT_2 = 12;
+	private static final int SHIFT_3 = 18;
+	private static final int BYTE_MASK = 0xFF;
+
+	private final String value;
+	private final int length;
+	private int charIndex;
+
+	private final byte[] pending = new byte[MAX_BYTES_PER_CODE_POINT];
+	private int pendingIndex;
+	private int pendingLength;
+
+	public Utf8StringInputStream(@Nonnull String value) {
+		this.value = requireNonNull(value, "value may not be null");
+		this.length = value.length();
+	}
+
+	@Override
+	public int read() {
+		if (pendingIndex < pendingLength) {
+			return pending[pendingIndex++] & BYTE_MASK;
+		}
+		if (charIndex >= length) {
+			return -1;
+		}
+		char c = value.charAt(charIndex);
+		if (c <= MAX_1_BYTE) {
+			charIndex++;
+			return c;
+		}
+		pendingLength = encodeNext(pending, 0);
+		pendingIndex = 1;
+		return pending[0] & BYTE_MASK;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int pos = off;
+		int end = off + len;
+		while (pendingIndex < pendingLength && pos < end) {
+			b[pos++] = pending[pendingIndex++];
+		}
+		while (pos < end && charIndex < length) {
+			char c = value.charAt(charIndex);
+			if (c <= MAX_1_BYTE) {
+				b[pos++] = (byte) c;
+				charIndex++;
+			} else if (end - pos >= MAX_BYTES_PER_CODE_POINT) {
+				pos += encodeNext(b, pos);
+			} else {
+				pendingLength = encodeNext(pending, 0);
+				pendingIndex = 0;
+				while (pendingIndex < pendingLength && pos < end) {
+					b[pos++] = pending[pendingIndex++];
+				}
+			}
+		}
+		int read = pos - off;
+		return read == 0 ? -1 : read;
+	}
+
+	@Override
+	public int available() {
+		// each remaining char results in at least one byte
+		return pendingLength - pendingIndex + length - charIndex;
+	}
+
+	/*
+	 * Encodes the (non-ASCII) code point at charIndex into the given buffer and
+	 * returns the number of bytes written.
+	 */
+	private int encodeNext(byte[] buffer, int offset) {
+		int i = offset;
+		char c = value.charAt(charIndex++);
+		if (c <= MAX_2_BYTES) {
+			buffer[i++] = (byte) (LEAD_2_BYTES | (c >> SHIFT_1));
+			buffer[i++] = (byte) (CONTINUATION | (c & CONTINUATION_MASK));
+		} else if (!Character.isSurrogate(c)) {
+			buffer[i++] = (byte) (LEAD_3_BYTES | (c >> SHIFT_2));
+			buffer[i++] = (byte) (CONTINUATION | ((c >> SHIFT_1) & CONTINUATION_MASK));
+			buffer[i++] = (byte) (CONTINUATION | (c & CONTINUATION_MASK));
+		} else if (Character.isHighSurrogate(c) && charIndex < length
+				&& Character.isLowSurrogate(value.charAt(charIndex))) {
+			int codePoint = Character.toCodePoint(c, value.charAt(charIndex++));
+			buffer[i++] = (byte) (LEAD_4_BYTES | (codePoint >> SHIFT_3));
+			buffer[i++] = (byte) (CONTINUATION | ((codePoint >> SHIFT_2) & CONTINUATION_MASK));
+			buffer[i++] = (byte) (CONTINUATION | ((codePoint >> SHIFT_1) & CONTINUATION_MASK));
+			buffer[i++] = (byte) (CONTINUATION | (codePoint & CONTINUATION_MASK));
+		} else {
+			buffer[i++] = REPLACEMENT;
+		}
+		return i - offset;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative long values with a fixed memory
+ * footprint.
+ * <p>
+ * Like an HDR histogram, the values are counted in log-linear buckets: values
+ * below {@value #SUB_BUCKET_COUNT} are counted exactly, larger values with a
+ * relative error below 1/{@value #SUB_BUCKET_HALF_COUNT}. The histogram covers
+ * the whole long range using about 30KB.
+ * <p>
+ * The histogram is thread-safe. Values read while other threads record may be
+ * slightly inconsistent with each other.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+	// values >= SUB_BUCKET_COUNT are shifted by 1..56 bits
+	private static final int BUCKET_COUNT = Long.SIZE - SUB_BUCKET_BITS - 1;
+	private static final int INDEX_COUNT = SUB_BUCKET_COUNT + BUCKET_COUNT * SUB_BUCKET_HALF_COUNT;
+	private static final double MAX_PERCENTILE = 100.0;
+
+	private final AtomicLongArray counts = new AtomicLongArray(INDEX_COUNT);
+	private final LongAdder totalCount = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Records the value.
+	 *
+	 * @param value
+	 * @throws IllegalArgumentException
+	 *             if the value is negative
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("value may not be negative");
+		}
+		counts.incrementAndGet(indexOf(value));
+		totalCount.increment();
+		sum.add(value);
+		min.accumulate(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * @return the number of recorded values
+	 */
+	public long getTotalCount() {
+		return totalCount.sum();
+	}
+
+	/**
+	 * @return the smallest recorded value or 0 if no value has been recorded
+	 */
+	public long getMin() {
+		long value = min.get();
+		return value == Long.MAX_VALUE ? 0 : value;
+	}
+
+	/**
+	 * @return the largest recorded value or 0 if no value has been recorded
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return the mean of all recorded values or 0 if no value has been
+	 *         recorded
+	 */
+	public double getMean() {
+		long count = totalCount.sum();
+		return count == 0 ? 0 : (double) sum.sum() / count;
+	}
+
+	/**
+	 * Returns the value at the given percentile, i.e. the (highest equivalent)
+	 * value that percentile of all recorded values are less than or equal to.
+	 *
+	 * @param percentile
+	 *            0-100
+	 * @return the value at the percentile or 0 if no value has been recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (percentile < 0 || percentile > MAX_PERCENTILE) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100");
+		}
+		long count = 0;
+		for (int i = 0; i < INDEX_COUNT; i++) {
+			count += counts.get(i);
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / MAX_PERCENTILE * count));
+		long accumulated = 0;
+		for (int i = 0; i < INDEX_COUNT; i++) {
+			accumulated += counts.get(i);
+			if (accumulated >= countAtPercentile) {
+				return Math.min(highestEquivalentValue(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift)
+				- SUB_BUCKET_HALF_COUNT;
+	}
+
+	static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int bucketIndex = index - SUB_BUCKET_COUNT;
+		int shift = bucketIndex / SUB_BUCKET_HALF_COUNT + 1;
+		long subBucket = bucketIndex % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+		// the upper bound of the last bucket wraps around to Long.MAX_VALUE
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
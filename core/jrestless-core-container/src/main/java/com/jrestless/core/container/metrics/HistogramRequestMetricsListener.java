@@ -0,0 +1,213 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * {@link RequestMetricsListener} that aggregates the metrics in memory per
+ * endpoint.
+ * <p>
+ * An endpoint is identified by a tag that consists of the HTTP method and
+ * the matched resource template, e.g. <i>GET /articles/{id}</i>. Since the
+ * HTTP method is supplied by the client, the number of tags is bounded:
+ * <ul>
+ * <li>requests that didn't match any resource are tagged with
+ * {@value #UNMATCHED_TAG}, regardless of their method
+ * <li>methods other than the standard HTTP methods are replaced by
+ * {@value #OTHER_METHOD}
+ * <li>once the maximum number of endpoints has been reached, requests of new
+ * endpoints are tagged with {@value #OVERFLOW_TAG}
+ * </ul>
+ * <p>
+ * The request durations and the allocated bytes are recorded in a
+ * {@link Histogram}; for the phases the mean duration is tracked, only.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class HistogramRequestMetricsListener implements RequestMetricsListener {
+
+	public static final String UNMATCHED_TAG = "<unmatched>";
+	public static final String OTHER_METHOD = "<other>";
+	public static final String OVERFLOW_TAG = "<overflow>";
+	public static final int DEFAULT_MAX_ENDPOINTS = 1000;
+
+	private static final Set<String> STANDARD_METHODS = Collections.unmodifiableSet(new HashSet<>(
+			Arrays.asList("GET", "HEAD", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "TRACE", "CONNECT")));
+
+	private final ConcurrentMap<String, EndpointStatistics> statistics = new ConcurrentHashMap<>();
+	private final int maxEndpoints;
+
+	public HistogramRequestMetricsListener() {
+		this(DEFAULT_MAX_ENDPOINTS);
+	}
+
+	/**
+	 * @param maxEndpoints
+	 *            the maximum number of endpoints statistics are kept for
+	 *            separately; further endpoints are aggregated under
+	 *            {@value #OVERFLOW_TAG}
+	 */
+	public HistogramRequestMetricsListener(int maxEndpoints) {
+		if (maxEndpoints <= 0) {
+			throw new IllegalArgumentException("maxEndpoints must be positive");
+		}
+		this.maxEndpoints = maxEndpoints;
+	}
+
+	@Override
+	public void onRequestCompleted(RequestMetrics metrics) {
+		String tag = getTag(metrics);
+		EndpointStatistics endpointStatistics = statistics.get(tag);
+		if (endpointStatistics == null) {
+			if (statistics.size() >= maxEndpoints) {
+				// racy but bounded: concurrent requests may add a few more endpoints
+				tag = OVERFLOW_TAG;
+			}
+			endpointStatistics = statistics.computeIfAbsent(tag, t -> new EndpointStatistics());
+		}
+		endpointStatistics.record(metrics);
+	}
+
+	/**
+	 * @return a read-only view of the statistics per tag
+	 */
+	@Nonnull
+	public Map<String, EndpointStatistics> getStatistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	/**
+	 * @param tag
+	 * @return the statistics of the endpoint or {@code null} if no request has
+	 *         been recorded for it
+	 */
+	@Nullable
+	public EndpointStatistics getStatistics(@Nonnull String tag) {
+		return statistics.get(requireNonNull(tag, "tag may not be null"));
+	}
+
+	/**
+	 * Removes all statistics.
+	 */
+	public void reset() {
+		statistics.clear();
+	}
+
+	/**
+	 * Returns the tag the request's metrics are aggregated by.
+	 * <p>
+	 * Implementations should return a bounded set of tags; the maximum number
+	 * of endpoints is a safety net, only.
+	 *
+	 * @param metrics
+	 * @return the tag
+	 */
+	@Nonnull
+	protected String getTag(@Nonnull RequestMetrics metrics) {
+		String resourceTemplate = metrics.getResourceTemplate();
+		if (resourceTemplate == null) {
+			return UNMATCHED_TAG;
+		}
+		String httpMethod = metrics.getHttpMethod();
+		return (STANDARD_METHODS.contains(httpMethod) ? httpMethod : OTHER_METHOD) + " " + resourceTemplate;
+	}
+
+	/**
+	 * Aggregated metrics of a single endpoint.
+	 */
+	public static final class EndpointStatistics {
+		private final Histogram durationNanos = new Histogram();
+		private final Histogram allocatedBytes = new Histogram();
+		private final LongAdder[] phaseDurationNanos = new LongAdder[RequestPhase.values().length];
+		private final LongAdder[] phaseCounts = new LongAdder[RequestPhase.values().length];
+		private final LongAdder failures = new LongAdder();
+
+		EndpointStatistics() {
+			for (int i = 0; i < phaseDurationNanos.length; i++) {
+				phaseDurationNanos[i] = new LongAdder();
+				phaseCounts[i] = new LongAdder();
+			}
+		}
+
+		void record(RequestMetrics metrics) {
+			if (metrics.getDurationNanos() != RequestMetrics.NOT_AVAILABLE) {
+				durationNanos.record(metrics.getDurationNanos());
+			}
+			if (metrics.getAllocatedBytes() != RequestMetrics.NOT_AVAILABLE) {
+				allocatedBytes.record(Math.max(0, metrics.getAllocatedBytes()));
+			}
+			for (RequestPhase phase : RequestPhase.values()) {
+				long phaseDuration = metrics.getPhaseDurationNanos(phase);
+				if (phaseDuration != RequestMetrics.NOT_AVAILABLE) {
+					phaseDurationNanos[phase.ordinal()].add(phaseDuration);
+					phaseCounts[phase.ordinal()].increment();
+				}
+			}
+			if (metrics.isFailed()) {
+				failures.increment();
+			}
+		}
+
+		/**
+		 * @return the histogram of the request durations in nanoseconds
+		 */
+		@Nonnull
+		public Histogram getDurationNanos() {
+			return durationNanos;
+		}
+
+		/**
+		 * @return the histogram of the bytes allocated per request; empty if
+		 *         not supported by the JVM
+		 */
+		@Nonnull
+		public Histogram getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		/**
+		 * @param phase
+		 * @return the mean duration of the phase in nanoseconds or 0 if the
+		 *         phase has never been completed
+		 */
+		public double getMeanPhaseDurationNanos(@Nonnull RequestPhase phase) {
+			requireNonNull(phase, "phase may not be null");
+			long count = phaseCounts[phase.ordinal()].sum();
+			return count == 0 ? 0 : (double) phaseDurationNanos[phase.ordinal()].sum() / count;
+		}
+
+		/**
+		 * @return the number of requests the container failed to handle
+		 */
+		public long getFailureCount() {
+			return failures.sum();
+		}
+	}
+}
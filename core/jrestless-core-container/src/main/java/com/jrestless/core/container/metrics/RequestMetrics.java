@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The metrics of a single request.
+ * <p>
+ * The metrics are recorded by
+ * {@link com.jrestless.core.container.JRestlessHandlerContainer} and passed
+ * to a {@link RequestMetricsListener}. Values that have not been recorded
+ * (yet) are reported as {@value #NOT_AVAILABLE}.
+ * <p>
+ * The metrics are not thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class RequestMetrics {
+
+	/**
+	 * Value of metrics that are not available.
+	 */
+	public static final long NOT_AVAILABLE = -1;
+
+	private final long startNanos;
+	private final long startAllocatedBytes;
+	private final long[] phaseDurationNanos = new long[RequestPhase.values().length];
+	private String httpMethod;
+	private String resourceTemplate;
+	private int status = (int) NOT_AVAILABLE;
+	private boolean failed;
+	private long durationNanos = NOT_AVAILABLE;
+	private long allocatedBytes = NOT_AVAILABLE;
+
+	/**
+	 * Starts the metrics of a request at the current time.
+	 */
+	public RequestMetrics() {
+		this.startNanos = System.nanoTime();
+		this.startAllocatedBytes = ThreadAllocation.getCurrentThreadAllocatedBytes();
+		Arrays.fill(phaseDurationNanos, NOT_AVAILABLE);
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} the request has been started at
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	/**
+	 * @param phase
+	 * @return the duration of the phase in nanoseconds or
+	 *         {@value #NOT_AVAILABLE} if the phase has not been completed
+	 */
+	public long getPhaseDurationNanos(@Nonnull RequestPhase phase) {
+		return phaseDurationNanos[requireNonNull(phase, "phase may not be null").ordinal()];
+	}
+
+	/**
+	 * Records the duration of the phase.
+	 *
+	 * @param phase
+	 * @param phaseStartNanos
+	 *            the {@link System#nanoTime()} the phase has been started at
+	 */
+	public void completePhase(@Nonnull RequestPhase phase, long phaseStartNanos) {
+		requireNonNull(phase, "phase may not be null");
+		phaseDurationNanos[phase.ordinal()] = System.nanoTime() - phaseStartNanos;
+	}
+
+	/**
+	 * @return the HTTP method or {@code null} if the container request could
+	 *         not be created
+	 */
+	@Nullable
+	public String getHttpMethod() {
+		return httpMethod;
+	}
+
+	public void setHttpMethod(@Nullable String httpMethod) {
+		this.httpMethod = httpMethod;
+	}
+
+	/**
+	 * Returns the template of the matched resource method including the
+	 * templates of its parent resources, e.g. <i>/articles/{id}</i>.
+	 *
+	 * @return the matched resource template or {@code null} if no resource
+	 *         method has been matched (yet)
+	 */
+	@Nullable
+	public String getResourceTemplate() {
+		return resourceTemplate;
+	}
+
+	public void setResourceTemplate(@Nullable String resourceTemplate) {
+		this.resourceTemplate = resourceTemplate;
+	}
+
+	/**
+	 * @return the response status or {@value #NOT_AVAILABLE} if no response
+	 *         has been written (yet)
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+	public void setStatus(int status) {
+		this.status = status;
+	}
+
+	/**
+	 * @return true if the container failed to handle the request
+	 */
+	public boolean isFailed() {
+		return failed;
+	}
+
+	public void setFailed(boolean failed) {
+		this.failed = failed;
+	}
+
+	/**
+	 * @return the duration of the whole request in nanoseconds or
+	 *         {@value #NOT_AVAILABLE} if the request has not been completed
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * Returns the bytes allocated by the thread handling the request.
+	 * <p>
+	 * Only available if the JVM supports measuring thread allocation (cf.
+	 * {@link ThreadAllocation#isSupported()}).
+	 *
+	 * @return the allocated bytes or {@value #NOT_AVAILABLE}
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * Records the duration and the allocated bytes of the whole request.
+	 */
+	public void complete() {
+		durationNanos = System.nanoTime() - startNanos;
+		if (startAllocatedBytes != NOT_AVAILABLE) {
+			allocatedBytes = ThreadAllocation.getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RequestMetrics [httpMethod=" + httpMethod + ", resourceTemplate=" + resourceTemplate + ", status="
+				+ status + ", failed=" + failed + ", durationNanos=" + durationNanos + ", allocatedBytes="
+				+ allocatedBytes + ", phaseDurationNanos=" + Arrays.toString(phaseDurationNanos) + "]";
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Listener to collect per-request metrics.
+ * <p>
+ * The listener is invoked on the thread handling the request. It is invoked
+ * for all requests, so it must be cheap and thread-safe. Exceptions thrown by
+ * the listener are not caught.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public interface RequestMetricsListener {
+
+	/**
+	 * Invoked when the container starts handling a request.
+	 *
+	 * @param metrics
+	 *            the metrics of the request; no phase has been recorded, yet
+	 */
+	default void onRequestStart(@Nonnull RequestMetrics metrics) {
+	}
+
+	/**
+	 * Invoked each time a phase of a request has been completed.
+	 *
+	 * @param metrics
+	 *            the metrics of the request
+	 * @param phase
+	 *            the completed phase; its duration is available via
+	 *            {@link RequestMetrics#getPhaseDurationNanos(RequestPhase)}
+	 */
+	default void onPhaseCompleted(@Nonnull RequestMetrics metrics, @Nonnull RequestPhase phase) {
+	}
+
+	/**
+	 * Invoked once the container has handled the request - successfully or
+	 * not.
+	 *
+	 * @param metrics
+	 *            the final metrics of the request
+	 */
+	void onRequestCompleted(@Nonnull RequestMetrics metrics);
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+/**
+ * The phases of a request handled by
+ * {@link com.jrestless.core.container.JRestlessHandlerContainer}.
+ * <p>
+ * Responses are written synchronously, so {@link #DISPATCH} includes
+ * {@link #RESPONSE_WRITE} and {@link #COMMIT}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public enum RequestPhase {
+	/**
+	 * Creation of Jersey's container request including the container request
+	 * enhancer.
+	 */
+	CONTAINER_REQUEST_CREATION,
+	/**
+	 * Jersey's request processing: matching, filters, the resource method and
+	 * the response.
+	 */
+	DISPATCH,
+	/**
+	 * Writing the response entity, i.e. from the point the status and headers
+	 * have been written until the response gets committed.
+	 */
+	RESPONSE_WRITE,
+	/**
+	 * Committing the response, i.e. passing it to the
+	 * {@link com.jrestless.core.container.io.JRestlessResponseWriter}.
+	 */
+	COMMIT
+}
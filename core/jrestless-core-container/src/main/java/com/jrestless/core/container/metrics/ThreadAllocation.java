@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access to the bytes allocated by the current thread.
+ * <p>
+ * Relies on {@code com.sun.management.ThreadMXBean} which is available on
+ * HotSpot based JVMs.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ThreadAllocation {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ThreadAllocation.class);
+
+	private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = resolveThreadMxBean();
+
+	private ThreadAllocation() {
+		// no instance
+	}
+
+	/**
+	 * @return true if the JVM supports measuring the bytes allocated by a
+	 *         thread and the measurement is enabled
+	 */
+	public static boolean isSupported() {
+		return THREAD_MX_BEAN != null;
+	}
+
+	/**
+	 * Returns the total number of bytes allocated by the current thread.
+	 * <p>
+	 * The value is an approximation and only meaningful as difference of two
+	 * measurements on the same thread.
+	 *
+	 * @return the allocated bytes or {@value RequestMetrics#NOT_AVAILABLE} if
+	 *         not supported
+	 */
+	public static long getCurrentThreadAllocatedBytes() {
+		if (THREAD_MX_BEAN == null) {
+			return RequestMetrics.NOT_AVAILABLE;
+		}
+		return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static com.sun.management.ThreadMXBean resolveThreadMxBean() {
+		try {
+			java.lang.management.ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+			if (threadMxBean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean sunThreadMxBean = (com.sun.management.ThreadMXBean) threadMxBean;
+				if (sunThreadMxBean.isThreadAllocatedMemorySupported()
+						&& sunThreadMxBean.isThreadAllocatedMemoryEnabled()) {
+					return sunThreadMxBean;
+				}
+			}
+		} catch (LinkageError | RuntimeException e) {
+			LOG.debug("thread allocation measurement is not supported", e);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Read-only view of headers in the form {@code Map<String, String>} as
+ * headers in the form {@code Map<String, List<String>>} (used by Jersey).
+ * <p>
+ * In contrast to {@link HeaderUtils#expandHeaders(Map)} the headers are not
+ * copied; each value is wrapped into a singleton list when it's accessed.
+ * Headers having a null key or a null value are hidden.
+ * <p>
+ * The view is intended for headers that are not modified once the view has
+ * been created, e.g. the headers of an incoming request. Modifications of the
+ * underlying map are visible through the view, though.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ExpandedHeaderMap extends AbstractMap<String, List<String>> {
+
+	private final Map<String, String> headers;
+	private Set<Map.Entry<String, List<String>>> entrySet;
+
+	public ExpandedHeaderMap(@Nonnull Map<String, String> headers) {
+		this.headers = requireNonNull(headers, "headers may not be null");
+	}
+
+	@Override
+	public List<String> get(Object key) {
+		if (key == null) {
+			return null;
+		}
+		String value = headers.get(key);
+		return value == null ? null : Collections.singletonList(value);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key != null && headers.get(key) != null;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Map.Entry<String, String> header : headers.entrySet()) {
+			if (isVisible(header)) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public Set<Map.Entry<String, List<String>>> entrySet() {
+		Set<Map.Entry<String, List<String>>> es = entrySet;
+		if (es == null) {
+			es = new EntrySet();
+			entrySet = es;
+		}
+		return es;
+	}
+
+	private static boolean isVisible(Map.Entry<String, String> header) {
+		return header.getKey() != null && header.getValue() != null;
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<String, List<String>>> {
+
+		@Override
+		public Iterator<Map.Entry<String, List<String>>> iterator() {
+			return new EntryIterator(headers.entrySet().iterator());
+		}
+
+		@Override
+		public int size() {
+			return ExpandedHeaderMap.this.size();
+		}
+	}
+
+	private static final class EntryIterator implements Iterator<Map.Entry<String, List<String>>> {
+
+		private final Iterator<Map.Entry<String, String>> headerIterator;
+		private Map.Entry<String, String> next;
+
+		EntryIterator(Iterator<Map.Entry<String, String>> headerIterator) {
+			this.headerIterator = headerIterator;
+			advance();
+		}
+
+		private void advance() {
+			next = null;
+			while (next == null && headerIterator.hasNext()) {
+				Map.Entry<String, String> header = headerIterator.next();
+				if (isVisible(header)) {
+					next = header;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<String, List<String>> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<String, List<String>> entry = new AbstractMap.SimpleImmutableEntry<>(next.getKey(),
+					Collections.singletonList(next.getValue()));
+			advance();
+			return entry;
+		}
+	}
+}
@@ -18,6 +18,8 @@ package com.jrestless.core.container;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -27,12 +29,16 @@ import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response.Status;
 
+import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter.TimeoutHandler;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -119,14 +125,100 @@ public class JRestlessContainerResponseWriterTest {
 		assertFalse(containerResponseWriter.enableResponseBuffering());
 	}
 
-	@Test(expected = UnsupportedOperationException.class)
-	public void setSuspendTimeout_Always_ShouldBeUnsupported() {
-		containerResponseWriter.setSuspendTimeout(1, null);
+	@Test(expected = IllegalStateException.class)
+	public void setSuspendTimeout_NotSuspended_ShouldThrowIse() {
+		containerResponseWriter.setSuspendTimeout(1, TimeUnit.SECONDS);
 	}
 
-	@Test(expected = UnsupportedOperationException.class)
-	public void suspend_Always_ShouldBeUnsupported() {
-		containerResponseWriter.suspend(1, null, null);
+	@Test(expected = NullPointerException.class)
+	public void suspend_NoTimeoutHandlerGiven_ShouldThrowNpe() {
+		containerResponseWriter.suspend(1, TimeUnit.SECONDS, null);
+	}
+
+	@Test
+	public void suspend_NotSuspended_ShouldSuspend() {
+		assertTrue(containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class)));
+	}
+
+	@Test
+	public void suspend_AlreadySuspended_ShouldNotSuspendAgain() {
+		containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class));
+		assertFalse(containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class)));
+	}
+
+	@Test(timeout = 5000)
+	public void awaitCommit_NotSuspended_ShouldReturnImmediately() {
+		containerResponseWriter.awaitCommit();
+		verify(response, times(0)).close();
+	}
+
+	@Test(timeout = 5000)
+	public void awaitCommit_SuspendedAndCommittedByOtherThread_ShouldReturnOnCommit() throws InterruptedException {
+		containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class));
+		Thread committer = new Thread(() -> {
+			sleep(50);
+			containerResponseWriter.commit();
+		});
+		committer.start();
+		containerResponseWriter.awaitCommit();
+		assertTrue(response.isClosed());
+		committer.join();
+	}
+
+	@Test(timeout = 5000)
+	public void awaitCommit_TimeoutExpired_ShouldInvokeTimeoutHandler() {
+		AtomicInteger timeouts = new AtomicInteger();
+		containerResponseWriter.suspend(10, TimeUnit.MILLISECONDS, writer -> {
+			assertSame(containerResponseWriter, writer);
+			timeouts.incrementAndGet();
+			containerResponseWriter.commit();
+		});
+		containerResponseWriter.awaitCommit();
+		assertEquals(1, timeouts.get());
+		assertEquals(Status.OK, response.getStatusType());
+	}
+
+	@Test(timeout = 5000)
+	public void awaitCommit_TimeoutExtendedByTimeoutHandler_ShouldWaitAgain() {
+		AtomicInteger timeouts = new AtomicInteger();
+		containerResponseWriter.suspend(10, TimeUnit.MILLISECONDS, writer -> {
+			if (timeouts.incrementAndGet() == 1) {
+				writer.setSuspendTimeout(10, TimeUnit.MILLISECONDS);
+			} else {
+				containerResponseWriter.commit();
+			}
+		});
+		containerResponseWriter.awaitCommit();
+		assertEquals(2, timeouts.get());
+		verify(response, times(1)).close();
+	}
+
+	@Test(timeout = 5000)
+	public void awaitCommit_TimeoutNotHandled_ShouldCommitServiceUnavailable() {
+		containerResponseWriter.suspend(10, TimeUnit.MILLISECONDS, mock(TimeoutHandler.class));
+		containerResponseWriter.awaitCommit();
+		assertEquals(Status.SERVICE_UNAVAILABLE, response.getStatusType());
+		verify(response, times(1)).close();
+	}
+
+	@Test(timeout = 5000)
+	public void awaitCommit_Interrupted_ShouldThrowContainerException() {
+		containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class));
+		Thread.currentThread().interrupt();
+		try {
+			containerResponseWriter.awaitCommit();
+			fail("expected ContainerException");
+		} catch (ContainerException e) {
+			assertTrue(Thread.interrupted());
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
 	@SuppressWarnings("serial")
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.StatusType;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.core.container.JRestlessHandlerContainerIntTest.TestRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+
+public class JRestlessHandlerContainerAsyncIntTest {
+
+	private static ExecutorService executor;
+
+	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+
+	@Before
+	public void setup() {
+		executor = Executors.newFixedThreadPool(2);
+		container = new JRestlessHandlerContainer<>(new ResourceConfig(AsyncResource.class));
+		container.onStartup();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test(timeout = 10000)
+	public void handleRequest_ResumedByOtherThread_ShouldBlockUntilCommitted() {
+		ResponseWriter responseWriter = handle("/async/resume");
+		assertEquals(200, responseWriter.status.getStatusCode());
+		assertEquals("resumed", responseWriter.getBody());
+	}
+
+	@Test(timeout = 10000)
+	public void handleRequest_ConcurrentDownstreamCallsGiven_ShouldRunThemConcurrently() {
+		long start = System.nanoTime();
+		ResponseWriter responseWriter = handle("/async/fan-out");
+		long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertEquals("a+b", responseWriter.getBody());
+		// each call takes 300ms
+		assertTrue(durationMillis < 600);
+	}
+
+	@Test(timeout = 10000)
+	public void handleRequest_TimeoutExpired_ShouldRespondWithServiceUnavailable() {
+		ResponseWriter responseWriter = handle("/async/timeout");
+		assertEquals(503, responseWriter.status.getStatusCode());
+	}
+
+	@Test(timeout = 10000)
+	public void handleRequest_TimeoutHandlerGiven_ShouldRespondWithTimeoutHandlerResponse() {
+		ResponseWriter responseWriter = handle("/async/timeout-handler");
+		assertEquals(202, responseWriter.status.getStatusCode());
+		assertEquals("timeout", responseWriter.getBody());
+	}
+
+	@Test(timeout = 10000)
+	public void handleRequest_ResumedSynchronously_ShouldNotBlock() {
+		ResponseWriter responseWriter = handle("/async/sync");
+		assertEquals("sync", responseWriter.getBody());
+	}
+
+	private ResponseWriter handle(String path) {
+		ResponseWriter responseWriter = new ResponseWriter();
+		container.handleRequest(new TestRequest(path, "GET"), responseWriter, mock(SecurityContext.class));
+		return responseWriter;
+	}
+
+	private static class ResponseWriter implements JRestlessResponseWriter {
+		private final ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+		private StatusType status;
+
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return entityOutputStream;
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) throws IOException {
+			this.status = statusType;
+		}
+
+		String getBody() {
+			return new String(entityOutputStream.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Path("/async")
+	public static class AsyncResource {
+
+		@GET
+		@Path("resume")
+		public void resume(@Suspended AsyncResponse asyncResponse) {
+			executor.submit(() -> {
+				sleep(100);
+				return asyncResponse.resume("resumed");
+			});
+		}
+
+		@GET
+		@Path("fan-out")
+		public void fanOut(@Suspended AsyncResponse asyncResponse) {
+			CompletableFuture<String> a = CompletableFuture.supplyAsync(() -> downstream("a"), executor);
+			CompletableFuture<String> b = CompletableFuture.supplyAsync(() -> downstream("b"), executor);
+			a.thenCombine(b, (resultA, resultB) -> resultA + "+" + resultB)
+				.whenComplete((result, error) -> asyncResponse.resume(error == null ? result : error));
+		}
+
+		@GET
+		@Path("timeout")
+		public void timeout(@Suspended AsyncResponse asyncResponse) {
+			asyncResponse.setTimeout(50, TimeUnit.MILLISECONDS);
+		}
+
+		@GET
+		@Path("timeout-handler")
+		public void timeoutHandler(@Suspended AsyncResponse asyncResponse) {
+			asyncResponse.setTimeoutHandler(response -> response.resume(Response.accepted("timeout").build()));
+			asyncResponse.setTimeout(50, TimeUnit.MILLISECONDS);
+		}
+
+		@GET
+		@Path("sync")
+		public void sync(@Suspended AsyncResponse asyncResponse) {
+			asyncResponse.resume("sync");
+		}
+
+		private static String downstream(String result) {
+			sleep(300);
+			return result;
+		}
+
+		private static void sleep(long millis) {
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response.StatusType;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.core.container.JRestlessHandlerContainerIntTest.TestRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+
+public class JRestlessHandlerContainerReloadIntTest {
+
+	private static final int THREADS = 4;
+
+	private static final AtomicInteger SHUTDOWNS = new AtomicInteger();
+	private static volatile CountDownLatch blockingRequestStarted;
+	private static volatile CountDownLatch blockingRequestReleased;
+
+	private ExecutorService executor;
+	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+
+	@Before
+	public void setup() {
+		SHUTDOWNS.set(0);
+		blockingRequestStarted = new CountDownLatch(1);
+		blockingRequestReleased = new CountDownLatch(1);
+		executor = Executors.newFixedThreadPool(THREADS);
+		container = new JRestlessHandlerContainer<>(
+				new ResourceConfig(ReloadResource.class, ShutdownCountingListener.class));
+		container.onStartup();
+	}
+
+	@After
+	public void tearDown() {
+		blockingRequestReleased.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test(timeout = 30000)
+	public void reload_RequestInFlightGiven_ShouldCompleteRequestAndShutdownAfterwards() throws Exception {
+		Future<ResponseWriter> inFlight = executor.submit(() -> handle("/reload/blocking"));
+		blockingRequestStarted.await();
+
+		container.reload();
+		assertEquals(0, SHUTDOWNS.get());
+		// new requests are handled by the new application handler while the old one drains
+		assertEquals("pong", handle("/reload/ping").getBody());
+
+		blockingRequestReleased.countDown();
+		ResponseWriter responseWriter = inFlight.get();
+		assertEquals(200, responseWriter.status.getStatusCode());
+		assertEquals("unblocked", responseWriter.getBody());
+		assertEquals(1, SHUTDOWNS.get());
+	}
+
+	@Test(timeout = 60000)
+	public void reload_ConcurrentRequestsGiven_ShouldHandleAllRequests() throws Exception {
+		blockingRequestReleased.countDown();
+		AtomicBoolean reloading = new AtomicBoolean(true);
+		List<Future<Integer>> workers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			workers.add(executor.submit(() -> {
+				int handled = 0;
+				while (reloading.get()) {
+					ResponseWriter responseWriter = handle("/reload/ping");
+					assertEquals(200, responseWriter.status.getStatusCode());
+					assertEquals("pong", responseWriter.getBody());
+					handled++;
+				}
+				return handled;
+			}));
+		}
+		int reloads = 5;
+		for (int i = 0; i < reloads; i++) {
+			container.reload();
+		}
+		reloading.set(false);
+		for (Future<Integer> worker : workers) {
+			worker.get(10, TimeUnit.SECONDS);
+		}
+		assertEquals(reloads, SHUTDOWNS.get());
+	}
+
+	private ResponseWriter handle(String path) {
+		ResponseWriter responseWriter = new ResponseWriter();
+		container.handleRequest(new TestRequest(path, "GET"), responseWriter, mock(SecurityContext.class));
+		return responseWriter;
+	}
+
+	private static class ResponseWriter implements JRestlessResponseWriter {
+		private final ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+		private StatusType status;
+
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return entityOutputStream;
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) {
+			this.status = statusType;
+		}
+
+		String getBody() {
+			return new String(entityOutputStream.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	public static class ShutdownCountingListener implements ContainerLifecycleListener {
+		@Override
+		public void onStartup(Container container) {
+		}
+
+		@Override
+		public void onReload(Container container) {
+		}
+
+		@Override
+		public void onShutdown(Container container) {
+			SHUTDOWNS.incrementAndGet();
+		}
+	}
+
+	@Path("reload")
+	public static class ReloadResource {
+		@GET
+		@Path("ping")
+		public String ping() {
+			return "pong";
+		}
+
+		@GET
+		@Path("blocking")
+		public String blocking() throws InterruptedException {
+			blockingRequestStarted.countDown();
+			blockingRequestReleased.await();
+			return "unblocked";
+		}
+	}
+}
@@ -17,11 +17,16 @@ package com.jrestless.core.container;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -41,6 +46,7 @@ import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import com.jrestless.core.container.io.JRestlessContainerRequest;
 
@@ -124,6 +130,63 @@ public class JRestlessHandlerContainerTest {
 		verify(container, times(1)).handleRequest(eq(request));
 	}
 
+	@Test
+	public void reload_ConfigGiven_ShouldStartNewAppHandlerBeforeShuttingDownOldAppHandler() {
+		ResourceConfig config = new ApplicationHandler().getConfiguration();
+		ApplicationHandler newAppHandler = mock(ApplicationHandler.class);
+		doReturn(newAppHandler).when(container).createNewApplicationHandler(any());
+		container.reload(config);
+		InOrder inOrder = inOrder(newAppHandler, appHandler);
+		inOrder.verify(newAppHandler).onStartup(container);
+		inOrder.verify(appHandler).onShutdown(container);
+	}
+
+	@Test
+	public void reload_RequestInFlightGiven_ShouldShutdownOldAppHandlerOnceRequestCompleted() {
+		ResourceConfig config = new ApplicationHandler().getConfiguration();
+		ApplicationHandler newAppHandler = mock(ApplicationHandler.class);
+		doReturn(newAppHandler).when(container).createNewApplicationHandler(any());
+		doAnswer(invocation -> {
+			container.reload(config);
+			verify(appHandler, never()).onShutdown(container);
+			return null;
+		}).when(appHandler).handle(any(ContainerRequest.class));
+		container.handleRequest(mock(ContainerRequest.class));
+		verify(appHandler, times(1)).onShutdown(container);
+	}
+
+	@Test
+	public void reload_RequestInFlightGiven_ShouldHandleSubsequentRequestsWithNewAppHandler() {
+		ResourceConfig config = new ApplicationHandler().getConfiguration();
+		ApplicationHandler newAppHandler = mock(ApplicationHandler.class);
+		doReturn(newAppHandler).when(container).createNewApplicationHandler(any());
+		ContainerRequest inFlightRequest = mock(ContainerRequest.class);
+		ContainerRequest subsequentRequest = mock(ContainerRequest.class);
+		doAnswer(invocation -> {
+			container.reload(config);
+			container.handleRequest(subsequentRequest);
+			return null;
+		}).when(appHandler).handle(inFlightRequest);
+		container.handleRequest(inFlightRequest);
+		verify(appHandler, never()).handle(subsequentRequest);
+		verify(newAppHandler, times(1)).handle(subsequentRequest);
+		verify(newAppHandler, never()).onShutdown(container);
+	}
+
+	@Test
+	public void handleRequest_FailingAppHandlerGiven_ShouldShutdownOldAppHandlerOnReload() {
+		ResourceConfig config = new ApplicationHandler().getConfiguration();
+		doThrow(new IllegalStateException()).when(appHandler).handle(any(ContainerRequest.class));
+		try {
+			container.handleRequest(mock(ContainerRequest.class));
+			fail("expected exception");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		container.reload(config);
+		verify(appHandler, times(1)).onShutdown(container);
+	}
+
 	@Test
 	public void reload_NoConfigGiven_ShouldCreateAppHandlerUsingCurrentConfig() {
 		doNothing().when(container).reload(any());
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.model.Resource;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.bootstrap.scanned.ScannedResource;
+import com.jrestless.core.container.bootstrap.scanned.ScannedResponseFilter;
+import com.jrestless.core.container.dpi.InstanceBinder;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.test.AbstractTestRequest;
+
+public class ApplicationSnapshotTest {
+
+	private static final String SCANNED_PACKAGE = ScannedResource.class.getPackage().getName();
+
+	@Test
+	public void capture_PackagesGiven_ShouldContainScannedClasses() {
+		ApplicationSnapshot snapshot = ApplicationSnapshot.capture(new ResourceConfig().packages(SCANNED_PACKAGE));
+		assertEquals(ImmutableList.of(ScannedResource.class.getName(), ScannedResponseFilter.class.getName()),
+				snapshot.getClassNames());
+	}
+
+	@Test
+	public void capture_PlainApplicationGiven_ShouldContainClasses() {
+		ApplicationSnapshot snapshot = ApplicationSnapshot.capture(new Application() {
+			@Override
+			public Set<Class<?>> getClasses() {
+				return Collections.singleton(ScannedResource.class);
+			}
+		});
+		assertEquals(ImmutableList.of(ScannedResource.class.getName()), snapshot.getClassNames());
+	}
+
+	@Test
+	public void writeAndRead_SnapshotGiven_ShouldRoundTrip() throws IOException {
+		ApplicationSnapshot snapshot = ApplicationSnapshot.capture(new ResourceConfig()
+				.packages(SCANNED_PACKAGE)
+				.register(OtherResponseFilter.class, ImmutableMap.of(ContainerResponseFilter.class, 5)));
+		assertEquals(snapshot, read(write(snapshot)));
+	}
+
+	@Test
+	public void write_SnapshotGiven_ShouldWriteOneClassPerLine() throws IOException {
+		ApplicationSnapshot snapshot = ApplicationSnapshot.capture(new ResourceConfig()
+				.register(ScannedResource.class)
+				.register(OtherResponseFilter.class, ImmutableMap.of(ContainerResponseFilter.class, 5)));
+		assertEquals("# jrestless application snapshot v1\n"
+				+ OtherResponseFilter.class.getName() + " " + ContainerResponseFilter.class.getName() + "=5\n"
+				+ ScannedResource.class.getName() + "\n",
+				write(snapshot));
+	}
+
+	@Test
+	public void read_CommentsAndBlankLinesGiven_ShouldIgnoreThem() throws IOException {
+		ApplicationSnapshot snapshot = read("# jrestless application snapshot v1\n\n# comment\n  a.B  \n");
+		assertEquals(ImmutableList.of("a.B"), snapshot.getClassNames());
+	}
+
+	@Test(expected = IOException.class)
+	public void read_InvalidHeaderGiven_ShouldThrowIoe() throws IOException {
+		read("a.B\n");
+	}
+
+	@Test(expected = IOException.class)
+	public void read_EmptyInputGiven_ShouldThrowIoe() throws IOException {
+		read("");
+	}
+
+	@Test(expected = IOException.class)
+	public void read_ContractWithoutPriorityGiven_ShouldThrowIoe() throws IOException {
+		read("# jrestless application snapshot v1\na.B c.D\n");
+	}
+
+	@Test(expected = IOException.class)
+	public void read_ContractWithInvalidPriorityGiven_ShouldThrowIoe() throws IOException {
+		read("# jrestless application snapshot v1\na.B c.D=x\n");
+	}
+
+	@Test
+	public void load_NoSnapshotResourceGiven_ShouldReturnNull() throws IOException {
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[0], null)) {
+			assertNull(ApplicationSnapshot.load(classLoader));
+		}
+	}
+
+	@Test
+	public void load_SnapshotResourceGiven_ShouldReadSnapshot() throws IOException {
+		Path root = Files.createTempDirectory("snapshot");
+		Path resource = root.resolve(ApplicationSnapshot.DEFAULT_RESOURCE);
+		Files.createDirectories(resource.getParent());
+		Files.write(resource, "# jrestless application snapshot v1\na.B\n".getBytes(StandardCharsets.UTF_8));
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {root.toUri().toURL() }, null)) {
+			assertEquals(ImmutableList.of("a.B"), ApplicationSnapshot.load(classLoader).getClassNames());
+		}
+	}
+
+	@Test
+	public void restore_PackagesGiven_ShouldRegisterScannedClassesWithoutScanning() {
+		ResourceConfig config = new ResourceConfig().packages(SCANNED_PACKAGE);
+		ApplicationSnapshot snapshot = ApplicationSnapshot.capture(config);
+		ResourceConfig restored = snapshot.restore(new ResourceConfig().packages("com.jrestless.does.not.exist"));
+		assertEquals(ImmutableSet.of(ScannedResource.class, ScannedResponseFilter.class), restored.getClasses());
+	}
+
+	@Test
+	public void restore_ScanningPropertiesGiven_ShouldRemoveThem() {
+		ResourceConfig config = new ResourceConfig();
+		config.property(ServerProperties.PROVIDER_PACKAGES, SCANNED_PACKAGE);
+		config.property(ServerProperties.PROVIDER_SCANNING_RECURSIVE, false);
+		config.property("some", "value");
+		ApplicationSnapshot snapshot = ApplicationSnapshot.capture(config);
+		config.property(ServerProperties.PROVIDER_CLASSPATH, "does-not-exist.jar");
+		ResourceConfig restored = snapshot.restore(config);
+		assertEquals(ImmutableMap.of("some", "value"), restored.getProperties());
+		assertEquals(ImmutableSet.of(ScannedResource.class, ScannedResponseFilter.class), restored.getClasses());
+	}
+
+	@Test
+	public void restore_ExplicitContractsGiven_ShouldRegisterContracts() {
+		ResourceConfig config = new ResourceConfig()
+				.register(OtherResponseFilter.class, ImmutableMap.of(ContainerResponseFilter.class, 5));
+		ResourceConfig restored = ApplicationSnapshot.capture(config).restore(config);
+		Map<Class<?>, Integer> contracts = restored.getContracts(OtherResponseFilter.class);
+		assertEquals(ImmutableMap.of(ContainerResponseFilter.class, 5), contracts);
+	}
+
+	@Test
+	public void restore_InstancesAndNameGiven_ShouldTakeThemOver() {
+		InstanceBinder binder = new InstanceBinder.Builder().build();
+		ResourceConfig config = new ResourceConfig().register(binder).setApplicationName("app");
+		ResourceConfig restored = ApplicationSnapshot.capture(config).restore(config);
+		assertTrue(restored.getInstances().contains(binder));
+		assertEquals("app", restored.getApplicationName());
+	}
+
+	@Test
+	public void restore_ContractScopedInstanceGiven_ShouldRegisterInstanceWithContracts() {
+		OtherResponseFilter filter = new OtherResponseFilter();
+		ResourceConfig config = new ResourceConfig()
+				.register(filter, ImmutableMap.of(ContainerResponseFilter.class, 5));
+		ResourceConfig restored = ApplicationSnapshot.capture(config).restore(config);
+		assertTrue(restored.getInstances().contains(filter));
+		assertEquals(ImmutableMap.of(ContainerResponseFilter.class, 5), restored.getContracts(filter.getClass()));
+	}
+
+	@Test
+	public void restore_ProgrammaticResourceGiven_ShouldTakeItOver() {
+		Resource resource = createProgrammaticResource();
+		ResourceConfig config = new ResourceConfig().registerResources(resource);
+		ResourceConfig restored = ApplicationSnapshot.capture(config).restore(config);
+		assertEquals(ImmutableSet.of(resource), restored.getResources());
+	}
+
+	@Test
+	public void restore_ProgrammaticResourceAndContractScopedInstanceGiven_ShouldServeBoth() throws IOException {
+		ResourceConfig config = new ResourceConfig()
+				.registerResources(createProgrammaticResource())
+				.register(new ProgrammaticResponseFilter(), ImmutableMap.of(ContainerResponseFilter.class, 5));
+		ApplicationSnapshot snapshot = read(write(ApplicationSnapshot.capture(config)));
+		JRestlessHandlerContainer<JRestlessContainerRequest> container = new JRestlessHandlerContainer<>(
+				snapshot.restore(config));
+		container.onStartup();
+		JRestlessResponseWriter responseWriter = mock(JRestlessResponseWriter.class);
+		ByteArrayOutputStream entity = new ByteArrayOutputStream();
+		when(responseWriter.getEntityOutputStream()).thenReturn(entity);
+		container.handleRequest(new TestRequest("/programmatic", "GET"), responseWriter, mock(SecurityContext.class));
+		verify(responseWriter).writeResponse(eq(Status.OK),
+				eq(ImmutableMap.of("Content-Type", ImmutableList.of("text/plain"), "X-Programmatic",
+						ImmutableList.of("true"))), any());
+		assertEquals("programmatic", new String(entity.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void restore_UnknownClassGiven_ShouldThrowIse() throws IOException {
+		read("# jrestless application snapshot v1\ncom.jrestless.DoesNotExist\n").restore(new ResourceConfig());
+	}
+
+	@Test
+	public void restore_SnapshotGiven_ShouldServeScannedResourcesAndProviders() throws IOException {
+		ResourceConfig config = new ResourceConfig().packages(SCANNED_PACKAGE);
+		ApplicationSnapshot snapshot = read(write(ApplicationSnapshot.capture(config)));
+		JRestlessHandlerContainer<JRestlessContainerRequest> container = new JRestlessHandlerContainer<>(
+				snapshot.restore(new ResourceConfig().packages(SCANNED_PACKAGE)));
+		container.onStartup();
+		JRestlessResponseWriter responseWriter = mock(JRestlessResponseWriter.class);
+		ByteArrayOutputStream entity = new ByteArrayOutputStream();
+		when(responseWriter.getEntityOutputStream()).thenReturn(entity);
+		container.handleRequest(new TestRequest("/scanned", "GET"), responseWriter, mock(SecurityContext.class));
+		verify(responseWriter).writeResponse(eq(Status.OK),
+				eq(ImmutableMap.of("Content-Type", ImmutableList.of("text/plain"), "X-Scanned",
+						ImmutableList.of("true"))), any());
+		assertEquals("scanned", new String(entity.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void main_ApplicationGiven_ShouldWriteSnapshot() throws Exception {
+		Path output = Files.createTempDirectory("snapshot").resolve("sub/application.snapshot");
+		ApplicationSnapshot.main(new String[] {ScanningApplication.class.getName(), output.toString() });
+		ApplicationSnapshot snapshot = ApplicationSnapshot.read(Files.newInputStream(output));
+		assertEquals(ApplicationSnapshot.capture(new ScanningApplication()), snapshot);
+		assertFalse(snapshot.getClassNames().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void main_InvalidArgumentsGiven_ShouldThrowIae() throws Exception {
+		ApplicationSnapshot.main(new String[0]);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void capture_NullApplicationGiven_ShouldThrowNpe() {
+		ApplicationSnapshot.capture(null);
+	}
+
+	private static String write(ApplicationSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.write(out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static ApplicationSnapshot read(String snapshot) throws IOException {
+		return ApplicationSnapshot.read(new ByteArrayInputStream(snapshot.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	public static class ScanningApplication extends ResourceConfig {
+		public ScanningApplication() {
+			packages(SCANNED_PACKAGE);
+		}
+	}
+
+	public static class OtherResponseFilter implements ContainerResponseFilter {
+		@Override
+		public void filter(javax.ws.rs.container.ContainerRequestContext requestContext,
+				javax.ws.rs.container.ContainerResponseContext responseContext) {
+		}
+	}
+
+	private static Resource createProgrammaticResource() {
+		Resource.Builder builder = Resource.builder("/programmatic");
+		builder.addMethod("GET").produces(MediaType.TEXT_PLAIN_TYPE).handledBy(context -> "programmatic");
+		return builder.build();
+	}
+
+	public static class ProgrammaticResponseFilter implements ContainerResponseFilter {
+		@Override
+		public void filter(javax.ws.rs.container.ContainerRequestContext requestContext,
+				javax.ws.rs.container.ContainerResponseContext responseContext) {
+			responseContext.getHeaders().putSingle("X-Programmatic", "true");
+		}
+	}
+
+	private static class TestRequest extends AbstractTestRequest {
+		TestRequest(String requestUri, String httpMethod) {
+			super(requestUri, httpMethod);
+		}
+
+		@Override
+		public InputStream getEntityStream() {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+	}
+}
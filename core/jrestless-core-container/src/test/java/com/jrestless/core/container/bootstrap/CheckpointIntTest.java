@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.handler.SimpleRequestHandler;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class CheckpointIntTest {
+
+	private static final List<String> INVOCATIONS = Collections.synchronizedList(new ArrayList<>());
+
+	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+
+	@Before
+	public void setup() {
+		INVOCATIONS.clear();
+		container = new JRestlessHandlerContainer<>(new ResourceConfig(PingResource.class, RefreshingFilter.class));
+		container.onStartup();
+	}
+
+	@Test
+	public void checkpointAndRestore_ProviderJoinedRegistryGiven_ShouldInvokeHooks() {
+		CheckpointSimulator.checkpointAndRestore(container);
+		assertEquals(Arrays.asList("checkpoint", "restore"), INVOCATIONS);
+	}
+
+	@Test
+	public void checkpointAndRestore_ContainerGiven_ShouldHandleRequestsAfterRestore() {
+		CheckpointSimulator.checkpointAndRestore(container);
+		INVOCATIONS.clear();
+		assertEquals(1, new ContainerWarmup(1, TimeUnit.MINUTES, 1).warmup(container));
+		assertEquals(Arrays.asList("filter", "ping"), INVOCATIONS);
+	}
+
+	@Test
+	public void reload_ContainerGiven_ShouldUseNewRegistry() {
+		CheckpointRegistry registry = container.getCheckpointRegistry();
+		container.reload();
+		assertNotSame(registry, container.getCheckpointRegistry());
+		assertEquals(1, container.getCheckpointRegistry().size());
+		container.afterRestore();
+		assertEquals(Arrays.asList("restore"), INVOCATIONS);
+	}
+
+	@Test
+	public void checkpointAndRestore_ForeignApplicationHandlerGiven_ShouldDoNothing() {
+		JRestlessHandlerContainer<JRestlessContainerRequest> foreignContainer = new ForeignContainer(
+				new ApplicationHandler(new ResourceConfig(PingResource.class)));
+		assertNull(foreignContainer.getCheckpointRegistry());
+		CheckpointSimulator.checkpointAndRestore(foreignContainer);
+		assertTrue(INVOCATIONS.isEmpty());
+	}
+
+	@Test
+	public void checkpointAndRestore_HandlerGiven_ShouldInvokeHandlerHooksAroundContainerHooks() {
+		HookRequestHandler handler = new HookRequestHandler();
+		handler.init(new ResourceConfig(PingResource.class, RefreshingFilter.class));
+		handler.start();
+		CheckpointSimulator.checkpointAndRestore(handler);
+		assertEquals(Arrays.asList("handler checkpoint", "checkpoint", "restore", "handler restore"), INVOCATIONS);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void beforeCheckpoint_NotStartedHandlerGiven_ShouldFail() {
+		HookRequestHandler handler = new HookRequestHandler();
+		handler.init(new ResourceConfig(PingResource.class));
+		handler.beforeCheckpoint();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void afterRestore_NotStartedHandlerGiven_ShouldFail() {
+		HookRequestHandler handler = new HookRequestHandler();
+		handler.init(new ResourceConfig(PingResource.class));
+		handler.afterRestore();
+	}
+
+	@Path("/")
+	public static class PingResource {
+		@GET
+		public String ping() {
+			INVOCATIONS.add("ping");
+			return "pong";
+		}
+	}
+
+	public static class RefreshingFilter implements ContainerRequestFilter, CheckpointListener {
+
+		@Inject
+		public RefreshingFilter(CheckpointRegistry checkpointRegistry) {
+			checkpointRegistry.register(this);
+		}
+
+		@Override
+		public void filter(ContainerRequestContext requestContext) {
+			INVOCATIONS.add("filter");
+		}
+
+		@Override
+		public void beforeCheckpoint() {
+			INVOCATIONS.add("checkpoint");
+		}
+
+		@Override
+		public void afterRestore() {
+			INVOCATIONS.add("restore");
+		}
+	}
+
+	private static class ForeignContainer extends JRestlessHandlerContainer<JRestlessContainerRequest> {
+		ForeignContainer(ApplicationHandler applicationHandler) {
+			super(applicationHandler);
+		}
+	}
+
+	private static class HookRequestHandler extends SimpleRequestHandler<JRestlessContainerRequest, String> {
+
+		@Override
+		protected void onBeforeCheckpoint() {
+			INVOCATIONS.add("handler checkpoint");
+		}
+
+		@Override
+		protected void onAfterRestore() {
+			INVOCATIONS.add("handler restore");
+		}
+
+		@Override
+		public JRestlessContainerRequest createContainerRequest(JRestlessContainerRequest request) {
+			return request;
+		}
+
+		@Override
+		public SimpleResponseWriter<String> createResponseWriter(JRestlessContainerRequest request) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String onRequestFailure(Exception e, JRestlessContainerRequest request,
+				JRestlessContainerRequest containerRequest) {
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CheckpointRegistryTest {
+
+	private CheckpointRegistry registry;
+	private List<String> invocations;
+
+	@Before
+	public void setup() {
+		registry = new CheckpointRegistry();
+		invocations = new ArrayList<>();
+	}
+
+	@Test
+	public void beforeCheckpoint_ListenersGiven_ShouldInvokeInReverseOrder() {
+		registry.register(new RecordingListener("a"));
+		registry.register(new RecordingListener("b"));
+		registry.beforeCheckpoint();
+		assertEquals(Arrays.asList("checkpoint b", "checkpoint a"), invocations);
+	}
+
+	@Test
+	public void afterRestore_ListenersGiven_ShouldInvokeInRegistrationOrder() {
+		registry.register(new RecordingListener("a"));
+		registry.register(new RecordingListener("b"));
+		registry.afterRestore();
+		assertEquals(Arrays.asList("restore a", "restore b"), invocations);
+	}
+
+	@Test
+	public void afterRestore_DefaultListenerGiven_ShouldDoNothing() {
+		registry.register(new CheckpointListener() { });
+		registry.beforeCheckpoint();
+		registry.afterRestore();
+	}
+
+	@Test
+	public void unregister_RegisteredListenerGiven_ShouldNotInvokeListenerAnymore() {
+		RecordingListener listener = new RecordingListener("a");
+		registry.register(listener);
+		assertTrue(registry.unregister(listener));
+		registry.afterRestore();
+		assertTrue(invocations.isEmpty());
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	public void unregister_UnknownListenerGiven_ShouldReturnFalse() {
+		assertFalse(registry.unregister(new RecordingListener("a")));
+	}
+
+	@Test
+	public void afterRestore_FailingListenersGiven_ShouldInvokeAllAndThrowSuppressedFailures() {
+		Exception failure0 = new Exception("0");
+		RuntimeException failure1 = new RuntimeException("1");
+		registry.register(new FailingListener(failure0));
+		registry.register(new RecordingListener("a"));
+		registry.register(new FailingListener(failure1));
+		try {
+			registry.afterRestore();
+			fail("expected CheckpointException");
+		} catch (CheckpointException e) {
+			assertEquals(2, e.getSuppressed().length);
+			assertSame(failure0, e.getSuppressed()[0]);
+			assertSame(failure1, e.getSuppressed()[1]);
+		}
+		assertEquals(Arrays.asList("restore a"), invocations);
+	}
+
+	@Test
+	public void beforeCheckpoint_FailingListenerGiven_ShouldInvokeAllAndThrow() {
+		Exception failure = new Exception();
+		registry.register(new RecordingListener("a"));
+		registry.register(new FailingListener(failure));
+		try {
+			registry.beforeCheckpoint();
+			fail("expected CheckpointException");
+		} catch (CheckpointException e) {
+			assertSame(failure, e.getSuppressed()[0]);
+		}
+		assertEquals(Arrays.asList("checkpoint a"), invocations);
+	}
+
+	@Test
+	public void register_ListenerRegisteringListenerGiven_ShouldNotInvokeNewListenerInSameRun() {
+		registry.register(new CheckpointListener() {
+			@Override
+			public void afterRestore() {
+				registry.register(new RecordingListener("late"));
+			}
+		});
+		registry.afterRestore();
+		assertTrue(invocations.isEmpty());
+		assertEquals(2, registry.size());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void register_NullListenerGiven_ShouldThrowNpe() {
+		registry.register(null);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void unregister_NullListenerGiven_ShouldThrowNpe() {
+		registry.unregister(null);
+	}
+
+	private class RecordingListener implements CheckpointListener {
+		private final String name;
+
+		RecordingListener(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void beforeCheckpoint() {
+			invocations.add("checkpoint " + name);
+		}
+
+		@Override
+		public void afterRestore() {
+			invocations.add("restore " + name);
+		}
+	}
+
+	private static class FailingListener implements CheckpointListener {
+		private final Exception failure;
+
+		FailingListener(Exception failure) {
+			this.failure = failure;
+		}
+
+		@Override
+		public void beforeCheckpoint() throws Exception {
+			throw failure;
+		}
+
+		@Override
+		public void afterRestore() throws Exception {
+			throw failure;
+		}
+	}
+}
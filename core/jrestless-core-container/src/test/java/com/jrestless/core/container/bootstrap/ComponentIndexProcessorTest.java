@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableSet;
+
+public class ComponentIndexProcessorTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void process_ResourceAndProviderGiven_ShouldIndexBoth() throws IOException {
+		compile("@Path(\"/a\") public class Test {",
+				"  @Provider public static class Filter implements javax.ws.rs.container.ContainerRequestFilter {",
+				"    public void filter(javax.ws.rs.container.ContainerRequestContext c) { }",
+				"  }",
+				"}");
+		assertEquals(ImmutableSet.of("com.example.Test", "com.example.Test$Filter"), readIndex().getClassNames());
+	}
+
+	@Test
+	public void process_NonPublicClassesGiven_ShouldNotIndexThem() throws IOException {
+		compile("public class Test {",
+				"  @Path(\"/a\") static class PackagePrivate { }",
+				"  @Path(\"/b\") public class Inner { }",
+				"  @Path(\"/c\") public abstract static class Abstract { }",
+				"  @Path(\"/d\") public interface Interface { }",
+				"  @Path(\"/e\") public static class Resource { }",
+				"}");
+		assertEquals(ImmutableSet.of("com.example.Test$Resource"), readIndex().getClassNames());
+	}
+
+	@Test
+	public void process_MemberOfNonPublicClassGiven_ShouldNotIndexIt() throws IOException {
+		compile("public class Test {",
+				"  static class Outer {",
+				"    @Path(\"/a\") public static class Resource { }",
+				"  }",
+				"}");
+		assertFalse(getIndexFile().exists());
+	}
+
+	@Test
+	public void process_SubResourceMethodGiven_ShouldNotIndexClass() throws IOException {
+		compile("public class Test {",
+				"  @Path(\"/a\") public String get() { return null; }",
+				"}");
+		assertFalse(getIndexFile().exists());
+	}
+
+	@Test
+	public void process_ExistingIndexGiven_ShouldMergeComponentsOfPreviousCompilation() throws IOException {
+		compile(writeSource("First", "@Path(\"/a\") public class First { }"),
+				writeSource("Second", "@Path(\"/b\") public class Second { }"));
+		compile(writeSource("Third", "@Path(\"/c\") public class Third { }"));
+		assertEquals(ImmutableSet.of("com.example.First", "com.example.Second", "com.example.Third"),
+				readIndex().getClassNames());
+	}
+
+	@Test
+	public void process_ExistingIndexGiven_ShouldDropClassesThatAreNoComponentsAnymore() throws IOException {
+		compile(writeSource("First", "@Path(\"/a\") public class First { }"),
+				writeSource("Second", "@Path(\"/b\") public class Second { }"));
+		compile(writeSource("First", "public class First { }"),
+				writeSource("Third", "@Path(\"/c\") public class Third { }"));
+		assertEquals(ImmutableSet.of("com.example.Second", "com.example.Third"), readIndex().getClassNames());
+	}
+
+	@Test
+	public void process_OtherProcessorGiven_ShouldNotClaimAnnotations() throws IOException {
+		AnnotationRecordingProcessor otherProcessor = new AnnotationRecordingProcessor();
+		compile(Arrays.asList(new ComponentIndexProcessor(), otherProcessor),
+				writeSource("Test", "@Path(\"/a\") public class Test { }"));
+		assertEquals(ImmutableSet.of(ComponentIndexProcessor.PATH), otherProcessor.annotations);
+	}
+
+	private void compile(String... lines) throws IOException {
+		compile(writeSource("Test", lines));
+	}
+
+	private File writeSource(String className, String... lines) throws IOException {
+		File sourceDirectory = new File(temporaryFolder.getRoot(), "src/com/example");
+		Files.createDirectories(sourceDirectory.toPath());
+		File source = new File(sourceDirectory, className + ".java");
+		String header = "package com.example;\nimport javax.ws.rs.Path;\nimport javax.ws.rs.ext.Provider;\n";
+		Files.write(source.toPath(), (header + String.join("\n", lines)).getBytes(StandardCharsets.UTF_8));
+		return source;
+	}
+
+	private void compile(File... sources) throws IOException {
+		compile(Collections.singletonList(new ComponentIndexProcessor()), sources);
+	}
+
+	/*
+	 * compiles into the same output directory each time which is on the
+	 * classpath, too - like an incremental compilation
+	 */
+	private void compile(List<Processor> processors, File... sources) throws IOException {
+		File outputDirectory = new File(temporaryFolder.getRoot(), "out");
+		Files.createDirectories(outputDirectory.toPath());
+		List<String> options = new ArrayList<>(Arrays.asList("-d", outputDirectory.getPath(), "-classpath",
+				System.getProperty("java.class.path") + File.pathSeparator + outputDirectory.getPath()));
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null,
+					fileManager.getJavaFileObjectsFromFiles(Arrays.asList(sources)));
+			task.setProcessors(processors);
+			assertTrue(task.call());
+		}
+	}
+
+	@SupportedAnnotationTypes(ComponentIndexProcessor.PATH)
+	private static class AnnotationRecordingProcessor extends AbstractProcessor {
+		private final Set<String> annotations = new HashSet<>();
+
+		@Override
+		public SourceVersion getSupportedSourceVersion() {
+			return SourceVersion.latestSupported();
+		}
+
+		@Override
+		public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+			annotations.forEach(annotation -> this.annotations.add(annotation.getQualifiedName().toString()));
+			return false;
+		}
+	}
+
+	private File getIndexFile() {
+		return new File(temporaryFolder.getRoot(), "out/" + ComponentIndex.DEFAULT_RESOURCE);
+	}
+
+	private ComponentIndex readIndex() throws IOException {
+		try (InputStream in = Files.newInputStream(getIndexFile().toPath())) {
+			return ComponentIndex.read(in);
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.jrestless.core.container.bootstrap.scanned.ScannedResource;
+import com.jrestless.core.container.bootstrap.scanned.ScannedResponseFilter;
+
+public class ComponentIndexTest {
+
+	private static final String SCANNED_PACKAGE = ScannedResource.class.getPackage().getName();
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void write_IndexGiven_ShouldBeReadable() throws IOException {
+		ComponentIndex index = new ComponentIndex(ImmutableList.of("com.example.B", "com.example.A"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		index.write(out);
+		assertEquals(index, ComponentIndex.read(new ByteArrayInputStream(out.toByteArray())));
+		assertEquals(ImmutableList.of("com.example.A", "com.example.B"),
+				ImmutableList.copyOf(index.getClassNames()));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_InvalidHeaderGiven_ShouldThrowIoException() throws IOException {
+		ComponentIndex.read(new ByteArrayInputStream("com.example.A".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void read_CommentsAndBlankLinesGiven_ShouldIgnoreThem() throws IOException {
+		String index = "# jrestless component index v1\n\n# comment\n com.example.A \n";
+		assertEquals(ImmutableSet.of("com.example.A"),
+				ComponentIndex.read(new ByteArrayInputStream(index.getBytes(StandardCharsets.UTF_8))).getClassNames());
+	}
+
+	@Test
+	public void getClassNames_PackagesGiven_ShouldIncludeSubPackagesOnly() {
+		ComponentIndex index = new ComponentIndex(ImmutableList.of("com.example.A", "com.example.sub.B",
+				"com.example.C$D", "com.examples.E", "org.example.F"));
+		assertEquals(ImmutableList.of("com.example.A", "com.example.C$D", "com.example.sub.B"),
+				index.getClassNames("com.example"));
+		assertEquals(ImmutableList.of("com.example.sub.B", "org.example.F"),
+				index.getClassNames("com.example.sub", "org.example"));
+	}
+
+	@Test
+	public void load_NoIndexGiven_ShouldReturnNull() throws IOException {
+		assertNull(ComponentIndex.load(new URLClassLoader(new URL[0], null)));
+	}
+
+	@Test
+	public void load_MultipleIndexesGiven_ShouldMergeThem() throws IOException {
+		URL first = writeIndex("first", "com.example.A", "com.example.B");
+		URL second = writeIndex("second", "com.example.B", "com.example.C");
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {first, second}, null)) {
+			assertEquals(ImmutableSet.of("com.example.A", "com.example.B", "com.example.C"),
+					ComponentIndex.load(classLoader).getClassNames());
+		}
+	}
+
+	@Test
+	public void load_CompiledTestClassesGiven_ShouldContainScannedClasses() throws IOException {
+		ComponentIndex index = ComponentIndex.load(getClass().getClassLoader());
+		assertNotNull(index);
+		assertEquals(ImmutableList.of(ScannedResource.class.getName(), ScannedResponseFilter.class.getName()),
+				index.getClassNames(SCANNED_PACKAGE));
+	}
+
+	@Test
+	public void register_PackagesGiven_ShouldRegisterIndexedClassesInPackages() {
+		ComponentIndex index = new ComponentIndex(ImmutableList.of(ScannedResource.class.getName(),
+				ScannedResponseFilter.class.getName(), ComponentIndexTest.class.getName()));
+		ResourceConfig config = new ResourceConfig();
+		assertEquals(config, index.register(config, SCANNED_PACKAGE));
+		assertEquals(ImmutableSet.of(ScannedResource.class, ScannedResponseFilter.class), config.getClasses());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void register_UnknownClassGiven_ShouldThrowIse() {
+		new ComponentIndex(ImmutableList.of("com.example.DoesNotExist")).register(new ResourceConfig(), "com");
+	}
+
+	@Test
+	public void packages_IndexGiven_ShouldRegisterIndexedClasses() {
+		ResourceConfig config = ComponentIndex.packages(new ResourceConfig(), SCANNED_PACKAGE);
+		assertEquals(ImmutableSet.of(ScannedResource.class, ScannedResponseFilter.class), config.getClasses());
+	}
+
+	@Test
+	public void packages_NoIndexGiven_ShouldFallBackToScanning() throws IOException {
+		ResourceConfig config = new ResourceConfig();
+		config.setClassLoader(new IndexHidingClassLoader(getClass().getClassLoader()));
+		ComponentIndex.packages(config, SCANNED_PACKAGE);
+		assertEquals(ImmutableSet.of(ScannedResource.class, ScannedResponseFilter.class), config.getClasses());
+	}
+
+	@Test
+	public void packages_IndexOfOtherPackageGiven_ShouldFallBackToScanningUnindexedPackage() throws IOException {
+		URL otherIndex = writeIndex("other", "com.example.A");
+		ResourceConfig config = new ResourceConfig();
+		config.setClassLoader(new IndexHidingClassLoader(getClass().getClassLoader(), otherIndex));
+		ComponentIndex.packages(config, SCANNED_PACKAGE);
+		assertEquals(ImmutableSet.of(ScannedResource.class, ScannedResponseFilter.class), config.getClasses());
+	}
+
+	@Test
+	public void packages_IndexedPackageGiven_ShouldNotScanIt() throws IOException {
+		URL index = writeIndex("index", ScannedResource.class.getName());
+		ResourceConfig config = new ResourceConfig();
+		config.setClassLoader(new IndexHidingClassLoader(getClass().getClassLoader(), index));
+		ComponentIndex.packages(config, SCANNED_PACKAGE, "com.example.unindexed");
+		// scanning would have found the filter, too
+		assertEquals(ImmutableSet.of(ScannedResource.class), config.getClasses());
+	}
+
+	private URL writeIndex(String directory, String... classNames) throws IOException {
+		File root = temporaryFolder.newFolder(directory);
+		File indexFile = new File(root, ComponentIndex.DEFAULT_RESOURCE);
+		Files.createDirectories(indexFile.getParentFile().toPath());
+		try (OutputStream out = Files.newOutputStream(indexFile.toPath())) {
+			new ComponentIndex(ImmutableList.copyOf(classNames)).write(out);
+		}
+		return root.toURI().toURL();
+	}
+
+	/*
+	 * replaces the indexes on the classpath by the given ones
+	 */
+	private static class IndexHidingClassLoader extends ClassLoader {
+
+		private final List<URL> indexes = new ArrayList<>();
+
+		IndexHidingClassLoader(ClassLoader parent, URL... indexRoots) throws IOException {
+			super(parent);
+			for (URL indexRoot : indexRoots) {
+				indexes.add(new URL(indexRoot, ComponentIndex.DEFAULT_RESOURCE));
+			}
+		}
+
+		@Override
+		public Enumeration<URL> getResources(String name) throws IOException {
+			if (ComponentIndex.DEFAULT_RESOURCE.equals(name)) {
+				return Collections.enumeration(indexes);
+			}
+			return super.getResources(name);
+		}
+	}
+}
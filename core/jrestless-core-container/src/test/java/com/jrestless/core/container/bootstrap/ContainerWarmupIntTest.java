@@ -0,0 +1,189 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.bootstrap.ContainerWarmup.WarmupRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class ContainerWarmupIntTest {
+
+	private static final List<String> INVOCATIONS = Collections.synchronizedList(new ArrayList<>());
+
+	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+
+	@Before
+	public void setup() {
+		INVOCATIONS.clear();
+		container = new JRestlessHandlerContainer<>(new ResourceConfig(ItemResource.class));
+		container.onStartup();
+	}
+
+	@Test
+	public void warmup_RoundsGiven_ShouldInvokeEachResourceMethodThatOften() {
+		int sent = new ContainerWarmup(1, TimeUnit.MINUTES, 2, m -> true).warmup(container);
+		assertEquals(10, sent);
+		assertEquals(2, Collections.frequency(INVOCATIONS, "list"));
+		assertEquals(2, Collections.frequency(INVOCATIONS, "get 1 true"));
+		assertEquals(2, Collections.frequency(INVOCATIONS, "create {}"));
+		assertEquals(2, Collections.frequency(INVOCATIONS, "rename a1 "));
+		assertEquals(2, Collections.frequency(INVOCATIONS, "delete 1"));
+	}
+
+	@Test
+	public void warmup_NoMethodFilterGiven_ShouldInvokeSafeMethodsOnly() {
+		int sent = new ContainerWarmup(1, TimeUnit.MINUTES, 1).warmup(container);
+		assertEquals(2, sent);
+		assertEquals(ImmutableList.of("list", "get 1 true"), INVOCATIONS);
+	}
+
+	@Test
+	public void warmup_MethodFilterGiven_ShouldInvokeAcceptedMethodsOnly() {
+		new ContainerWarmup(1, TimeUnit.MINUTES, 1, m -> HttpMethod.POST.equals(m.getHttpMethod()))
+			.warmup(container);
+		assertEquals(ImmutableList.of("create {}"), INVOCATIONS);
+	}
+
+	@Test
+	public void warmup_ExhaustedTimeBudgetGiven_ShouldStop() {
+		int sent = new ContainerWarmup(1, TimeUnit.NANOSECONDS, 100).warmup(container);
+		assertTrue(sent <= 1);
+	}
+
+	@Test
+	public void warmup_FailingResourceGiven_ShouldIgnoreFailure() {
+		JRestlessHandlerContainer<JRestlessContainerRequest> failingContainer = new JRestlessHandlerContainer<>(
+				new ResourceConfig(FailingResource.class));
+		failingContainer.onStartup();
+		assertEquals(1, new ContainerWarmup(1, TimeUnit.MINUTES, 1).warmup(failingContainer));
+	}
+
+	@Test
+	public void createRequests_ShouldSynthesizeRepresentativeRequests() {
+		ResourceModel model = new ResourceModel.Builder(false).addResource(Resource.from(ItemResource.class)).build();
+		List<WarmupRequest> requests = ContainerWarmup.createRequests(model, m -> true);
+		assertEquals(5, requests.size());
+		WarmupRequest create = find(requests, "POST");
+		assertEquals("/items", create.getPath());
+		assertEquals(Collections.singletonList(MediaType.APPLICATION_JSON), create.getHeaders().get("Content-Type"));
+		assertArrayEquals("{}".getBytes(StandardCharsets.UTF_8), create.getEntity());
+		WarmupRequest get = find(requests, "GET /items/1");
+		assertEquals(Collections.singletonList(MediaType.TEXT_PLAIN), get.getHeaders().get("Accept"));
+		assertEquals(0, get.getEntity().length);
+		assertEquals(Collections.singletonList("true"), get.getHeaders().get(ContainerWarmup.WARMUP_HEADER));
+		WarmupRequest rename = find(requests, "PUT");
+		assertEquals("/items/a1/name", rename.getPath());
+		assertEquals(Collections.singletonList(MediaType.TEXT_PLAIN), rename.getHeaders().get("Content-Type"));
+		assertEquals(0, rename.getEntity().length);
+		WarmupRequest delete = find(requests, "DELETE");
+		assertEquals("/items/1", delete.getPath());
+		assertNull(delete.getHeaders().get("Content-Type"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NonPositiveTimeBudgetGiven_ShouldThrowIae() {
+		new ContainerWarmup(0, TimeUnit.SECONDS, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NonPositiveRoundsGiven_ShouldThrowIae() {
+		new ContainerWarmup(1, TimeUnit.SECONDS, 0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullMethodFilterGiven_ShouldThrowNpe() {
+		new ContainerWarmup(1, TimeUnit.SECONDS, 1, null);
+	}
+
+	private static WarmupRequest find(List<WarmupRequest> requests, String prefix) {
+		return requests.stream().filter(r -> r.toString().startsWith(prefix)).findFirst().get();
+	}
+
+	@Path("/items")
+	public static class ItemResource {
+		@GET
+		public String list() {
+			INVOCATIONS.add("list");
+			return "[]";
+		}
+
+		@GET
+		@Path("{id: [0-9]+}")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String get(@PathParam("id") String id, @HeaderParam(ContainerWarmup.WARMUP_HEADER) boolean warmup) {
+			INVOCATIONS.add("get " + id + " " + warmup);
+			return id;
+		}
+
+		@POST
+		@Consumes(MediaType.APPLICATION_JSON)
+		public String create(String body) {
+			INVOCATIONS.add("create " + body);
+			return body;
+		}
+
+		@PUT
+		@Path("{key: [a-z][0-9]}/name")
+		@Consumes(MediaType.TEXT_PLAIN)
+		public void rename(@PathParam("key") String key, String name) {
+			INVOCATIONS.add("rename " + key + " " + name);
+		}
+
+		@DELETE
+		@Path("{id: [0-9]+}")
+		public void delete(@PathParam("id") String id) {
+			INVOCATIONS.add("delete " + id);
+		}
+	}
+
+	@Path("/")
+	public static class FailingResource {
+		@GET
+		public String get() {
+			throw new IllegalStateException("failure");
+		}
+	}
+}
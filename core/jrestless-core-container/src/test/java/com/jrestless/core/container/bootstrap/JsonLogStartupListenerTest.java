@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+
+public class JsonLogStartupListenerTest {
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullLoggerGiven_ShouldThrowNpe() {
+		new JsonLogStartupListener(null);
+	}
+
+	@Test
+	public void onPhaseCompleted_EventGiven_ShouldLogEventAsJson() {
+		Logger log = mock(Logger.class);
+		StartupEvent event = new StartupEvent(StartupPhase.CONTAINER_STARTUP, 1_000_000L);
+		new JsonLogStartupListener(log).onPhaseCompleted(event);
+		verify(log).info(event.toJson());
+	}
+}
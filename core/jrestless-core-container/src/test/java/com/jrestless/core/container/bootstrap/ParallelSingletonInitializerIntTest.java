@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class ParallelSingletonInitializerIntTest {
+
+	private static final AtomicInteger SHARED_INSTANCES = new AtomicInteger();
+	private static final AtomicInteger RESOURCE_INSTANCES = new AtomicInteger();
+	private static volatile CountDownLatch rootLatch;
+	private static volatile String firstRootThread;
+	private static volatile String secondRootThread;
+
+	@Before
+	public void setUp() {
+		SHARED_INSTANCES.set(0);
+		RESOURCE_INSTANCES.set(0);
+		rootLatch = new CountDownLatch(2);
+		firstRootThread = null;
+		secondRootThread = null;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NonPositiveParallelismGiven_ShouldThrowIae() {
+		new ParallelSingletonInitializer(0);
+	}
+
+	@Test
+	public void initialize_IndependentSingletonsGiven_ShouldCreateThemConcurrently() {
+		ServiceLocator serviceLocator = startContainer(new ResourceConfig()).getApplicationHandler()
+				.getServiceLocator();
+		assertEquals(3, new ParallelSingletonInitializer(2).initialize(serviceLocator));
+		assertTrue(serviceLocator.getService(FirstRoot.class).awaited);
+		assertTrue(serviceLocator.getService(SecondRoot.class).awaited);
+		assertNotEquals(firstRootThread, secondRootThread);
+		assertEquals(1, SHARED_INSTANCES.get());
+	}
+
+	@Test
+	public void initialize_SingletonResourceGiven_ShouldCreateResource() {
+		JRestlessHandlerContainer<JRestlessContainerRequest> container = startContainer(
+				new ResourceConfig(SingletonResource.class));
+		assertEquals(0, RESOURCE_INSTANCES.get());
+		assertEquals(4, new ParallelSingletonInitializer(2).initialize(container));
+		assertEquals(1, RESOURCE_INSTANCES.get());
+	}
+
+	@Test
+	public void initialize_FailingSingletonGiven_ShouldCreateOthers() {
+		ResourceConfig config = new ResourceConfig();
+		config.register(new AbstractBinder() {
+			@Override
+			protected void configure() {
+				bindAsContract(FailingSingleton.class).in(Singleton.class);
+			}
+		});
+		ServiceLocator serviceLocator = startContainer(config).getApplicationHandler().getServiceLocator();
+		assertEquals(3, new ParallelSingletonInitializer(2).initialize(serviceLocator));
+		assertEquals(1, SHARED_INSTANCES.get());
+	}
+
+	@Test
+	public void initialize_InitializedContainerGiven_ShouldNotCreateAnything() {
+		ServiceLocator serviceLocator = startContainer(new ResourceConfig()).getApplicationHandler()
+				.getServiceLocator();
+		ParallelSingletonInitializer initializer = new ParallelSingletonInitializer(2);
+		initializer.initialize(serviceLocator);
+		assertEquals(0, initializer.initialize(serviceLocator));
+	}
+
+	private static JRestlessHandlerContainer<JRestlessContainerRequest> startContainer(ResourceConfig config) {
+		config.register(new AbstractBinder() {
+			@Override
+			protected void configure() {
+				bindAsContract(Shared.class).in(Singleton.class);
+				bindAsContract(FirstRoot.class).in(Singleton.class);
+				bindAsContract(SecondRoot.class).in(Singleton.class);
+			}
+		});
+		JRestlessHandlerContainer<JRestlessContainerRequest> container = new JRestlessHandlerContainer<>(config);
+		container.onStartup();
+		return container;
+	}
+
+	public static class Shared {
+		public Shared() {
+			SHARED_INSTANCES.incrementAndGet();
+		}
+	}
+
+	/*
+	 * blocks until the other root is being created, too
+	 */
+	public abstract static class Root {
+		final boolean awaited;
+
+		Root() {
+			rootLatch.countDown();
+			try {
+				awaited = rootLatch.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	public static class FirstRoot extends Root {
+		@Inject
+		public FirstRoot(Shared shared) {
+			firstRootThread = Thread.currentThread().getName();
+		}
+	}
+
+	public static class SecondRoot extends Root {
+		@Inject
+		public SecondRoot(Shared shared) {
+			secondRootThread = Thread.currentThread().getName();
+		}
+	}
+
+	public static class FailingSingleton {
+		public FailingSingleton() {
+			throw new IllegalStateException("failing singleton");
+		}
+	}
+
+	@Path("/")
+	@Singleton
+	public static class SingletonResource {
+		public SingletonResource() {
+			RESOURCE_INSTANCES.incrementAndGet();
+		}
+
+		@GET
+		public String get() {
+			return "singleton";
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class StartupEventTest {
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullPhaseGiven_ShouldThrowNpe() {
+		new StartupEvent(null, 1);
+	}
+
+	@Test
+	public void getDuration_UnitGiven_ShouldConvertDuration() {
+		StartupEvent event = new StartupEvent(StartupPhase.HANDLER_INIT, TimeUnit.MILLISECONDS.toNanos(1500));
+		assertEquals(1500_000_000L, event.getDurationNanos());
+		assertEquals(1500L, event.getDuration(TimeUnit.MILLISECONDS));
+		assertEquals(1L, event.getDuration(TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void toJson_ShouldReturnSingleLineJson() {
+		StartupEvent event = new StartupEvent(StartupPhase.PROVIDER_INITIALIZATION, 12_345_678L);
+		assertEquals("{\"event\":\"jrestless.startup\",\"phase\":\"PROVIDER_INITIALIZATION\","
+				+ "\"durationNanos\":12345678,\"durationMillis\":12}", event.toJson());
+	}
+
+	@Test
+	public void equals_SamePhaseAndDurationGiven_ShouldBeEqual() {
+		assertEquals(new StartupEvent(StartupPhase.HANDLER_START, 1), new StartupEvent(StartupPhase.HANDLER_START, 1));
+		assertEquals(new StartupEvent(StartupPhase.HANDLER_START, 1).hashCode(),
+				new StartupEvent(StartupPhase.HANDLER_START, 1).hashCode());
+	}
+
+	@Test
+	public void equals_DifferentPhaseOrDurationGiven_ShouldNotBeEqual() {
+		assertNotEquals(new StartupEvent(StartupPhase.HANDLER_START, 1), new StartupEvent(StartupPhase.HANDLER_INIT, 1));
+		assertNotEquals(new StartupEvent(StartupPhase.HANDLER_START, 1), new StartupEvent(StartupPhase.HANDLER_START, 2));
+	}
+}
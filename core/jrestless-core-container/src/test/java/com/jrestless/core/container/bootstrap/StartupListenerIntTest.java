@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response.StatusType;
+
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.Binder;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Test;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.handler.SimpleRequestHandler;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class StartupListenerIntTest {
+
+	private final List<StartupEvent> events = new ArrayList<>();
+
+	@Test(expected = NullPointerException.class)
+	public void initContainer_NullListenerGiven_ShouldThrowNpe() {
+		new JRestlessHandlerContainer<>(new ResourceConfig(), null, null, null);
+	}
+
+	@Test
+	public void initContainer_ListenerGiven_ShouldReportApplicationHandlerCreation() {
+		new JRestlessHandlerContainer<>(new ResourceConfig(), null, null, events::add);
+		assertEquals(listOf(StartupPhase.INJECTION_BINDING, StartupPhase.PROVIDER_INITIALIZATION,
+				StartupPhase.APPLICATION_HANDLER_CREATION), getPhases());
+		long total = events.get(2).getDurationNanos();
+		assertTrue(events.get(0).getDurationNanos() + events.get(1).getDurationNanos() <= total);
+	}
+
+	@Test
+	public void handler_CustomBinderAndParentGiven_ShouldUseBoth() {
+		ServiceLocator parent = ServiceLocatorUtilities.createAndPopulateServiceLocator();
+		ServiceLocatorUtilities.addOneConstant(parent, new StringBuilder("parent"));
+		Binder binder = new AbstractBinder() {
+			@Override
+			protected void configure() {
+				bind("custom").to(String.class);
+			}
+		};
+		StartupRequestHandler handler = new StartupRequestHandler(events::add);
+		handler.init(new ResourceConfig(InjectionResource.class), binder, parent);
+		handler.start();
+		assertEquals("custom parent", handler.delegateRequest(createRequest()));
+	}
+
+	@Test
+	public void onStartup_ListenerGiven_ShouldReportContainerStartup() {
+		new JRestlessHandlerContainer<>(new ResourceConfig(), null, null, events::add).onStartup();
+		assertEquals(StartupPhase.CONTAINER_STARTUP, events.get(events.size() - 1).getPhase());
+	}
+
+	@Test
+	public void reload_ListenerGiven_ShouldReportContainerReload() {
+		JRestlessHandlerContainer<JRestlessContainerRequest> container = new JRestlessHandlerContainer<>(
+				new ResourceConfig(), null, null, events::add);
+		container.onStartup();
+		events.clear();
+		container.reload();
+		assertEquals(listOf(StartupPhase.CONTAINER_RELOAD), getPhases());
+	}
+
+	@Test
+	public void handler_ListenerGiven_ShouldReportAllPhasesOnce() {
+		StartupRequestHandler handler = new StartupRequestHandler(events::add);
+		handler.init(new ResourceConfig(StaticResource.class));
+		handler.start();
+		handler.delegateRequest(createRequest());
+		handler.delegateRequest(createRequest());
+		assertEquals(listOf(StartupPhase.INJECTION_BINDING, StartupPhase.PROVIDER_INITIALIZATION,
+				StartupPhase.APPLICATION_HANDLER_CREATION, StartupPhase.HANDLER_INIT,
+				StartupPhase.CONTAINER_STARTUP, StartupPhase.HANDLER_START, StartupPhase.FIRST_REQUEST), getPhases());
+		assertEquals(1, handler.startupListenerRequests);
+	}
+
+	@Test
+	public void handler_WarmupGiven_ShouldWarmupOnStartAndReportWarmup() {
+		StartupRequestHandler handler = new StartupRequestHandler(events::add) {
+			@Override
+			protected ContainerWarmup getContainerWarmup() {
+				return new ContainerWarmup(1, TimeUnit.MINUTES, 1);
+			}
+		};
+		handler.init(new ResourceConfig(StaticResource.class));
+		handler.start();
+		assertEquals(listOf(StartupPhase.INJECTION_BINDING, StartupPhase.PROVIDER_INITIALIZATION,
+				StartupPhase.APPLICATION_HANDLER_CREATION, StartupPhase.HANDLER_INIT,
+				StartupPhase.CONTAINER_STARTUP, StartupPhase.WARMUP, StartupPhase.HANDLER_START), getPhases());
+	}
+
+	@Test
+	public void handler_SingletonInitializerGiven_ShouldReportSingletonInitializationBeforeWarmup() {
+		StartupRequestHandler handler = new StartupRequestHandler(events::add) {
+			@Override
+			protected ParallelSingletonInitializer getSingletonInitializer() {
+				return new ParallelSingletonInitializer(2);
+			}
+
+			@Override
+			protected ContainerWarmup getContainerWarmup() {
+				return new ContainerWarmup(1, TimeUnit.MINUTES, 1);
+			}
+		};
+		handler.init(new ResourceConfig(StaticResource.class));
+		handler.start();
+		assertEquals(listOf(StartupPhase.INJECTION_BINDING, StartupPhase.PROVIDER_INITIALIZATION,
+				StartupPhase.APPLICATION_HANDLER_CREATION, StartupPhase.HANDLER_INIT,
+				StartupPhase.CONTAINER_STARTUP, StartupPhase.SINGLETON_INITIALIZATION, StartupPhase.WARMUP,
+				StartupPhase.HANDLER_START), getPhases());
+	}
+
+	@Test
+	public void handler_RestoreGiven_ShouldReportRestoreAndFirstRequestAgain() {
+		StartupRequestHandler handler = new StartupRequestHandler(events::add);
+		handler.init(new ResourceConfig(StaticResource.class));
+		handler.start();
+		handler.delegateRequest(createRequest());
+		events.clear();
+		CheckpointSimulator.checkpointAndRestore(handler);
+		handler.delegateRequest(createRequest());
+		handler.delegateRequest(createRequest());
+		assertEquals(listOf(StartupPhase.CONTAINER_RESTORE, StartupPhase.FIRST_REQUEST), getPhases());
+	}
+
+	@Test
+	public void handler_NoListenerGiven_ShouldNotReportAnything() {
+		StartupRequestHandler handler = new StartupRequestHandler(null);
+		handler.init(new ResourceConfig(StaticResource.class));
+		handler.start();
+		assertEquals("static", handler.delegateRequest(createRequest()));
+		assertTrue(events.isEmpty());
+	}
+
+	private List<StartupPhase> getPhases() {
+		return events.stream().map(StartupEvent::getPhase).collect(Collectors.toList());
+	}
+
+	private static List<StartupPhase> listOf(StartupPhase... phases) {
+		List<StartupPhase> list = new ArrayList<>();
+		for (StartupPhase phase : phases) {
+			list.add(phase);
+		}
+		return list;
+	}
+
+	private static JRestlessContainerRequest createRequest() {
+		return new DefaultJRestlessContainerRequest(URI.create("/"), URI.create("/"), "GET",
+				new ByteArrayInputStream(new byte[0]), new HashMap<>());
+	}
+
+	@Path("/")
+	public static class StaticResource {
+		@GET
+		public String get() {
+			return "static";
+		}
+	}
+
+	@Path("/")
+	public static class InjectionResource {
+		@Inject
+		private String custom;
+		@Inject
+		private StringBuilder parent;
+
+		@GET
+		public String get() {
+			return custom + " " + parent;
+		}
+	}
+
+	private static class StartupRequestHandler extends SimpleRequestHandler<JRestlessContainerRequest, String> {
+
+		private final StartupListener startupListener;
+		private int startupListenerRequests;
+
+		StartupRequestHandler(StartupListener startupListener) {
+			this.startupListener = startupListener;
+		}
+
+		@Override
+		protected StartupListener getStartupListener() {
+			startupListenerRequests++;
+			return startupListener;
+		}
+
+		@Override
+		public JRestlessContainerRequest createContainerRequest(JRestlessContainerRequest request) {
+			return request;
+		}
+
+		@Override
+		public SimpleResponseWriter<String> createResponseWriter(JRestlessContainerRequest request) {
+			return new SimpleResponseWriter<String>() {
+				private final ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+
+				@Override
+				public OutputStream getEntityOutputStream() {
+					return entityOutputStream;
+				}
+
+				@Override
+				public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+						OutputStream entityOutputStream) {
+				}
+
+				@Override
+				public String getResponse() {
+					return new String(entityOutputStream.toByteArray(), StandardCharsets.UTF_8);
+				}
+			};
+		}
+
+		@Override
+		public String onRequestFailure(Exception e, JRestlessContainerRequest request,
+				JRestlessContainerRequest containerRequest) {
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.instrument.Instrumentation;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jrestless.core.container.bootstrap.TrainingReport.PhaseClassLoading;
+
+public class TrainingRunTest {
+
+	private static final List<String> INVOCATIONS = Collections.synchronizedList(new ArrayList<>());
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Before
+	public void setup() {
+		INVOCATIONS.clear();
+	}
+
+	@Test
+	public void run_WarmupGiven_ShouldReportAllPhasesAndWarmUp() {
+		TrainingReport report = new TrainingRun(new TrainingApplication(),
+				new ContainerWarmup(1, TimeUnit.MINUTES, 2), null).run();
+		assertEquals(Arrays.asList(StartupPhase.INJECTION_BINDING, StartupPhase.PROVIDER_INITIALIZATION,
+				StartupPhase.APPLICATION_HANDLER_CREATION, StartupPhase.CONTAINER_STARTUP, StartupPhase.WARMUP),
+				getPhases(report));
+		assertEquals(2, INVOCATIONS.size());
+		for (PhaseClassLoading phase : report.getPhases()) {
+			assertTrue(phase.getLoadedClassCount() >= 0);
+		}
+	}
+
+	@Test
+	public void run_NoWarmupGiven_ShouldNotReportWarmup() {
+		TrainingReport report = new TrainingRun(new TrainingApplication(), null, null).run();
+		assertEquals(Arrays.asList(StartupPhase.INJECTION_BINDING, StartupPhase.PROVIDER_INITIALIZATION,
+				StartupPhase.APPLICATION_HANDLER_CREATION, StartupPhase.CONTAINER_STARTUP), getPhases(report));
+		assertTrue(INVOCATIONS.isEmpty());
+	}
+
+	@Test
+	public void run_NoInstrumentationGiven_ShouldNotProvideClassNames() {
+		TrainingReport report = new TrainingRun(new TrainingApplication(), null, null).run();
+		assertFalse(report.isClassListAvailable());
+		assertNull(report.getPhases().get(0).getClassNames());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void writeClassList_NoInstrumentationGiven_ShouldFail() throws IOException {
+		new TrainingRun(new TrainingApplication(), null, null).run().writeClassList(new ByteArrayOutputStream());
+	}
+
+	@Test
+	public void run_InstrumentationGiven_ShouldAssignNewClassesToPhases() {
+		Instrumentation instrumentation = mock(Instrumentation.class);
+		when(instrumentation.getAllLoadedClasses()).thenReturn(
+				new Class<?>[] {String.class, int.class, String[].class},
+				new Class<?>[] {String.class, TrainingRun.class, Integer.class},
+				new Class<?>[] {String.class, TrainingRun.class, Integer.class, TrainingReport.class});
+		TrainingReport report = new TrainingRun(new TrainingApplication(), null, instrumentation).run();
+		assertEquals(Arrays.asList("com/jrestless/core/container/bootstrap/TrainingRun", "java/lang/Integer"),
+				report.getPhases().get(0).getClassNames());
+		assertEquals(Arrays.asList("com/jrestless/core/container/bootstrap/TrainingReport"),
+				report.getPhases().get(1).getClassNames());
+		assertEquals(Collections.emptyList(), report.getPhases().get(2).getClassNames());
+		assertEquals(Arrays.asList("java/lang/String", "com/jrestless/core/container/bootstrap/TrainingRun",
+				"java/lang/Integer", "com/jrestless/core/container/bootstrap/TrainingReport"), report.getClassList());
+	}
+
+	@Test
+	public void writeClassList_InstrumentationGiven_ShouldWriteOneClassPerLine() throws IOException {
+		Instrumentation instrumentation = mock(Instrumentation.class);
+		when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[] {String.class, Integer.class});
+		TrainingReport report = new TrainingRun(new TrainingApplication(), null, instrumentation).run();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		report.writeClassList(out);
+		assertEquals("java/lang/Integer\njava/lang/String\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void toJson_ClassNamesGiven_ShouldIncludeClassNames() {
+		PhaseClassLoading phase = new PhaseClassLoading(StartupPhase.WARMUP, TimeUnit.MILLISECONDS.toNanos(3), 2,
+				Arrays.asList("a/B", "a/C\"D"));
+		assertEquals("{\"event\":\"jrestless.training\",\"phase\":\"WARMUP\",\"durationMillis\":3,"
+				+ "\"loadedClasses\":2,\"classes\":[\"a/B\",\"a/C\\\"D\"]}", phase.toJson());
+	}
+
+	@Test
+	public void toJson_NoClassNamesGiven_ShouldOmitClassNames() {
+		PhaseClassLoading phase = new PhaseClassLoading(StartupPhase.WARMUP, 0, 2, null);
+		assertEquals("{\"event\":\"jrestless.training\",\"phase\":\"WARMUP\",\"durationMillis\":0,"
+				+ "\"loadedClasses\":2}", phase.toJson());
+	}
+
+	@Test
+	public void main_ApplicationGiven_ShouldWriteReport() throws Exception {
+		File outputDirectory = new File(temporaryFolder.getRoot(), "training");
+		TrainingRun.main(new String[] {TrainingApplication.class.getName(), outputDirectory.getPath(), "5", "1"});
+		List<String> lines = Files.readAllLines(outputDirectory.toPath().resolve(TrainingRun.REPORT_FILE));
+		assertEquals(5, lines.size());
+		assertTrue(lines.get(lines.size() - 1).contains("\"phase\":\"WARMUP\""));
+		assertEquals(1, INVOCATIONS.size());
+	}
+
+	@Test
+	public void main_ZeroWarmupGiven_ShouldNotWarmUp() throws Exception {
+		TrainingRun.main(new String[] {TrainingApplication.class.getName(), temporaryFolder.getRoot().getPath(), "0"});
+		assertTrue(INVOCATIONS.isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void main_MissingArgsGiven_ShouldFail() throws Exception {
+		TrainingRun.main(new String[] {TrainingApplication.class.getName()});
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullApplicationGiven_ShouldThrowNpe() {
+		new TrainingRun(null, null);
+	}
+
+	private static List<StartupPhase> getPhases(TrainingReport report) {
+		return report.getPhases().stream().map(PhaseClassLoading::getPhase).collect(Collectors.toList());
+	}
+
+	public static class TrainingApplication extends ResourceConfig {
+		public TrainingApplication() {
+			register(TrainingResource.class);
+		}
+	}
+
+	@Path("/")
+	public static class TrainingResource {
+		@GET
+		public String get() {
+			INVOCATIONS.add("get");
+			return "trained";
+		}
+	}
+}
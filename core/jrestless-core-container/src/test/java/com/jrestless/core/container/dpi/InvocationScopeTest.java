@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.dpi;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.inject.Provider;
+
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.jersey.process.internal.RequestScope;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Test;
+
+public class InvocationScopeTest {
+
+	@Test
+	public void isEnabled_PropertyNotSetGiven_ShouldReturnFalse() {
+		assertFalse(InvocationScope.isEnabled(new ResourceConfig()));
+	}
+
+	@Test
+	public void isEnabled_PropertySetGiven_ShouldReturnTrue() {
+		assertTrue(InvocationScope.isEnabled(
+				new ResourceConfig().property(InvocationScope.PROXY_FREE_INJECTION_PROPERTY, "true")));
+	}
+
+	@Test
+	public void enter_ScopeNotBoundGiven_ShouldReturnFalse() {
+		assertFalse(new InvocationScope.Resolver().enter(mock(ServiceLocator.class), mock(ContainerRequest.class)));
+	}
+
+	@Test
+	public void enter_SameLocatorGiven_ShouldLookUpScopeOnce() {
+		ServiceLocator locator = mock(ServiceLocator.class);
+		InvocationScope.Resolver resolver = new InvocationScope.Resolver();
+		resolver.enter(locator, mock(ContainerRequest.class));
+		resolver.enter(locator, mock(ContainerRequest.class));
+		verify(locator, times(1)).getService(InvocationScope.class);
+	}
+
+	@Test
+	public void enter_OtherResolverGiven_ShouldNotShareLookup() {
+		ServiceLocator locator = mock(ServiceLocator.class);
+		new InvocationScope.Resolver().enter(locator, mock(ContainerRequest.class));
+		new InvocationScope.Resolver().enter(locator, mock(ContainerRequest.class));
+		verify(locator, times(2)).getService(InvocationScope.class);
+	}
+
+	@Test
+	public void get_NotEnteredGiven_ShouldReadValueFromProvidedContainerRequest() {
+		ContainerRequest containerRequest = mock(ContainerRequest.class);
+		Provider<ContainerRequest> containerRequestProvider = mockProvider(containerRequest);
+		InvocationScope scope = new InvocationScope(new RequestScope(), containerRequestProvider);
+		Object value = new Object();
+		when(containerRequest.getProperty(InvocationScope.class.getName() + "." + Object.class.getName()))
+			.thenReturn(value);
+		assertSame(value, scope.get(Object.class));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void get_NoValueGiven_ShouldThrowIse() {
+		InvocationScope scope = new InvocationScope(new RequestScope(), mockProvider(mock(ContainerRequest.class)));
+		scope.get(Object.class);
+	}
+
+	@Test
+	public void setValue_ShouldSetValueAsProperty() {
+		ContainerRequest containerRequest = mock(ContainerRequest.class);
+		Object value = new Object();
+		InvocationScope.setValue(containerRequest, Object.class, value);
+		verify(containerRequest).setProperty(InvocationScope.class.getName() + "." + Object.class.getName(), value);
+	}
+
+	@Test
+	public void get_EnteredGiven_ShouldReadValueFromEnteredContainerRequestWithinSameScope() {
+		RequestScope requestScope = new RequestScope();
+		ContainerRequest containerRequest = mock(ContainerRequest.class);
+		Provider<ContainerRequest> containerRequestProvider = mockProvider(null);
+		InvocationScope scope = new InvocationScope(requestScope, containerRequestProvider);
+		ServiceLocator locator = mock(ServiceLocator.class);
+		when(locator.getService(InvocationScope.class)).thenReturn(scope);
+		Object value = new Object();
+		when(containerRequest.getProperty(InvocationScope.class.getName() + "." + Object.class.getName()))
+			.thenReturn(value);
+		requestScope.runInScope(() -> {
+			assertTrue(new InvocationScope.Resolver().enter(locator, containerRequest));
+			try {
+				assertSame(value, scope.get(Object.class));
+			} finally {
+				InvocationScope.exit();
+			}
+		});
+	}
+
+	@Test
+	public void get_EnteredInOtherScopeGiven_ShouldReadValueFromProvidedContainerRequest() {
+		RequestScope requestScope = new RequestScope();
+		ContainerRequest enteredContainerRequest = mock(ContainerRequest.class);
+		ContainerRequest providedContainerRequest = mock(ContainerRequest.class);
+		InvocationScope scope = new InvocationScope(requestScope, mockProvider(providedContainerRequest));
+		ServiceLocator locator = mock(ServiceLocator.class);
+		when(locator.getService(InvocationScope.class)).thenReturn(scope);
+		Object value = new Object();
+		when(providedContainerRequest.getProperty(InvocationScope.class.getName() + "." + Object.class.getName()))
+			.thenReturn(value);
+		requestScope.runInScope(() -> {
+			new InvocationScope.Resolver().enter(locator, enteredContainerRequest);
+			try {
+				// e.g. another request's suspended response resumed on this thread
+				requestScope.runInScope(() -> assertSame(value, scope.get(Object.class)));
+			} finally {
+				InvocationScope.exit();
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Provider<ContainerRequest> mockProvider(ContainerRequest containerRequest) {
+		Provider<ContainerRequest> provider = mock(Provider.class);
+		when(provider.get()).thenReturn(containerRequest);
+		return provider;
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.dpi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.glassfish.hk2.api.ActiveDescriptor;
+import org.glassfish.hk2.api.PerLookup;
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.BuilderHelper;
+import org.glassfish.hk2.utilities.ServiceLocatorUtilities;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StaticBindingIntTest {
+
+	private ServiceLocator serviceLocator;
+
+	@Before
+	public void setup() {
+		serviceLocator = ServiceLocatorUtilities.createAndPopulateServiceLocator();
+		ServiceLocatorUtilities.addOneConstant(serviceLocator, "jrestless");
+		ServiceLocatorUtilities.addClasses(serviceLocator, Counter.class);
+	}
+
+	@Test
+	public void findCreator_AnnotatedClassGiven_ShouldFindGeneratedCreator() {
+		ServiceCreator<Greeter> creator = StaticBindings.findCreator(Greeter.class);
+		assertNotNull(creator);
+		Greeter greeter = creator.create(serviceLocator);
+		assertEquals("hello jrestless 1", greeter.greet());
+		assertEquals("hello jrestless 2", greeter.greet());
+	}
+
+	@Test
+	public void findCreator_NoArgClassGiven_ShouldFindGeneratedCreator() {
+		assertNotNull(StaticBindings.findCreator(Counter.class).create(serviceLocator));
+	}
+
+	@Test
+	public void findCreator_NotAnnotatedClassGiven_ShouldReturnNull() {
+		assertNull(StaticBindings.findCreator(String.class));
+	}
+
+	@Test
+	public void bindStatic_ServiceLocatorGiven_ShouldBindStaticDescriptor() {
+		ServiceLocatorUtilities.bind(serviceLocator, new GreeterBinder(serviceLocator));
+		assertTrue(isStatic(Greeter.class));
+		Greeter greeter = serviceLocator.getService(Greeter.class);
+		assertEquals("hello jrestless 1", greeter.greet());
+		assertSame(greeter, serviceLocator.getService(Greeter.class));
+	}
+
+	@Test
+	public void bindStatic_NoServiceLocatorGiven_ShouldBindRegularly() {
+		ServiceLocatorUtilities.bind(serviceLocator, new GreeterBinder(null));
+		assertFalse(isStatic(Greeter.class));
+		assertEquals("hello jrestless 1", serviceLocator.getService(Greeter.class).greet());
+	}
+
+	@Test
+	public void instanceBinder_InstanceGiven_ShouldBindStaticDescriptor() {
+		Runnable instance = mock(Runnable.class);
+		ServiceLocatorUtilities.bind(serviceLocator,
+				new InstanceBinder.Builder().addInstance(instance, Runnable.class, PerLookup.class).build());
+		assertTrue(isStatic(Runnable.class));
+		serviceLocator.getService(Runnable.class).run();
+		verify(instance).run();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void build_NoContractGiven_ShouldFail() {
+		StaticActiveDescriptor.builder(Greeter.class, () -> null).build();
+	}
+
+	@Test
+	public void getCreatorName_NestedClassGiven_ShouldReplaceDollars() {
+		assertEquals("a.b.Outer_Inner_ServiceCreator", StaticBindings.getCreatorName("a.b.Outer$Inner"));
+		assertEquals("Top_ServiceCreator", StaticBindings.getCreatorName("Top"));
+	}
+
+	/*
+	 * static descriptors are reified when they are added, regular ones on
+	 * the first lookup only
+	 */
+	private boolean isStatic(Class<?> contract) {
+		ActiveDescriptor<?> descriptor = serviceLocator.getBestDescriptor(BuilderHelper.createContractFilter(
+				contract.getName()));
+		return descriptor.isReified();
+	}
+
+	@StaticBinding
+	static class Greeter {
+		private final String name;
+		private final Provider<Counter> counter;
+
+		@Inject
+		Greeter(String name, Provider<Counter> counter) {
+			this.name = name;
+			this.counter = counter;
+		}
+
+		String greet() {
+			return "hello " + name + " " + counter.get().next();
+		}
+	}
+
+	@StaticBinding
+	@Singleton
+	public static class Counter {
+		private int count;
+
+		int next() {
+			return ++count;
+		}
+	}
+
+	private static class GreeterBinder extends AbstractReferencingBinder {
+		GreeterBinder(ServiceLocator serviceLocator) {
+			super(serviceLocator);
+		}
+
+		@Override
+		protected void configure() {
+			bindStatic(Greeter.class, Greeter.class, Singleton.class);
+		}
+	}
+}
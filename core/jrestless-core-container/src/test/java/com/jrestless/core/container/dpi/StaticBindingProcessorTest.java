@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.dpi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StaticBindingProcessorTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+	@Test
+	public void process_InjectConstructorGiven_ShouldGenerateCreator() throws IOException {
+		assertTrue(compile("import javax.inject.*;",
+				"import java.util.*;",
+				"@StaticBinding public class Test {",
+				"  @Inject Test(String a, Provider<List<String>> b, Map<String, Integer> c) { }",
+				"}"));
+		String creator = readGenerated("Test_ServiceCreator.java");
+		assertTrue(creator.contains("serviceLocator.<java.lang.String>getService(java.lang.String.class)"));
+		assertTrue(creator.contains("() -> serviceLocator.<java.util.List<java.lang.String>>getService("
+				+ "new org.glassfish.hk2.api.TypeLiteral<java.util.List<java.lang.String>>() { }.getType())"));
+		assertTrue(creator.contains("serviceLocator.<java.util.Map<java.lang.String,java.lang.Integer>>getService("));
+	}
+
+	@Test
+	public void process_NestedClassGiven_ShouldGenerateCreatorWithFlatName() throws IOException {
+		assertTrue(compile("public class Test {",
+				"  @StaticBinding static class Inner { }",
+				"}"));
+		assertTrue(readGenerated("Test_Inner_ServiceCreator.java").contains("return new com.example.Test.Inner();"));
+	}
+
+	@Test
+	public void process_FieldInjectionGiven_ShouldFail() {
+		assertCompileError("field and method injection",
+				"@StaticBinding public class Test {",
+				"  @javax.inject.Inject String a;",
+				"}");
+	}
+
+	@Test
+	public void process_PrivateClassGiven_ShouldFail() {
+		assertCompileError("must not be private or abstract",
+				"public class Test {",
+				"  @StaticBinding private static class Inner { }",
+				"}");
+	}
+
+	@Test
+	public void process_InnerClassGiven_ShouldFail() {
+		assertCompileError("top level or static member",
+				"public class Test {",
+				"  @StaticBinding class Inner { }",
+				"}");
+	}
+
+	@Test
+	public void process_MultipleInjectConstructorsGiven_ShouldFail() {
+		assertCompileError("at most one @Inject constructor",
+				"@StaticBinding public class Test {",
+				"  @javax.inject.Inject Test(String a) { }",
+				"  @javax.inject.Inject Test(Integer a) { }",
+				"}");
+	}
+
+	@Test
+	public void process_NoSuitableConstructorGiven_ShouldFail() {
+		assertCompileError("@Inject or a no-arg constructor",
+				"@StaticBinding public class Test {",
+				"  Test(String a) { }",
+				"}");
+	}
+
+	@Test
+	public void process_QualifierGiven_ShouldFail() {
+		assertCompileError("qualifiers are not supported",
+				"@StaticBinding public class Test {",
+				"  @javax.inject.Inject Test(@javax.inject.Named(\"a\") String a) { }",
+				"}");
+	}
+
+	@Test
+	public void process_PrimitiveParameterGiven_ShouldFail() {
+		assertCompileError("only class and interface types",
+				"@StaticBinding public class Test {",
+				"  @javax.inject.Inject Test(int a) { }",
+				"}");
+	}
+
+	@Test
+	public void process_LifecycleCallbackGiven_ShouldFail() {
+		assertCompileError("lifecycle callbacks",
+				"@StaticBinding public class Test {",
+				"  @javax.annotation.PostConstruct void init() { }",
+				"}");
+	}
+
+	private void assertCompileError(String expectedMessage, String... lines) {
+		try {
+			assertFalse(compile(lines));
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+		List<String> errors = diagnostics.getDiagnostics().stream()
+				.filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+				.map(d -> d.getMessage(Locale.ROOT))
+				.collect(Collectors.toList());
+		assertEquals(errors.toString(), 1, errors.size());
+		assertTrue(errors.get(0), errors.get(0).contains(expectedMessage));
+	}
+
+	private boolean compile(String... lines) throws IOException {
+		File sourceDirectory = temporaryFolder.newFolder("src", "com", "example");
+		File source = new File(sourceDirectory, "Test.java");
+		String header = "package com.example;\nimport com.jrestless.core.container.dpi.StaticBinding;\n";
+		Files.write(source.toPath(), (header + String.join("\n", lines)).getBytes(StandardCharsets.UTF_8));
+		File outputDirectory = temporaryFolder.newFolder("out");
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+					Arrays.asList("-proc:only", "-s", outputDirectory.getPath(),
+							"-classpath", System.getProperty("java.class.path")),
+					null, fileManager.getJavaFileObjectsFromFiles(Collections.singletonList(source)));
+			task.setProcessors(Collections.singletonList(new StaticBindingProcessor()));
+			return task.call();
+		}
+	}
+
+	private String readGenerated(String fileName) throws IOException {
+		File generated = new File(temporaryFolder.getRoot(), "out/com/example/" + fileName);
+		return new String(Files.readAllBytes(generated.toPath()), StandardCharsets.UTF_8);
+	}
+}
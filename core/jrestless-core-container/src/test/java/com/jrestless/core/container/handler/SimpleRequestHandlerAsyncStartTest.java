@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+import javax.ws.rs.core.Response.StatusType;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.jrestless.core.container.bootstrap.ContainerWarmup;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class SimpleRequestHandlerAsyncStartTest {
+
+	private final CountDownLatch bootstrapLatch = new CountDownLatch(1);
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private final AsyncRequestHandler handler = new AsyncRequestHandler();
+	private volatile String bootstrapThread;
+
+	@After
+	public void tearDown() {
+		bootstrapLatch.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void startAsync_ShouldInitAndStartInBackground() throws Exception {
+		CompletableFuture<Void> start = handler.startAsync(createApplication());
+		assertFalse(start.isDone());
+		bootstrapLatch.countDown();
+		start.get(10, TimeUnit.SECONDS);
+		assertEquals("jrestless-bootstrap", bootstrapThread);
+		assertEquals("ok", handler.delegateRequest(createRequest()));
+	}
+
+	@Test
+	public void startAsync_ShouldQueryHooksOnCallingThread() throws Exception {
+		CompletableFuture<Void> start = handler.startAsync(createApplication());
+		assertEquals(ImmutableList.of(Thread.currentThread().getName()), handler.hookThreads);
+		bootstrapLatch.countDown();
+		start.get(10, TimeUnit.SECONDS);
+		assertEquals(ImmutableList.of(Thread.currentThread().getName()), handler.hookThreads);
+	}
+
+	@Test
+	public void delegateRequest_PendingStartGiven_ShouldAwaitStart() throws Exception {
+		CompletableFuture<Void> start = handler.startAsync(createApplication());
+		Future<String> response = executor.submit(() -> handler.delegateRequest(createRequest()));
+		try {
+			response.get(100, TimeUnit.MILLISECONDS);
+			throw new AssertionError("request must wait for the start");
+		} catch (TimeoutException e) {
+			// expected
+		}
+		bootstrapLatch.countDown();
+		assertEquals("ok", response.get(10, TimeUnit.SECONDS));
+		assertTrue(start.isDone());
+	}
+
+	@Test
+	public void delegateRequest_FailedStartGiven_ShouldFailRequest() throws Exception {
+		ResourceConfig application = new ResourceConfig(TestResource.class);
+		application.register((Feature) context -> {
+			throw new IllegalStateException("boom");
+		});
+		CompletableFuture<Void> start = handler.startAsync(application);
+		try {
+			start.get(10, TimeUnit.SECONDS);
+			throw new AssertionError("start must fail");
+		} catch (ExecutionException e) {
+			// expected
+		}
+		assertEquals("failure: handler failed to start", handler.delegateRequest(createRequest()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void init_StartedAsyncGiven_ShouldThrowIse() {
+		handler.startAsync(createApplication());
+		handler.init(new ResourceConfig());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void start_StartedAsyncGiven_ShouldThrowIse() {
+		handler.startAsync(createApplication());
+		handler.start();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void startAsync_StartedAsyncGiven_ShouldThrowIse() {
+		handler.startAsync(createApplication());
+		handler.startAsync(createApplication());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void startAsync_InitializedGiven_ShouldThrowIse() {
+		handler.init(new ResourceConfig());
+		handler.startAsync(createApplication());
+	}
+
+	private ResourceConfig createApplication() {
+		ResourceConfig application = new ResourceConfig(TestResource.class);
+		application.register(new BlockingFeature());
+		return application;
+	}
+
+	private static JRestlessContainerRequest createRequest() {
+		return new DefaultJRestlessContainerRequest(URI.create("/"), URI.create("/"), "GET",
+				new ByteArrayInputStream(new byte[0]), new HashMap<>());
+	}
+
+	private class BlockingFeature implements Feature {
+		@Override
+		public boolean configure(FeatureContext context) {
+			bootstrapThread = Thread.currentThread().getName();
+			try {
+				bootstrapLatch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return true;
+		}
+	}
+
+	@Path("/")
+	public static class TestResource {
+		@GET
+		public String get() {
+			return "ok";
+		}
+	}
+
+	private static class AsyncRequestHandler extends SimpleRequestHandler<JRestlessContainerRequest, String> {
+
+		private final List<String> hookThreads = new CopyOnWriteArrayList<>();
+
+		@Override
+		protected ContainerWarmup getContainerWarmup() {
+			hookThreads.add(Thread.currentThread().getName());
+			return null;
+		}
+
+		@Override
+		public JRestlessContainerRequest createContainerRequest(JRestlessContainerRequest request) {
+			return request;
+		}
+
+		@Override
+		public SimpleResponseWriter<String> createResponseWriter(JRestlessContainerRequest request) {
+			return new SimpleResponseWriter<String>() {
+				private final ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+
+				@Override
+				public OutputStream getEntityOutputStream() {
+					return entityOutputStream;
+				}
+
+				@Override
+				public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+						OutputStream entityOutputStream) {
+				}
+
+				@Override
+				public String getResponse() {
+					return new String(entityOutputStream.toByteArray(), StandardCharsets.UTF_8);
+				}
+			};
+		}
+
+		@Override
+		public String onRequestFailure(Exception e, JRestlessContainerRequest request,
+				JRestlessContainerRequest containerRequest) {
+			return "failure: " + e.getMessage();
+		}
+	}
+}
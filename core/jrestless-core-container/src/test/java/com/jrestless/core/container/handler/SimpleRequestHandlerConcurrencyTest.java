@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.handler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.Response.StatusType;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class SimpleRequestHandlerConcurrencyTest {
+
+	private static final int THREADS = 8;
+	private static final int REQUESTS_PER_THREAD = 250;
+
+	private ExecutorService executor;
+	private SimpleRequestHandlerImpl handler;
+
+	@Before
+	public void setup() {
+		executor = Executors.newFixedThreadPool(THREADS);
+		handler = new SimpleRequestHandlerImpl();
+		handler.init(new ResourceConfig(WorkResource.class));
+		handler.start();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test(timeout = 60000)
+	public void delegateRequest_ConcurrentRequestsGiven_ShouldIsolateResponses() throws Exception {
+		CyclicBarrier barrier = new CyclicBarrier(THREADS);
+		List<Future<Void>> workers = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			workers.add(executor.submit(() -> {
+				barrier.await();
+				for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+					String id = thread + "-" + i;
+					SimpleContainerResponse response = handler.delegateRequest(createRequest("/work/" + id));
+					assertEquals(Status.OK.getStatusCode(), response.getStatusType().getStatusCode());
+					assertEquals(id, response.getBody());
+				}
+				return null;
+			}));
+		}
+		for (Future<Void> worker : workers) {
+			worker.get();
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void start_ConcurrentInvocationsGiven_ShouldStartOnce() throws Exception {
+		SimpleRequestHandlerImpl newHandler = new SimpleRequestHandlerImpl();
+		newHandler.init(new ResourceConfig(WorkResource.class));
+		CyclicBarrier barrier = new CyclicBarrier(THREADS);
+		List<Future<Boolean>> starters = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			starters.add(executor.submit(() -> {
+				barrier.await();
+				try {
+					newHandler.start();
+					return true;
+				} catch (IllegalStateException e) {
+					return false;
+				}
+			}));
+		}
+		int started = 0;
+		for (Future<Boolean> starter : starters) {
+			if (starter.get()) {
+				started++;
+			}
+		}
+		assertEquals(1, started);
+		assertEquals("0", newHandler.delegateRequest(createRequest("/work/0")).getBody());
+	}
+
+	private static JRestlessContainerRequest createRequest(String requestUri) {
+		return new DefaultJRestlessContainerRequest(URI.create("/"), URI.create(requestUri), "GET",
+				new ByteArrayInputStream(new byte[0]), Collections.emptyMap());
+	}
+
+	@Path("/work")
+	public static class WorkResource {
+		@GET
+		@Path("{id}")
+		public String work(@PathParam("id") String id) {
+			return id;
+		}
+	}
+
+	private static class SimpleRequestHandlerImpl
+			extends SimpleRequestHandler<JRestlessContainerRequest, SimpleContainerResponse> {
+
+		@Override
+		public SimpleResponseWriter<SimpleContainerResponse> createResponseWriter(JRestlessContainerRequest request) {
+			return new SimpleResponseWriter<SimpleContainerResponse>() {
+				private final ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+				private SimpleContainerResponse response;
+
+				@Override
+				public OutputStream getEntityOutputStream() {
+					return entityOutputStream;
+				}
+
+				@Override
+				public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+						OutputStream entityOutputStream) {
+					response = new SimpleContainerResponse(statusType,
+							new String(this.entityOutputStream.toByteArray(), StandardCharsets.UTF_8), headers);
+				}
+
+				@Override
+				public SimpleContainerResponse getResponse() {
+					return response;
+				}
+			};
+		}
+
+		@Override
+		public JRestlessContainerRequest createContainerRequest(JRestlessContainerRequest request) {
+			return request;
+		}
+
+		@Override
+		public SimpleContainerResponse onRequestFailure(Exception e, JRestlessContainerRequest request,
+				JRestlessContainerRequest containerRequest) {
+			return new SimpleContainerResponse(Status.INTERNAL_SERVER_ERROR, null, new HashMap<>());
+		}
+	}
+}
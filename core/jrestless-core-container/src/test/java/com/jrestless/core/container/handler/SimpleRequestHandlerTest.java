@@ -2,6 +2,7 @@ package com.jrestless.core.container.handler;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
@@ -32,6 +33,7 @@ import com.jrestless.core.container.JRestlessHandlerContainer;
 import com.jrestless.core.container.handler.SimpleRequestHandler.SimpleResponseWriter;
 import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.metrics.RequestMetricsListener;
 
 public class SimpleRequestHandlerTest {
 
@@ -82,6 +84,26 @@ public class SimpleRequestHandlerTest {
 		handler.start();
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void start_FailingStartGiven_ShouldAllowRetry() {
+		JRestlessHandlerContainer<JRestlessContainerRequest> newContainer = mock(JRestlessHandlerContainer.class);
+		SimpleRequestHandlerImpl newHandler = spy(new SimpleRequestHandlerImpl());
+		doThrow(new IllegalStateException("failing start")).doReturn(null).when(newHandler).getSingletonInitializer();
+		newHandler.init(newContainer);
+		try {
+			newHandler.start();
+			fail("expected the start to fail");
+		} catch (IllegalStateException e) {
+			assertEquals("failing start", e.getMessage());
+		}
+		assertEquals(500, newHandler.delegateRequest(createMinimalRequest()).getStatusType().getStatusCode());
+		newHandler.start();
+		verify(newContainer, times(1)).onStartup();
+		newHandler.delegateRequest(createMinimalRequest());
+		verify(newContainer, times(1)).handleRequest(any(), any(), any(), any());
+	}
+
 	@Test
 	public void delegateRequest_NotStarted_ShouldReturnInternalServerError() {
 		SimpleContainerResponse response = new SimpleRequestHandlerImpl().delegateRequest(mock(JRestlessContainerRequest.class));
@@ -154,6 +176,25 @@ public class SimpleRequestHandlerTest {
 		verify(handler).onRequestSuccess(eq(containerResponse), eq(request), any());
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void init_RequestMetricsListenerGiven_ShouldSetListenerOnContainer() {
+		JRestlessHandlerContainer<JRestlessContainerRequest> metricsContainer = mock(JRestlessHandlerContainer.class);
+		RequestMetricsListener listener = mock(RequestMetricsListener.class);
+		new SimpleRequestHandlerImpl() {
+			@Override
+			protected RequestMetricsListener getRequestMetricsListener() {
+				return listener;
+			}
+		}.init(metricsContainer);
+		verify(metricsContainer).setRequestMetricsListener(listener);
+	}
+
+	@Test
+	public void init_NoRequestMetricsListenerGiven_ShouldNotSetListenerOnContainer() {
+		verify(container, times(0)).setRequestMetricsListener(any());
+	}
+
 	private JRestlessContainerRequest createMinimalRequest() {
 		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(URI.create("/"), URI.create("/"), "GET",
 				new ByteArrayInputStream(new byte[0]), new HashMap<>());
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Base64EncodingOutputStreamTest {
+
+	@Test
+	public void write_NothingWritten_ShouldWriteNothing() throws IOException {
+		assertEquals("", encodeBulk(new byte[0]));
+	}
+
+	@Test
+	public void write_AllLengthsGiven_ShouldEncodeLikeJdkEncoder() throws IOException {
+		Random random = new Random(0);
+		for (int length = 0; length < 20; length++) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			String expected = Base64.getEncoder().encodeToString(data);
+			assertEquals(expected, encodeBulk(data));
+			assertEquals(expected, encodeSingleBytes(data));
+			assertEquals(expected, encodeInSlices(data, 2));
+		}
+	}
+
+	@Test
+	public void write_DataBiggerThanChunkGiven_ShouldEncodeLikeJdkEncoder() throws IOException {
+		byte[] data = new byte[100_000];
+		new Random(0).nextBytes(data);
+		String expected = Base64.getEncoder().encodeToString(data);
+		assertEquals(expected, encodeBulk(data));
+		assertEquals(expected, encodeInSlices(data, 7));
+	}
+
+	@Test
+	public void write_SliceGiven_ShouldEncodeSliceOnly() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream encoder = new Base64EncodingOutputStream(out)) {
+			encoder.write("xxtestxx".getBytes(StandardCharsets.US_ASCII), 2, 4);
+		}
+		assertEquals("dGVzdA==", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	public void write_BytesGiven_ShouldWriteCompleteGroupsImmediately() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OutputStream encoder = new Base64EncodingOutputStream(out);
+		encoder.write("test".getBytes(StandardCharsets.US_ASCII));
+		assertEquals("dGVz", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void write_InvalidRangeGiven_ShouldThrowIoobe() throws IOException {
+		new Base64EncodingOutputStream(new ByteArrayOutputStream()).write(new byte[2], 1, 2);
+	}
+
+	@Test(expected = IOException.class)
+	public void write_ClosedStreamGiven_ShouldThrowIoe() throws IOException {
+		OutputStream encoder = new Base64EncodingOutputStream(new ByteArrayOutputStream());
+		encoder.close();
+		encoder.write(1);
+	}
+
+	@Test
+	public void close_ShouldCloseUnderlyingStreamOnce() throws IOException {
+		OutputStream out = mock(OutputStream.class);
+		OutputStream encoder = new Base64EncodingOutputStream(out);
+		encoder.close();
+		encoder.close();
+		verify(out, times(1)).close();
+	}
+
+	@Test
+	public void flush_ShouldFlushUnderlyingStream() throws IOException {
+		OutputStream out = mock(OutputStream.class);
+		new Base64EncodingOutputStream(out).flush();
+		verify(out).flush();
+	}
+
+	@Test
+	public void encodedData_ShouldBeAscii() throws IOException {
+		byte[] data = new byte[256];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		for (char c : encodeBulk(data).toCharArray()) {
+			assertTrue(c < 0x80);
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullStreamGiven_ShouldThrowNpe() {
+		new Base64EncodingOutputStream(null);
+	}
+
+	private static String encodeBulk(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream encoder = new Base64EncodingOutputStream(out)) {
+			encoder.write(data);
+		}
+		return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+	}
+
+	private static String encodeSingleBytes(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream encoder = new Base64EncodingOutputStream(out)) {
+			for (byte b : data) {
+				encoder.write(b);
+			}
+		}
+		return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+	}
+
+	private static String encodeInSlices(byte[] data, int sliceLength) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream encoder = new Base64EncodingOutputStream(out)) {
+			for (int off = 0; off < data.length; off += sliceLength) {
+				encoder.write(data, off, Math.min(sliceLength, data.length - off));
+			}
+		}
+		return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+	}
+}
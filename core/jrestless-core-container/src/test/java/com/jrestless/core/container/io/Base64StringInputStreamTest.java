@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Base64StringInputStreamTest {
+
+	@Test
+	public void read_VariousLengthsGiven_ShouldDecodeLikeJdkDecoder() throws IOException {
+		Random random = new Random(0);
+		for (int length = 0; length < 32; length++) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			String padded = Base64.getEncoder().encodeToString(data);
+			String unpadded = Base64.getEncoder().withoutPadding().encodeToString(data);
+			for (int bufferSize = 1; bufferSize < 8; bufferSize++) {
+				assertArrayEquals(padded, data, readFully(new Base64StringInputStream(padded), bufferSize));
+				assertArrayEquals(unpadded, data, readFully(new Base64StringInputStream(unpadded), bufferSize));
+			}
+			assertArrayEquals(padded, data, readSingleBytes(new Base64StringInputStream(padded)));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void read_DataAfterPaddingGiven_ShouldThrowIoe() throws IOException {
+		readFully(new Base64StringInputStream("YQ==YWJj"), 8);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_SingleByteReadDataAfterPaddingGiven_ShouldThrowIoe() throws IOException {
+		Base64StringInputStream in = new Base64StringInputStream("YQ=a");
+		assertEquals('a', in.read());
+		in.read();
+	}
+
+	@Test
+	public void read_PaddingOnlyAfterPaddingGiven_ShouldDecode() throws IOException {
+		assertArrayEquals("a".getBytes(), readFully(new Base64StringInputStream("YQ===="), 8));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_IllegalCharGiven_ShouldThrowIoe() throws IOException {
+		readFully(new Base64StringInputStream("YW Jj"), 8);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_NonAsciiCharGiven_ShouldThrowIoe() throws IOException {
+		readFully(new Base64StringInputStream("YW\u00e4j"), 8);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_UrlSafeCharGiven_ShouldThrowIoe() throws IOException {
+		readFully(new Base64StringInputStream("YW-j"), 8);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_DanglingCharGiven_ShouldThrowIoe() throws IOException {
+		readFully(new Base64StringInputStream("YWJjZ"), 8);
+	}
+
+	@Test
+	public void read_ZeroLength_ShouldReturnZero() throws IOException {
+		assertEquals(0, new Base64StringInputStream("YWJj").read(new byte[1], 0, 0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void read_InvalidRange_ShouldThrowIoobe() throws IOException {
+		new Base64StringInputStream("YWJj").read(new byte[1], 0, 2);
+	}
+
+	@Test
+	public void available_ShouldReturnRemainingBytes() throws IOException {
+		InputStream in = new Base64StringInputStream("YWJjZA==");
+		assertEquals(4, in.available());
+		in.read();
+		assertEquals(3, in.available());
+		in.read(new byte[3], 0, 3);
+		assertEquals(0, in.available());
+		assertEquals(-1, in.read());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullValueGiven_ShouldThrowNpe() {
+		new Base64StringInputStream(null);
+	}
+
+	private static byte[] readSingleBytes(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != -1) {
+			out.write(b);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] readFully(InputStream in, int bufferSize) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[bufferSize];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+}
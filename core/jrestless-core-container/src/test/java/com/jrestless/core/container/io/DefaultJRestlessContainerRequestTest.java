@@ -3,6 +3,7 @@ package com.jrestless.core.container.io;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
@@ -21,6 +22,7 @@ import org.junit.Test;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.CharStreams;
+import com.jrestless.core.util.ExpandedHeaderMap;
 import com.jrestless.test.ConstructorPreconditionsTester;
 import com.jrestless.test.CopyConstructorEqualsTester;
 
@@ -53,6 +55,15 @@ public class DefaultJRestlessContainerRequestTest {
 		assertTrue(request.getHeaders().isEmpty());
 	}
 
+	@Test
+	public void testExpandedHeaderMapNotCopied() throws IOException {
+		Map<String, List<String>> headers = new ExpandedHeaderMap(ImmutableMap.of("a", "a0"));
+		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(URI.create("/123"), URI.create("/456"), "DELETE",
+				new ByteArrayInputStream("123".getBytes()), headers);
+		assertSame(headers, request.getHeaders());
+		assertEquals(ImmutableMap.of("a", ImmutableList.of("a0")), request.getHeaders());
+	}
+
 	@Test(expected = UnsupportedOperationException.class)
 	public void testHeadersImmutable() throws IOException {
 		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(URI.create("/123"), URI.create("/456"), "DELETE",
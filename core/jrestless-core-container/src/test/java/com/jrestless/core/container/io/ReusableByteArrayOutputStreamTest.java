@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReusableByteArrayOutputStreamTest {
+
+	@Before
+	public void setup() {
+		// drain the current thread's pool
+		ReusableByteArrayOutputStream.acquire(0);
+	}
+
+	@Test
+	public void acquire_EmptyPoolGiven_ShouldCreateStreamWithDefaultCapacity() {
+		ReusableByteArrayOutputStream stream = ReusableByteArrayOutputStream.acquire(0);
+		assertEquals(ReusableByteArrayOutputStream.DEFAULT_CAPACITY, stream.capacity());
+		assertEquals(0, stream.size());
+	}
+
+	@Test
+	public void acquire_SizeHintGreaterThanDefaultCapacityGiven_ShouldCreateStreamWithSizeHintCapacity() {
+		int sizeHint = ReusableByteArrayOutputStream.DEFAULT_CAPACITY + 1;
+		assertEquals(sizeHint, ReusableByteArrayOutputStream.acquire(sizeHint).capacity());
+	}
+
+	@Test
+	public void acquire_ReleasedStreamGiven_ShouldReuseStream() {
+		ReusableByteArrayOutputStream stream = ReusableByteArrayOutputStream.acquire(0);
+		stream.release();
+		assertSame(stream, ReusableByteArrayOutputStream.acquire(0));
+	}
+
+	@Test
+	public void acquire_ReleasedStreamAcquiredAlready_ShouldCreateNewStream() {
+		ReusableByteArrayOutputStream stream = ReusableByteArrayOutputStream.acquire(0);
+		stream.release();
+		ReusableByteArrayOutputStream.acquire(0);
+		assertNotSame(stream, ReusableByteArrayOutputStream.acquire(0));
+	}
+
+	@Test
+	public void acquire_ReleasedStreamAndBiggerSizeHintGiven_ShouldGrowReusedStream() {
+		ReusableByteArrayOutputStream stream = ReusableByteArrayOutputStream.acquire(0);
+		stream.release();
+		int sizeHint = ReusableByteArrayOutputStream.DEFAULT_CAPACITY * 3;
+		assertSame(stream, ReusableByteArrayOutputStream.acquire(sizeHint));
+		assertTrue(stream.capacity() >= sizeHint);
+	}
+
+	@Test
+	public void acquire_StreamReleasedOnOtherThread_ShouldNotReuseStream()
+			throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ReusableByteArrayOutputStream stream = executor.submit(() -> {
+				ReusableByteArrayOutputStream s = ReusableByteArrayOutputStream.acquire(0);
+				s.release();
+				return s;
+			}).get();
+			assertNotSame(stream, ReusableByteArrayOutputStream.acquire(0));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void release_WrittenStreamGiven_ShouldResetStream() throws IOException {
+		ReusableByteArrayOutputStream stream = ReusableByteArrayOutputStream.acquire(0);
+		stream.write(new byte[] {1, 2, 3 });
+		stream.release();
+		assertEquals(0, ReusableByteArrayOutputStream.acquire(0).size());
+	}
+
+	@Test
+	public void release_TooBigStreamGiven_ShouldNotRetainStream() throws IOException {
+		ReusableByteArrayOutputStream stream = ReusableByteArrayOutputStream.acquire(0);
+		stream.write(new byte[ReusableByteArrayOutputStream.MAX_RETAINED_CAPACITY + 1]);
+		stream.release();
+		assertNotSame(stream, ReusableByteArrayOutputStream.acquire(0));
+	}
+
+	@Test
+	public void ensureCapacity_SmallerCapacityGiven_ShouldNotShrink() {
+		ReusableByteArrayOutputStream stream = new ReusableByteArrayOutputStream(10);
+		stream.ensureCapacity(5);
+		assertEquals(10, stream.capacity());
+	}
+
+	@Test
+	public void ensureCapacity_SlightlyBiggerCapacityGiven_ShouldDoubleCapacity() {
+		ReusableByteArrayOutputStream stream = new ReusableByteArrayOutputStream(10);
+		stream.ensureCapacity(11);
+		assertEquals(20, stream.capacity());
+	}
+
+	@Test
+	public void ensureCapacity_MuchBiggerCapacityGiven_ShouldGrowToCapacity() {
+		ReusableByteArrayOutputStream stream = new ReusableByteArrayOutputStream(10);
+		stream.ensureCapacity(50);
+		assertEquals(50, stream.capacity());
+	}
+
+	@Test
+	public void ensureCapacity_WrittenStreamGiven_ShouldKeepContent() throws IOException {
+		ReusableByteArrayOutputStream stream = new ReusableByteArrayOutputStream(2);
+		stream.write(new byte[] {1, 2 });
+		stream.ensureCapacity(100);
+		assertArrayEquals(new byte[] {1, 2 }, stream.toByteArray());
+	}
+
+	@Test
+	public void toString_Utf8ContentGiven_ShouldDecode() throws IOException {
+		ReusableByteArrayOutputStream stream = new ReusableByteArrayOutputStream(1);
+		stream.write("a\u00e4\u20ac\ud83d\ude00".getBytes(StandardCharsets.UTF_8));
+		assertEquals("a\u00e4\u20ac\ud83d\ude00", stream.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void toString_NullCharsetGiven_ShouldThrowNpe() {
+		new ReusableByteArrayOutputStream(1).toString((Charset) null);
+	}
+}
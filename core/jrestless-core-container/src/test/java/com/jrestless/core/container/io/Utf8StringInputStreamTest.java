@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class Utf8StringInputStreamTest {
+
+	private static final String[] VALUES = {
+		"",
+		"abc",
+		"\u00e4\u00f6\u00fc\u00df",
+		"a\u20acb",
+		"\ud83d\ude00",
+		"x\ud83d\ude00y\ud83d\ude01",
+		"\ud83d",
+		"a\ud83db",
+		"\ude00a",
+		"a\ude00\ud83d",
+		"{\"value\": \"\u00e4\u20ac\ud83d\ude00\"}"
+	};
+
+	@Test
+	public void read_SingleBytes_ShouldEncodeUtf8() throws IOException {
+		for (String value : VALUES) {
+			InputStream in = new Utf8StringInputStream(value);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			int b;
+			while ((b = in.read()) != -1) {
+				out.write(b);
+			}
+			assertArrayEquals(value, value.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+		}
+	}
+
+	@Test
+	public void read_BufferOfVariousSizes_ShouldEncodeUtf8() throws IOException {
+		for (String value : VALUES) {
+			for (int bufferSize = 1; bufferSize < 10; bufferSize++) {
+				assertArrayEquals(value + "/" + bufferSize, value.getBytes(StandardCharsets.UTF_8),
+						readFully(new Utf8StringInputStream(value), bufferSize));
+			}
+		}
+	}
+
+	@Test
+	public void read_MixedReads_ShouldEncodeUtf8() throws IOException {
+		String value = "\u20ac\u20ac";
+		InputStream in = new Utf8StringInputStream(value);
+		byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+		byte[] buffer = new byte[2];
+		assertEquals(2, in.read(buffer, 0, 2));
+		assertEquals(expected[0], buffer[0]);
+		assertEquals(expected[1], buffer[1]);
+		assertEquals(expected[2] & 0xFF, in.read());
+		assertEquals(3, in.read(buffer = new byte[5], 1, 4));
+		assertEquals(expected[3], buffer[1]);
+		assertEquals(expected[5], buffer[3]);
+		assertEquals(-1, in.read(buffer, 0, 1));
+	}
+
+	@Test
+	public void read_ZeroLength_ShouldReturnZero() {
+		assertEquals(0, new Utf8StringInputStream("abc").read(new byte[1], 0, 0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void read_InvalidRange_ShouldThrowIoobe() {
+		new Utf8StringInputStream("abc").read(new byte[1], 0, 2);
+	}
+
+	@Test
+	public void available_ShouldReturnLowerBound() throws IOException {
+		InputStream in = new Utf8StringInputStream("a\u20ac");
+		assertEquals(2, in.available());
+		in.read();
+		assertEquals(1, in.available());
+		in.read();
+		assertEquals(2, in.available());
+		in.read(new byte[2], 0, 2);
+		assertEquals(0, in.available());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullValueGiven_ShouldThrowNpe() {
+		new Utf8StringInputStream(null);
+	}
+
+	private static byte[] readFully(InputStream in, int bufferSize) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[bufferSize];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+public class HistogramRequestMetricsListenerTest {
+
+	private final HistogramRequestMetricsListener listener = new HistogramRequestMetricsListener();
+
+	@Test
+	public void onRequestCompleted_ShouldTagByMethodAndTemplate() {
+		listener.onRequestCompleted(createMetrics("GET", "/articles/{id}", false));
+		listener.onRequestCompleted(createMetrics("GET", "/articles/{id}", true));
+		listener.onRequestCompleted(createMetrics("PUT", "/articles/{id}", false));
+		listener.onRequestCompleted(createMetrics("GET", null, false));
+		assertEquals(3, listener.getStatistics().size());
+		assertEquals(2, listener.getStatistics("GET /articles/{id}").getDurationNanos().getTotalCount());
+		assertEquals(1, listener.getStatistics("GET /articles/{id}").getFailureCount());
+		assertEquals(1, listener.getStatistics("PUT /articles/{id}").getDurationNanos().getTotalCount());
+		assertEquals(0, listener.getStatistics("PUT /articles/{id}").getFailureCount());
+		assertEquals(1, listener.getStatistics("<unmatched>").getDurationNanos().getTotalCount());
+	}
+
+	@Test
+	public void onRequestCompleted_UnmatchedRequestsGiven_ShouldCollapseMethods() {
+		listener.onRequestCompleted(createMetrics("GET", null, false));
+		listener.onRequestCompleted(createMetrics("FOO", null, false));
+		listener.onRequestCompleted(createMetrics("BAR", null, false));
+		assertEquals(ImmutableSet.of("<unmatched>"), listener.getStatistics().keySet());
+		assertEquals(3, listener.getStatistics("<unmatched>").getDurationNanos().getTotalCount());
+	}
+
+	@Test
+	public void onRequestCompleted_UnknownMethodsGiven_ShouldCollapseThem() {
+		listener.onRequestCompleted(createMetrics("FOO", "/articles", false));
+		listener.onRequestCompleted(createMetrics("BAR", "/articles", false));
+		assertEquals(ImmutableSet.of("<other> /articles"), listener.getStatistics().keySet());
+		assertEquals(2, listener.getStatistics("<other> /articles").getDurationNanos().getTotalCount());
+	}
+
+	@Test
+	public void onRequestCompleted_MaxEndpointsReached_ShouldAggregateNewEndpointsAsOverflow() {
+		HistogramRequestMetricsListener cappedListener = new HistogramRequestMetricsListener(2);
+		cappedListener.onRequestCompleted(createMetrics("GET", "/a", false));
+		cappedListener.onRequestCompleted(createMetrics("GET", "/b", false));
+		cappedListener.onRequestCompleted(createMetrics("GET", "/c", false));
+		cappedListener.onRequestCompleted(createMetrics("GET", "/d", false));
+		cappedListener.onRequestCompleted(createMetrics("GET", "/a", false));
+		assertEquals(ImmutableSet.of("GET /a", "GET /b", "<overflow>"), cappedListener.getStatistics().keySet());
+		assertEquals(2, cappedListener.getStatistics("GET /a").getDurationNanos().getTotalCount());
+		assertEquals(2, cappedListener.getStatistics("<overflow>").getDurationNanos().getTotalCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NonPositiveMaxEndpointsGiven_ShouldThrowIae() {
+		new HistogramRequestMetricsListener(0);
+	}
+
+	@Test
+	public void onRequestCompleted_PhasesGiven_ShouldTrackMeanPhaseDuration() {
+		RequestMetrics metrics = createMetrics("GET", "/", false);
+		listener.onRequestCompleted(metrics);
+		HistogramRequestMetricsListener.EndpointStatistics statistics = listener.getStatistics("GET /");
+		assertEquals(metrics.getPhaseDurationNanos(RequestPhase.DISPATCH),
+				statistics.getMeanPhaseDurationNanos(RequestPhase.DISPATCH), 0);
+		assertEquals(0, statistics.getMeanPhaseDurationNanos(RequestPhase.COMMIT), 0);
+	}
+
+	@Test
+	public void reset_ShouldRemoveAllStatistics() {
+		listener.onRequestCompleted(createMetrics("GET", "/", false));
+		listener.reset();
+		assertNull(listener.getStatistics("GET /"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getStatistics_ShouldBeReadOnly() {
+		listener.getStatistics().clear();
+	}
+
+	private static RequestMetrics createMetrics(String httpMethod, String resourceTemplate, boolean failed) {
+		RequestMetrics metrics = new RequestMetrics();
+		metrics.setHttpMethod(httpMethod);
+		metrics.setResourceTemplate(resourceTemplate);
+		metrics.setFailed(failed);
+		metrics.completePhase(RequestPhase.DISPATCH, metrics.getStartNanos());
+		metrics.complete();
+		return metrics;
+	}
+}
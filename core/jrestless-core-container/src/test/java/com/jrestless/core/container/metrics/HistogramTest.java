@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+	@Test
+	public void emptyHistogram_ShouldReturnZeros() {
+		Histogram histogram = new Histogram();
+		assertEquals(0, histogram.getTotalCount());
+		assertEquals(0, histogram.getMin());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getMean(), 0);
+		assertEquals(0, histogram.getValueAtPercentile(99));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void record_NegativeValueGiven_ShouldThrowIae() {
+		new Histogram().record(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getValueAtPercentile_InvalidPercentileGiven_ShouldThrowIae() {
+		new Histogram().getValueAtPercentile(100.1);
+	}
+
+	@Test
+	public void record_SmallValuesGiven_ShouldCountExactly() {
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i);
+		}
+		assertEquals(100, histogram.getTotalCount());
+		assertEquals(1, histogram.getMin());
+		assertEquals(100, histogram.getMax());
+		assertEquals(50.5, histogram.getMean(), 0);
+		assertEquals(1, histogram.getValueAtPercentile(0));
+		assertEquals(50, histogram.getValueAtPercentile(50));
+		assertEquals(99, histogram.getValueAtPercentile(99));
+		assertEquals(100, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void record_LargeValuesGiven_ShouldKeepRelativeErrorSmall() {
+		Histogram histogram = new Histogram();
+		Random random = new Random(42);
+		long[] values = new long[10_000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) (Math.abs(random.nextGaussian()) * 50_000_000L);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+		for (double percentile : new double[] {50, 90, 99, 99.9 }) {
+			long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+			long actual = histogram.getValueAtPercentile(percentile);
+			assertTrue(percentile + ": " + expected + " vs " + actual,
+					actual >= expected && actual - expected <= expected / 64);
+		}
+		assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void record_MaxValueGiven_ShouldBeRecorded() {
+		Histogram histogram = new Histogram();
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void indexOf_ShouldBeMonotonicAndMatchHighestEquivalentValue() {
+		int previousIndex = -1;
+		for (int bit = 0; bit < Long.SIZE - 1; bit++) {
+			long[] values = {1L << bit, (1L << bit) + (1L << bit >> 1), (1L << (bit + 1)) - 1 };
+			for (long value : values) {
+				int index = Histogram.indexOf(value);
+				assertTrue(index >= previousIndex);
+				assertTrue(Histogram.highestEquivalentValue(index) >= value);
+				if (index > 0) {
+					assertTrue(Histogram.highestEquivalentValue(index - 1) < value);
+				}
+				previousIndex = index;
+			}
+		}
+		assertEquals(Long.MAX_VALUE, Histogram.highestEquivalentValue(Histogram.indexOf(Long.MAX_VALUE)));
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Response.StatusType;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.JRestlessHandlerContainerIntTest.TestRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+
+public class RequestMetricsIntTest {
+
+	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+	private RecordingListener listener;
+
+	@Before
+	public void setup() {
+		container = new JRestlessHandlerContainer<>(
+				new ResourceConfig(ArticleResource.class, RootResource.class));
+		container.onStartup();
+		listener = new RecordingListener();
+		container.setRequestMetricsListener(listener);
+	}
+
+	@Test
+	public void handleRequest_NoListenerGiven_ShouldNotRecordMetrics() {
+		container.setRequestMetricsListener(null);
+		handle("/articles/1");
+		assertTrue(listener.completed.isEmpty());
+	}
+
+	@Test
+	public void handleRequest_ListenerGiven_ShouldRecordAllPhases() {
+		handle("/articles/1");
+		assertEquals(1, listener.completed.size());
+		RequestMetrics metrics = listener.completed.get(0);
+		assertEquals("GET", metrics.getHttpMethod());
+		assertEquals(200, metrics.getStatus());
+		assertFalse(metrics.isFailed());
+		assertTrue(metrics.getDurationNanos() >= metrics.getPhaseDurationNanos(RequestPhase.DISPATCH));
+		for (RequestPhase phase : RequestPhase.values()) {
+			assertTrue(phase.name(), metrics.getPhaseDurationNanos(phase) >= 0);
+		}
+		assertTrue(metrics.getPhaseDurationNanos(RequestPhase.DISPATCH)
+				>= metrics.getPhaseDurationNanos(RequestPhase.COMMIT));
+		assertEquals(1, listener.started);
+		assertEquals(RequestPhase.values().length, listener.phases.size());
+		assertEquals(RequestPhase.CONTAINER_REQUEST_CREATION, listener.phases.get(0));
+		assertEquals(RequestPhase.DISPATCH, listener.phases.get(listener.phases.size() - 1));
+	}
+
+	@Test
+	public void handleRequest_ListenerGiven_ShouldRecordAllocatedBytesIfSupported() {
+		handle("/articles/1");
+		long allocatedBytes = listener.completed.get(0).getAllocatedBytes();
+		if (ThreadAllocation.isSupported()) {
+			assertTrue(allocatedBytes > 0);
+		} else {
+			assertEquals(RequestMetrics.NOT_AVAILABLE, allocatedBytes);
+		}
+	}
+
+	@Test
+	public void handleRequest_ResourceMethodGiven_ShouldRecordResourceTemplate() {
+		handle("/articles/1");
+		handle("/articles/1/comments/2");
+		handle("/articles");
+		handle("/");
+		assertEquals("/articles/{id}", listener.completed.get(0).getResourceTemplate());
+		assertEquals("/articles/{id}/comments/{commentId}", listener.completed.get(1).getResourceTemplate());
+		assertEquals("/articles", listener.completed.get(2).getResourceTemplate());
+		assertEquals("/", listener.completed.get(3).getResourceTemplate());
+	}
+
+	@Test
+	public void handleRequest_RegexTemplateGiven_ShouldRecordTemplateAsDeclared() {
+		handle("/articles/1/revisions/2");
+		assertEquals("/articles/{id}/revisions/{revision: [0-9]+}", listener.completed.get(0).getResourceTemplate());
+	}
+
+	@Test
+	public void handleRequest_NonMatchingRequestGiven_ShouldRecordNoResourceTemplate() {
+		handle("/unknown");
+		RequestMetrics metrics = listener.completed.get(0);
+		assertNull(metrics.getResourceTemplate());
+		assertEquals(404, metrics.getStatus());
+	}
+
+	@Test
+	public void handleRequest_FailingResponseWriterGiven_ShouldRecordFailure() {
+		JRestlessResponseWriter responseWriter = new ResponseWriter() {
+			@Override
+			public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+					OutputStream entityOutputStream) throws IOException {
+				throw new IOException("failed");
+			}
+		};
+		try {
+			container.handleRequest(new TestRequest("/articles/1", "GET"), responseWriter,
+					mock(SecurityContext.class));
+		} catch (RuntimeException e) {
+			// expected
+		}
+		assertEquals(1, listener.completed.size());
+		assertTrue(listener.completed.get(0).isFailed());
+	}
+
+	@Test
+	public void handleRequest_HistogramListenerGiven_ShouldAggregatePerEndpoint() {
+		HistogramRequestMetricsListener histogramListener = new HistogramRequestMetricsListener();
+		container.setRequestMetricsListener(histogramListener);
+		handle("/articles/1");
+		handle("/articles/2");
+		handle("/articles");
+		assertEquals(2, histogramListener.getStatistics("GET /articles/{id}").getDurationNanos().getTotalCount());
+		assertEquals(1, histogramListener.getStatistics("GET /articles").getDurationNanos().getTotalCount());
+	}
+
+	private void handle(String path) {
+		container.handleRequest(new TestRequest(path, "GET"), new ResponseWriter(), mock(SecurityContext.class));
+	}
+
+	private static class ResponseWriter implements JRestlessResponseWriter {
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return new ByteArrayOutputStream();
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) throws IOException {
+		}
+	}
+
+	private static class RecordingListener implements RequestMetricsListener {
+		private int started;
+		private final List<RequestPhase> phases = new ArrayList<>();
+		private final List<RequestMetrics> completed = new ArrayList<>();
+
+		@Override
+		public void onRequestStart(RequestMetrics metrics) {
+			started++;
+		}
+
+		@Override
+		public void onPhaseCompleted(RequestMetrics metrics, RequestPhase phase) {
+			phases.add(phase);
+		}
+
+		@Override
+		public void onRequestCompleted(RequestMetrics metrics) {
+			completed.add(metrics);
+		}
+	}
+
+	@Path("/")
+	public static class RootResource {
+		@GET
+		public String get() {
+			return "root";
+		}
+	}
+
+	@Path("articles")
+	public static class ArticleResource {
+		@GET
+		public String getArticles() {
+			return "articles";
+		}
+
+		@GET
+		@Path("{id}")
+		public String getArticle(@PathParam("id") String id) {
+			return id;
+		}
+
+		@GET
+		@Path("{id}/revisions/{revision: [0-9]+}")
+		public String getRevision(@PathParam("revision") String revision) {
+			return revision;
+		}
+
+		@Path("{id}/comments")
+		public CommentResource getComments() {
+			return new CommentResource();
+		}
+	}
+
+	public static class CommentResource {
+		@GET
+		@Path("/{commentId}")
+		public String getComment(@PathParam("commentId") String commentId) {
+			return commentId;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.jrestless.core.util;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ExpandedHeaderMapTest {
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullHeadersGiven_ShouldThrowNpe() {
+		new ExpandedHeaderMap(null);
+	}
+
+	@Test
+	public void get_HeaderGiven_ShouldReturnSingletonList() {
+		Map<String, List<String>> headers = new ExpandedHeaderMap(ImmutableMap.of("a_k", "a_v0,a_v1"));
+		assertEquals(singletonList("a_v0,a_v1"), headers.get("a_k"));
+		assertNull(headers.get("b_k"));
+		assertNull(headers.get(null));
+		assertTrue(headers.containsKey("a_k"));
+		assertFalse(headers.containsKey("b_k"));
+	}
+
+	@Test
+	public void view_NullKeysAndValuesGiven_ShouldHideThem() {
+		Map<String, String> flatHeaders = new HashMap<>();
+		flatHeaders.put("a_k", "a_v");
+		flatHeaders.put(null, "b_v");
+		flatHeaders.put("c_k", null);
+		flatHeaders.put("d_k", "d_v");
+		Map<String, List<String>> headers = new ExpandedHeaderMap(flatHeaders);
+		assertEquals(2, headers.size());
+		assertFalse(headers.containsKey(null));
+		assertFalse(headers.containsKey("c_k"));
+		assertNull(headers.get("c_k"));
+		assertEquals(ImmutableMap.of("a_k", singletonList("a_v"), "d_k", singletonList("d_v")), headers);
+		assertEquals(headers, ImmutableMap.of("a_k", singletonList("a_v"), "d_k", singletonList("d_v")));
+		assertEquals(ImmutableMap.of("a_k", singletonList("a_v"), "d_k", singletonList("d_v")).hashCode(),
+				headers.hashCode());
+	}
+
+	@Test
+	public void view_ShouldMatchExpandHeaders() {
+		Map<String, String> flatHeaders = new HashMap<>();
+		flatHeaders.put("a_k", "a_v");
+		flatHeaders.put(null, "b_v");
+		flatHeaders.put("c_k", null);
+		assertEquals(HeaderUtils.expandHeaders(flatHeaders), new ExpandedHeaderMap(flatHeaders));
+	}
+
+	@Test
+	public void view_NoHeadersGiven_ShouldBeEmpty() {
+		Map<String, String> flatHeaders = new HashMap<>();
+		flatHeaders.put(null, null);
+		Map<String, List<String>> headers = new ExpandedHeaderMap(flatHeaders);
+		assertTrue(headers.isEmpty());
+		assertFalse(headers.entrySet().iterator().hasNext());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void iterator_NoMoreHeadersGiven_ShouldThrowNsee() {
+		Iterator<Map.Entry<String, List<String>>> iterator = new ExpandedHeaderMap(ImmutableMap.of("k", "v"))
+				.entrySet().iterator();
+		iterator.next();
+		iterator.next();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void put_AnyGiven_ShouldThrowUoe() {
+		new ExpandedHeaderMap(new HashMap<>()).put("k", new ArrayList<>());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void remove_AnyGiven_ShouldThrowUoe() {
+		new ExpandedHeaderMap(new HashMap<>(ImmutableMap.of("k", "v"))).remove("k");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void entrySetClear_AnyGiven_ShouldThrowUoe() {
+		new ExpandedHeaderMap(new HashMap<>(ImmutableMap.of("k", "v"))).entrySet().clear();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void get_AnyGiven_ShouldReturnImmutableList() {
+		new ExpandedHeaderMap(ImmutableMap.of("k", "v0")).get("k").add("v1");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void entry_AnyGiven_ShouldBeImmutable() {
+		new ExpandedHeaderMap(ImmutableMap.of("k", "v0")).entrySet().iterator().next().setValue(new ArrayList<>());
+	}
+}
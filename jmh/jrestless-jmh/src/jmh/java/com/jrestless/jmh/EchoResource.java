@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.jmh;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Resource the benchmarks send their requests to.
+ * <p>
+ * The entity is passed through as is, so that the measured time is spent in
+ * the container and not in some message body reader or writer.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@Path("/")
+public class EchoResource {
+
+	@POST
+	@Path("echo")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public String echoJson(String entity) {
+		return entity;
+	}
+
+	@POST
+	@Path("echo")
+	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
+	@Produces(MediaType.APPLICATION_OCTET_STREAM)
+	public byte[] echoBinary(byte[] entity) {
+		return entity;
+	}
+
+	@POST
+	@Path("{topic}/{subject}")
+	@Consumes(MediaType.APPLICATION_JSON)
+	public void consumeJson(String entity) {
+		// nothing to do
+	}
+}
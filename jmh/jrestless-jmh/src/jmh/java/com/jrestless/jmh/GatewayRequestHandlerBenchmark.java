@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import org.glassfish.jersey.message.GZipEncoder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.filter.EncodingFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.handler.GatewayRequestAndLambdaContext;
+import com.jrestless.aws.gateway.handler.GatewayRequestHandler;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+
+/**
+ * Measures {@link GatewayRequestHandler#delegateRequest(Object)
+ * GatewayRequestHandler#delegateRequest} from the API Gateway request POJO to
+ * the API Gateway response POJO.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GatewayRequestHandlerBenchmark {
+
+	@Param({"SMALL_JSON", "LARGE_JSON", "BINARY", "GZIP"})
+	private Payload payload;
+
+	private GatewayHandler handler;
+	private GatewayRequestAndLambdaContext request;
+
+	@Setup
+	public void setup() {
+		ResourceConfig config = new ResourceConfig();
+		config.register(GatewayFeature.class);
+		config.register(EncodingFilter.class);
+		config.register(GZipEncoder.class);
+		config.register(EchoResource.class);
+		handler = new GatewayHandler();
+		handler.init(config);
+		handler.start();
+
+		DefaultGatewayRequest gatewayRequest = new DefaultGatewayRequest();
+		gatewayRequest.setResource("/echo");
+		gatewayRequest.setPath("/echo");
+		gatewayRequest.setHttpMethod("POST");
+		Map<String, String> headers = new HashMap<>();
+		headers.put(HttpHeaders.CONTENT_TYPE, payload.getMediaType());
+		headers.put(HttpHeaders.ACCEPT, payload.getMediaType());
+		if (payload.isGzipped()) {
+			headers.put(HttpHeaders.CONTENT_ENCODING, "gzip");
+			headers.put(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		}
+		gatewayRequest.setHeaders(headers);
+		gatewayRequest.setBody(payload.getBody());
+		gatewayRequest.setIsBase64Encoded(payload.isBinary());
+		request = new GatewayRequestAndLambdaContext(gatewayRequest, null);
+	}
+
+	@Benchmark
+	public GatewayResponse delegateRequest() {
+		return handler.delegateRequest(request);
+	}
+
+	private static class GatewayHandler extends GatewayRequestHandler {
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.StatusType;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.security.AnonSecurityContext;
+
+/**
+ * Compares {@link JRestlessHandlerContainer} with plain Jersey, i.e. an
+ * {@link ApplicationHandler} invoked directly, for the same application and
+ * request.
+ * <p>
+ * The difference is the per-invocation overhead of the container itself.
+ * <p>
+ * The throughput benchmarks dispatch through the same container on one thread
+ * and on as many threads as there are cores ({@link Threads#MAX}). The
+ * throughput scales with the cores if the latter is about the former times
+ * the number of cores.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JRestlessHandlerContainerBenchmark {
+
+	private static final URI BASE_URI = URI.create("/");
+	private static final URI REQUEST_URI = URI.create("/echo");
+
+	@Param({"SMALL_JSON", "LARGE_JSON", "BINARY"})
+	private Payload payload;
+
+	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+	private ApplicationHandler applicationHandler;
+	private byte[] data;
+	private Map<String, List<String>> headers;
+
+	@Setup
+	public void setup() {
+		container = new JRestlessHandlerContainer<>(new ResourceConfig(EchoResource.class));
+		container.onStartup();
+		applicationHandler = new ApplicationHandler(new ResourceConfig(EchoResource.class));
+		data = payload.getData();
+		headers = new HashMap<>();
+		headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(payload.getMediaType()));
+		headers.put(HttpHeaders.ACCEPT, Collections.singletonList(payload.getMediaType()));
+	}
+
+	@Benchmark
+	public byte[] jrestlessHandlerContainer() {
+		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(BASE_URI, REQUEST_URI, "POST",
+				new ByteArrayInputStream(data), headers);
+		ResponseWriter responseWriter = new ResponseWriter();
+		container.handleRequest(request, responseWriter, new AnonSecurityContext());
+		return responseWriter.entityOutputStream.toByteArray();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Threads(1)
+	public byte[] jrestlessHandlerContainerThroughputSingleThread() {
+		return jrestlessHandlerContainer();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Threads(Threads.MAX)
+	public byte[] jrestlessHandlerContainerThroughputAllCores() {
+		return jrestlessHandlerContainer();
+	}
+
+	@Benchmark
+	public byte[] jerseyApplicationHandler() throws InterruptedException, ExecutionException {
+		ContainerRequest request = new ContainerRequest(BASE_URI, REQUEST_URI, "POST", new AnonSecurityContext(),
+				new MapPropertiesDelegate());
+		request.setEntityStream(new ByteArrayInputStream(data));
+		request.getHeaders().putAll(headers);
+		ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+		ContainerResponse response = applicationHandler.apply(request, entityOutputStream).get();
+		response.close();
+		return entityOutputStream.toByteArray();
+	}
+
+	private static class ResponseWriter implements JRestlessResponseWriter {
+		private final ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return entityOutputStream;
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) {
+			// the entity has been written already
+		}
+	}
+}
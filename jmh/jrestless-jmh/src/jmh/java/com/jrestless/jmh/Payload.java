@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Request payloads the benchmarks are parameterized with.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public enum Payload {
+	/**
+	 * A JSON object of roughly 100 bytes.
+	 */
+	SMALL_JSON(MediaType.APPLICATION_JSON, false, json(1)),
+	/**
+	 * A JSON array of roughly 80 kilobytes.
+	 */
+	LARGE_JSON(MediaType.APPLICATION_JSON, false, json(1000)),
+	/**
+	 * 64 kilobytes of random binary data.
+	 */
+	BINARY(MediaType.APPLICATION_OCTET_STREAM, false, random(64 * 1024)),
+	/**
+	 * {@link #LARGE_JSON} gzip compressed; the response gets compressed, as
+	 * well.
+	 */
+	GZIP(MediaType.APPLICATION_JSON, true, gzip(LARGE_JSON.getData()));
+
+	private final String mediaType;
+	private final boolean gzipped;
+	private final byte[] data;
+
+	Payload(String mediaType, boolean gzipped, byte[] data) {
+		this.mediaType = mediaType;
+		this.gzipped = gzipped;
+		this.data = data;
+	}
+
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	public boolean isGzipped() {
+		return gzipped;
+	}
+
+	/**
+	 * @return true if the payload cannot be represented as UTF-8 string.
+	 */
+	public boolean isBinary() {
+		return gzipped || this == BINARY;
+	}
+
+	public byte[] getData() {
+		return data.clone();
+	}
+
+	/**
+	 * @return the payload as string; binary payloads are base64 encoded
+	 */
+	public String getBody() {
+		if (isBinary()) {
+			return Base64.getEncoder().encodeToString(data);
+		}
+		return new String(data, StandardCharsets.UTF_8);
+	}
+
+	private static byte[] json(int elements) {
+		StringBuilder sb = new StringBuilder();
+		if (elements > 1) {
+			sb.append('[');
+		}
+		for (int i = 0; i < elements; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append("{\"id\":").append(i)
+				.append(",\"name\":\"name-").append(i)
+				.append("\",\"description\":\"some description \u00e4\u00f6\u00fc\",\"active\":true}");
+		}
+		if (elements > 1) {
+			sb.append(']');
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] random(int size) {
+		byte[] bytes = new byte[size];
+		new Random(0).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static byte[] gzip(byte[] data) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+			gzipOut.write(data);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return baos.toByteArray();
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.jmh;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.jrestless.aws.service.ServiceFeature;
+import com.jrestless.aws.service.handler.ServiceRequestAndLambdaContext;
+import com.jrestless.aws.service.handler.ServiceRequestHandler;
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * Measures {@link ServiceRequestHandler#delegateRequest(Object)
+ * ServiceRequestHandler#delegateRequest} from the service request POJO to the
+ * service response POJO.
+ * <p>
+ * Service requests and responses carry UTF-8 bodies, only. So there are no
+ * binary or gzip payloads.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceRequestHandlerBenchmark {
+
+	@Param({"SMALL_JSON", "LARGE_JSON"})
+	private Payload payload;
+
+	private ServiceHandler handler;
+	private ServiceRequestAndLambdaContext request;
+
+	@Setup
+	public void setup() {
+		ResourceConfig config = new ResourceConfig();
+		config.register(ServiceFeature.class);
+		config.register(EchoResource.class);
+		handler = new ServiceHandler();
+		handler.init(config);
+		handler.start();
+
+		Map<String, List<String>> headers = new HashMap<>();
+		headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(payload.getMediaType()));
+		headers.put(HttpHeaders.ACCEPT, Collections.singletonList(payload.getMediaType()));
+		DefaultServiceRequest serviceRequest = new DefaultServiceRequest(payload.getBody(), headers,
+				URI.create("/echo"), "POST");
+		request = new ServiceRequestAndLambdaContext(serviceRequest, null);
+	}
+
+	@Benchmark
+	public ServiceResponse delegateRequest() {
+		return handler.delegateRequest(request);
+	}
+
+	private static class ServiceHandler extends ServiceRequestHandler {
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNS;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
+import com.jrestless.aws.sns.SnsFeature;
+import com.jrestless.aws.sns.handler.SnsRecordAndLambdaContext;
+import com.jrestless.aws.sns.handler.SnsRequestHandler;
+
+/**
+ * Measures {@link SnsRequestHandler#delegateRequest(Object)
+ * SnsRequestHandler#delegateRequest} for a single SNS record.
+ * <p>
+ * SNS messages are UTF-8 strings, only. So there are no binary or gzip
+ * payloads.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnsRequestHandlerBenchmark {
+
+	@Param({"SMALL_JSON", "LARGE_JSON"})
+	private Payload payload;
+
+	private SnsHandler handler;
+	private SnsRecordAndLambdaContext request;
+
+	@Setup
+	public void setup() {
+		ResourceConfig config = new ResourceConfig();
+		config.register(SnsFeature.class);
+		config.register(EchoResource.class);
+		handler = new SnsHandler();
+		handler.init(config);
+		handler.start();
+
+		SNS sns = new SNS();
+		sns.setTopicArn("arn:aws:sns:eu-central-1:123456789012:topic");
+		sns.setSubject("subject");
+		sns.setMessage(payload.getBody());
+		SNSRecord snsRecord = new SNSRecord();
+		snsRecord.setSns(sns);
+		request = new SnsRecordAndLambdaContext(snsRecord, null);
+	}
+
+	@Benchmark
+	public Void delegateRequest() {
+		return handler.delegateRequest(request);
+	}
+
+	private static class SnsHandler extends SnsRequestHandler {
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.test.replay;
+
+import java.io.IOException;
+
+/**
+ * Decodes a recorded JSON document into an event.
+ *
+ * @author Bjoern Bilger
+ *
+ * @param <T>
+ *            the type of the event
+ */
+@FunctionalInterface
+public interface EventDecoder<T> {
+
+	/**
+	 * @param json
+	 *            a JSON document recorded by {@link EventRecorder}
+	 * @return the event
+	 * @throws IOException
+	 *             if the document cannot be decoded
+	 */
+	T decode(String json) throws IOException;
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.test.replay;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Records events (e.g. {@code GatewayRequest}, {@code ServiceRequest} or
+ * {@code SNSEvent} payloads) as newline delimited JSON (NDJSON), i.e. one JSON
+ * document per line, so that they can be replayed by {@link EventReplayer}.
+ * <p>
+ * Events are appended to the file. Either the event objects are serialized via
+ * Jackson ({@link #record(Object)}) or the raw JSON the function has been
+ * invoked with is recorded ({@link #recordJson(String)}). The latter is
+ * preferable if the event object's Jackson representation differs from the
+ * one the function receives.
+ * <p>
+ * The recorder is thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class EventRecorder implements Closeable {
+
+	private final ObjectMapper objectMapper;
+	private final Writer writer;
+
+	/**
+	 * Creates a recorder serializing events with a default {@link ObjectMapper}.
+	 *
+	 * @param file
+	 *            the file to append the events to; created if it doesn't exist
+	 * @throws IOException
+	 */
+	public EventRecorder(Path file) throws IOException {
+		this(file, new ObjectMapper());
+	}
+
+	/**
+	 * @param file
+	 *            the file to append the events to; created if it doesn't exist
+	 * @param objectMapper
+	 *            the mapper to serialize events with
+	 * @throws IOException
+	 */
+	public EventRecorder(Path file, ObjectMapper objectMapper) throws IOException {
+		requireNonNull(file, "file may not be null");
+		this.objectMapper = requireNonNull(objectMapper, "objectMapper may not be null");
+		this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Serializes the event and appends it.
+	 *
+	 * @param event
+	 * @throws IOException
+	 */
+	public void record(Object event) throws IOException {
+		requireNonNull(event, "event may not be null");
+		recordJson(objectMapper.writeValueAsString(event));
+	}
+
+	/**
+	 * Appends the given JSON document.
+	 * <p>
+	 * Line breaks can only occur as whitespace between tokens in a valid JSON
+	 * document - they must be escaped within strings - and are replaced by
+	 * spaces.
+	 *
+	 * @param json
+	 * @throws IOException
+	 */
+	public synchronized void recordJson(String json) throws IOException {
+		requireNonNull(json, "json may not be null");
+		writer.write(json.replace('\r', ' ').replace('\n', ' '));
+		writer.write('\n');
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.test.replay;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Replays recorded events against a handler from multiple threads and
+ * reports throughput, latency percentiles and allocation per invocation.
+ * <p>
+ * The handler is any consumer of the events, e.g.
+ * {@code request -> handler.delegateRequest(new GatewayRequestAndLambdaContext(request, context))}
+ * for a {@code GatewayRequestHandler}. It must be thread-safe if more than one
+ * thread is used. The events are shared across invocations, so the handler
+ * must not modify them.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * {@code
+ * List<ServiceRequest> events = EventReplayer.load(file, DefaultServiceRequest.class, new ObjectMapper());
+ * EventReplayer<ServiceRequest> replayer = new EventReplayer<>(events, this::invoke);
+ * replayer.replay(4, 10_000); // warm up
+ * ReplayReport report = replayer.replay(4, 100_000);
+ * }
+ * </pre>
+ *
+ * @author Bjoern Bilger
+ *
+ * @param <T>
+ *            the type of the events
+ */
+public final class EventReplayer<T> {
+
+	private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = resolveThreadMxBean();
+
+	private final List<T> events;
+	private final Consumer<? super T> handler;
+
+	/**
+	 * @param events
+	 *            the events to replay; may not be empty
+	 * @param handler
+	 *            the handler to invoke with each event
+	 */
+	public EventReplayer(List<? extends T> events, Consumer<? super T> handler) {
+		requireNonNull(events, "events may not be null");
+		if (events.isEmpty()) {
+			throw new IllegalArgumentException("events may not be empty");
+		}
+		this.events = Collections.unmodifiableList(new ArrayList<>(events));
+		this.handler = requireNonNull(handler, "handler may not be null");
+	}
+
+	/**
+	 * Loads the events recorded by {@link EventRecorder}. Blank lines are
+	 * skipped.
+	 *
+	 * @param file
+	 * @param decoder
+	 * @return the events in the order they have been recorded
+	 * @throws IOException
+	 */
+	public static <T> List<T> load(Path file, EventDecoder<? extends T> decoder) throws IOException {
+		requireNonNull(file, "file may not be null");
+		requireNonNull(decoder, "decoder may not be null");
+		List<T> events = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.trim().isEmpty()) {
+					events.add(decoder.decode(line));
+				}
+			}
+		}
+		return events;
+	}
+
+	/**
+	 * Loads the events recorded by {@link EventRecorder} using Jackson.
+	 *
+	 * @param file
+	 * @param type
+	 *            the type to de-serialize the events into
+	 * @param objectMapper
+	 * @return the events in the order they have been recorded
+	 * @throws IOException
+	 */
+	public static <T> List<T> load(Path file, Class<T> type, ObjectMapper objectMapper) throws IOException {
+		requireNonNull(type, "type may not be null");
+		requireNonNull(objectMapper, "objectMapper may not be null");
+		return load(file, json -> objectMapper.readValue(json, type));
+	}
+
+	/**
+	 * Invokes the handler the given number of times with the events - in the
+	 * order they have been recorded and starting over once all events have
+	 * been replayed - distributed evenly across the given number of threads.
+	 * <p>
+	 * Exceptions thrown by the handler are counted as failures.
+	 *
+	 * @param threads
+	 * @param invocations
+	 *            the total number of invocations
+	 * @return the report
+	 * @throws InterruptedException
+	 */
+	public ReplayReport replay(int threads, int invocations) throws InterruptedException {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("threads must be positive");
+		}
+		if (invocations <= 0) {
+			throw new IllegalArgumentException("invocations must be positive");
+		}
+		int threadCount = Math.min(threads, invocations);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Worker> workers = new ArrayList<>(threadCount);
+		for (int i = 0; i < threadCount; i++) {
+			Worker worker = new Worker(i, threadCount, invocations, start);
+			worker.thread.start();
+			workers.add(worker);
+		}
+		long startNanos = System.nanoTime();
+		start.countDown();
+		for (Worker worker : workers) {
+			worker.thread.join();
+		}
+		long durationNanos = System.nanoTime() - startNanos;
+
+		long[] latencies = new long[invocations];
+		int failures = 0;
+		long allocatedBytes = 0;
+		int offset = 0;
+		for (Worker worker : workers) {
+			System.arraycopy(worker.latencies, 0, latencies, offset, worker.latencies.length);
+			offset += worker.latencies.length;
+			failures += worker.failures;
+			if (allocatedBytes >= 0 && worker.allocatedBytes >= 0) {
+				allocatedBytes += worker.allocatedBytes;
+			} else {
+				allocatedBytes = ReplayReport.NOT_AVAILABLE;
+			}
+		}
+		return new ReplayReport(threadCount, failures, durationNanos, latencies, allocatedBytes);
+	}
+
+	/*
+	 * Worker i handles the invocations i, i + threads, i + 2 * threads, ...
+	 */
+	private final class Worker implements Runnable {
+		private final Thread thread;
+		private final int first;
+		private final int step;
+		private final long[] latencies;
+		private final CountDownLatch start;
+		private int failures;
+		private long allocatedBytes;
+
+		Worker(int index, int threads, int invocations, CountDownLatch start) {
+			this.first = index;
+			this.step = threads;
+			this.latencies = new long[(invocations - index + threads - 1) / threads];
+			this.start = start;
+			this.thread = new Thread(this, "jrestless-replay-" + index);
+		}
+
+		@Override
+		public void run() {
+			try {
+				start.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			long allocatedBefore = getCurrentThreadAllocatedBytes();
+			int eventIndex = first % events.size();
+			for (int i = 0; i < latencies.length; i++) {
+				T event = events.get(eventIndex);
+				long invocationStart = System.nanoTime();
+				try {
+					handler.accept(event);
+				} catch (RuntimeException e) {
+					failures++;
+				}
+				latencies[i] = System.nanoTime() - invocationStart;
+				eventIndex = (eventIndex + step) % events.size();
+			}
+			long allocatedAfter = getCurrentThreadAllocatedBytes();
+			allocatedBytes = allocatedBefore < 0 || allocatedAfter < 0
+					? ReplayReport.NOT_AVAILABLE : allocatedAfter - allocatedBefore;
+		}
+	}
+
+	private static long getCurrentThreadAllocatedBytes() {
+		if (THREAD_MX_BEAN == null) {
+			return ReplayReport.NOT_AVAILABLE;
+		}
+		return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static com.sun.management.ThreadMXBean resolveThreadMxBean() {
+		try {
+			java.lang.management.ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+			if (threadMxBean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean sunThreadMxBean = (com.sun.management.ThreadMXBean) threadMxBean;
+				if (sunThreadMxBean.isThreadAllocatedMemorySupported()
+						&& sunThreadMxBean.isThreadAllocatedMemoryEnabled()) {
+					return sunThreadMxBean;
+				}
+			}
+		} catch (LinkageError | RuntimeException e) {
+			// not supported
+		}
+		return null;
+	}
+}
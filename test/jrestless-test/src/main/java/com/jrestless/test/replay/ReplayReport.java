@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.test.replay;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of {@link EventReplayer#replay(int, int)}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ReplayReport {
+
+	/**
+	 * Value of {@link #getAllocatedBytesPerInvocation()} if the JVM cannot
+	 * measure the bytes allocated by a thread.
+	 */
+	public static final long NOT_AVAILABLE = -1;
+
+	private static final double MAX_PERCENTILE = 100.0;
+	private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+	private static final double NANOS_PER_MICRO = 1000.0;
+
+	private final int threads;
+	private final int failures;
+	private final long durationNanos;
+	private final long[] sortedLatencies;
+	private final long allocatedBytes;
+
+	ReplayReport(int threads, int failures, long durationNanos, long[] latencies, long allocatedBytes) {
+		this.threads = threads;
+		this.failures = failures;
+		this.durationNanos = durationNanos;
+		this.sortedLatencies = latencies.clone();
+		Arrays.sort(this.sortedLatencies);
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public int getInvocations() {
+		return sortedLatencies.length;
+	}
+
+	/**
+	 * @return the number of invocations the handler threw an exception for
+	 */
+	public int getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return the wall-clock duration of the replay
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * @return the invocations per second
+	 */
+	public double getThroughputPerSecond() {
+		return getInvocations() * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, durationNanos);
+	}
+
+	/**
+	 * Returns the latency at the given percentile using the nearest-rank
+	 * method.
+	 *
+	 * @param percentile
+	 *            0 &lt; percentile &lt;= 100
+	 * @return the latency
+	 */
+	public long getLatencyNanosAtPercentile(double percentile) {
+		if (percentile <= 0 || percentile > MAX_PERCENTILE) {
+			throw new IllegalArgumentException("percentile must be in (0, 100]");
+		}
+		int rank = (int) Math.ceil(percentile / MAX_PERCENTILE * sortedLatencies.length);
+		return sortedLatencies[Math.max(rank, 1) - 1];
+	}
+
+	public long getMaxLatencyNanos() {
+		return sortedLatencies[sortedLatencies.length - 1];
+	}
+
+	public double getMeanLatencyNanos() {
+		double sum = 0;
+		for (long latency : sortedLatencies) {
+			sum += latency;
+		}
+		return sum / sortedLatencies.length;
+	}
+
+	/**
+	 * @return the mean number of bytes allocated per invocation or
+	 *         {@value #NOT_AVAILABLE} if not supported
+	 */
+	public long getAllocatedBytesPerInvocation() {
+		return allocatedBytes < 0 ? NOT_AVAILABLE : allocatedBytes / sortedLatencies.length;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ENGLISH,
+				"invocations=%d, failures=%d, threads=%d, throughput=%.1f/s, latency[us]: mean=%.1f",
+				getInvocations(), failures, threads, getThroughputPerSecond(),
+				getMeanLatencyNanos() / NANOS_PER_MICRO));
+		for (double percentile : REPORTED_PERCENTILES) {
+			sb.append(String.format(Locale.ENGLISH, ", p%s=%d", formatPercentile(percentile),
+					toMicros(getLatencyNanosAtPercentile(percentile))));
+		}
+		sb.append(", max=").append(toMicros(getMaxLatencyNanos()));
+		sb.append(", allocated/invocation=").append(getAllocatedBytesPerInvocation()).append('B');
+		return sb.toString();
+	}
+
+	private static String formatPercentile(double percentile) {
+		return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+	}
+
+	private static long toMicros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+}
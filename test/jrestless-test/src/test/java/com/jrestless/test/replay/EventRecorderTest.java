@@ -0,0 +1,122 @@
+package com.jrestless.test.replay;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class EventRecorderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void record_EventsGiven_ShouldWriteOneLinePerEvent() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("events.jsonl");
+		try (EventRecorder recorder = new EventRecorder(file)) {
+			recorder.record(new Event("a", 1));
+			recorder.record(new Event("b", 2));
+		}
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertEquals(2, lines.size());
+		ObjectMapper mapper = new ObjectMapper();
+		assertEquals(new Event("a", 1), mapper.readValue(lines.get(0), Event.class));
+		assertEquals(new Event("b", 2), mapper.readValue(lines.get(1), Event.class));
+	}
+
+	@Test
+	public void recordJson_MultiLineJsonGiven_ShouldWriteSingleLine() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("events.jsonl");
+		try (EventRecorder recorder = new EventRecorder(file)) {
+			recorder.recordJson("{\n\"name\": \"a\",\r\n\"value\": 1\n}");
+		}
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertEquals(1, lines.size());
+		assertEquals(new Event("a", 1), new ObjectMapper().readValue(lines.get(0), Event.class));
+	}
+
+	@Test
+	public void record_ExistingFileGiven_ShouldAppend() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("events.jsonl");
+		try (EventRecorder recorder = new EventRecorder(file)) {
+			recorder.record(new Event("a", 1));
+		}
+		try (EventRecorder recorder = new EventRecorder(file)) {
+			recorder.record(new Event("b", 2));
+		}
+		List<Event> events = EventReplayer.load(file, Event.class, new ObjectMapper());
+		assertEquals(Arrays.asList(new Event("a", 1), new Event("b", 2)), events);
+	}
+
+	@Test
+	public void load_BlankLinesGiven_ShouldSkipThem() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("events.jsonl");
+		Files.write(file, Arrays.asList("", "{\"name\":\"a\",\"value\":1}", "  "), StandardCharsets.UTF_8);
+		assertEquals(Collections.singletonList(new Event("a", 1)),
+				EventReplayer.load(file, Event.class, new ObjectMapper()));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullFileGiven_ShouldThrowNpe() throws IOException {
+		new EventRecorder(null);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullObjectMapperGiven_ShouldThrowNpe() throws IOException {
+		new EventRecorder(folder.getRoot().toPath().resolve("events.jsonl"), null);
+	}
+
+	public static class Event {
+		private String name;
+		private int value;
+
+		public Event() {
+		}
+
+		Event(String name, int value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getValue() {
+			return value;
+		}
+
+		public void setValue(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Event)) {
+				return false;
+			}
+			Event otherEvent = (Event) other;
+			return name.equals(otherEvent.name) && value == otherEvent.value;
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode() * 31 + value;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.jrestless.test.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class EventReplayerTest {
+
+	@Test
+	public void replay_InvocationsGiven_ShouldInvokeHandlerThatOften() throws InterruptedException {
+		AtomicInteger invocations = new AtomicInteger();
+		EventReplayer<String> replayer = new EventReplayer<>(Arrays.asList("a", "b"), e -> invocations.incrementAndGet());
+		ReplayReport report = replayer.replay(3, 100);
+		assertEquals(100, invocations.get());
+		assertEquals(100, report.getInvocations());
+		assertEquals(3, report.getThreads());
+		assertEquals(0, report.getFailures());
+	}
+
+	@Test
+	public void replay_EventsGiven_ShouldReplayEventsRoundRobin() throws InterruptedException {
+		Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+		EventReplayer<String> replayer = new EventReplayer<>(Arrays.asList("a", "b", "c"),
+				e -> counts.computeIfAbsent(e, k -> new AtomicInteger()).incrementAndGet());
+		replayer.replay(2, 300);
+		assertEquals(100, counts.get("a").get());
+		assertEquals(100, counts.get("b").get());
+		assertEquals(100, counts.get("c").get());
+	}
+
+	@Test
+	public void replay_MoreThreadsThanInvocationsGiven_ShouldLimitThreads() throws InterruptedException {
+		EventReplayer<String> replayer = new EventReplayer<>(Collections.singletonList("a"), e -> { });
+		ReplayReport report = replayer.replay(8, 2);
+		assertEquals(2, report.getThreads());
+		assertEquals(2, report.getInvocations());
+	}
+
+	@Test
+	public void replay_FailingHandlerGiven_ShouldCountFailures() throws InterruptedException {
+		EventReplayer<String> replayer = new EventReplayer<>(Arrays.asList("ok", "fail"), e -> {
+			if ("fail".equals(e)) {
+				throw new IllegalStateException();
+			}
+		});
+		ReplayReport report = replayer.replay(1, 10);
+		assertEquals(5, report.getFailures());
+	}
+
+	@Test
+	public void replay_AllocatingHandlerGiven_ShouldReportAllocation() throws InterruptedException {
+		EventReplayer<String> replayer = new EventReplayer<>(Collections.singletonList("a"), e -> {
+			byte[] bytes = new byte[1024];
+			bytes[0] = 1;
+		});
+		ReplayReport report = replayer.replay(1, 1000);
+		long allocated = report.getAllocatedBytesPerInvocation();
+		assertTrue(allocated == ReplayReport.NOT_AVAILABLE || allocated >= 0);
+	}
+
+	@Test
+	public void replay_ShouldReportOrderedPercentiles() throws InterruptedException {
+		EventReplayer<String> replayer = new EventReplayer<>(Collections.singletonList("a"), e -> { });
+		ReplayReport report = replayer.replay(2, 1000);
+		assertTrue(report.getLatencyNanosAtPercentile(50) <= report.getLatencyNanosAtPercentile(99));
+		assertTrue(report.getLatencyNanosAtPercentile(99) <= report.getMaxLatencyNanos());
+		assertEquals(report.getMaxLatencyNanos(), report.getLatencyNanosAtPercentile(100));
+		assertTrue(report.getThroughputPerSecond() > 0);
+	}
+
+	@Test
+	public void getLatencyNanosAtPercentile_ShouldUseNearestRank() {
+		ReplayReport report = new ReplayReport(1, 0, 1, new long[] {5, 1, 4, 2, 3}, 10);
+		assertEquals(1, report.getLatencyNanosAtPercentile(1));
+		assertEquals(3, report.getLatencyNanosAtPercentile(50));
+		assertEquals(4, report.getLatencyNanosAtPercentile(80));
+		assertEquals(5, report.getLatencyNanosAtPercentile(81));
+		assertEquals(3.0, report.getMeanLatencyNanos(), 0.0);
+		assertEquals(2, report.getAllocatedBytesPerInvocation());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getLatencyNanosAtPercentile_ZeroGiven_ShouldThrowIae() {
+		new ReplayReport(1, 0, 1, new long[] {1}, 0).getLatencyNanosAtPercentile(0);
+	}
+
+	@Test
+	public void toString_ShouldContainPercentiles() {
+		String report = new ReplayReport(1, 0, 1, new long[] {1}, ReplayReport.NOT_AVAILABLE).toString();
+		assertTrue(report, report.contains("p50=") && report.contains("p99.9=") && report.contains("=-1B"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_EmptyEventsGiven_ShouldThrowIae() {
+		new EventReplayer<>(Collections.emptyList(), e -> { });
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullHandlerGiven_ShouldThrowNpe() {
+		new EventReplayer<>(Collections.singletonList("a"), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void replay_ZeroThreadsGiven_ShouldThrowIae() throws InterruptedException {
+		new EventReplayer<>(Collections.singletonList("a"), e -> { }).replay(0, 1);
+	}
+}